@@ -0,0 +1,197 @@
+package trainapp.dao;
+
+import trainapp.model.*;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Deterministic in-memory data set and DAO stubs for the benchmarks.
+ *
+ * <p>Each stub overrides only the lookups the benchmarked code performs and answers
+ * from plain maps, so no benchmark ever opens a database connection.
+ */
+public final class SyntheticData {
+
+    public static final int STATION_COUNT = 8000;
+    public static final int TRAIN_COUNT = 50;
+    public static final int STOPS_PER_TRAIN = 12;
+
+    private static final String[] STATES = {
+            "Maharashtra", "Gujarat", "Karnataka", "Tamil Nadu", "Delhi", "Uttar Pradesh", "West Bengal", "Rajasthan"
+    };
+
+    private final Map<Integer, Station> stations = new LinkedHashMap<>();
+    private final Map<Integer, Train> trains = new HashMap<>();
+    private final Map<Integer, List<TrainSchedule>> schedules = new HashMap<>();
+    private final Map<Integer, User> users = new HashMap<>();
+    private final Map<Long, List<Passenger>> passengers = new HashMap<>();
+
+    public SyntheticData() {
+        Random random = new Random(42);
+
+        for (int id = 1; id <= STATION_COUNT; id++) {
+            String state = STATES[id % STATES.length];
+            stations.put(id, new Station(id, String.format("S%03d", id), "Station " + id + " Junction",
+                    "City " + (id % 120), state));
+        }
+
+        for (int id = 1; id <= TRAIN_COUNT; id++) {
+            List<TrainSchedule> stops = new ArrayList<>();
+            LocalTime time = LocalTime.of(6, 0);
+            int day = 1;
+            for (int seq = 1; seq <= STOPS_PER_TRAIN; seq++) {
+                int stationId = 1 + random.nextInt(STATION_COUNT);
+                LocalTime arrival = time;
+                LocalTime departure = time.plusMinutes(5);
+                stops.add(new TrainSchedule(id * 100 + seq, id, stationId, arrival, departure, day, seq));
+                LocalTime next = departure.plusMinutes(45 + random.nextInt(90));
+                if (next.isBefore(departure)) day++;
+                time = next;
+            }
+            schedules.put(id, stops);
+            trains.put(id, new Train(id, String.valueOf(12000 + id), "Express " + id,
+                    stops.get(0).getStationId(), stops.get(stops.size() - 1).getStationId(), 18));
+        }
+
+        User user = new User("Benchmark User", "bench@example.com", "9999999999");
+        user.setUserId(1);
+        users.put(1, user);
+    }
+
+    public List<Station> stations() {
+        return new ArrayList<>(stations.values());
+    }
+
+    public Train train(int trainId) {
+        return trains.get(trainId);
+    }
+
+    public List<TrainSchedule> schedule(int trainId) {
+        return schedules.get(trainId);
+    }
+
+    public String stationName(int stationId) {
+        return stations.get(stationId).getName();
+    }
+
+    /**
+     * Creates a confirmed booking on the given train with the given number of passengers.
+     */
+    public Booking booking(long bookingId, int trainId, int passengerCount) {
+        List<TrainSchedule> stops = schedules.get(trainId);
+        Booking booking = new Booking();
+        booking.setBookingId(bookingId);
+        booking.setUserId(1);
+        booking.setTrainId(trainId);
+        booking.setSourceStationId(stops.get(0).getStationId());
+        booking.setDestStationId(stops.get(stops.size() - 1).getStationId());
+        booking.setBookingTime(LocalDateTime.of(2025, 1, 15, 10, 30));
+        booking.setTotalFare(1845.0 * passengerCount);
+        booking.setStatus("confirmed");
+        booking.setPnr("PNR" + (1000000 + bookingId));
+
+        List<Passenger> list = new ArrayList<>();
+        for (int i = 1; i <= passengerCount; i++) {
+            list.add(new Passenger(bookingId, "Passenger " + i, 20 + i, i % 2 == 0 ? "Female" : "Male",
+                    "B1-" + (10 + i), "3A"));
+        }
+        passengers.put(bookingId, list);
+        return booking;
+    }
+
+    // -------------------------------------------------------------------------
+    // DAO Stubs
+    // -------------------------------------------------------------------------
+
+    public TrainDAO trainDAO() {
+        return new TrainDAO() {
+            @Override
+            public Train getTrainById(int trainId) {
+                return trains.get(trainId);
+            }
+
+            @Override
+            public List<TrainSchedule> getTrainSchedule(int trainId) {
+                List<TrainSchedule> stops = schedules.get(trainId);
+                return stops != null ? new ArrayList<>(stops) : new ArrayList<>();
+            }
+        };
+    }
+
+    public StationDAO stationDAO() {
+        return new StationDAO() {
+            @Override
+            public Station getStationById(int stationId) {
+                return stations.get(stationId);
+            }
+
+            @Override
+            public List<Station> getAllStations() {
+                return stations();
+            }
+        };
+    }
+
+    public UserDAO userDAO() {
+        return new UserDAO() {
+            @Override
+            public User getUserById(int userId) {
+                return users.get(userId);
+            }
+        };
+    }
+
+    public PassengerDAO passengerDAO() {
+        return new PassengerDAO() {
+            @Override
+            public List<Passenger> getPassengersByBookingId(long bookingId) {
+                return passengers.getOrDefault(bookingId, List.of());
+            }
+        };
+    }
+
+    public JourneyDAO journeyDAO() {
+        return new JourneyDAO();
+    }
+
+    /**
+     * Booking DAO whose listing cursor streams {@code rows} generated bookings, newest first,
+     * creating each row as the consumer asks for it like a streaming result set.
+     */
+    public BookingDAO bookingDAO(long rows) {
+        return new BookingDAO() {
+            @Override
+            public long streamBookings(BookingFilter filter, Predicate<Booking> consumer) {
+                LocalDateTime latest = LocalDateTime.of(2025, 6, 30, 23, 59);
+                for (long id = rows; id >= 1; id--) {
+                    Booking booking = new Booking();
+                    booking.setBookingId(id);
+                    booking.setUserId((int) (id % 5000) + 1);
+                    booking.setJourneyId(id / 40 + 1);
+                    booking.setTrainId((int) (id % TRAIN_COUNT) + 1);
+                    booking.setSourceStationId((int) (id % STATION_COUNT) + 1);
+                    booking.setDestStationId((int) ((id * 7) % STATION_COUNT) + 1);
+                    booking.setBookingTime(latest.minusSeconds(rows - id));
+                    booking.setTotalFare(245.5 + (id % 97) * 35);
+                    booking.setStatus(id % 10 == 0 ? "cancelled" : id % 4 == 0 ? "waiting" : "conformed");
+                    booking.setPnr("PNR" + (1000000 + id));
+                    // Every 16th name needs CSV quoting
+                    booking.setUserName(id % 16 == 0 ? "Rao, Priya" : "User " + (id % 5000));
+                    booking.setTrainNumber(String.valueOf(12000 + booking.getTrainId()));
+                    if (!consumer.test(booking)) {
+                        return rows - id + 1;
+                    }
+                }
+                return rows;
+            }
+
+            @Override
+            public List<StatusTotal> getStatusTotals(BookingFilter filter) {
+                return List.of(new StatusTotal("conformed", rows, 0));
+            }
+        };
+    }
+}
@@ -0,0 +1,31 @@
+package trainapp.model;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of the journey's available-seats JSON column.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JourneyBenchmark {
+
+    private Journey journey;
+
+    @Setup
+    public void setup() {
+        journey = new Journey(7, LocalDate.of(2025, 3, 1), "{\"SL\": 412, \"3A\": 128, \"2A\": 46, \"1A\": 18}");
+    }
+
+    @Benchmark
+    public Map<String, Integer> getAvailableSeatsMap() {
+        return journey.getAvailableSeatsMap();
+    }
+}
@@ -0,0 +1,74 @@
+package trainapp.service;
+
+import org.openjdk.jmh.annotations.*;
+import trainapp.service.BookingAnalytics.Dimension;
+import trainapp.service.BookingAnalytics.GroupTotals;
+import trainapp.service.BookingAnalytics.RouteTotal;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Report queries over a generated snapshot of ten million bookings: two years of bookings on
+ * 400 trains between 300 stations, in eight classes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+@State(Scope.Benchmark)
+public class BookingAnalyticsBenchmark {
+
+    private static final String[] STATUSES = {"conformed", "conformed", "conformed", "waiting", "cancelled"};
+    private static final String[] CLASSES = {"SL", "3A", "2A", "1A", "CC", "EC", "2S", "3E"};
+
+    @Param({"10000000"})
+    public int rows;
+
+    private BookingAnalytics analytics;
+    private LocalDate lastMonth;
+
+    @Setup
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(42);
+        int firstDay = (int) LocalDate.now().minusYears(2).toEpochDay();
+        BookingAnalytics.Builder builder = new BookingAnalytics.Builder();
+        for (int i = 0; i < rows; i++) {
+            int source = random.nextInt(300);
+            int dest = (source + 1 + random.nextInt(40)) % 300;
+            builder.add(STATUSES[random.nextInt(STATUSES.length)], 200 + random.nextInt(4000),
+                    firstDay + random.nextInt(730), random.nextInt(400), source, dest,
+                    CLASSES[random.nextInt(CLASSES.length)]);
+        }
+        analytics = builder.build();
+        lastMonth = LocalDate.now().minusMonths(1);
+    }
+
+    @Benchmark
+    public GroupTotals statusTotals() {
+        return analytics.groupBy(Dimension.STATUS, BookingAnalytics.ANY_STATUS, null, null);
+    }
+
+    @Benchmark
+    public GroupTotals revenueByClass() {
+        return analytics.groupBy(Dimension.CLASS, BookingAnalytics.CONFIRMED, null, null);
+    }
+
+    @Benchmark
+    public GroupTotals revenueByDay() {
+        return analytics.groupBy(Dimension.DAY, BookingAnalytics.CONFIRMED, null, null);
+    }
+
+    @Benchmark
+    public GroupTotals revenueByRouteLastMonth() {
+        return analytics.groupBy(Dimension.ROUTE, BookingAnalytics.CONFIRMED, lastMonth, null);
+    }
+
+    @Benchmark
+    public List<RouteTotal> topRoutes() {
+        return analytics.topRoutes(5, null, null);
+    }
+}
@@ -0,0 +1,83 @@
+package trainapp.service;
+
+import org.openjdk.jmh.annotations.*;
+import trainapp.dao.BookingDAO.BookingFilter;
+import trainapp.dao.SyntheticData;
+import trainapp.service.BookingExportService.Column;
+import trainapp.service.BookingExportService.ExportProgress;
+import trainapp.service.BookingExportService.ExportRequest;
+import trainapp.service.BookingExportService.ExportResult;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full CSV export of a generated booking table, one shot per iteration. Rows are created one
+ * at a time by a stub cursor, the way a streaming result set hands them out, so the measured
+ * cost is row mapping, CSV encoding, compression and the file write; the database's own
+ * share of a real export is not included.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgs = "-Xmx256m")
+@State(Scope.Benchmark)
+public class BookingExportBenchmark {
+
+    private static final ExportProgress NO_PROGRESS = new ExportProgress() {
+        @Override
+        public void rowsWritten(long rows) {
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+    };
+
+    @Param({"5000000"})
+    public long rows;
+
+    @Param({"false", "true"})
+    public boolean gzip;
+
+    private BookingExportService service;
+    private ExportRequest allColumns;
+    private ExportRequest financeColumns;
+    private Path target;
+
+    @Setup
+    public void setup() throws IOException {
+        SyntheticData data = new SyntheticData();
+        service = new BookingExportService(data.bookingDAO(rows), data.stationDAO());
+        allColumns = new ExportRequest(BookingFilter.ALL, List.of(Column.values()), gzip);
+        financeColumns = new ExportRequest(BookingFilter.ALL,
+                List.of(Column.PNR, Column.BOOKING_TIME, Column.STATUS, Column.TOTAL_FARE), gzip);
+        target = Files.createTempFile("bookings-export", gzip ? ".csv.gz" : ".csv");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(target);
+    }
+
+    @Benchmark
+    public ExportResult exportAllColumns() {
+        return service.export(allColumns, target, NO_PROGRESS);
+    }
+
+    @Benchmark
+    public ExportResult writeAllColumns() throws IOException {
+        return service.write(allColumns, OutputStream.nullOutputStream(), NO_PROGRESS);
+    }
+
+    @Benchmark
+    public ExportResult writeFinanceColumns() throws IOException {
+        return service.write(financeColumns, OutputStream.nullOutputStream(), NO_PROGRESS);
+    }
+}
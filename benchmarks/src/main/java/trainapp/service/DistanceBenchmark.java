@@ -0,0 +1,63 @@
+package trainapp.service;
+
+import org.openjdk.jmh.annotations.*;
+import trainapp.dao.SyntheticData;
+import trainapp.model.Train;
+import trainapp.model.TrainSchedule;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TrainService#getDistanceBetween} with a warm cache and with every cache cleared
+ * before each call, over stub DAOs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DistanceBenchmark {
+
+    private TrainService service;
+    private Train train;
+    private String fromStation;
+    private String toStation;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        SyntheticData data = new SyntheticData();
+        service = new TrainService(data.trainDAO(), data.journeyDAO(), data.stationDAO());
+        train = data.train(7);
+        List<TrainSchedule> stops = data.schedule(7);
+        fromStation = data.stationName(stops.get(2).getStationId());
+        toStation = data.stationName(stops.get(9).getStationId());
+        service.getDistanceBetween(train, fromStation, toStation);
+    }
+
+    @Benchmark
+    public int cacheHit() {
+        return service.getDistanceBetween(train, fromStation, toStation);
+    }
+
+    @Benchmark
+    public int cacheMiss(MissState state) {
+        return state.service.getDistanceBetween(train, fromStation, toStation);
+    }
+
+    @State(Scope.Thread)
+    public static class MissState {
+        TrainService service;
+
+        @Setup(Level.Trial)
+        public void setup(DistanceBenchmark benchmark) {
+            service = benchmark.service;
+        }
+
+        @Setup(Level.Invocation)
+        public void clear() {
+            service.clearCaches();
+        }
+    }
+}
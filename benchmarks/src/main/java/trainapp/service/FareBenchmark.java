@@ -0,0 +1,56 @@
+package trainapp.service;
+
+import org.openjdk.jmh.annotations.*;
+import trainapp.model.TrainClass;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fare calculation across every class and a spread of distances: the table lookup, the
+ * formula it was precomputed from, and pricing every class of a 50-train result page.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FareBenchmark {
+
+    @Param({"SL", "3A", "2A", "1A"})
+    public String classCode;
+
+    @Param({"120", "850", "2200"})
+    public double distanceKm;
+
+    private AdminDataStructureService service;
+    private FareEngine engine;
+    private TrainClass trainClass;
+    private int[] pageDistances;
+
+    @Setup
+    public void setup() {
+        service = new AdminDataStructureService();
+        engine = FareEngine.getInstance();
+        trainClass = TrainClass.fromString(classCode);
+        pageDistances = new int[50];
+        for (int i = 0; i < pageDistances.length; i++) {
+            pageDistances[i] = (int) distanceKm + i * 7;
+        }
+    }
+
+    @Benchmark
+    public double calculateDynamicFare() {
+        return service.calculateDynamicFare(trainClass, distanceKm);
+    }
+
+    @Benchmark
+    public double computeFare() {
+        return FareEngine.computeFare(trainClass, distanceKm, FareEngine.PEAK_MORNING);
+    }
+
+    @Benchmark
+    public double[][] pricePage() {
+        return engine.fares(pageDistances);
+    }
+}
@@ -0,0 +1,64 @@
+package trainapp.service;
+
+import org.openjdk.jmh.annotations.*;
+import trainapp.service.CoachLayout.BerthType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Berth allocation for a whole 24-coach sleeper train: groups of one to six passengers with
+ * random trips and random berth preferences are seated until the train is full.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SeatAllocatorBenchmark {
+
+    private static final int COACHES = 24;
+    private static final int LEGS = 12;
+    private static final int REQUESTS = 8_192;
+
+    private final int[] fromLegs = new int[REQUESTS];
+    private final int[] toLegs = new int[REQUESTS];
+    private final List<List<BerthType>> preferences = new ArrayList<>(REQUESTS);
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        BerthType[] types = BerthType.values();
+        for (int i = 0; i < REQUESTS; i++) {
+            fromLegs[i] = random.nextInt(LEGS);
+            toLegs[i] = fromLegs[i] + 1 + random.nextInt(LEGS - fromLegs[i]);
+            int groupSize = 1 + random.nextInt(6);
+            List<BerthType> group = new ArrayList<>(groupSize);
+            for (int p = 0; p < groupSize; p++) {
+                group.add(random.nextInt(3) == 0 ? types[random.nextInt(types.length)] : null);
+            }
+            preferences.add(group);
+        }
+    }
+
+    /**
+     * Seats every request in order on an empty train; returns the passengers seated.
+     */
+    @Benchmark
+    public int fillTrain() {
+        CoachLayout layout = CoachLayout.SL;
+        SegmentInventory inventory = new SegmentInventory(COACHES * layout.getBerthsPerCoach(), LEGS);
+        SeatAllocator allocator = new SeatAllocator(layout, inventory);
+        int seated = 0;
+        for (int i = 0; i < REQUESTS; i++) {
+            int[] seats = allocator.allocate(fromLegs[i], toLegs[i], preferences.get(i));
+            if (seats != null) {
+                seated += seats.length;
+            }
+        }
+        return seated;
+    }
+}
@@ -0,0 +1,73 @@
+package trainapp.service;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-leg seat counting for a full search page: every class of every train, each inventory
+ * filled to about 70% with trips of random length.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SegmentInventoryBenchmark {
+
+    private static final int CLASSES = 4;
+    private static final int SEATS_PER_CLASS = 600;
+    private static final int LEGS = 24;
+
+    @Param({"10", "50"})
+    public int trains;
+
+    private SegmentInventory[] inventories;
+    private int[] fromLegs;
+    private int[] toLegs;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        inventories = new SegmentInventory[trains * CLASSES];
+        fromLegs = new int[trains];
+        toLegs = new int[trains];
+        for (int i = 0; i < inventories.length; i++) {
+            SegmentInventory inventory = new SegmentInventory(SEATS_PER_CLASS, LEGS);
+            for (int trip = 0; trip < SEATS_PER_CLASS * 2; trip++) {
+                int from = random.nextInt(LEGS);
+                int to = from + 1 + random.nextInt(LEGS - from);
+                if (random.nextInt(100) < 70) {
+                    inventory.allocate(from, to);
+                }
+            }
+            inventories[i] = inventory;
+        }
+        for (int t = 0; t < trains; t++) {
+            fromLegs[t] = random.nextInt(LEGS / 2);
+            toLegs[t] = fromLegs[t] + 1 + random.nextInt(LEGS / 2);
+        }
+    }
+
+    @Benchmark
+    public int countSearchPage() {
+        int total = 0;
+        for (int i = 0; i < inventories.length; i++) {
+            int train = i / CLASSES;
+            total += inventories[i].countFree(fromLegs[train], toLegs[train]);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public int allocateAndRelease() {
+        SegmentInventory inventory = inventories[0];
+        int seat = inventory.allocate(fromLegs[0], toLegs[0]);
+        if (seat >= 0) {
+            inventory.release(seat, fromLegs[0], toLegs[0]);
+        }
+        return seat;
+    }
+}
@@ -0,0 +1,42 @@
+package trainapp.service;
+
+import org.openjdk.jmh.annotations.*;
+import trainapp.dao.SyntheticData;
+import trainapp.model.Station;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Station autocomplete lookups as run on every keystroke in the station combo boxes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StationSearchBenchmark {
+
+    @Param({"s", "station 4", "city 11", "s042", "nomatch"})
+    public String query;
+
+    private StationSearchIndex.Snapshot index;
+
+    @Setup
+    public void setup() {
+        List<Station> stations = new SyntheticData().stations();
+        Map<Integer, Integer> stopCounts = new HashMap<>();
+        for (Station station : stations) {
+            stopCounts.put(station.getStationId(), station.getStationId() % 37);
+        }
+        index = StationSearchIndex.build(stations, stopCounts);
+    }
+
+    @Benchmark
+    public List<Station> search() {
+        return index.search(query, StationSearchIndex.DEFAULT_LIMIT);
+    }
+}
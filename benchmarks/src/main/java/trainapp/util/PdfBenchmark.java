@@ -0,0 +1,57 @@
+package trainapp.util;
+
+import com.itextpdf.text.DocumentException;
+import org.openjdk.jmh.annotations.*;
+import trainapp.dao.SyntheticData;
+import trainapp.model.Booking;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ticket and invoice PDF throughput for a booking whose lookups are served by stub DAOs,
+ * reported in documents per minute. The stream variants measure bulk reissue, where
+ * documents go straight to their destination without an in-memory copy.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MINUTES)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PdfBenchmark {
+
+    @Param({"1", "6", "40"})
+    public int passengers;
+
+    private PDFGenerator generator;
+    private Booking booking;
+    private final OutputStream sink = OutputStream.nullOutputStream();
+
+    @Setup
+    public void setup() {
+        SyntheticData data = new SyntheticData();
+        booking = data.booking(1001L, 7, passengers);
+        generator = new PDFGenerator(data.passengerDAO(), data.userDAO(), data.trainDAO(), data.stationDAO());
+    }
+
+    @Benchmark
+    public byte[] generateTicketPDF() {
+        return generator.generateTicketPDF(booking);
+    }
+
+    @Benchmark
+    public byte[] generateInvoicePDF() {
+        return generator.generateInvoicePDF(booking);
+    }
+
+    @Benchmark
+    public void writeTicketPDF() throws DocumentException {
+        generator.writeTicketPDF(booking, sink);
+    }
+
+    @Benchmark
+    public void writeInvoicePDF() throws DocumentException {
+        generator.writeInvoicePDF(booking, sink);
+    }
+}
@@ -0,0 +1,32 @@
+package trainapp.util;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Clock;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PNR issue rate of one generator shared by all benchmark threads, as during a Tatkal burst
+ * where every booking thread draws from the same node.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PnrBenchmark {
+
+    private final PnrGenerator generator = new PnrGenerator(Clock.systemUTC(), 1);
+
+    @Benchmark
+    public String nextPnr() {
+        return generator.nextPnr();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String nextPnrContended() {
+        return generator.nextPnr();
+    }
+}
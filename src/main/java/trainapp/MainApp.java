@@ -2,6 +2,15 @@ package trainapp;
 
 import javafx.application.Application;
 import javafx.stage.Stage;
+import trainapp.service.ConfirmationPipeline;
+import trainapp.service.DashboardStatsService;
+import trainapp.service.EmailService;
+import trainapp.service.JourneyProvisioner;
+import trainapp.service.NotificationOutboxDispatcher;
+import trainapp.service.SeatHoldService;
+import trainapp.util.BackgroundExecutor;
+import trainapp.util.DBConnection;
+import trainapp.util.PnrGenerator;
 import trainapp.util.SceneManager;
 
 public class MainApp extends Application {
@@ -11,9 +20,25 @@ public class MainApp extends Application {
         primaryStage.setMaximized(true);
         SceneManager.switchScene("/fxml/MainMenu.fxml");
         primaryStage.show();
+        NotificationOutboxDispatcher.getInstance(); // Delivers confirmations left pending by a previous run
+        JourneyProvisioner.getInstance(); // Creates journeys for the booking window so searches stay read-only
+        DashboardStatsService.getInstance(); // Checkpoints this run's booking and user counts for the dashboard
+    }
+
+    @Override
+    public void stop() {
+        BackgroundExecutor.shutdown();
+        JourneyProvisioner.shutdown();
+        NotificationOutboxDispatcher.shutdown();
+        ConfirmationPipeline.shutdown();
+        EmailService.shutdown();
+        SeatHoldService.shutdown();
+        DashboardStatsService.shutdown();
+        PnrGenerator.shutdown();
+        DBConnection.shutdown();
     }
 
     public static void main(String[] args) {
         launch(args);
     }
-}
\ No newline at end of file
+}
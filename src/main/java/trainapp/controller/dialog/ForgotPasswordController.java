@@ -13,6 +13,7 @@ import javafx.stage.Modality;
 import javafx.stage.Stage;
 import javafx.util.Duration;
 import trainapp.service.PasswordResetService;
+import trainapp.util.BackgroundExecutor;
 
 import java.io.IOException;
 import java.util.Optional;
@@ -170,7 +171,7 @@ public class ForgotPasswordController {
             });
         });
 
-        new Thread(sendOtpTask).start();
+        BackgroundExecutor.submitDetached(sendOtpTask);
     }
 
     /**
@@ -267,7 +268,7 @@ public class ForgotPasswordController {
             });
         });
 
-        new Thread(resetTask).start();
+        BackgroundExecutor.submitDetached(resetTask);
     }
 
     // -------------------------------------------------------------------------
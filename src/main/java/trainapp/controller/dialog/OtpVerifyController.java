@@ -11,6 +11,7 @@ import javafx.scene.layout.HBox;
 import javafx.stage.Stage;
 import javafx.util.Duration;
 import trainapp.service.PasswordResetService;
+import trainapp.util.BackgroundExecutor;
 
 /**
  * OtpVerifyController manages secure OTP (One-Time Password) verification for password recovery.
@@ -217,7 +218,7 @@ public class OtpVerifyController {
             });
         });
 
-        new Thread(verifyTask).start();
+        BackgroundExecutor.submitDetached(verifyTask);
     }
 
     /**
@@ -263,7 +264,7 @@ public class OtpVerifyController {
             });
         });
 
-        new Thread(resendTask).start();
+        BackgroundExecutor.submitDetached(resendTask);
     }
 
     // -------------------------------------------------------------------------
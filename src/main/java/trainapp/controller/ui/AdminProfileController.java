@@ -22,6 +22,7 @@ import trainapp.service.AuthService;
 import trainapp.service.SessionManager;
 import trainapp.dao.TrainDAO;
 import trainapp.dao.StationDAO;
+import trainapp.util.BackgroundExecutor;
 import trainapp.util.SceneManager;
 
 import java.io.IOException;
@@ -278,7 +279,7 @@ public class AdminProfileController {
             revenueLabel.setText("₹0.00");
         }));
 
-        new Thread(statsTask).start();
+        BackgroundExecutor.submit(statsTask);
     }
 
     /**
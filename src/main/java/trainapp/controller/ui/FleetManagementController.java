@@ -14,11 +14,13 @@ import javafx.stage.Stage;
 import javafx.util.Duration;
 import javafx.util.StringConverter;
 import trainapp.dao.TrainDAO;
-import trainapp.dao.StationDAO;
 import trainapp.dao.TrainScheduleDAO;
 import trainapp.model.Train;
 import trainapp.model.TrainSchedule;
 import trainapp.model.Station;
+import trainapp.service.RouteIndex;
+import trainapp.service.StationSearchIndex;
+import trainapp.util.BackgroundExecutor;
 
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
@@ -142,9 +144,14 @@ public class FleetManagementController {
 
     // Data Access Objects for persistence layer interaction
     private TrainDAO trainDAO;
-    private StationDAO stationDAO;
     private TrainScheduleDAO scheduleDAO;
 
+    // Shared search index, refreshed after train and route edits
+    private final RouteIndex routeIndex = RouteIndex.getInstance();
+
+    // Shared station list and autocomplete index
+    private final StationSearchIndex stationSearchIndex = StationSearchIndex.getInstance();
+
     // UI Selection State Management
     private Train selectedTrain;                    // Currently selected train in train table
     private TrainSchedule selectedRoute;            // Currently selected route in route table
@@ -192,7 +199,6 @@ public class FleetManagementController {
     private void initializeDataAccessObjects() {
         try {
             trainDAO = new TrainDAO();
-            stationDAO = new StationDAO();
             scheduleDAO = new TrainScheduleDAO();
             System.out.println("Data Access Objects initialized successfully");
         } catch (Exception e) {
@@ -330,7 +336,7 @@ public class FleetManagementController {
             @Override
             protected Void call() throws Exception {
                 System.out.println("Loading initial data from database...");
-                List<Station> stations = stationDAO.getAllStations();
+                List<Station> stations = stationSearchIndex.getAllStations();
                 List<Train> trains = trainDAO.getAllTrains();
 
                 Platform.runLater(() -> {
@@ -356,7 +362,7 @@ public class FleetManagementController {
             showMessage("Failed to load application data", "error");
         });
 
-        new Thread(loadTask).start();
+        BackgroundExecutor.submit(loadTask);
     }
 
     /**
@@ -549,14 +555,8 @@ public class FleetManagementController {
                 if (newValue == null || newValue.isEmpty()) {
                     comboBox.setItems(allStations);
                 } else {
-                    String searchText = newValue.toLowerCase().trim();
-                    ObservableList<Station> filteredStations = FXCollections.observableArrayList();
-
-                    for (Station station : allStations) {
-                        if (matchesStationSearchCriteria(station, searchText)) {
-                            filteredStations.add(station);
-                        }
-                    }
+                    ObservableList<Station> filteredStations =
+                            FXCollections.observableArrayList(stationSearchIndex.search(newValue));
 
                     comboBox.setItems(filteredStations);
                     if (!filteredStations.isEmpty() && !comboBox.isShowing()) {
@@ -624,7 +624,7 @@ public class FleetManagementController {
             });
         });
 
-        new Thread(routeTask).start();
+        BackgroundExecutor.submit(routeTask);
     }
 
     // =========================================================================
@@ -649,26 +649,6 @@ public class FleetManagementController {
                 || (train.getName() != null && train.getName().toLowerCase().contains(search));
     }
 
-    /**
-     * Check if station matches search criteria based on name, code, city, and state.
-     * Used for real-time filtering in station combo boxes.
-     *
-     * @param station The station to check
-     * @param searchText The search text to match against
-     * @return true if station matches search criteria
-     */
-    private boolean matchesStationSearchCriteria(Station station, String searchText) {
-        if (station == null || searchText == null || searchText.isEmpty()) {
-            return true;
-        }
-
-        String search = searchText.toLowerCase();
-        return (station.getName() != null && station.getName().toLowerCase().contains(search))
-                || (station.getStationCode() != null && station.getStationCode().toLowerCase().contains(search))
-                || (station.getCity() != null && station.getCity().toLowerCase().contains(search))
-                || (station.getState() != null && station.getState().toLowerCase().contains(search));
-    }
-
     /**
      * Find train by text input using multiple matching strategies.
      * Attempts exact matches first, then falls back to partial matches.
@@ -750,14 +730,9 @@ public class FleetManagementController {
             }
         }
 
-        // Try partial matches
-        for (Station station : allStations) {
-            if (matchesStationSearchCriteria(station, searchText)) {
-                return station;
-            }
-        }
-
-        return null;
+        // Fall back to the best partial match
+        List<Station> matches = stationSearchIndex.search(searchText, 1);
+        return matches.isEmpty() ? null : matches.get(0);
     }
 
     // =========================================================================
@@ -803,6 +778,7 @@ public class FleetManagementController {
         selectedTrain.setTotalCoaches(coachesSpinner.getValue());
 
         if (trainDAO.updateTrain(selectedTrain)) {
+            routeIndex.refreshTrain(selectedTrain.getTrainId());
             showMessage("Train updated successfully!", "success");
             clearTrainForm();
             loadInitialDataAsync();
@@ -826,6 +802,7 @@ public class FleetManagementController {
 
         if (alert.showAndWait().orElse(ButtonType.CANCEL) == ButtonType.OK) {
             if (trainDAO.deleteTrain(selectedTrain.getTrainId())) {
+                routeIndex.refreshTrain(selectedTrain.getTrainId());
                 showMessage("Train deleted successfully!", "success");
                 clearTrainForm();
                 loadInitialDataAsync();
@@ -895,6 +872,7 @@ public class FleetManagementController {
                 showMessage("Route deleted successfully!", "success");
                 clearRouteForm();
                 if (selectedRouteManagementTrain != null) {
+                    routeIndex.refreshTrain(selectedRouteManagementTrain.getTrainId());
                     loadRoutesForSelectedTrain(selectedRouteManagementTrain);
                 }
             } else {
@@ -952,6 +930,7 @@ public class FleetManagementController {
             showMessage("Route saved successfully!", "success");
             clearRouteForm();
             if (selectedRouteManagementTrain != null) {
+                routeIndex.refreshTrain(selectedRouteManagementTrain.getTrainId());
                 loadRoutesForSelectedTrain(selectedRouteManagementTrain);
             }
         } else {
@@ -970,6 +949,7 @@ public class FleetManagementController {
             showMessage("Route saved successfully! Existing stations shifted down.", "success");
             clearRouteForm();
             if (selectedRouteManagementTrain != null) {
+                routeIndex.refreshTrain(selectedRouteManagementTrain.getTrainId());
                 loadRoutesForSelectedTrain(selectedRouteManagementTrain);
             }
         } else {
@@ -1007,6 +987,7 @@ public class FleetManagementController {
             showMessage("Route updated successfully! Sequences adjusted.", "success");
             clearRouteForm();
             if (selectedRouteManagementTrain != null) {
+                routeIndex.refreshTrain(selectedRouteManagementTrain.getTrainId());
                 loadRoutesForSelectedTrain(selectedRouteManagementTrain);
             }
         } else {
@@ -1024,6 +1005,7 @@ public class FleetManagementController {
             showMessage("Route updated successfully!", "success");
             clearRouteForm();
             if (selectedRouteManagementTrain != null) {
+                routeIndex.refreshTrain(selectedRouteManagementTrain.getTrainId());
                 loadRoutesForSelectedTrain(selectedRouteManagementTrain);
             }
         } else {
@@ -15,6 +15,7 @@ import javafx.util.Duration;
 import trainapp.controller.ui.TrainBookingController;
 import trainapp.service.AuthService;
 import trainapp.service.SessionManager;
+import trainapp.util.BackgroundExecutor;
 import trainapp.util.SceneManager;
 
 import java.io.IOException;
@@ -247,7 +248,7 @@ public class LoginController {
         loginTask.setOnSucceeded(e -> Platform.runLater(() -> handleLoginSuccess(loginTask.getValue())));
         loginTask.setOnFailed(e -> Platform.runLater(() -> handleLoginFailure(loginTask.getException())));
 
-        new Thread(loginTask).start();
+        BackgroundExecutor.submit(loginTask);
     }
 
     /**
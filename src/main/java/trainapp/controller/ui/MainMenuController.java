@@ -10,8 +10,9 @@ import javafx.scene.control.*;
 import javafx.util.Duration;
 import javafx.util.StringConverter;
 import trainapp.model.Station;
-import trainapp.dao.StationDAO;
 import trainapp.service.SessionManager;
+import trainapp.service.StationSearchIndex;
+import trainapp.util.PnrGenerator;
 import trainapp.util.SceneManager;
 
 import java.time.LocalDate;
@@ -76,7 +77,7 @@ public class MainMenuController {
     // Services and Data Management
     // -------------------------------------------------------------------------
 
-    private final StationDAO stationDAO = new StationDAO();
+    private final StationSearchIndex stationSearchIndex = StationSearchIndex.getInstance();
     private final SessionManager sessionManager = SessionManager.getInstance();
     private ObservableList<Station> allStations = FXCollections.observableArrayList();
 
@@ -96,12 +97,12 @@ public class MainMenuController {
     }
 
     /**
-     * Loads all available stations from the database.
+     * Loads all available stations from the shared station index.
      * Populates the stations list for use in combo boxes.
      */
     private void loadStations() {
         try {
-            List<Station> stations = stationDAO.getAllStations();
+            List<Station> stations = stationSearchIndex.getAllStations();
             allStations.setAll(stations);
         } catch (Exception e) {
             showErrorMessage("Failed to load stations. Please refresh the page.");
@@ -225,14 +226,8 @@ public class MainMenuController {
                 if (newValue == null || newValue.isEmpty()) {
                     comboBox.setItems(allStations);
                 } else {
-                    String searchText = newValue.toLowerCase().trim();
-                    ObservableList<Station> filteredStations = FXCollections.observableArrayList();
-
-                    for (Station station : allStations) {
-                        if (matchesSearchCriteria(station, searchText)) {
-                            filteredStations.add(station);
-                        }
-                    }
+                    ObservableList<Station> filteredStations =
+                            FXCollections.observableArrayList(stationSearchIndex.search(newValue));
 
                     comboBox.setItems(filteredStations);
                     if (!filteredStations.isEmpty() && !comboBox.isShowing()) {
@@ -303,26 +298,6 @@ public class MainMenuController {
     // Search and Filtering Utilities
     // -------------------------------------------------------------------------
 
-    /**
-     * Checks if a station matches the given search criteria.
-     * Searches across name, station code, city, and state fields.
-     *
-     * @param station the station to check
-     * @param searchText the search text to match against
-     * @return true if station matches search criteria
-     */
-    private boolean matchesSearchCriteria(Station station, String searchText) {
-        if (station == null || searchText == null || searchText.isEmpty()) {
-            return true;
-        }
-
-        String search = searchText.toLowerCase();
-        return (station.getName() != null && station.getName().toLowerCase().contains(search))
-                || (station.getStationCode() != null && station.getStationCode().toLowerCase().contains(search))
-                || (station.getCity() != null && station.getCity().toLowerCase().contains(search))
-                || (station.getState() != null && station.getState().toLowerCase().contains(search));
-    }
-
     /**
      * Finds a station by text input using multiple matching strategies.
      * Attempts exact matches by code and name, then partial matches.
@@ -607,8 +582,8 @@ public class MainMenuController {
             return false;
         }
 
-        if (pnr.length() != 10) {
-            showAlert("PNR must be exactly 10 digits.", "Invalid PNR");
+        if (!PnrGenerator.isWellFormed(pnr.trim())) {
+            showAlert("Please enter a valid 12-character PNR.", "Invalid PNR");
             return false;
         }
 
@@ -14,6 +14,7 @@ import trainapp.model.*;
 import trainapp.service.MyBookingsService;
 import trainapp.service.MyBookingsService.*;
 import trainapp.service.SessionManager;
+import trainapp.util.BackgroundExecutor;
 import trainapp.util.SceneManager;
 
 import java.time.format.DateTimeFormatter;
@@ -196,7 +197,7 @@ public class MyBookingsController {
 
         Task<MyBookingsResult> loadTask = createBookingLoadTask();
         configureTaskHandlers(loadTask);
-        new Thread(loadTask).start();
+        BackgroundExecutor.submit(loadTask);
     }
 
     /**
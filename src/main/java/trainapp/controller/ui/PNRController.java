@@ -12,6 +12,8 @@ import trainapp.model.Passenger;
 import trainapp.service.PNRService;
 import trainapp.service.PNRService.PNRStatusInfo;
 import trainapp.service.PNRService.PNRStatusResult;
+import trainapp.util.BackgroundExecutor;
+import trainapp.util.PnrGenerator;
 import trainapp.util.SceneManager;
 
 import java.time.format.DateTimeFormatter;
@@ -118,8 +120,8 @@ public class PNRController {
             return;
         }
 
-        if (pnr.length() != 10) {
-            showStatusMessage("PNR must be exactly 10 digits", "error");
+        if (!PnrGenerator.isWellFormed(pnr)) {
+            showStatusMessage("Please enter a valid 12-character PNR", "error");
             return;
         }
 
@@ -167,7 +169,7 @@ public class PNRController {
             showStatusMessage("Failed to retrieve PNR status. Please try again.", "error");
         }));
 
-        new Thread(searchTask).start();
+        BackgroundExecutor.submit(searchTask);
     }
 
     // -------------------------------------------------------------------------
@@ -13,6 +13,7 @@ import trainapp.model.Booking;
 import trainapp.service.BookingService;
 import trainapp.service.BookingService.PaymentSuccessRequest;
 import trainapp.service.BookingService.BookingResult;
+import trainapp.util.BackgroundExecutor;
 import trainapp.util.Razorpayclient;
 import trainapp.util.SceneManager;
 
@@ -47,7 +48,7 @@ import trainapp.util.SceneManager;
  *   <li>User selects payment method and fills required information</li>
  *   <li>Real-time validation ensures data integrity</li>
  *   <li>Payment processed through Razorpay with secure signature verification</li>
- *   <li>Booking confirmed and confirmation email sent automatically</li>
+ *   <li>Booking confirmed; confirmation email sent in the background</li>
  *   <li>User redirected to main menu with success notification</li>
  * </ol>
  *
@@ -844,7 +845,7 @@ public class PaymentController {
     private void simulateSuccessfulPayment() {
         Task<PaymentResult> paymentTask = createPaymentSimulationTask();
         configurePaymentTaskHandlers(paymentTask);
-        new Thread(paymentTask).start();
+        BackgroundExecutor.submitDetached(paymentTask);
     }
 
     /**
@@ -985,7 +986,7 @@ public class PaymentController {
             resetPaymentState();
         }));
 
-        new Thread(completionTask).start();
+        BackgroundExecutor.submitDetached(completionTask);
     }
 
     /**
@@ -1029,7 +1030,7 @@ public class PaymentController {
                         Amount Paid: ₹%.2f
                         PNR: %s
                         
-                        ✅ E-ticket sent to your email
+                        ✅ E-ticket will arrive in your email shortly
                         ✅ Booking confirmed successfully
                         
                         Thank you for choosing Tailyatri!
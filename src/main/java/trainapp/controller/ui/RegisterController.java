@@ -1,12 +1,15 @@
 package trainapp.controller.ui;
 
+import javafx.animation.PauseTransition;
 import javafx.application.Platform;
 import javafx.concurrent.Task;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
+import javafx.util.Duration;
 import javafx.scene.control.*;
 import trainapp.service.AuthService;
 import trainapp.service.SessionManager;
+import trainapp.util.BackgroundExecutor;
 import trainapp.util.SceneManager;
 
 /**
@@ -183,7 +186,7 @@ public class RegisterController {
 
         Task<AuthService.AuthResult> registrationTask = createRegistrationTask();
         configureRegistrationTaskHandlers(registrationTask);
-        new Thread(registrationTask).start();
+        BackgroundExecutor.submitDetached(registrationTask);
     }
 
     /**
@@ -260,15 +263,9 @@ public class RegisterController {
      * Schedules automatic navigation to login page after successful registration.
      */
     private void scheduleNavigationToLogin() {
-        Task<Void> delayTask = new Task<Void>() {
-            @Override
-            protected Void call() throws Exception {
-                Thread.sleep(1500);
-                Platform.runLater(() -> SceneManager.switchScene("/fxml/Login.fxml"));
-                return null;
-            }
-        };
-        new Thread(delayTask).start();
+        PauseTransition delay = new PauseTransition(Duration.millis(1500));
+        delay.setOnFinished(e -> SceneManager.switchScene("/fxml/Login.fxml"));
+        delay.play();
     }
 
     /**
@@ -285,7 +282,7 @@ public class RegisterController {
                 return emailService.sendWelcomeEmail(email, name);
             }
         };
-        new Thread(welcomeEmailTask).start();
+        BackgroundExecutor.submitDetached(welcomeEmailTask);
     }
 
     // -------------------------------------------------------------------------
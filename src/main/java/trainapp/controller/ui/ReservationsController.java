@@ -1,28 +1,47 @@
 package trainapp.controller.ui;
 
+import javafx.animation.PauseTransition;
 import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.geometry.Pos;
 import javafx.scene.control.*;
 import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+import javafx.stage.FileChooser;
 import javafx.stage.Stage;
+import javafx.util.Duration;
 import trainapp.dao.BookingDAO;
+import trainapp.dao.BookingDAO.BookingFilter;
+import trainapp.dao.BookingDAO.StatusTotal;
 import trainapp.dao.StationDAO;
-import trainapp.dao.TrainDAO;
-import trainapp.dao.UserDAO;
 import trainapp.model.Booking;
-import trainapp.model.Train;
-import trainapp.model.User;
 import trainapp.model.Station;
+import trainapp.service.BookingAnalytics;
+import trainapp.service.BookingAnalytics.Dimension;
+import trainapp.service.BookingAnalytics.GroupTotals;
+import trainapp.service.BookingAnalytics.RouteTotal;
+import trainapp.service.BookingAnalyticsService;
+import trainapp.service.BookingExportService;
+import trainapp.service.BookingExportService.Column;
+import trainapp.service.BookingExportService.ExportProgress;
+import trainapp.service.BookingExportService.ExportRequest;
+import trainapp.service.BookingExportService.ExportResult;
+import trainapp.service.DashboardStatsService;
+import trainapp.service.DashboardStatsService.BookingTotals;
+import trainapp.util.BackgroundExecutor;
 import trainapp.util.SceneManager;
 
+import java.io.File;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
-import java.util.Optional;
-import java.util.stream.Collectors;
+import java.time.temporal.TemporalAdjusters;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * ReservationsController manages comprehensive booking administration and oversight.
@@ -35,7 +54,7 @@ import java.util.stream.Collectors;
  *   <li>Real-time booking statistics and revenue tracking</li>
  *   <li>Administrative actions (view, update, delete) for each booking</li>
  *   <li>Bulk operations and report generation capabilities</li>
- *   <li>Dynamic data loading with station and user information enrichment</li>
+ *   <li>Lazy loading: pages of bookings are fetched in the background as the table scrolls</li>
  * </ul>
  *
  * <p>Administrative Operations:
@@ -49,7 +68,10 @@ import java.util.stream.Collectors;
  *
  * <p>Data Integration Features:
  * <ul>
- *   <li>Cross-referential data loading (users, trains, stations)</li>
+ *   <li>User names and train numbers come with each page; station names are loaded once per
+ *       page for all of its rows</li>
+ *   <li>Filters run in SQL with keyset pagination, so the screen stays fast with millions of
+ *       bookings</li>
  *   <li>Dynamic route calculation from station information</li>
  *   <li>Real-time statistics computation and display</li>
  *   <li>Styled status indicators with contextual color coding</li>
@@ -97,13 +119,32 @@ public class ReservationsController {
     // Data Access and State Management
     // -------------------------------------------------------------------------
 
+    /** Bookings fetched per page */
+    private static final int PAGE_SIZE = 200;
+
+    /** The next page is fetched once a row this close to the end of the loaded rows is shown */
+    private static final int PREFETCH_ROWS = 50;
+
+    /** Number of routes and of days listed in the statistics report */
+    private static final int REPORT_TOP_ROUTES = 5;
+    private static final int REPORT_RECENT_DAYS = 7;
+
     private final BookingDAO bookingDAO = new BookingDAO();
-    private final UserDAO userDAO = new UserDAO();
-    private final TrainDAO trainDAO = new TrainDAO();
     private final StationDAO stationDAO = new StationDAO();
+    private final BookingExportService exportService = BookingExportService.getInstance();
+
+    /** Bookings of the current filter loaded so far, newest first */
+    private final ObservableList<Booking> loadedBookings = FXCollections.observableArrayList();
 
-    private ObservableList<Booking> allBookings = FXCollections.observableArrayList();
-    private ObservableList<Booking> filteredBookings = FXCollections.observableArrayList();
+    /** Station names by ID for the route column, filled per page */
+    private final Map<Integer, String> stationNames = new ConcurrentHashMap<>();
+
+    private BookingFilter currentFilter = BookingFilter.ALL;
+    private boolean pageLoading;
+    private boolean lastPageLoaded;
+
+    /** Incremented whenever the list restarts, so pages of an older filter are dropped */
+    private int listGeneration;
 
     // -------------------------------------------------------------------------
     // Initialization and Setup
@@ -142,8 +183,25 @@ public class ReservationsController {
         configureComputedColumns();
         configureStyledColumns();
         configureActionColumn();
+        configureLazyLoading();
 
-        bookingTable.setItems(filteredBookings);
+        bookingTable.setItems(loadedBookings);
+    }
+
+    /**
+     * Requests the next page whenever a row near the end of the loaded bookings is shown.
+     * The table only creates rows for what is visible, so this follows scrolling.
+     */
+    private void configureLazyLoading() {
+        bookingTable.setRowFactory(table -> {
+            TableRow<Booking> row = new TableRow<>();
+            row.indexProperty().addListener((obs, oldIndex, index) -> {
+                if (index.intValue() >= loadedBookings.size() - PREFETCH_ROWS) {
+                    loadNextPage();
+                }
+            });
+            return row;
+        });
     }
 
     /**
@@ -167,24 +225,13 @@ public class ReservationsController {
     }
 
     /**
-     * Sets up route column with station name lookup and formatting.
+     * Sets up route column with station names loaded alongside each page.
      */
     private void setupRouteColumn() {
         colRoute.setCellValueFactory(cellData -> {
-            try {
-                int sourceStationId = cellData.getValue().getSourceStationId();
-                int destStationId = cellData.getValue().getDestStationId();
-
-                Station sourceStation = stationDAO.getStationById(sourceStationId);
-                Station destStation = stationDAO.getStationById(destStationId);
-
-                String sourceName = sourceStation != null ? sourceStation.getName() : "Unknown";
-                String destName = destStation != null ? destStation.getName() : "Unknown";
-
-                return new javafx.beans.property.SimpleStringProperty(sourceName + " → " + destName);
-            } catch (Exception e) {
-                return new javafx.beans.property.SimpleStringProperty("Unknown Route");
-            }
+            String sourceName = stationNames.getOrDefault(cellData.getValue().getSourceStationId(), "Unknown");
+            String destName = stationNames.getOrDefault(cellData.getValue().getDestStationId(), "Unknown");
+            return new javafx.beans.property.SimpleStringProperty(sourceName + " → " + destName);
         });
     }
 
@@ -369,6 +416,7 @@ public class ReservationsController {
     private void setupFilterHandlers() {
         statusFilterCombo.setOnAction(e -> applyFilters());
         dateFilterCombo.setOnAction(e -> applyFilters());
+        searchField.setOnAction(e -> applyFilters());
     }
 
     // -------------------------------------------------------------------------
@@ -376,106 +424,128 @@ public class ReservationsController {
     // -------------------------------------------------------------------------
 
     /**
-     * Loads all bookings with enriched data from related entities.
-     * Populates user names and train numbers for complete display.
+     * Restarts the list for the current filter and loads its first page.
      */
     private void loadBookings() {
-        try {
-            List<Booking> bookings = bookingDAO.getAllBookings();
-            enrichBookingData(bookings);
-
-            allBookings.setAll(bookings);
-            filteredBookings.setAll(bookings);
-
-            displayLoadingResults(bookings);
-        } catch (Exception e) {
-            showMessage("Error loading reservations: " + e.getMessage(), "error");
-            e.printStackTrace();
-        }
+        listGeneration++;
+        pageLoading = false;
+        lastPageLoaded = false;
+        loadedBookings.clear();
+        loadNextPage();
     }
 
     /**
-     * Enriches booking data with user names and train numbers.
-     *
-     * @param bookings list of bookings to enrich
+     * Fetches the page after the last loaded booking in the background, unless one is already
+     * on its way or the filter has no more bookings.
      */
-    private void enrichBookingData(List<Booking> bookings) {
-        for (Booking booking : bookings) {
-            enrichUserInformation(booking);
-            enrichTrainInformation(booking);
+    private void loadNextPage() {
+        if (pageLoading || lastPageLoaded) {
+            return;
         }
+        pageLoading = true;
+        int generation = listGeneration;
+        BookingFilter filter = currentFilter;
+        Booking after = loadedBookings.isEmpty() ? null : loadedBookings.get(loadedBookings.size() - 1);
+
+        Task<List<Booking>> pageTask = new Task<>() {
+            @Override
+            protected List<Booking> call() {
+                List<Booking> page = bookingDAO.getBookingsPage(filter, after, PAGE_SIZE);
+                loadStationNames(page);
+                return page;
+            }
+        };
+        pageTask.setOnSucceeded(e -> {
+            if (generation != listGeneration) {
+                return; // Filter changed while loading
+            }
+            List<Booking> page = pageTask.getValue();
+            pageLoading = false;
+            lastPageLoaded = page.size() < PAGE_SIZE;
+            loadedBookings.addAll(page);
+            if (after == null) {
+                displayLoadingResults();
+            }
+        });
+        pageTask.setOnFailed(e -> {
+            if (generation == listGeneration) {
+                pageLoading = false;
+                showMessage("Error loading reservations: " + pageTask.getException().getMessage(), "error");
+            }
+        });
+        BackgroundExecutor.submit(pageTask);
     }
 
     /**
-     * Enriches booking with user information.
+     * Loads the names of the stations of a page that are not known yet, in one query.
      *
-     * @param booking the booking to enrich
+     * @param page bookings just fetched
      */
-    private void enrichUserInformation(Booking booking) {
-        try {
-            User user = userDAO.getUserById(booking.getUserId());
-            booking.setUserName(user != null ? user.getName() : "Unknown User");
-        } catch (Exception e) {
-            booking.setUserName("Unknown User");
+    private void loadStationNames(List<Booking> page) {
+        Set<Integer> stationIds = new HashSet<>();
+        for (Booking booking : page) {
+            stationIds.add(booking.getSourceStationId());
+            stationIds.add(booking.getDestStationId());
         }
+        loadStationNames(stationIds);
     }
 
     /**
-     * Enriches booking with train information.
+     * Loads the names of the given stations that are not known yet, in one query.
      *
-     * @param booking the booking to enrich
+     * @param stationIds stations to name
      */
-    private void enrichTrainInformation(Booking booking) {
-        try {
-            Train train = trainDAO.getTrainById(booking.getTrainId());
-            booking.setTrainNumber(train != null ? train.getTrainNumber() : "Unknown Train");
-        } catch (Exception e) {
-            booking.setTrainNumber("Unknown Train");
+    private void loadStationNames(Set<Integer> stationIds) {
+        Set<Integer> missing = new HashSet<>();
+        for (int stationId : stationIds) {
+            if (!stationNames.containsKey(stationId)) missing.add(stationId);
+        }
+        if (!missing.isEmpty()) {
+            stationDAO.getStationsByIds(missing).forEach((id, station) -> stationNames.put(id, station.getName()));
         }
     }
 
     /**
-     * Displays results of booking data loading operation.
-     *
-     * @param bookings the loaded bookings
+     * Displays results of loading the first page.
      */
-    private void displayLoadingResults(List<Booking> bookings) {
-        if (bookings.isEmpty()) {
+    private void displayLoadingResults() {
+        if (loadedBookings.isEmpty()) {
             showMessage("No reservations found.", "info");
+        } else if (lastPageLoaded) {
+            showMessage("Found " + loadedBookings.size() + " reservations.", "success");
         } else {
-            showMessage("Loaded " + bookings.size() + " reservations.", "success");
+            showMessage("Showing the latest " + loadedBookings.size() + " reservations; scroll for more.", "success");
         }
     }
 
     /**
-     * Updates booking statistics with current data calculations.
+     * Updates booking statistics over all bookings in the background.
      */
     private void updateStatistics() {
-        try {
-            BookingStatistics stats = calculateBookingStatistics();
-            updateStatisticsDisplay(stats);
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+        Task<BookingStatistics> statsTask = new Task<>() {
+            @Override
+            protected BookingStatistics call() {
+                return calculateBookingStatistics();
+            }
+        };
+        statsTask.setOnSucceeded(e -> updateStatisticsDisplay(statsTask.getValue()));
+        statsTask.setOnFailed(e -> statsTask.getException().printStackTrace());
+        BackgroundExecutor.submit(statsTask);
     }
 
     /**
-     * Calculates comprehensive booking statistics.
+     * Calculates the booking statistics of all bookings from the dashboard counters, which
+     * include the admin's own status changes at once. Falls back to one grouped query if the
+     * counters cannot be read.
      *
      * @return BookingStatistics object with calculated values
      */
     private BookingStatistics calculateBookingStatistics() {
-        int total = allBookings.size();
-        long confirmed = allBookings.stream().filter(b -> "conformed".equals(b.getStatus())).count();
-        long pending = allBookings.stream().filter(b -> "waiting".equals(b.getStatus())).count();
-        long cancelled = allBookings.stream().filter(b -> "cancelled".equals(b.getStatus())).count();
-
-        double totalRevenue = allBookings.stream()
-                .filter(b -> "conformed".equals(b.getStatus()))
-                .mapToDouble(Booking::getTotalFare)
-                .sum();
-
-        return new BookingStatistics(total, confirmed, pending, cancelled, totalRevenue);
+        BookingTotals totals = DashboardStatsService.getInstance().getBookingTotals();
+        if (totals == null) {
+            return BookingStatistics.from(bookingDAO.getStatusTotals(BookingFilter.ALL));
+        }
+        return BookingStatistics.from(totals);
     }
 
     /**
@@ -513,49 +583,48 @@ public class ReservationsController {
         searchField.clear();
         statusFilterCombo.setValue("All Status");
         dateFilterCombo.setValue("All Dates");
-        filteredBookings.setAll(allBookings);
+        applyFilters();
         showMessage("Filters cleared.", "info");
     }
 
     /**
-     * Applies current filter criteria to booking display.
+     * Applies current filter criteria by reloading the list from the database.
      */
     private void applyFilters() {
-        String searchText = searchField.getText().trim().toLowerCase();
-        String selectedStatus = statusFilterCombo.getValue();
-
-        List<Booking> filtered = allBookings.stream()
-                .filter(booking -> matchesSearchCriteria(booking, searchText))
-                .filter(booking -> matchesStatusFilter(booking, selectedStatus))
-                .collect(Collectors.toList());
-
-        filteredBookings.setAll(filtered);
-        showMessage("Found " + filtered.size() + " reservations.", "info");
+        currentFilter = buildFilter();
+        loadBookings();
     }
 
     /**
-     * Checks if booking matches search criteria.
+     * Builds the database filter from the search field and filter controls.
      *
-     * @param booking the booking to check
-     * @param searchText the search text
-     * @return true if booking matches search criteria
+     * @return filter for the booking listing
      */
-    private boolean matchesSearchCriteria(Booking booking, String searchText) {
-        return searchText.isEmpty() ||
-                booking.getPnr().toLowerCase().contains(searchText) ||
-                booking.getUserName().toLowerCase().contains(searchText) ||
-                booking.getTrainNumber().toLowerCase().contains(searchText);
+    private BookingFilter buildFilter() {
+        String searchText = searchField.getText() == null ? "" : searchField.getText().trim();
+        String selectedStatus = statusFilterCombo.getValue();
+        String status = selectedStatus == null || "All Status".equals(selectedStatus) ? null : selectedStatus;
+        return new BookingFilter(status, dateFilterStart(dateFilterCombo.getValue()), null,
+                searchText.isEmpty() ? null : searchText);
     }
 
     /**
-     * Checks if booking matches status filter.
+     * Start of the period selected in the date filter.
      *
-     * @param booking the booking to check
-     * @param selectedStatus the selected status filter
-     * @return true if booking matches status filter
+     * @param selectedRange date filter option
+     * @return earliest booking time to show, or null for all dates
      */
-    private boolean matchesStatusFilter(Booking booking, String selectedStatus) {
-        return "All Status".equals(selectedStatus) || booking.getStatus().equals(selectedStatus);
+    private LocalDateTime dateFilterStart(String selectedRange) {
+        LocalDate today = LocalDate.now();
+        if (selectedRange == null) {
+            return null;
+        }
+        return switch (selectedRange) {
+            case "Today" -> today.atStartOfDay();
+            case "This Week" -> today.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).atStartOfDay();
+            case "This Month" -> today.withDayOfMonth(1).atStartOfDay();
+            default -> null;
+        };
     }
 
     // -------------------------------------------------------------------------
@@ -689,8 +758,7 @@ public class ReservationsController {
     private void processBookingDeletion(Booking booking) {
         try {
             if (bookingDAO.deleteBooking(booking.getBookingId())) {
-                allBookings.remove(booking);
-                filteredBookings.remove(booking);
+                loadedBookings.remove(booking);
                 updateStatistics();
                 showMessage("Booking deleted successfully", "success");
             } else {
@@ -710,62 +778,261 @@ public class ReservationsController {
      */
     @FXML
     public void handleRefresh() {
+        BookingAnalyticsService.getInstance().invalidate();
         loadBookings();
         updateStatistics();
         showMessage("Data refreshed.", "success");
     }
 
     /**
-     * Handles data export functionality (placeholder for future implementation).
+     * Exports the bookings of the current status and search filter to a CSV file, after the
+     * admin picks the date range, columns and compression.
      */
     @FXML
     public void handleExportData() {
-        Alert alert = new Alert(Alert.AlertType.INFORMATION);
-        alert.setTitle("Export Data");
-        alert.setHeaderText("Export Feature - Future Implementation");
-        alert.setContentText("Export functionality will be implemented soon.\n\nCurrently showing " +
-                filteredBookings.size() + " reservations.");
-        alert.showAndWait();
+        Optional<ExportRequest> request = showExportDialog();
+        if (request.isEmpty()) {
+            return;
+        }
+
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Export Reservations");
+        String extension = request.get().gzip() ? ".csv.gz" : ".csv";
+        chooser.setInitialFileName("reservations-" + LocalDate.now() + extension);
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter(
+                request.get().gzip() ? "Compressed CSV" : "CSV", "*" + extension));
+        File file = chooser.showSaveDialog(bookingTable.getScene().getWindow());
+        if (file != null) {
+            runExport(request.get(), file);
+        }
     }
 
     /**
-     * Generates and displays comprehensive booking statistics report.
+     * Asks for the date range, columns and compression of an export.
+     *
+     * @return the export request, empty if the admin cancelled
+     */
+    private Optional<ExportRequest> showExportDialog() {
+        Dialog<ExportRequest> dialog = new Dialog<>();
+        dialog.setTitle("Export Data");
+        dialog.setHeaderText("Export reservations matching the current status and search filter");
+
+        DatePicker fromPicker = new DatePicker(currentFilter.bookedFrom() != null
+                ? currentFilter.bookedFrom().toLocalDate() : null);
+        DatePicker toPicker = new DatePicker();
+        fromPicker.setPromptText("From (any)");
+        toPicker.setPromptText("To (any)");
+
+        List<CheckBox> columnBoxes = new ArrayList<>();
+        VBox content = new VBox(8, new Label("Booked between"), new HBox(8, fromPicker, toPicker),
+                new Label("Columns"));
+        for (Column column : Column.values()) {
+            CheckBox box = new CheckBox(column.getLabel());
+            box.setSelected(true);
+            box.setUserData(column);
+            columnBoxes.add(box);
+            content.getChildren().add(box);
+        }
+        CheckBox gzipBox = new CheckBox("Compress (gzip)");
+        content.getChildren().add(gzipBox);
+
+        dialog.getDialogPane().setContent(content);
+        dialog.getDialogPane().getButtonTypes().addAll(ButtonType.OK, ButtonType.CANCEL);
+        dialog.getDialogPane().lookupButton(ButtonType.OK).disableProperty().bind(
+                javafx.beans.binding.Bindings.createBooleanBinding(
+                        () -> columnBoxes.stream().noneMatch(CheckBox::isSelected),
+                        columnBoxes.stream().map(CheckBox::selectedProperty).toArray(javafx.beans.Observable[]::new)));
+
+        dialog.setResultConverter(dialogButton -> {
+            if (dialogButton != ButtonType.OK) {
+                return null;
+            }
+            List<Column> columns = columnBoxes.stream()
+                    .filter(CheckBox::isSelected)
+                    .map(box -> (Column) box.getUserData())
+                    .toList();
+            LocalDateTime bookedFrom = fromPicker.getValue() != null ? fromPicker.getValue().atStartOfDay() : null;
+            LocalDateTime bookedBefore = toPicker.getValue() != null
+                    ? toPicker.getValue().plusDays(1).atStartOfDay() : null;
+            BookingFilter filter = new BookingFilter(currentFilter.status(), bookedFrom, bookedBefore,
+                    currentFilter.searchText());
+            return new ExportRequest(filter, columns, gzipBox.isSelected());
+        });
+        return dialog.showAndWait();
+    }
+
+    /**
+     * Runs an export in the background with a progress dialog that can cancel it.
+     *
+     * @param request what to export
+     * @param file    destination file
+     */
+    private void runExport(ExportRequest request, File file) {
+        Task<ExportResult> exportTask = new Task<>() {
+            @Override
+            protected ExportResult call() {
+                updateMessage("Counting reservations...");
+                long total = exportService.countBookings(request.filter());
+                Task<ExportResult> task = this;
+                return exportService.export(request, file.toPath(), new ExportProgress() {
+                    @Override
+                    public void rowsWritten(long rows) {
+                        updateProgress(rows, Math.max(total, rows));
+                        updateMessage(String.format("Exported %,d of %,d reservations", rows, Math.max(total, rows)));
+                    }
+
+                    @Override
+                    public boolean isCancelled() {
+                        return task.isCancelled();
+                    }
+                });
+            }
+        };
+
+        ProgressBar progressBar = new ProgressBar();
+        progressBar.setPrefWidth(320);
+        progressBar.progressProperty().bind(exportTask.progressProperty());
+        Label progressLabel = new Label();
+        progressLabel.textProperty().bind(exportTask.messageProperty());
+
+        Dialog<Void> progressDialog = new Dialog<>();
+        progressDialog.setTitle("Export Data");
+        progressDialog.setHeaderText("Exporting to " + file.getName());
+        progressDialog.getDialogPane().setContent(new VBox(8, progressBar, progressLabel));
+        progressDialog.getDialogPane().getButtonTypes().add(ButtonType.CANCEL);
+        progressDialog.setOnHidden(e -> exportTask.cancel());
+
+        exportTask.setOnSucceeded(e -> {
+            progressDialog.close();
+            ExportResult result = exportTask.getValue();
+            if (result == null) {
+                showMessage("Export failed; see the log for details.", "error");
+            } else {
+                showMessage(String.format("Exported %,d reservations to %s", result.rows(), file.getName()), "success");
+            }
+        });
+        exportTask.setOnCancelled(e -> showMessage("Export cancelled.", "info"));
+        exportTask.setOnFailed(e -> {
+            progressDialog.close();
+            showMessage("Export failed: " + exportTask.getException().getMessage(), "error");
+        });
+
+        BackgroundExecutor.submit(exportTask);
+        progressDialog.show();
+    }
+
+    /**
+     * Generates and displays the statistics report of the current status and date filter.
+     * The report is computed in the background from the in-memory analytics snapshot, which
+     * is loaded on first use.
      */
     @FXML
     public void handleGenerateReport() {
-        try {
-            String report = buildStatisticsReport();
-            displayStatisticsReport(report);
-        } catch (Exception e) {
-            showMessage("Error generating report: " + e.getMessage(), "error");
-        }
+        BookingFilter filter = currentFilter;
+        Task<String> reportTask = new Task<>() {
+            @Override
+            protected String call() {
+                BookingAnalytics analytics = BookingAnalyticsService.getInstance().getAnalytics();
+                if (analytics == null) {
+                    throw new IllegalStateException("booking data could not be loaded");
+                }
+                return buildStatisticsReport(analytics, filter);
+            }
+        };
+        reportTask.setOnSucceeded(e -> displayStatisticsReport(reportTask.getValue()));
+        reportTask.setOnFailed(e ->
+                showMessage("Error generating report: " + reportTask.getException().getMessage(), "error"));
+        BackgroundExecutor.submit(reportTask);
+        showMessage("Generating report...", "info");
     }
 
     /**
-     * Builds comprehensive statistics report text.
+     * Builds comprehensive statistics report text: totals per status, then revenue per class,
+     * top routes and recent days over the confirmed bookings of the period.
      *
+     * @param analytics snapshot of all bookings
+     * @param filter    status and date range of the report; its search text is not applied
      * @return formatted report string
      */
-    private String buildStatisticsReport() {
+    private String buildStatisticsReport(BookingAnalytics analytics, BookingFilter filter) {
+        long started = System.nanoTime();
+        LocalDate from = filter.bookedFrom() != null ? filter.bookedFrom().toLocalDate() : null;
+        int statusFilter = filter.status() != null
+                ? BookingAnalytics.statusCode(filter.status()) : BookingAnalytics.ANY_STATUS;
+
+        GroupTotals byStatus = analytics.groupBy(Dimension.STATUS, statusFilter, from, null);
+        GroupTotals byClass = analytics.groupBy(Dimension.CLASS, BookingAnalytics.CONFIRMED, from, null);
+        GroupTotals byDay = analytics.groupBy(Dimension.DAY, BookingAnalytics.CONFIRMED, from, null);
+        List<RouteTotal> topRoutes = analytics.topRoutes(REPORT_TOP_ROUTES, from, null);
+
+        Set<Integer> routeStations = new HashSet<>();
+        for (RouteTotal route : topRoutes) {
+            routeStations.add(route.sourceStationId());
+            routeStations.add(route.destStationId());
+        }
+        loadStationNames(routeStations);
+
         StringBuilder report = new StringBuilder();
         report.append("=== RESERVATIONS REPORT ===\n\n");
-        report.append("Total Reservations: ").append(filteredBookings.size()).append("\n");
+        report.append("Period: ").append(from != null ? "since " + from.format(DateTimeFormatter.ofPattern("dd-MM-yyyy")) : "all dates");
+        if (filter.status() != null) {
+            report.append(", status ").append(filter.status());
+        }
+        report.append("\n");
+        if (filter.searchText() != null) {
+            report.append("(search text is not applied to the report)\n");
+        }
+        report.append("\n");
 
-        long confirmed = filteredBookings.stream().filter(b -> "conformed".equals(b.getStatus())).count();
-        long pending = filteredBookings.stream().filter(b -> "waiting".equals(b.getStatus())).count();
-        long cancelled = filteredBookings.stream().filter(b -> "cancelled".equals(b.getStatus())).count();
+        long[] bookings = byStatus.bookings();
+        long total = 0;
+        for (long count : bookings) {
+            total += count;
+        }
+        report.append("Total Reservations: ").append(total).append("\n");
+        report.append("Conformed: ").append(bookings[BookingAnalytics.CONFIRMED]).append("\n");
+        report.append("Waiting: ").append(bookings[BookingAnalytics.WAITING]).append("\n");
+        report.append("Cancelled: ").append(bookings[BookingAnalytics.CANCELLED]).append("\n\n");
+
+        double revenue = 0;
+        for (double fare : byClass.fares()) {
+            revenue += fare;
+        }
+        report.append("Total Revenue: ₹").append(String.format("%.2f", revenue)).append("\n");
+
+        report.append("\nRevenue by Class:\n");
+        for (int code = 0; code < byClass.groups(); code++) {
+            if (byClass.bookings()[code] > 0) {
+                String className = analytics.label(Dimension.CLASS, code);
+                report.append(String.format("  %s: ₹%,.2f (%d)%n", className.isEmpty() ? "-" : className,
+                        byClass.fares()[code], byClass.bookings()[code]));
+            }
+        }
 
-        report.append("Conformed: ").append(confirmed).append("\n");
-        report.append("Waiting: ").append(pending).append("\n");
-        report.append("Cancelled: ").append(cancelled).append("\n\n");
+        report.append("\nTop Routes by Revenue:\n");
+        for (int i = 0; i < topRoutes.size(); i++) {
+            RouteTotal route = topRoutes.get(i);
+            report.append(String.format("  %d. %s → %s: ₹%,.2f (%d)%n", i + 1,
+                    stationNames.getOrDefault(route.sourceStationId(), "Station " + route.sourceStationId()),
+                    stationNames.getOrDefault(route.destStationId(), "Station " + route.destStationId()),
+                    route.revenue(), route.bookings()));
+        }
 
-        double totalRevenue = filteredBookings.stream()
-                .filter(b -> "conformed".equals(b.getStatus()))
-                .mapToDouble(Booking::getTotalFare)
-                .sum();
+        report.append("\nRecent Daily Revenue:\n");
+        int shown = 0;
+        for (int day = byDay.groups() - 1; day >= 0 && shown < REPORT_RECENT_DAYS; day--) {
+            if (byDay.bookings()[day] > 0) {
+                report.append(String.format("  %s: ₹%,.2f (%d)%n", analytics.label(Dimension.DAY, day),
+                        byDay.fares()[day], byDay.bookings()[day]));
+                shown++;
+            }
+        }
 
-        report.append("Total Revenue: ₹").append(String.format("%.2f", totalRevenue)).append("\n");
-        report.append("\nGenerated on: ").append(LocalDateTime.now().format(DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm")));
+        DateTimeFormatter timestamp = DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm");
+        report.append(String.format("%nData as of: %s (%,d bookings analysed in %d ms)",
+                analytics.getLoadedAt().format(timestamp), analytics.size(),
+                (System.nanoTime() - started) / 1_000_000));
+        report.append("\nGenerated on: ").append(LocalDateTime.now().format(timestamp));
 
         return report.toString();
     }
@@ -827,17 +1094,12 @@ public class ReservationsController {
         messageLabel.getStyleClass().add(type);
 
         // Auto-hide message after 3 seconds
-        new Thread(() -> {
-            try {
-                Thread.sleep(3000);
-                Platform.runLater(() -> {
-                    messageLabel.setVisible(false);
-                    messageLabel.setManaged(false);
-                });
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
-        }).start();
+        PauseTransition hideDelay = new PauseTransition(Duration.seconds(3));
+        hideDelay.setOnFinished(e -> {
+            messageLabel.setVisible(false);
+            messageLabel.setManaged(false);
+        });
+        hideDelay.play();
     }
 
     // -------------------------------------------------------------------------
@@ -848,18 +1110,52 @@ public class ReservationsController {
      * BookingStatistics holds calculated statistical information for display.
      */
     private static class BookingStatistics {
-        final int total;
+        final long total;
         final long confirmed;
         final long pending;
         final long cancelled;
         final double totalRevenue;
 
-        BookingStatistics(int total, long confirmed, long pending, long cancelled, double totalRevenue) {
+        BookingStatistics(long total, long confirmed, long pending, long cancelled, double totalRevenue) {
             this.total = total;
             this.confirmed = confirmed;
             this.pending = pending;
             this.cancelled = cancelled;
             this.totalRevenue = totalRevenue;
         }
+
+        /**
+         * Builds statistics from the dashboard counters.
+         */
+        static BookingStatistics from(BookingTotals totals) {
+            Map<String, Long> byStatus = totals.bookingsByStatus();
+            long total = 0;
+            for (long count : byStatus.values()) {
+                total += count;
+            }
+            return new BookingStatistics(total, byStatus.getOrDefault("conformed", 0L),
+                    byStatus.getOrDefault("waiting", 0L), byStatus.getOrDefault("cancelled", 0L), totals.revenue());
+        }
+
+        /**
+         * Builds statistics from per-status totals; revenue counts confirmed bookings only.
+         */
+        static BookingStatistics from(List<StatusTotal> totals) {
+            long total = 0, confirmed = 0, pending = 0, cancelled = 0;
+            double revenue = 0;
+            for (StatusTotal statusTotal : totals) {
+                total += statusTotal.bookings();
+                switch (statusTotal.status()) {
+                    case "conformed" -> {
+                        confirmed = statusTotal.bookings();
+                        revenue = statusTotal.totalFare();
+                    }
+                    case "waiting" -> pending = statusTotal.bookings();
+                    case "cancelled" -> cancelled = statusTotal.bookings();
+                    default -> { }
+                }
+            }
+            return new BookingStatistics(total, confirmed, pending, cancelled, revenue);
+        }
     }
 }
\ No newline at end of file
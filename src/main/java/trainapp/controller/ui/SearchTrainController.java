@@ -1,7 +1,6 @@
 package trainapp.controller.ui;
 
-import javafx.animation.FadeTransition;
-import javafx.animation.TranslateTransition;
+import javafx.animation.PauseTransition;
 import javafx.application.Platform;
 import javafx.concurrent.Task;
 import javafx.event.ActionEvent;
@@ -14,15 +13,17 @@ import trainapp.dao.StationDAO;
 import trainapp.model.Station;
 import trainapp.model.Train;
 import trainapp.model.TrainClass;
+import trainapp.service.FareEngine;
 import trainapp.service.SessionManager;
 import trainapp.service.TrainService;
-import trainapp.service.AdminDataStructureService;
+import trainapp.util.BackgroundExecutor;
 import trainapp.util.SceneManager;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
 
 /**
  * SearchTrainController manages train search results display with advanced filtering and performance optimization.
@@ -44,7 +45,7 @@ import java.util.stream.Collectors;
  *   <li>Real-time seat availability checking with pricing information</li>
  *   <li>Multiple view modes (list and card views) with smooth transitions</li>
  *   <li>Advanced sorting algorithms for optimal result ordering</li>
- *   <li>Pagination system with configurable page sizes</li>
+ *   <li>Virtualized result list that recycles a handful of card cells while scrolling</li>
  *   <li>Responsive UI with loading states and error handling</li>
  * </ul>
  *
@@ -52,16 +53,16 @@ import java.util.stream.Collectors;
  * <ul>
  *   <li>Parallel stream processing for data calculations</li>
  *   <li>Efficient caching mechanisms reducing database calls</li>
- *   <li>Batch UI updates minimizing layout recalculations</li>
- *   <li>Optimized animation timing for smooth user experience</li>
- *   <li>Smart data loading preventing unnecessary API calls</li>
+ *   <li>Card nodes built once per cell and rebound, never rebuilt per train</li>
+ *   <li>Seat availability fetched off the FX thread in one batch for the visible rows only</li>
+ *   <li>Cards filled in progressively as seat data arrives</li>
  * </ul>
  *
  * <h2>Search Flow:</h2>
  * <ol>
  *   <li>User searches for trains between stations on specific date</li>
  *   <li>Controller loads and processes train data asynchronously</li>
- *   <li>Results displayed with pagination and sorting options</li>
+ *   <li>Results displayed in a virtualized list with sorting options</li>
  *   <li>User can filter, sort, and navigate to detailed views</li>
  *   <li>Seamless integration with booking and authentication systems</li>
  * </ol>
@@ -82,14 +83,10 @@ public class SearchTrainController {
     @FXML private ToggleButton listViewToggle;
     @FXML private ToggleButton cardViewToggle;
 
-    @FXML private VBox trainsContainer;
+    @FXML private ListView<Train> trainsList;
     @FXML private VBox emptyState;
     @FXML private VBox loadingState;
 
-    @FXML private HBox loadMoreSection;
-
-    @FXML private Button loadMoreButton;
-
     // =========================================================================
     // SERVICES AND DEPENDENCIES
     // =========================================================================
@@ -103,8 +100,8 @@ public class SearchTrainController {
     /** Session management for user authentication */
     private final SessionManager sessionManager = SessionManager.getInstance();
 
-    /** Service for dynamic pricing calculations */
-    private final AdminDataStructureService adminService = new AdminDataStructureService();
+    /** Shared precomputed fare table */
+    private final FareEngine fareEngine = FareEngine.getInstance();
 
     // =========================================================================
     // STATE MANAGEMENT
@@ -122,18 +119,34 @@ public class SearchTrainController {
     /** Complete list of trains from search results */
     private List<Train> allTrains = new ArrayList<>();
 
-    /** Number of trains currently displayed */
-    private int displayedTrains = 0;
+    /** Incremented per search so late seat batches from an earlier search are dropped */
+    private int searchGeneration = 0;
 
-    /** Number of trains to display per page load */
-    private static final int TRAINS_PER_PAGE = 10;
+    /** Delay collecting seat requests from cells laid out in the same pulse */
+    private static final int SEAT_FETCH_DEBOUNCE_MS = 60;
 
     // Performance Caches
-    /** Cache for consistent train data calculations */
-    private Map<String, ConsistentTrainData> trainDataCache = new HashMap<>();
+    /** Cache for consistent train data calculations, filled from a parallel stream */
+    private final Map<String, ConsistentTrainData> trainDataCache = new ConcurrentHashMap<>();
 
     /** Cache for station ID to name mappings */
-    private Map<Integer, String> stationNameCache = new HashMap<>();
+    private final Map<Integer, String> stationNameCache = new ConcurrentHashMap<>();
+
+    // Seat availability (FX thread only)
+    /** Seat availability by train ID for the current search date */
+    private final Map<Integer, Map<String, Integer>> seatCache = new HashMap<>();
+
+    /** Train IDs requested by cells since the last batch was sent */
+    private final Set<Integer> pendingSeatRequests = new LinkedHashSet<>();
+
+    /** Train IDs whose seat batch is currently being fetched */
+    private final Set<Integer> inFlightSeatRequests = new HashSet<>();
+
+    /** Cells created by the list view; only these are ever on screen */
+    private final List<TrainCardCell> cells = new ArrayList<>();
+
+    /** Coalesces seat requests into one batch per layout pass */
+    private final PauseTransition seatFetchDebounce = new PauseTransition(Duration.millis(SEAT_FETCH_DEBOUNCE_MS));
 
     /** Consistent distance calculation for the route */
     private int consistentDistance = -1;
@@ -150,6 +163,7 @@ public class SearchTrainController {
     public void initialize() {
         setupSortCombo();
         setupViewToggles();
+        setupTrainsList();
         initializeDefaultLabels();
     }
 
@@ -180,6 +194,21 @@ public class SearchTrainController {
         }
     }
 
+    /**
+     * Sets up the virtualized train list with recycled card cells.
+     */
+    private void setupTrainsList() {
+        if (trainsList != null) {
+            trainsList.setFocusTraversable(false);
+            trainsList.setCellFactory(list -> {
+                TrainCardCell cell = new TrainCardCell();
+                cells.add(cell);
+                return cell;
+            });
+        }
+        seatFetchDebounce.setOnFinished(e -> flushSeatRequests());
+    }
+
     /**
      * Initializes default label text for UI components.
      */
@@ -228,6 +257,10 @@ public class SearchTrainController {
      */
     private void loadTrainDataAsync() {
         showLoadingState(true);
+        int generation = ++searchGeneration;
+        seatCache.clear();
+        pendingSeatRequests.clear();
+        inFlightSeatRequests.clear();
 
         Task<List<Train>> loadTask = new Task<List<Train>>() {
             @Override
@@ -239,8 +272,14 @@ public class SearchTrainController {
 
                 // Optimized: Parallel processing for data calculation
                 if (!trains.isEmpty()) {
-                    trains.parallelStream().forEach(train -> calculateConsistentDataForTrain(train));
-                    calculateConsistentDistance(trains);
+                    preloadStationNames(trains);
+                    int[] distances = trains.parallelStream()
+                            .mapToInt(train -> trainService.getDistanceBetween(train, fromStation, toStation))
+                            .toArray();
+                    double[][] fares = fareEngine.fares(distances);
+                    IntStream.range(0, trains.size()).parallel()
+                            .forEach(i -> calculateConsistentDataForTrain(trains.get(i), distances[i], fares[i]));
+                    calculateConsistentDistance(trains, distances);
                 }
 
                 return trains;
@@ -248,8 +287,9 @@ public class SearchTrainController {
         };
 
         loadTask.setOnSucceeded(e -> {
+            // A newer search replaced this one while it was loading
+            if (generation != searchGeneration) return;
             allTrains = loadTask.getValue();
-            displayedTrains = 0;
             showLoadingState(false);
             
             if (allTrains == null || allTrains.isEmpty()) {
@@ -260,6 +300,7 @@ public class SearchTrainController {
         });
 
         loadTask.setOnFailed(e -> {
+            if (generation != searchGeneration) return;
             showLoadingState(false);
             Throwable exception = loadTask.getException();
             if (exception != null) {
@@ -268,7 +309,7 @@ public class SearchTrainController {
             showError("Failed to load trains. Please try again.");
         });
 
-        new Thread(loadTask).start();
+        BackgroundExecutor.submit(loadTask);
     }
 
     /**
@@ -276,20 +317,18 @@ public class SearchTrainController {
      * Updates cache with consistent distance values.
      *
      * @param trains List of trains to process
+     * @param distances Journey distance of each train
      */
-    private void calculateConsistentDistance(List<Train> trains) {
+    private void calculateConsistentDistance(List<Train> trains, int[] distances) {
         // Find max distance in one pass
-        consistentDistance = trains.stream()
-                .mapToInt(train -> trainService.getDistanceBetween(train, fromStation, toStation))
-                .max()
-                .orElse(-1);
+        consistentDistance = Arrays.stream(distances).max().orElse(-1);
 
         // Batch update cache
         trains.forEach(train -> {
             ConsistentTrainData data = trainDataCache.get(train.getTrainNumber());
             if (data != null) {
-                trainDataCache.put(train.getTrainNumber(), new ConsistentTrainData(
-                        consistentDistance, data.departureTime, data.arrivalTime, data.duration, data.pricing));
+                trainDataCache.put(train.getTrainNumber(), new ConsistentTrainData(consistentDistance,
+                        data.departureTime, data.arrivalTime, data.duration, data.halts, data.amenities, data.pricing));
             }
         });
     }
@@ -298,37 +337,62 @@ public class SearchTrainController {
      * Calculates consistent data for a single train including timing and pricing.
      *
      * @param train Train object to process
+     * @param distance Journey distance in kilometers
+     * @param fares Fares of every class for the distance, by class ordinal
      */
-    private void calculateConsistentDataForTrain(Train train) {
+    private void calculateConsistentDataForTrain(Train train, int distance, double[] fares) {
         try {
-            int distance = trainService.getDistanceBetween(train, fromStation, toStation);
             String departureTime = trainService.getDepartureTime(train, fromStation);
             String arrivalTime = trainService.getArrivalTime(train, toStation);
             String duration = trainService.calculateDuration(train, fromStation, toStation);
-            Map<String, Double> pricing = calculateConsistentPricingForTrain(train, distance);
+            int halts = trainService.getHaltsBetween(train, fromStation, toStation);
+            List<String> amenities = trainService.getTrainAmenities(train);
+            Map<String, Double> pricing = calculateConsistentPricingForTrain(train, fares);
 
-            trainDataCache.put(train.getTrainNumber(),
-                    new ConsistentTrainData(distance, departureTime, arrivalTime, duration, pricing));
+            trainDataCache.put(train.getTrainNumber(), new ConsistentTrainData(
+                    distance, departureTime, arrivalTime, duration, halts, amenities, pricing));
 
         } catch (Exception e) {
             // Silent error handling - could use logger instead
         }
     }
 
+    /**
+     * Loads the names of all source and destination stations of the results in one query,
+     * so binding a card never has to reach the database.
+     *
+     * @param trains List of trains to process
+     */
+    private void preloadStationNames(List<Train> trains) {
+        Set<Integer> stationIds = new HashSet<>();
+        for (Train train : trains) {
+            stationIds.add(train.getSourceStationId());
+            stationIds.add(train.getDestinationStationId());
+        }
+        stationIds.removeAll(stationNameCache.keySet());
+        if (stationIds.isEmpty()) return;
+
+        Map<Integer, Station> stations = stationDAO.getStationsByIds(stationIds);
+        for (Integer stationId : stationIds) {
+            Station station = stations.get(stationId);
+            stationNameCache.put(stationId, station != null && station.getName() != null ? station.getName() : "Unknown Station");
+        }
+    }
+
     /**
      * Calculates consistent pricing for all seat classes with surge pricing.
      *
      * @param train Train object for pricing calculation
-     * @param distance Journey distance in kilometers
+     * @param fares Fares of every class from the fare table, by class ordinal
      * @return Map of class names to calculated prices
      */
-    private Map<String, Double> calculateConsistentPricingForTrain(Train train, int distance) {
+    private Map<String, Double> calculateConsistentPricingForTrain(Train train, double[] fares) {
         Map<String, Double> pricing = new HashMap<>();
 
-        double slPrice = adminService.calculateDynamicFare(TrainClass.SL, distance);
-        double ac3Price = adminService.calculateDynamicFare(TrainClass._3A, distance);
-        double ac2Price = adminService.calculateDynamicFare(TrainClass._2A, distance);
-        double ac1Price = adminService.calculateDynamicFare(TrainClass._1A, distance);
+        double slPrice = fares[TrainClass.SL.ordinal()];
+        double ac3Price = fares[TrainClass._3A.ordinal()];
+        double ac2Price = fares[TrainClass._2A.ordinal()];
+        double ac1Price = fares[TrainClass._1A.ordinal()];
 
         if (isPopularRoute(fromStation, toStation)) {
             slPrice *= 1.2;
@@ -362,29 +426,21 @@ public class SearchTrainController {
     }
 
     /**
-     * Rebuilds train cards with current data and settings.
-     * Optimized for batch processing and efficient UI updates.
+     * Rebuilds the result list with current data and settings.
+     * Only the item list is replaced; visible cells rebind themselves to the new order.
      */
     private void rebuildCards() {
-        if (trainsContainer == null) return;
+        if (trainsList == null) return;
 
-        clearDisplay();
         updateResultsCount();
         handleEmptyState();
 
+        trainsList.getItems().setAll(allTrains);
         if (!allTrains.isEmpty()) {
-            loadMoreTrains();
+            trainsList.scrollTo(0);
         }
     }
 
-    /**
-     * Clears current display and resets pagination counter.
-     */
-    private void clearDisplay() {
-        trainsContainer.getChildren().clear();
-        displayedTrains = 0;
-    }
-
     /**
      * Updates results count label with current search results.
      */
@@ -405,389 +461,313 @@ public class SearchTrainController {
         }
     }
 
-    /**
-     * Loads next batch of trains with pagination support and batch processing.
-     */
-    private void loadMoreTrains() {
-        int startIndex = displayedTrains;
-        int endIndex = Math.min(displayedTrains + TRAINS_PER_PAGE, allTrains.size());
-
-        List<Train> trainsToLoad = allTrains.subList(startIndex, endIndex);
-
-        // Optimized: Batch UI operations
-        Platform.runLater(() -> {
-            List<VBox> cards = trainsToLoad.stream()
-                    .map(this::createEnhancedTrainCard)
-                    .collect(Collectors.toList());
-
-            trainsContainer.getChildren().addAll(cards);
-
-            // Animate cards in batch
-            for (int i = 0; i < cards.size(); i++) {
-                animateCardEntrance(cards.get(i), i);
-            }
-
-            displayedTrains = endIndex;
-            updateLoadMoreButton();
-        });
-    }
-
-    /**
-     * Updates load more button state and text based on remaining trains.
-     */
-    private void updateLoadMoreButton() {
-        boolean hasMore = displayedTrains < allTrains.size();
-
-        if (loadMoreSection != null) {
-            loadMoreSection.setVisible(hasMore);
-            loadMoreSection.setManaged(hasMore);
-        }
-
-        if (loadMoreButton != null && hasMore) {
-            int remaining = allTrains.size() - displayedTrains;
-            int toLoad = Math.min(remaining, TRAINS_PER_PAGE);
-            loadMoreButton.setText("Load " + toLoad + " More Trains (" + remaining + " remaining)");
-        }
-    }
-
     // =========================================================================
-    // TRAIN CARD CREATION
+    // SEAT AVAILABILITY LOADING
     // =========================================================================
 
     /**
-     * Creates comprehensive train card with all relevant information.
+     * Queues a seat availability lookup for a train that a cell has just displayed.
+     * Requests raised during the same layout pass are sent as one batch.
      *
-     * @param train Train object to create card for
-     * @return Complete VBox train card
+     * @param train Train shown by a cell without cached seat data
      */
-    private VBox createEnhancedTrainCard(Train train) {
-        VBox card = new VBox();
-        card.getStyleClass().add("train-card");
-        card.setSpacing(12);
-
-        card.getChildren().addAll(
-                createTrainHeader(train),
-                createRouteSection(train),
-                createActionSection(train)
-        );
-
-        return card;
-    }
+    private void requestSeats(Train train) {
+        int trainId = train.getTrainId();
+        if (seatCache.containsKey(trainId) || inFlightSeatRequests.contains(trainId)) return;
 
-    /**
-     * Creates train header section with information and seat availability.
-     *
-     * @param train Train object for header creation
-     * @return HBox containing train header elements
-     */
-    private HBox createTrainHeader(Train train) {
-        HBox header = new HBox(12);
-        header.getStyleClass().add("train-header");
-        header.setAlignment(Pos.CENTER_LEFT);
-
-        VBox info = createTrainInfoSection(train);
-        Region spacer = new Region();
-        HBox.setHgrow(spacer, Priority.ALWAYS);
-        HBox seats = createSeatsSection(train);
-
-        header.getChildren().addAll(info, spacer, seats);
-        return header;
+        pendingSeatRequests.add(trainId);
+        seatFetchDebounce.playFromStart();
     }
 
     /**
-     * Creates train information section with number, name, and amenities.
-     *
-     * @param train Train object for information display
-     * @return VBox containing train information
+     * Fetches seat availability for the queued trains that are still on screen.
+     * Rows scrolled past before the batch was sent are skipped; they are requested
+     * again if a cell shows them later.
      */
-    private VBox createTrainInfoSection(Train train) {
-        VBox info = new VBox(4);
-
-        Label number = new Label(train.getTrainNumber() != null ? train.getTrainNumber() : "N/A");
-        number.getStyleClass().add("train-number");
+    private void flushSeatRequests() {
+        List<Train> batch = new ArrayList<>();
+        for (TrainCardCell cell : cells) {
+            Train train = cell.getItem();
+            if (train != null && !cell.isEmpty()
+                    && pendingSeatRequests.contains(train.getTrainId())
+                    && inFlightSeatRequests.add(train.getTrainId())) {
+                batch.add(train);
+            }
+        }
+        pendingSeatRequests.clear();
+        if (batch.isEmpty()) return;
 
-        Label name = new Label(train.getName() != null ? train.getName() : "Unknown Train");
-        name.getStyleClass().add("train-name");
+        int generation = searchGeneration;
+        LocalDate date = journeyDate;
+        String from = fromStation;
+        String to = toStation;
 
-        HBox tags = createAmenitiesTags(train);
+        Task<Map<Integer, Map<String, Integer>>> seatTask = new Task<>() {
+            @Override
+            protected Map<Integer, Map<String, Integer>> call() {
+                return trainService.getAvailableSeatsBetween(batch, date, from, to);
+            }
+        };
 
-        info.getChildren().addAll(number, name, tags);
-        return info;
-    }
+        seatTask.setOnSucceeded(e -> {
+            if (generation != searchGeneration) return;
+            batch.forEach(train -> inFlightSeatRequests.remove(train.getTrainId()));
+            seatCache.putAll(seatTask.getValue());
+            refreshVisibleSeats();
+        });
 
-    /**
-     * Creates amenities tags display for train features.
-     *
-     * @param train Train object to get amenities for
-     * @return HBox containing amenity tags
-     */
-    private HBox createAmenitiesTags(Train train) {
-        HBox tags = new HBox(6);
-        tags.setAlignment(Pos.CENTER_LEFT);
-
-        List<String> amenities = trainService.getTrainAmenities(train);
-        amenities.stream()
-                .limit(3)
-                .forEach(amenity -> {
-                    Label tag = new Label(amenity);
-                    tag.getStyleClass().add("tag-chip");
-                    tags.getChildren().add(tag);
-                });
+        seatTask.setOnFailed(e -> {
+            if (generation != searchGeneration) return;
+            batch.forEach(train -> inFlightSeatRequests.remove(train.getTrainId()));
+            Throwable exception = seatTask.getException();
+            if (exception != null) {
+                exception.printStackTrace();
+            }
+        });
 
-        return tags;
+        BackgroundExecutor.submit(seatTask);
     }
 
     /**
-     * Creates route section showing departure, journey, and arrival information.
-     *
-     * @param train Train object for route display
-     * @return HBox containing route information
+     * Fills in the seat sections of on-screen cells whose data has arrived.
      */
-    private HBox createRouteSection(Train train) {
-        HBox route = new HBox(40);
-        route.getStyleClass().add("route-box");
-        route.setAlignment(Pos.CENTER_LEFT);
-
-        ConsistentTrainData data = trainDataCache.get(train.getTrainNumber());
-
-        VBox depInfo = createDepartureInfo(train, data);
-        VBox durationInfo = createJourneyDurationInfo(train, data);
-        VBox arrInfo = createArrivalInfo(train, data);
-
-        route.getChildren().addAll(depInfo, durationInfo, arrInfo);
-        return route;
+    private void refreshVisibleSeats() {
+        for (TrainCardCell cell : cells) {
+            Train train = cell.getItem();
+            if (train != null && !cell.isEmpty()) {
+                Map<String, Integer> seats = seatCache.get(train.getTrainId());
+                if (seats != null) {
+                    cell.showSeats(seats);
+                }
+            }
+        }
     }
 
-    /**
-     * Creates departure information display.
-     *
-     * @param train Train object
-     * @param data Consistent train data from cache
-     * @return VBox with departure information
-     */
-    private VBox createDepartureInfo(Train train, ConsistentTrainData data) {
-        String sourceStationName = getStationNameById(train.getSourceStationId());
-        String depTime = data != null ? data.departureTime : "06:00";
-        return createStationInfo(depTime, sourceStationName);
-    }
+    // =========================================================================
+    // TRAIN CARD CELL
+    // =========================================================================
 
     /**
-     * Creates journey duration and details information.
-     *
-     * @param train Train object
-     * @param data Consistent train data from cache
-     * @return VBox with journey duration information
+     * Recycled list cell rendering one train card.
+     * The card's node tree is built once per cell; scrolling only rebinds label text,
+     * so the number of nodes stays proportional to the viewport rather than the result count.
      */
-    private VBox createJourneyDurationInfo(Train train, ConsistentTrainData data) {
-        if (data != null) {
-            int halts = trainService.getHaltsBetween(train, fromStation, toStation);
-            return createDurationInfo(data.duration, halts + " halts • " + data.distance + " km");
-        } else {
-            String duration = trainService.calculateDuration(train, fromStation, toStation);
-            int halts = trainService.getHaltsBetween(train, fromStation, toStation);
-            int distance = consistentDistance > 0 ? consistentDistance :
-                    trainService.getDistanceBetween(train, fromStation, toStation);
-            return createDurationInfo(duration, halts + " halts • " + distance + " km");
-        }
-    }
+    private class TrainCardCell extends ListCell<Train> {
 
-    /**
-     * Creates arrival information display.
-     *
-     * @param train Train object
-     * @param data Consistent train data from cache
-     * @return VBox with arrival information
-     */
-    private VBox createArrivalInfo(Train train, ConsistentTrainData data) {
-        String destStationName = getStationNameById(train.getDestinationStationId());
-        String arrTime = data != null ? data.arrivalTime : "18:30";
-        return createStationInfo(arrTime, destStationName);
-    }
+        private final VBox card = new VBox(12);
 
-    /**
-     * Creates action section with view details and book now buttons.
-     *
-     * @param train Train object for action handling
-     * @return HBox containing action buttons
-     */
-    private HBox createActionSection(Train train) {
-        HBox actions = new HBox(12);
-        actions.setAlignment(Pos.CENTER_RIGHT);
-        actions.setStyle("-fx-padding: 12 0 0 0;");
+        private final Label numberLabel = new Label();
+        private final Label nameLabel = new Label();
+        private final HBox tags = new HBox(6);
 
-        Button viewDetails = new Button("View Details");
-        viewDetails.getStyleClass().addAll("ghost-btn-small");
-        viewDetails.setOnAction(e -> handleViewDetails(train));
+        private final Label departureTimeLabel = new Label();
+        private final Label departureStationLabel = new Label();
+        private final Label durationLabel = new Label();
+        private final Label detailsLabel = new Label();
+        private final Label arrivalTimeLabel = new Label();
+        private final Label arrivalStationLabel = new Label();
 
-        Button bookNow = new Button("Book Now");
-        bookNow.getStyleClass().addAll("empty-action-primary");
-        bookNow.setOnAction(e -> handleBookTrain(train));
+        private final SeatClassBox[] seatBoxes = {
+                new SeatClassBox("SL"), new SeatClassBox("3A"), new SeatClassBox("2A"), new SeatClassBox("1A")
+        };
 
-        actions.getChildren().addAll(viewDetails, bookNow);
-        return actions;
-    }
+        /**
+         * Builds the card skeleton shared by every train this cell displays.
+         */
+        TrainCardCell() {
+            card.getStyleClass().add("train-card");
+
+            // Header: train information and seat availability
+            numberLabel.getStyleClass().add("train-number");
+            nameLabel.getStyleClass().add("train-name");
+            tags.setAlignment(Pos.CENTER_LEFT);
+            VBox info = new VBox(4, numberLabel, nameLabel, tags);
+
+            HBox seats = new HBox(12);
+            seats.getStyleClass().add("seats-section");
+            seats.setAlignment(Pos.CENTER_RIGHT);
+            for (SeatClassBox seatBox : seatBoxes) {
+                seats.getChildren().add(seatBox.box);
+            }
 
-    /**
-     * Creates seats section showing availability and pricing for all classes.
-     *
-     * @param train Train object for seat information
-     * @return HBox containing seat class information
-     */
-    private HBox createSeatsSection(Train train) {
-        HBox seats = new HBox(12);
-        seats.getStyleClass().add("seats-section");
-        seats.setAlignment(Pos.CENTER_RIGHT);
-
-        Map<String, Integer> seatMap = trainService.getAvailableSeatsForDate(train, journeyDate);
-        ConsistentTrainData data = trainDataCache.get(train.getTrainNumber());
-
-        if (data != null && data.pricing != null) {
-            seats.getChildren().addAll(
-                    createSeatBoxWithPrice("SL", seatMap.getOrDefault("SL", 0), data.pricing.get("SL")),
-                    createSeatBoxWithPrice("3A", seatMap.getOrDefault("3A", 0), data.pricing.get("3A")),
-                    createSeatBoxWithPrice("2A", seatMap.getOrDefault("2A", 0), data.pricing.get("2A")),
-                    createSeatBoxWithPrice("1A", seatMap.getOrDefault("1A", 0), data.pricing.get("1A"))
-            );
-        } else {
-            seats.getChildren().addAll(
-                    createSeatBox("SL", seatMap.getOrDefault("SL", 0)),
-                    createSeatBox("3A", seatMap.getOrDefault("3A", 0)),
-                    createSeatBox("2A", seatMap.getOrDefault("2A", 0)),
-                    createSeatBox("1A", seatMap.getOrDefault("1A", 0))
-            );
-        }
+            Region spacer = new Region();
+            HBox.setHgrow(spacer, Priority.ALWAYS);
+            HBox header = new HBox(12, info, spacer, seats);
+            header.getStyleClass().add("train-header");
+            header.setAlignment(Pos.CENTER_LEFT);
+
+            // Route: departure, journey and arrival
+            departureTimeLabel.getStyleClass().add("station-time");
+            departureStationLabel.getStyleClass().add("station-name-small");
+            durationLabel.getStyleClass().add("duration");
+            detailsLabel.getStyleClass().add("stops");
+            arrivalTimeLabel.getStyleClass().add("station-time");
+            arrivalStationLabel.getStyleClass().add("station-name-small");
+
+            HBox route = new HBox(40,
+                    centeredColumn(departureTimeLabel, departureStationLabel),
+                    centeredColumn(durationLabel, detailsLabel),
+                    centeredColumn(arrivalTimeLabel, arrivalStationLabel));
+            route.getStyleClass().add("route-box");
+            route.setAlignment(Pos.CENTER_LEFT);
+
+            // Actions
+            Button viewDetails = new Button("View Details");
+            viewDetails.getStyleClass().addAll("ghost-btn-small");
+            viewDetails.setOnAction(e -> {
+                if (getItem() != null) handleViewDetails(getItem());
+            });
 
-        return seats;
-    }
+            Button bookNow = new Button("Book Now");
+            bookNow.getStyleClass().addAll("empty-action-primary");
+            bookNow.setOnAction(e -> {
+                if (getItem() != null) handleBookTrain(getItem());
+            });
 
-    /**
-     * Creates seat class box with pricing information.
-     *
-     * @param className Seat class name
-     * @param count Available seat count
-     * @param price Price for the class
-     * @return VBox containing seat class information
-     */
-    private VBox createSeatBoxWithPrice(String className, int count, Double price) {
-        VBox box = new VBox(4);
-        box.getStyleClass().add("seat-class");
-        box.setAlignment(Pos.CENTER);
+            HBox actions = new HBox(12, viewDetails, bookNow);
+            actions.setAlignment(Pos.CENTER_RIGHT);
+            actions.setStyle("-fx-padding: 12 0 0 0;");
 
-        Label name = new Label(className);
-        name.getStyleClass().add("class-name");
+            card.getChildren().addAll(header, route, actions);
+            setText(null);
+            setContentDisplay(ContentDisplay.GRAPHIC_ONLY);
+        }
 
-        Label countLabel = new Label(count > 0 ? String.valueOf(count) : "WL");
-        countLabel.getStyleClass().addAll("seat-count", count > 0 ? "available" : "waitlist");
+        @Override
+        protected void updateItem(Train train, boolean empty) {
+            super.updateItem(train, empty);
 
-        Label priceLabel = new Label("₹" + String.format("%.0f", price != null ? price : 0.0));
-        priceLabel.getStyleClass().add("price-info");
+            if (empty || train == null) {
+                setGraphic(null);
+                return;
+            }
 
-        if (count == 0) {
-            Label waitlistLabel = new Label("Waitlist");
-            waitlistLabel.getStyleClass().add("waitlist-info");
-            box.getChildren().addAll(name, countLabel, waitlistLabel, priceLabel);
-        } else {
-            box.getChildren().addAll(name, countLabel, priceLabel);
+            bind(train);
+            setGraphic(card);
         }
 
-        return box;
-    }
+        /**
+         * Rebinds the card to a train using precomputed data only.
+         *
+         * @param train Train to display
+         */
+        private void bind(Train train) {
+            ConsistentTrainData data = trainDataCache.get(train.getTrainNumber());
 
-    /**
-     * Creates seat class box without pricing information.
-     *
-     * @param className Seat class name
-     * @param count Available seat count
-     * @return VBox containing seat class information
-     */
-    private VBox createSeatBox(String className, int count) {
-        VBox box = new VBox(4);
-        box.getStyleClass().add("seat-class");
-        box.setAlignment(Pos.CENTER);
+            numberLabel.setText(train.getTrainNumber() != null ? train.getTrainNumber() : "N/A");
+            nameLabel.setText(train.getName() != null ? train.getName() : "Unknown Train");
+
+            tags.getChildren().clear();
+            if (data != null && data.amenities != null) {
+                data.amenities.stream()
+                        .limit(3)
+                        .forEach(amenity -> {
+                            Label tag = new Label(amenity);
+                            tag.getStyleClass().add("tag-chip");
+                            tags.getChildren().add(tag);
+                        });
+            }
 
-        Label name = new Label(className);
-        name.getStyleClass().add("class-name");
+            departureTimeLabel.setText(data != null && data.departureTime != null ? data.departureTime : "--:--");
+            departureStationLabel.setText(getStationNameById(train.getSourceStationId()));
+            durationLabel.setText(data != null && data.duration != null ? data.duration : "--h --m");
+            detailsLabel.setText(data != null ? data.halts + " halts • " + data.distance + " km" : "-- halts");
+            arrivalTimeLabel.setText(data != null && data.arrivalTime != null ? data.arrivalTime : "--:--");
+            arrivalStationLabel.setText(getStationNameById(train.getDestinationStationId()));
 
-        Label countLabel = new Label(count > 0 ? String.valueOf(count) : "WL");
-        countLabel.getStyleClass().addAll("seat-count", count > 0 ? "available" : "waitlist");
+            Map<String, Integer> seats = seatCache.get(train.getTrainId());
+            if (seats != null) {
+                showSeats(seats);
+            } else {
+                for (SeatClassBox seatBox : seatBoxes) {
+                    seatBox.showLoading();
+                }
+                requestSeats(train);
+            }
+        }
 
-        if (count == 0) {
-            Label waitlistLabel = new Label("Waitlist");
-            waitlistLabel.getStyleClass().add("waitlist-info");
-            box.getChildren().addAll(name, countLabel, waitlistLabel);
-        } else {
-            box.getChildren().addAll(name, countLabel);
+        /**
+         * Fills the seat section with availability and pricing.
+         *
+         * @param seatMap Available seats by class
+         */
+        private void showSeats(Map<String, Integer> seatMap) {
+            ConsistentTrainData data = getItem() != null ? trainDataCache.get(getItem().getTrainNumber()) : null;
+            for (SeatClassBox seatBox : seatBoxes) {
+                Double price = data != null && data.pricing != null ? data.pricing.get(seatBox.className) : null;
+                seatBox.show(seatMap.getOrDefault(seatBox.className, 0), price);
+            }
         }
 
-        return box;
+        private VBox centeredColumn(Label top, Label bottom) {
+            VBox column = new VBox(2, top, bottom);
+            column.setAlignment(Pos.CENTER);
+            return column;
+        }
     }
 
     /**
-     * Creates station information display with time and name.
-     *
-     * @param time Station time (departure/arrival)
-     * @param stationName Name of the station
-     * @return VBox containing station information
+     * Seat class box inside a train card showing count, waitlist flag and price.
      */
-    private VBox createStationInfo(String time, String stationName) {
-        VBox info = new VBox(2);
-        info.setAlignment(Pos.CENTER);
-
-        Label timeLabel = new Label(time != null ? time : "--:--");
-        timeLabel.getStyleClass().add("station-time");
+    private static class SeatClassBox {
 
-        Label stationLabel = new Label(stationName != null ? stationName : "Unknown");
-        stationLabel.getStyleClass().add("station-name-small");
+        private final String className;
+        private final VBox box = new VBox(4);
+        private final Label countLabel = new Label();
+        private final Label waitlistLabel = new Label("Waitlist");
+        private final Label priceLabel = new Label();
 
-        info.getChildren().addAll(timeLabel, stationLabel);
-        return info;
-    }
-
-    /**
-     * Creates journey duration information display.
-     *
-     * @param duration Journey duration string
-     * @param details Additional details (halts, distance)
-     * @return VBox containing duration information
-     */
-    private VBox createDurationInfo(String duration, String details) {
-        VBox info = new VBox(2);
-        info.setAlignment(Pos.CENTER);
+        SeatClassBox(String className) {
+            this.className = className;
 
-        Label durationLabel = new Label(duration != null ? duration : "--h --m");
-        durationLabel.getStyleClass().add("duration");
+            box.getStyleClass().add("seat-class");
+            box.setAlignment(Pos.CENTER);
 
-        Label detailsLabel = new Label(details != null ? details : "-- halts");
-        detailsLabel.getStyleClass().add("stops");
+            Label name = new Label(className);
+            name.getStyleClass().add("class-name");
+            countLabel.getStyleClass().add("seat-count");
+            waitlistLabel.getStyleClass().add("waitlist-info");
+            priceLabel.getStyleClass().add("price-info");
 
-        info.getChildren().addAll(durationLabel, detailsLabel);
-        return info;
-    }
+            box.getChildren().addAll(name, countLabel, waitlistLabel, priceLabel);
+        }
 
-    // =========================================================================
-    // ANIMATION AND VISUAL EFFECTS
-    // =========================================================================
+        /**
+         * Shows a placeholder while the seat batch is being fetched.
+         */
+        void showLoading() {
+            setCountStyle("loading");
+            countLabel.setText("…");
+            setVisibleManaged(waitlistLabel, false);
+            setVisibleManaged(priceLabel, false);
+        }
 
-    /**
-     * Animates card entrance with optimized timing for smooth user experience.
-     *
-     * @param card VBox card to animate
-     * @param index Card index for staggered timing
-     */
-    private void animateCardEntrance(VBox card, int index) {
-        card.setOpacity(0);
-        card.setTranslateY(10); // Reduced animation distance
+        /**
+         * Shows availability and price for this class.
+         *
+         * @param count Available seat count
+         * @param price Price for the class, null if unknown
+         */
+        void show(int count, Double price) {
+            setCountStyle(count > 0 ? "available" : "waitlist");
+            countLabel.setText(count > 0 ? String.valueOf(count) : "WL");
+            setVisibleManaged(waitlistLabel, count == 0);
 
-        FadeTransition fade = new FadeTransition(Duration.millis(200), card); // Faster animation
-        fade.setToValue(1.0);
-        fade.setDelay(Duration.millis(index * 25)); // Reduced delay
+            if (price != null) {
+                priceLabel.setText("₹" + String.format("%.0f", price));
+            }
+            setVisibleManaged(priceLabel, price != null);
+        }
 
-        TranslateTransition slide = new TranslateTransition(Duration.millis(200), card);
-        slide.setToY(0);
-        slide.setDelay(Duration.millis(index * 25));
+        private void setCountStyle(String state) {
+            countLabel.getStyleClass().removeAll("available", "waitlist", "loading");
+            countLabel.getStyleClass().add(state);
+        }
 
-        fade.play();
-        slide.play();
+        private static void setVisibleManaged(Label label, boolean show) {
+            label.setVisible(show);
+            label.setManaged(show);
+        }
     }
 
     // =========================================================================
@@ -885,16 +865,6 @@ public class SearchTrainController {
         }
     }
 
-    /**
-     * Handles load more button click to show additional results.
-     *
-     * @param event Action event from load more button
-     */
-    @FXML
-    public void handleLoadMore(ActionEvent event) {
-        loadMoreTrains();
-    }
-
     /**
      * Handles back navigation to main menu.
      *
@@ -1013,6 +983,12 @@ public class SearchTrainController {
         /** Journey duration as formatted string */
         public final String duration;
 
+        /** Number of halts between the searched stations */
+        public final int halts;
+
+        /** Amenity tags shown on the card */
+        public final List<String> amenities;
+
         /** Pricing information for all seat classes */
         public final Map<String, Double> pricing;
 
@@ -1023,14 +999,18 @@ public class SearchTrainController {
          * @param departureTime Departure time string
          * @param arrivalTime Arrival time string
          * @param duration Journey duration string
+         * @param halts Number of halts between the searched stations
+         * @param amenities Amenity tags for the train
          * @param pricing Map of class names to prices
          */
-        public ConsistentTrainData(int distance, String departureTime, String arrivalTime,
-                                   String duration, Map<String, Double> pricing) {
+        public ConsistentTrainData(int distance, String departureTime, String arrivalTime, String duration,
+                                   int halts, List<String> amenities, Map<String, Double> pricing) {
             this.distance = distance;
             this.departureTime = departureTime;
             this.arrivalTime = arrivalTime;
             this.duration = duration;
+            this.halts = halts;
+            this.amenities = amenities;
             this.pricing = pricing;
         }
     }
@@ -1,5 +1,6 @@
 package trainapp.controller.ui;
 
+import javafx.animation.PauseTransition;
 import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -9,8 +10,11 @@ import javafx.scene.control.*;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.HBox;
 import javafx.stage.Stage;
+import javafx.util.Duration;
 import trainapp.dao.StationDAO;
 import trainapp.model.Station;
+import trainapp.service.RouteIndex;
+import trainapp.service.StationSearchIndex;
 import trainapp.util.SceneManager;
 
 import java.util.List;
@@ -478,6 +482,8 @@ public class StationNetworkController {
     private void processStationDeletion(Station station) {
         try {
             if (stationDAO.deleteStation(station.getStationId())) {
+                RouteIndex.getInstance().refreshStations();
+                StationSearchIndex.getInstance().refresh();
                 showMessage("Station deleted successfully", "success");
                 refreshAllData();
             } else {
@@ -660,6 +666,8 @@ public class StationNetworkController {
             }
 
             if (success) {
+                RouteIndex.getInstance().refreshStations();
+                StationSearchIndex.getInstance().refresh();
                 refreshAllData();
             }
         } catch (Exception e) {
@@ -717,17 +725,12 @@ public class StationNetworkController {
         messageLabel.getStyleClass().add(type);
 
         // Auto-hide message after 3 seconds
-        new Thread(() -> {
-            try {
-                Thread.sleep(3000);
-                Platform.runLater(() -> {
-                    messageLabel.setVisible(false);
-                    messageLabel.setManaged(false);
-                });
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
-        }).start();
+        PauseTransition hideDelay = new PauseTransition(Duration.seconds(3));
+        hideDelay.setOnFinished(e -> {
+            messageLabel.setVisible(false);
+            messageLabel.setManaged(false);
+        });
+        hideDelay.play();
     }
 
     // -------------------------------------------------------------------------
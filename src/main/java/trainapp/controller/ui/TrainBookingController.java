@@ -1,5 +1,6 @@
 package trainapp.controller.ui;
 
+import javafx.animation.PauseTransition;
 import javafx.application.Platform;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
@@ -7,14 +8,16 @@ import javafx.scene.control.*;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Region;
 import javafx.scene.layout.VBox;
+import javafx.util.Duration;
 import trainapp.dao.TrainDAO;
 import trainapp.model.Train;
 import trainapp.model.Booking;
 import trainapp.model.TrainClass;
 import trainapp.service.BookingService;
+import trainapp.service.CoachLayout.BerthType;
+import trainapp.service.FareEngine;
 import trainapp.service.SessionManager;
 import trainapp.service.TrainService;
-import trainapp.service.AdminDataStructureService;
 import trainapp.util.SceneManager;
 
 import java.time.LocalDate;
@@ -110,6 +113,7 @@ public class TrainBookingController {
     @FXML private RadioButton maleRadio;
     @FXML private RadioButton femaleRadio;
     @FXML private RadioButton otherRadio;
+    @FXML private ComboBox<String> berthPreferenceCombo;
     @FXML private Button addPassengerBtn;
     @FXML private Button clearFormBtn;
 
@@ -145,8 +149,8 @@ public class TrainBookingController {
     /** Service for booking operations and payment processing */
     private final BookingService bookingService = new BookingService();
 
-    /** Service for dynamic fare calculations */
-    private final AdminDataStructureService adminService = new AdminDataStructureService();
+    /** Shared precomputed fare table */
+    private final FareEngine fareEngine = FareEngine.getInstance();
 
     // =========================================================================
     // STATE MANAGEMENT AND CONFIGURATION
@@ -176,6 +180,18 @@ public class TrainBookingController {
     // Configuration Constants
     private static final double CONVENIENCE_FEE = 20.0;
     private static final int MAX_PASSENGERS = 6;
+    private static final String NO_BERTH_PREFERENCE = "No Preference";
+
+    /** Berth preference choices and the berth codes the booking service expects */
+    private static final Map<String, String> BERTH_PREFERENCES = new LinkedHashMap<>();
+    static {
+        BERTH_PREFERENCES.put(NO_BERTH_PREFERENCE, null);
+        BERTH_PREFERENCES.put("Lower", BerthType.LOWER.getCode());
+        BERTH_PREFERENCES.put("Middle", BerthType.MIDDLE.getCode());
+        BERTH_PREFERENCES.put("Upper", BerthType.UPPER.getCode());
+        BERTH_PREFERENCES.put("Side Lower", BerthType.SIDE_LOWER.getCode());
+        BERTH_PREFERENCES.put("Side Upper", BerthType.SIDE_UPPER.getCode());
+    }
 
     // =========================================================================
     // INITIALIZATION AND SETUP
@@ -198,6 +214,7 @@ public class TrainBookingController {
     public void initialize() {
         setupUserInterface();
         setupToggleGroups();
+        setupBerthPreferenceCombo();
         setupClassCardClickHandlers();
         setupIndividualRadioListeners();
         Platform.runLater(this::updateTotals);
@@ -247,6 +264,16 @@ public class TrainBookingController {
         otherRadio.setToggleGroup(genderToggleGroup);
     }
 
+    /**
+     * Fills the berth preference picker. Without a preference, seniors are given a lower
+     * berth where one is free.
+     */
+    private void setupBerthPreferenceCombo() {
+        if (berthPreferenceCombo == null) return;
+        berthPreferenceCombo.getItems().addAll(BERTH_PREFERENCES.keySet());
+        berthPreferenceCombo.setValue(NO_BERTH_PREFERENCE);
+    }
+
     /**
      * Sets default selections for toggle groups.
      * Defaults to AC 3-Tier class and Male gender.
@@ -400,11 +427,12 @@ public class TrainBookingController {
      * Applies surge pricing for popular routes and stores results for cross-controller access.
      */
     private void calculateConsistentPricing() {
-        // Use AdminDataStructureService for consistent pricing calculation
-        double slPrice = adminService.calculateDynamicFare(TrainClass.SL, distanceKm);
-        double ac3Price = adminService.calculateDynamicFare(TrainClass._3A, distanceKm);
-        double ac2Price = adminService.calculateDynamicFare(TrainClass._2A, distanceKm);
-        double ac1Price = adminService.calculateDynamicFare(TrainClass._1A, distanceKm);
+        // Same fare table as every other screen
+        double[] fares = fareEngine.fares(distanceKm);
+        double slPrice = fares[TrainClass.SL.ordinal()];
+        double ac3Price = fares[TrainClass._3A.ordinal()];
+        double ac2Price = fares[TrainClass._2A.ordinal()];
+        double ac1Price = fares[TrainClass._1A.ordinal()];
 
         // Apply surge pricing if route is popular
         if (isPopularRoute(fromStation, toStation)) {
@@ -805,7 +833,7 @@ public class TrainBookingController {
             return;
         }
 
-        PassengerData passenger = new PassengerData(input.name, input.age, input.gender);
+        PassengerData passenger = new PassengerData(input.name, input.age, input.gender, input.berthPreference);
         passengerList.add(passenger);
         addPassengerToList(passenger);
         clearForm();
@@ -822,7 +850,9 @@ public class TrainBookingController {
         String name = passengerNameField != null ? passengerNameField.getText().trim() : "";
         String ageText = passengerAgeField != null ? passengerAgeField.getText().trim() : "";
         String gender = getSelectedGender();
-        return new PassengerInput(name, ageText, gender);
+        String berthPreference = berthPreferenceCombo != null
+                ? BERTH_PREFERENCES.get(berthPreferenceCombo.getValue()) : null;
+        return new PassengerInput(name, ageText, gender, berthPreference);
     }
 
     /**
@@ -898,7 +928,14 @@ public class TrainBookingController {
         Region spacer = new Region();
         HBox.setHgrow(spacer, javafx.scene.layout.Priority.ALWAYS);
 
-        passengerItem.getChildren().addAll(nameLabel, ageLabel, genderLabel, spacer, removeBtn);
+        passengerItem.getChildren().addAll(nameLabel, ageLabel, genderLabel);
+        BerthType preference = BerthType.fromCode(passenger.getBerthPreference());
+        if (preference != null) {
+            Label berthLabel = new Label("Prefers " + berthPreferenceLabel(preference));
+            berthLabel.getStyleClass().add("passenger-details");
+            passengerItem.getChildren().add(berthLabel);
+        }
+        passengerItem.getChildren().addAll(spacer, removeBtn);
         return passengerItem;
     }
 
@@ -933,6 +970,22 @@ public class TrainBookingController {
         if (passengerNameField != null) passengerNameField.clear();
         if (passengerAgeField != null) passengerAgeField.clear();
         if (maleRadio != null) maleRadio.setSelected(true);
+        if (berthPreferenceCombo != null) berthPreferenceCombo.setValue(NO_BERTH_PREFERENCE);
+    }
+
+    /**
+     * Gets the picker label of a berth type.
+     *
+     * @param berthType Berth type
+     * @return Label shown in the berth preference picker
+     */
+    private static String berthPreferenceLabel(BerthType berthType) {
+        for (Map.Entry<String, String> choice : BERTH_PREFERENCES.entrySet()) {
+            if (berthType.getCode().equals(choice.getValue())) {
+                return choice.getKey();
+            }
+        }
+        return berthType.getCode();
     }
 
     // =========================================================================
@@ -1072,6 +1125,7 @@ public class TrainBookingController {
             passengerInfo.setName(passengerData.getName());
             passengerInfo.setAge(passengerData.getAge());
             passengerInfo.setGender(passengerData.getGender());
+            passengerInfo.setBerthPreference(passengerData.getBerthPreference());
             passengers.add(passengerInfo);
         }
         return passengers;
@@ -1178,16 +1232,11 @@ public class TrainBookingController {
         messageLabel.setVisible(true);
         applyMessageStyling(type);
 
-        new Thread(() -> {
-            try {
-                Thread.sleep(3000);
-                Platform.runLater(() -> {
-                    if (messageLabel != null) messageLabel.setVisible(false);
-                });
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
-        }).start();
+        PauseTransition hideDelay = new PauseTransition(Duration.seconds(3));
+        hideDelay.setOnFinished(e -> {
+            if (messageLabel != null) messageLabel.setVisible(false);
+        });
+        hideDelay.play();
     }
 
     /**
@@ -1223,6 +1272,7 @@ public class TrainBookingController {
         private final String name;
         private final int age;
         private final String gender;
+        private final String berthPreference;
 
         /**
          * Creates a new passenger data object.
@@ -1230,16 +1280,19 @@ public class TrainBookingController {
          * @param name Passenger name
          * @param age Passenger age
          * @param gender Passenger gender
+         * @param berthPreference Preferred berth code such as "LB", or null for no preference
          */
-        public PassengerData(String name, int age, String gender) {
+        public PassengerData(String name, int age, String gender, String berthPreference) {
             this.name = name;
             this.age = age;
             this.gender = gender;
+            this.berthPreference = berthPreference;
         }
 
         public String getName() { return name; }
         public int getAge() { return age; }
         public String getGender() { return gender; }
+        public String getBerthPreference() { return berthPreference; }
     }
 
     /**
@@ -1249,12 +1302,14 @@ public class TrainBookingController {
         String name;
         String ageText;
         String gender;
+        String berthPreference;
         int age;
 
-        PassengerInput(String name, String ageText, String gender) {
+        PassengerInput(String name, String ageText, String gender, String berthPreference) {
             this.name = name;
             this.ageText = ageText;
             this.gender = gender;
+            this.berthPreference = berthPreference;
         }
     }
 
@@ -14,9 +14,9 @@ import trainapp.model.Station;
 import trainapp.model.Train;
 import trainapp.model.TrainSchedule;
 import trainapp.model.TrainClass;
+import trainapp.service.FareEngine;
 import trainapp.service.SessionManager;
 import trainapp.service.TrainService;
-import trainapp.service.AdminDataStructureService;
 import trainapp.util.SceneManager;
 
 import java.time.LocalDate;
@@ -117,8 +117,8 @@ public class TrainDetailsController {
     /** Session management for user authentication state */
     private final SessionManager sessionManager = SessionManager.getInstance();
 
-    /** Service for dynamic pricing and fare calculations */
-    private final AdminDataStructureService adminService = new AdminDataStructureService();
+    /** Shared precomputed fare table */
+    private final FareEngine fareEngine = FareEngine.getInstance();
 
     // =========================================================================
     // STATE MANAGEMENT
@@ -272,11 +272,12 @@ public class TrainDetailsController {
     private Map<String, Double> calculateConsistentPricing(int distance) {
         Map<String, Double> pricing = new java.util.HashMap<>();
 
-        // Calculate base fares using admin service
-        double slPrice = adminService.calculateDynamicFare(TrainClass.SL, distance);
-        double ac3Price = adminService.calculateDynamicFare(TrainClass._3A, distance);
-        double ac2Price = adminService.calculateDynamicFare(TrainClass._2A, distance);
-        double ac1Price = adminService.calculateDynamicFare(TrainClass._1A, distance);
+        // Calculate base fares from the shared fare table
+        double[] fares = fareEngine.fares(distance);
+        double slPrice = fares[TrainClass.SL.ordinal()];
+        double ac3Price = fares[TrainClass._3A.ordinal()];
+        double ac2Price = fares[TrainClass._2A.ordinal()];
+        double ac1Price = fares[TrainClass._1A.ordinal()];
 
         // Apply popular route surcharge
         if (isPopularRoute(fromStation, toStation)) {
@@ -1,5 +1,6 @@
 package trainapp.controller.ui;
 
+import javafx.animation.PauseTransition;
 import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -10,6 +11,7 @@ import javafx.scene.control.*;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.HBox;
 import javafx.stage.Stage;
+import javafx.util.Duration;
 import trainapp.dao.UserDAO;
 import trainapp.model.User;
 import trainapp.util.SceneManager;
@@ -566,16 +568,11 @@ public class UserManagementController {
         messageLabel.getStyleClass().add(type);
 
         // Auto-hide message after 3 seconds
-        new Thread(() -> {
-            try {
-                Thread.sleep(3000);
-                Platform.runLater(() -> {
-                    messageLabel.setVisible(false);
-                    messageLabel.setManaged(false);
-                });
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
-        }).start();
+        PauseTransition hideDelay = new PauseTransition(Duration.seconds(3));
+        hideDelay.setOnFinished(e -> {
+            messageLabel.setVisible(false);
+            messageLabel.setManaged(false);
+        });
+        hideDelay.play();
     }
 }
\ No newline at end of file
@@ -14,6 +14,7 @@ import trainapp.model.User;
 import trainapp.service.AuthService;
 import trainapp.service.SessionManager;
 import trainapp.service.UserProfileService;
+import trainapp.util.BackgroundExecutor;
 import trainapp.util.SceneManager;
 
 import java.time.format.DateTimeFormatter;
@@ -179,7 +180,7 @@ public class UserProfileController {
             });
         });
 
-        new Thread(statsTask).start();
+        BackgroundExecutor.submit(statsTask);
     }
 
     /**
@@ -207,7 +208,7 @@ public class UserProfileController {
             });
         });
 
-        new Thread(activityTask).start();
+        BackgroundExecutor.submit(activityTask);
     }
 
     // -------------------------------------------------------------------------
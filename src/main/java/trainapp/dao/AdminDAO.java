@@ -22,23 +22,6 @@ import java.sql.*;
  */
 public class AdminDAO {
 
-    // -------------------------------------------------------------------------
-    // Database Connection
-    // -------------------------------------------------------------------------
-
-    /**
-     * Database connection instance for all admin operations
-     */
-    private final Connection connection;
-
-    /**
-     * Constructor that initializes the database connection.
-     * Uses DBConnection utility to establish connection to the database.
-     */
-    public AdminDAO() {
-        this.connection = DBConnection.getConnection();
-    }
-
     // -------------------------------------------------------------------------
     // Authentication Operations
     // -------------------------------------------------------------------------
@@ -69,7 +52,8 @@ public class AdminDAO {
 
         String sql = "SELECT admin_id, username, password_hash FROM admins WHERE username = ?";
 
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, username);
 
             try (ResultSet rs = stmt.executeQuery()) {
@@ -1,11 +1,16 @@
 package trainapp.dao;
 
+import trainapp.dao.DashboardCounters.BookingFacts;
 import trainapp.model.Booking;
+import trainapp.model.Journey;
+import trainapp.model.Passenger;
+import trainapp.model.Payment;
 import trainapp.util.DBConnection;
 
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Predicate;
 
 /**
  * Data Access Object (DAO) for Booking-related database operations.
@@ -13,10 +18,14 @@ import java.util.*;
  *
  * <p>Features:
  * <ul>
- *   <li>Create new bookings and passengers</li>
+ *   <li>Create new bookings and passengers, together in one transaction</li>
+ *   <li>Choose, release and retake seats under a lock on the journey</li>
  *   <li>Update/Cancel/Delete bookings</li>
  *   <li>Find bookings by ID, user, PNR, or all</li>
+ *   <li>Admin listing: keyset-paginated pages, a streaming cursor and per-status totals,
+ *       filtered in SQL</li>
  *   <li>Reporting: total count and revenue</li>
+ *   <li>Every committed booking write is recorded in {@link DashboardCounters}</li>
  *   <li>Handles database connection and statement resource management</li>
  * </ul>
  *
@@ -24,6 +33,23 @@ import java.util.*;
  */
 public class BookingDAO {
 
+    /** Admin listing rows: a booking with its user name and train number */
+    private static final String LISTING_FROM = """
+             FROM bookings b
+             JOIN users u ON b.user_id = u.user_id
+             JOIN trains t ON b.train_id = t.train_id
+            """;
+
+    private static final String LISTING_SELECT = """
+            SELECT b.booking_id, b.user_id, b.journey_id, b.train_id, b.source_station_id, b.dest_station_id,
+                   b.booking_time, b.total_fare, b.status, b.pnr, u.name AS user_name, t.train_number AS train_number
+            """ + LISTING_FROM;
+
+    private final PaymentDAO paymentDAO = new PaymentDAO();
+    private final PassengerDAO passengerDAO = new PassengerDAO();
+    private final JourneyDAO journeyDAO = new JourneyDAO();
+    private final NotificationOutboxDAO outboxDAO = new NotificationOutboxDAO();
+
     // -------------------------------------------------------------------------
     // Booking Creation & Persistence
     // -------------------------------------------------------------------------
@@ -35,14 +61,229 @@ public class BookingDAO {
      * @return Generated booking ID if successful, 0 otherwise
      */
     public long createBooking(Booking booking) {
+        try (Connection conn = DBConnection.getConnection()) {
+            long bookingId = insertBooking(conn, booking);
+            if (bookingId > 0) {
+                DashboardCounters.bookingChanged(null, factsOf(booking, null));
+            }
+            return bookingId;
+        } catch (SQLException e) {
+            System.err.println("Error creating booking: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return 0;
+    }
+
+    /**
+     * Creates a booking together with its passengers in a single transaction on one
+     * connection. The journey is locked first and the seat planner chooses the seats, so
+     * concurrent bookings of the same journey are admitted one at a time against the seats
+     * actually left. The passengers go in as one batch. Either the seats, the booking and all
+     * passengers are committed or nothing is.
+     *
+     * @param booking    new booking; receives its generated ID
+     * @param passengers passengers of the booking; receive the booking ID and their generated IDs
+     * @param planner    chooses the seats; expected to set the passengers' seat numbers
+     * @return Generated booking ID if the transaction committed, 0 otherwise (also when the
+     *         planner found no seats)
+     * @throws IllegalArgumentException if there are no passengers or one has no name
+     */
+    public long createBookingWithPassengers(Booking booking, List<Passenger> passengers, SeatPlanner planner) {
+        if (passengers == null || passengers.isEmpty()) {
+            throw new IllegalArgumentException("Booking must have at least one passenger");
+        }
+        for (Passenger passenger : passengers) {
+            if (passenger.getName() == null || passenger.getName().trim().isEmpty()) {
+                throw new IllegalArgumentException("Passenger must have a valid name");
+            }
+        }
+        JourneyDAO.ensureSeatMapTable();
+
+        try (Connection conn = DBConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            long bookingId;
+            try {
+                if (!applySeatPlan(conn, booking.getJourneyId(), planner)) {
+                    conn.rollback();
+                    return 0;
+                }
+                bookingId = insertBooking(conn, booking);
+                if (bookingId <= 0) {
+                    conn.rollback();
+                    return 0;
+                }
+                for (Passenger passenger : passengers) {
+                    passenger.setBookingId(bookingId);
+                }
+                if (!passengerDAO.insertPassengers(conn, passengers)) {
+                    conn.rollback();
+                    return 0;
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+            booking.setBookingId(bookingId);
+            DashboardCounters.bookingChanged(null, factsOf(booking, passengers.get(0).getCoachType()));
+            return bookingId;
+        } catch (SQLException e) {
+            System.err.println("Error creating booking with passengers: " + e.getMessage());
+            e.printStackTrace();
+            return 0;
+        }
+    }
+
+    /**
+     * Cancels a booking that is still waiting for payment and gives its seats back to the
+     * journey in the same transaction.
+     *
+     * @param bookingId booking to cancel
+     * @param journeyId journey of the booking
+     * @param planner   computes the seats the journey gets back
+     * @return true if the booking was waiting and is now cancelled
+     */
+    public boolean releaseSeats(long bookingId, long journeyId, SeatPlanner planner) {
+        return transitionWithSeats(bookingId, journeyId, "waiting", "cancelled", planner);
+    }
+
+    /**
+     * Takes the seats of a cancelled booking again, e.g. when payment arrives after its seat
+     * hold expired, and moves the booking back to waiting in the same transaction.
+     *
+     * @param bookingId cancelled booking
+     * @param journeyId journey of the booking
+     * @param planner   checks the booking's seats are still free and computes the seats the
+     *                  journey loses; returns null if they are not
+     * @return true if the seats were taken and the booking is waiting again
+     */
+    public boolean retakeSeats(long bookingId, long journeyId, SeatPlanner planner) {
+        return transitionWithSeats(bookingId, journeyId, "cancelled", "waiting", planner);
+    }
+
+    /**
+     * Changes a booking's status and the journey's seats together, under the journey lock.
+     * Occupancy is read before the status changes, so the planner sees the booking's seats
+     * exactly when the booking was active.
+     */
+    private boolean transitionWithSeats(long bookingId, long journeyId, String fromStatus, String toStatus,
+                                        SeatPlanner planner) {
+        String sql = "UPDATE bookings SET status = ? WHERE booking_id = ? AND status = ?";
+        JourneyDAO.ensureSeatMapTable();
+        try (Connection conn = DBConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                if (!applySeatPlan(conn, journeyId, planner)) {
+                    conn.rollback();
+                    return false;
+                }
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setString(1, mapStatusToDbCode(toStatus));
+                    stmt.setLong(2, bookingId);
+                    stmt.setString(3, mapStatusToDbCode(fromStatus));
+                    if (stmt.executeUpdate() == 0) {
+                        conn.rollback();
+                        return false;
+                    }
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+            PNRStatusDAO.invalidateBooking(bookingId);
+            // Neither status carries revenue, so the booking's fare and class do not matter
+            DashboardCounters.bookingChanged(new BookingFacts(mapStatusToDbCode(fromStatus), 0, null, null),
+                    new BookingFacts(mapStatusToDbCode(toStatus), 0, null, null));
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Error changing seats of booking " + bookingId + ": " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Locks the journey, lets the planner decide on the seats from the journey's seat map and
+     * writes the change in availability and the new seat map. The journey's passengers are only read if the
+     * planner asks for them, so a booking costs the same however many the journey has.
+     *
+     * @return false if the journey does not exist or the planner declined
+     */
+    private boolean applySeatPlan(Connection conn, long journeyId, SeatPlanner planner) throws SQLException {
+        Journey journey = journeyDAO.lockJourney(conn, journeyId);
+        if (journey == null) {
+            return false;
+        }
+        SeatPlanner.SeatPlan plan = planner.plan(journey, journeyDAO.selectSeatMap(conn, journeyId),
+                () -> passengerDAO.selectSeatOccupancy(conn, journeyId));
+        if (plan == null || !changeAvailableSeats(conn, journeyId, plan)) {
+            return false;
+        }
+        journeyDAO.storeSeatMap(conn, journeyId, plan.seatMap());
+        return true;
+    }
+
+    /**
+     * Applies a plan's change to the journey's available seats with a conditional update, so a
+     * class never drops below zero even if the plan overestimated what was left.
+     */
+    private boolean changeAvailableSeats(Connection conn, long journeyId, SeatPlanner.SeatPlan plan)
+            throws SQLException {
+        int change = plan.availableChange();
+        if (change == 0) {
+            return true;
+        }
+        return change < 0
+                ? journeyDAO.decrementAvailableSeats(conn, journeyId, plan.seatClass(), -change)
+                : journeyDAO.incrementAvailableSeats(conn, journeyId, plan.seatClass(), change);
+    }
+
+    /**
+     * Locks the journey of a booking, before the booking itself is locked: the order the seat
+     * planners take the two locks in, so a status change cannot deadlock with them.
+     *
+     * @return the journey ID, or 0 if the booking or its journey does not exist
+     */
+    private long lockJourneyOf(Connection conn, long bookingId) throws SQLException {
+        long journeyId = 0;
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT journey_id FROM bookings WHERE booking_id = ?")) {
+            stmt.setLong(1, bookingId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    journeyId = rs.getLong("journey_id");
+                }
+            }
+        }
+        return journeyId > 0 && journeyDAO.lockJourney(conn, journeyId) != null ? journeyId : 0;
+    }
+
+    /**
+     * Whether a booking's seats count as taken in a status (DB format).
+     */
+    private static boolean holdsSeats(String dbStatus) {
+        return !"cancelled".equals(dbStatus);
+    }
+
+    /**
+     * Inserts a booking on the caller's connection so it can share a transaction.
+     *
+     * @param conn    open connection, possibly inside a transaction
+     * @param booking booking to insert
+     * @return Generated booking ID, or 0 if no row was inserted
+     * @throws SQLException if the insert fails
+     */
+    private long insertBooking(Connection conn, Booking booking) throws SQLException {
         String sql = """
                 INSERT INTO bookings (user_id, journey_id, train_id, source_station_id, dest_station_id,
                                      total_fare, status, pnr, booking_time)
                 VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
                 """;
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-
+        try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             stmt.setInt(1, booking.getUserId());
             stmt.setLong(2, booking.getJourneyId());
             stmt.setInt(3, booking.getTrainId());
@@ -53,21 +294,91 @@ public class BookingDAO {
             stmt.setString(8, booking.getPnr());
             stmt.setTimestamp(9, Timestamp.valueOf(booking.getBookingTime()));
 
-            int affectedRows = stmt.executeUpdate();
-            if (affectedRows > 0) {
+            if (stmt.executeUpdate() > 0) {
                 try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
                     if (generatedKeys.next()) {
                         return generatedKeys.getLong(1);
                     }
                 }
             }
-        } catch (SQLException e) {
-            System.err.println("Error creating booking: " + e.getMessage());
-            e.printStackTrace();
         }
         return 0;
     }
 
+    private BookingFacts factsOf(Booking booking, String seatClass) {
+        return new BookingFacts(mapStatusToDbCode(booking.getStatus()), booking.getTotalFare(),
+                booking.getBookingTime().toLocalDate(), seatClass);
+    }
+
+    /**
+     * Reads what the dashboard counters need about a booking and locks its row until the
+     * caller's transaction ends, so the change recorded afterwards matches the one committed.
+     *
+     * @return the booking's facts, or null if it does not exist
+     */
+    private BookingFacts lockBookingFacts(Connection conn, long bookingId) throws SQLException {
+        String sql = """
+                SELECT b.status, b.total_fare, b.booking_time,
+                       (SELECT p.coach_type FROM passengers p WHERE p.booking_id = b.booking_id LIMIT 1) AS coach_type
+                FROM bookings b WHERE b.booking_id = ? FOR UPDATE
+                """;
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setLong(1, bookingId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) {
+                    return null;
+                }
+                return new BookingFacts(rs.getString("status"), rs.getDouble("total_fare"),
+                        rs.getTimestamp("booking_time").toLocalDateTime().toLocalDate(), rs.getString("coach_type"));
+            }
+        }
+    }
+
+    /**
+     * Sets a booking's status in a transaction that first locks and reads the booking, then
+     * records the change in the dashboard counters once committed. A change into or out of
+     * cancelled drops the journey's seat map, since no seat planner accounts for it.
+     *
+     * @param expectedStatus status the booking must have (human or DB format), or null for any
+     * @param newStatus      status to set (human or DB format)
+     * @return true if the booking exists, had the expected status and was updated
+     */
+    private boolean changeStatus(long bookingId, String expectedStatus, String newStatus) throws SQLException {
+        String sql = "UPDATE bookings SET status = ? WHERE booking_id = ?";
+        String dbStatus = mapStatusToDbCode(newStatus);
+        BookingFacts before;
+        JourneyDAO.ensureSeatMapTable();
+        try (Connection conn = DBConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                long journeyId = lockJourneyOf(conn, bookingId);
+                before = lockBookingFacts(conn, bookingId);
+                if (before == null || (expectedStatus != null
+                        && !before.status().equals(mapStatusToDbCode(expectedStatus)))) {
+                    conn.rollback();
+                    return false;
+                }
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setString(1, dbStatus);
+                    stmt.setLong(2, bookingId);
+                    stmt.executeUpdate();
+                }
+                if (journeyId > 0 && holdsSeats(before.status()) != holdsSeats(dbStatus)) {
+                    journeyDAO.dropSeatMap(conn, journeyId);
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+        PNRStatusDAO.invalidateBooking(bookingId);
+        DashboardCounters.bookingChanged(before, before.withStatus(dbStatus));
+        return true;
+    }
+
     // -------------------------------------------------------------------------
     // Read Operations
     // -------------------------------------------------------------------------
@@ -231,6 +542,276 @@ public class BookingDAO {
         return bookings;
     }
 
+    // -------------------------------------------------------------------------
+    // Admin Listing
+    // -------------------------------------------------------------------------
+
+    /**
+     * Reads one page of bookings for the admin listing, newest first, continuing after the last
+     * booking of the previous page (keyset pagination on {@code (booking_time, booking_id)}).
+     * Unlike an OFFSET, the seek costs the same on page 1 and page 10,000 and never skips or
+     * repeats rows when bookings are added between pages. The seek uses the indexes added by
+     * the migration {@code db/migration/V3__bookings_listing_indexes.sql}.
+     *
+     * @param filter status, date and search criteria
+     * @param after  last booking of the previous page, or null for the first page
+     * @param limit  page size
+     * @return bookings with user name and train number, empty after the last page
+     */
+    public List<Booking> getBookingsPage(BookingFilter filter, Booking after, int limit) {
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = new StringBuilder(LISTING_SELECT).append(listingWhere(filter, params));
+        if (after != null) {
+            sql.append(" AND (b.booking_time < ? OR (b.booking_time = ? AND b.booking_id < ?))");
+            params.add(Timestamp.valueOf(after.getBookingTime()));
+            params.add(Timestamp.valueOf(after.getBookingTime()));
+            params.add(after.getBookingId());
+        }
+        sql.append(" ORDER BY b.booking_time DESC, b.booking_id DESC LIMIT ?");
+        params.add(limit);
+
+        List<Booking> bookings = new ArrayList<>(limit);
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+            bindParams(stmt, params);
+            stmt.setFetchSize(limit);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    bookings.add(mapListingRow(rs));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting bookings page: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return bookings;
+    }
+
+    /**
+     * Streams every booking matching a filter, newest first, one row at a time. The driver is
+     * put in streaming mode, so memory stays flat however many rows match; the connection is
+     * held until the stream ends.
+     *
+     * @param filter   status, date and search criteria
+     * @param consumer receives each booking; returning false stops the stream early
+     * @return number of bookings passed to the consumer, or -1 if the query failed before the
+     *         stream ended or was stopped
+     */
+    public long streamBookings(BookingFilter filter, Predicate<Booking> consumer) {
+        List<Object> params = new ArrayList<>();
+        String sql = LISTING_SELECT + listingWhere(filter, params)
+                + " ORDER BY b.booking_time DESC, b.booking_id DESC";
+
+        long streamed = 0;
+        boolean stopped = false;
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                     ResultSet.CONCUR_READ_ONLY)) {
+            bindParams(stmt, params);
+            stmt.setFetchSize(Integer.MIN_VALUE); // MySQL Connector/J: stream rows instead of buffering them
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    streamed++;
+                    if (!consumer.test(mapListingRow(rs))) {
+                        // Closing a streaming result reads the remaining rows; stop the query first
+                        stopped = true;
+                        stmt.cancel();
+                        break;
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            // Expected after cancel(): the driver reports the interrupted query on close
+            if (!stopped) {
+                System.err.println("Error streaming bookings: " + e.getMessage());
+                e.printStackTrace();
+                return -1;
+            }
+        }
+        return streamed;
+    }
+
+    /**
+     * Counts bookings and sums their fares per status for a filter, in one grouped query.
+     *
+     * @param filter status, date and search criteria
+     * @return one entry per status present, empty if none match or the query failed
+     */
+    public List<StatusTotal> getStatusTotals(BookingFilter filter) {
+        List<Object> params = new ArrayList<>();
+        String sql = "SELECT b.status, COUNT(*) AS bookings, COALESCE(SUM(b.total_fare), 0) AS fare "
+                + LISTING_FROM + listingWhere(filter, params) + " GROUP BY b.status";
+
+        List<StatusTotal> totals = new ArrayList<>();
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            bindParams(stmt, params);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    totals.add(new StatusTotal(rs.getString("status"), rs.getLong("bookings"), rs.getDouble("fare")));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting booking totals: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return totals;
+    }
+
+    /**
+     * Finds the bookings still waiting for payment that were made before a time, e.g. whose
+     * seat holds were lost when the application stopped without releasing them.
+     *
+     * @param bookedBefore latest booking time, exclusive
+     * @return journey ID by booking ID, empty if there are none or the query failed
+     */
+    public Map<Long, Long> getWaitingBookingsBefore(LocalDateTime bookedBefore) {
+        String sql = "SELECT booking_id, journey_id FROM bookings WHERE status = ? AND booking_time < ?";
+        Map<Long, Long> bookings = new LinkedHashMap<>();
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, mapStatusToDbCode("waiting"));
+            stmt.setTimestamp(2, Timestamp.valueOf(bookedBefore));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    bookings.put(rs.getLong("booking_id"), rs.getLong("journey_id"));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error finding waiting bookings: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return bookings;
+    }
+
+    /**
+     * Builds the WHERE clause of a listing filter and collects its parameters.
+     */
+    private String listingWhere(BookingFilter filter, List<Object> params) {
+        StringBuilder where = new StringBuilder(" WHERE 1 = 1");
+        if (filter.status() != null) {
+            where.append(" AND b.status = ?");
+            params.add(mapStatusToDbCode(filter.status()));
+        }
+        if (filter.bookedFrom() != null) {
+            where.append(" AND b.booking_time >= ?");
+            params.add(Timestamp.valueOf(filter.bookedFrom()));
+        }
+        if (filter.bookedBefore() != null) {
+            where.append(" AND b.booking_time < ?");
+            params.add(Timestamp.valueOf(filter.bookedBefore()));
+        }
+        if (filter.searchText() != null && !filter.searchText().isBlank()) {
+            String pattern = "%" + filter.searchText().trim()
+                    .replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+            where.append(" AND (b.pnr LIKE ? OR u.name LIKE ? OR t.train_number LIKE ?)");
+            params.add(pattern);
+            params.add(pattern);
+            params.add(pattern);
+        }
+        return where.toString();
+    }
+
+    private void bindParams(PreparedStatement stmt, List<Object> params) throws SQLException {
+        for (int i = 0; i < params.size(); i++) {
+            stmt.setObject(i + 1, params.get(i));
+        }
+    }
+
+    private Booking mapListingRow(ResultSet rs) throws SQLException {
+        Booking booking = new Booking();
+        booking.setBookingId(rs.getLong("booking_id"));
+        booking.setUserId(rs.getInt("user_id"));
+        booking.setJourneyId(rs.getLong("journey_id"));
+        booking.setTrainId(rs.getInt("train_id"));
+        booking.setSourceStationId(rs.getInt("source_station_id"));
+        booking.setDestStationId(rs.getInt("dest_station_id"));
+        booking.setBookingTime(rs.getTimestamp("booking_time").toLocalDateTime());
+        booking.setTotalFare(rs.getDouble("total_fare"));
+        booking.setStatus(rs.getString("status"));
+        booking.setPnr(rs.getString("pnr"));
+        booking.setUserName(rs.getString("user_name"));
+        booking.setTrainNumber(rs.getString("train_number"));
+        return booking;
+    }
+
+    /**
+     * Criteria of the admin listing; null fields do not filter.
+     *
+     * @param status       booking status (human or DB format)
+     * @param bookedFrom   earliest booking time, inclusive
+     * @param bookedBefore latest booking time, exclusive
+     * @param searchText   text contained in the PNR, user name or train number
+     */
+    public record BookingFilter(String status, LocalDateTime bookedFrom, LocalDateTime bookedBefore,
+                                String searchText) {
+        /** Matches every booking */
+        public static final BookingFilter ALL = new BookingFilter(null, null, null, null);
+    }
+
+    /**
+     * Number of bookings and their total fare for one status.
+     */
+    public record StatusTotal(String status, long bookings, double totalFare) {
+    }
+
+    // -------------------------------------------------------------------------
+    // Analytics
+    // -------------------------------------------------------------------------
+
+    /**
+     * Streams the few columns the admin analytics group by for every booking, in table order.
+     * No Booking objects are built and the driver streams the rows, so loading millions of
+     * bookings costs only what the receiver keeps.
+     *
+     * @param handler receives each booking's columns
+     * @return number of bookings streamed, or -1 if the query failed
+     */
+    public long streamAnalyticsRows(AnalyticsRowHandler handler) {
+        String sql = """
+                SELECT b.status, b.total_fare, DATEDIFF(b.booking_time, '1970-01-01') AS epoch_day,
+                       b.train_id, b.source_station_id, b.dest_station_id,
+                       (SELECT p.coach_type FROM passengers p WHERE p.booking_id = b.booking_id LIMIT 1) AS seat_class
+                FROM bookings b
+                """;
+        long streamed = 0;
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                     ResultSet.CONCUR_READ_ONLY)) {
+            stmt.setFetchSize(Integer.MIN_VALUE); // MySQL Connector/J: stream rows instead of buffering them
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    handler.accept(rs.getString(1), rs.getDouble(2), rs.getInt(3), rs.getInt(4),
+                            rs.getInt(5), rs.getInt(6), rs.getString(7));
+                    streamed++;
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error streaming booking analytics: " + e.getMessage());
+            e.printStackTrace();
+            return -1;
+        }
+        return streamed;
+    }
+
+    /**
+     * Receives one booking from {@link #streamAnalyticsRows}.
+     */
+    @FunctionalInterface
+    public interface AnalyticsRowHandler {
+        /**
+         * @param status          status as stored in the database
+         * @param totalFare       total fare
+         * @param epochDay        booking day as days since 1970-01-01
+         * @param trainId         train of the booking
+         * @param sourceStationId boarding station
+         * @param destStationId   destination station
+         * @param seatClass       class of the passengers, null if the booking has none
+         */
+        void accept(String status, double totalFare, int epochDay, int trainId,
+                    int sourceStationId, int destStationId, String seatClass);
+    }
+
     // -------------------------------------------------------------------------
     // Update Operations
     // -------------------------------------------------------------------------
@@ -244,18 +825,8 @@ public class BookingDAO {
      * @return true if update successful, false otherwise
      */
     public boolean updateBookingStatus(long bookingId, String status) {
-        String sql = "UPDATE bookings SET status = ? WHERE booking_id = ?";
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            String dbStatus = mapStatusToDbCode(status);
-
-            stmt.setString(1, dbStatus);
-            stmt.setLong(2, bookingId);
-
-            int rowsUpdated = stmt.executeUpdate();
-            boolean success = rowsUpdated > 0;
-            return success;
+        try {
+            return changeStatus(bookingId, null, status);
         } catch (SQLException e) {
             System.err.println("❌ Error updating booking status: " + e.getMessage());
             System.err.println("Attempted to set status: '" + status + "' for booking: " + bookingId);
@@ -265,6 +836,81 @@ public class BookingDAO {
         }
     }
 
+    /**
+     * Moves a booking to a new status only if it is still in the expected status.
+     * Used where a concurrent actor may already have moved the booking on, e.g. the seat
+     * hold reaper cancelling a booking whose payment is being confirmed.
+     *
+     * @param bookingId      the booking to update
+     * @param expectedStatus status the booking must currently have (human or DB format)
+     * @param newStatus      status to set (human or DB format)
+     * @return true if the booking was in the expected status and was updated
+     */
+    public boolean updateBookingStatusIf(long bookingId, String expectedStatus, String newStatus) {
+        try {
+            return changeStatus(bookingId, expectedStatus, newStatus);
+        } catch (SQLException e) {
+            System.err.println("Error transitioning booking status: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Confirms a paid booking in a single transaction: sets its status to confirmed,
+     * records the payment and queues the confirmation message in the notification outbox.
+     * Either all three are committed or none are. Only a booking still waiting for payment is
+     * confirmed, so one whose seat hold expired and released its seats meanwhile is not.
+     *
+     * @param bookingId   the booking to confirm
+     * @param payment     the successful payment
+     * @param messageType outbox message to queue for the booking
+     * @return true if the booking was waiting and the transaction committed, false otherwise
+     */
+    public boolean confirmBooking(long bookingId, Payment payment, String messageType) {
+        // DDL commits implicitly, so make sure the outbox exists before the transaction starts
+        NotificationOutboxDAO.ensureTable();
+
+        String sql = "UPDATE bookings SET status = ? WHERE booking_id = ?";
+        BookingFacts before;
+        try (Connection conn = DBConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                before = lockBookingFacts(conn, bookingId);
+                if (before == null || !before.status().equals(mapStatusToDbCode("waiting"))) {
+                    conn.rollback();
+                    return false;
+                }
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setString(1, mapStatusToDbCode("confirmed"));
+                    stmt.setLong(2, bookingId);
+                    if (stmt.executeUpdate() == 0) {
+                        conn.rollback();
+                        return false;
+                    }
+                }
+                if (!paymentDAO.insertPayment(conn, payment)) {
+                    conn.rollback();
+                    return false;
+                }
+                outboxDAO.enqueue(conn, bookingId, messageType);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+            PNRStatusDAO.invalidateBooking(bookingId);
+            DashboardCounters.bookingChanged(before, before.withStatus(mapStatusToDbCode("confirmed")));
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Error confirming booking: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+
     /**
      * Cancels a booking by ID (sets status to 'cancelled').
      *
@@ -272,12 +918,8 @@ public class BookingDAO {
      * @return true if cancellation succeeded, false otherwise
      */
     public boolean cancelBooking(long bookingId) {
-        String sql = "UPDATE bookings SET status = 'cancelled' WHERE booking_id = ?";
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setLong(1, bookingId);
-            int rowsUpdated = stmt.executeUpdate();
-            return rowsUpdated > 0;
+        try {
+            return changeStatus(bookingId, null, "cancelled");
         } catch (SQLException e) {
             System.err.println("Error canceling booking: " + e.getMessage());
             e.printStackTrace();
@@ -297,10 +939,35 @@ public class BookingDAO {
      */
     public boolean deleteBooking(long bookingId) {
         String sql = "DELETE FROM bookings WHERE booking_id = ?";
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setLong(1, bookingId);
-            return stmt.executeUpdate() > 0;
+        JourneyDAO.ensureSeatMapTable();
+        try (Connection conn = DBConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            BookingFacts before;
+            try {
+                long journeyId = lockJourneyOf(conn, bookingId);
+                before = lockBookingFacts(conn, bookingId);
+                if (before == null) {
+                    conn.rollback();
+                    return false;
+                }
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setLong(1, bookingId);
+                    stmt.executeUpdate();
+                }
+                if (journeyId > 0 && holdsSeats(before.status())) {
+                    journeyDAO.dropSeatMap(conn, journeyId);
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+            PNRStatusDAO.invalidateBooking(bookingId);
+            EntityCache.PASSENGERS.invalidate(bookingId);
+            DashboardCounters.bookingChanged(before, null);
+            return true;
         } catch (SQLException e) {
             System.err.println("Error deleting booking: " + e.getMessage());
             e.printStackTrace();
@@ -0,0 +1,290 @@
+package trainapp.dao;
+
+import trainapp.dao.DashboardCounters.Delta;
+import trainapp.util.DBConnection;
+
+import java.sql.*;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Data Access Object for the {@code dashboard_counters} summary table, which holds the admin
+ * dashboard totals so they are read from a handful of rows instead of counted from the tables.
+ *
+ * <p>Key Features:
+ * <ul>
+ *   <li>Checkpoints add each process's {@link DashboardCounters} changes to the rows, so
+ *       several running copies of the app sum up correctly</li>
+ *   <li>Reconciliation recomputes every row from the base tables, at most once per interval
+ *       across all processes</li>
+ *   <li>Creates its table on first use</li>
+ * </ul>
+ *
+ * <p>Schema:
+ * <pre>
+ *   dashboard_counters(counter_key PK, count_value, amount_paise, updated_at)
+ * </pre>
+ * The row {@value #RECONCILED_KEY} holds the epoch second of the last reconciliation.
+ */
+public class DashboardCounterDAO {
+
+    private static final String CREATE_TABLE_SQL = """
+            CREATE TABLE IF NOT EXISTS dashboard_counters (
+                counter_key VARCHAR(64) PRIMARY KEY,
+                count_value BIGINT NOT NULL DEFAULT 0,
+                amount_paise BIGINT NOT NULL DEFAULT 0,
+                updated_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+            )
+            """;
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO dashboard_counters (counter_key, count_value, amount_paise) VALUES (?, ?, ?)
+            ON DUPLICATE KEY UPDATE count_value = count_value + VALUES(count_value),
+                                    amount_paise = amount_paise + VALUES(amount_paise)
+            """;
+
+    /** Key of the row that records when the counters were last reconciled */
+    static final String RECONCILED_KEY = "meta:reconciled_at";
+
+    private static volatile boolean tableReady;
+
+    // -------------------------------------------------------------------------
+    // Schema
+    // -------------------------------------------------------------------------
+
+    /**
+     * Creates the summary table if it does not exist yet. Runs on its own connection because
+     * DDL commits implicitly.
+     */
+    public static void ensureTable() {
+        if (tableReady) {
+            return;
+        }
+        synchronized (DashboardCounterDAO.class) {
+            if (tableReady) {
+                return;
+            }
+            try (Connection conn = DBConnection.getConnection();
+                 Statement stmt = conn.createStatement()) {
+                stmt.execute(CREATE_TABLE_SQL);
+                tableReady = true;
+            } catch (SQLException e) {
+                System.err.println("Error creating dashboard counters table: " + e.getMessage());
+                e.printStackTrace();
+            }
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Checkpoint
+    // -------------------------------------------------------------------------
+
+    /**
+     * Adds changes to the stored counters in one transaction.
+     *
+     * @param deltas changes by counter key
+     * @return true if all changes were committed
+     */
+    public boolean addDeltas(Map<String, Delta> deltas) {
+        ensureTable();
+        try (Connection conn = DBConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(UPSERT_SQL)) {
+                for (Map.Entry<String, Delta> entry : deltas.entrySet()) {
+                    stmt.setString(1, entry.getKey());
+                    stmt.setLong(2, entry.getValue().count());
+                    stmt.setLong(3, entry.getValue().amountPaise());
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Error checkpointing dashboard counters: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Read Operations
+    // -------------------------------------------------------------------------
+
+    /**
+     * Reads the stored totals: users, trains, bookings per status, and all revenue summed
+     * under the key {@link DashboardCounters#REVENUE_PREFIX} alone.
+     *
+     * @return totals by counter key, or null if the read failed
+     */
+    public Map<String, Delta> loadTotals() {
+        ensureTable();
+        String sql = """
+                SELECT counter_key, count_value, amount_paise FROM dashboard_counters
+                WHERE counter_key NOT LIKE 'revenue:%' AND counter_key NOT LIKE 'meta:%'
+                UNION ALL
+                SELECT 'revenue:', COALESCE(SUM(count_value), 0), COALESCE(SUM(amount_paise), 0)
+                FROM dashboard_counters WHERE counter_key LIKE 'revenue:%'
+                """;
+        return loadCounters(sql);
+    }
+
+    /**
+     * Reads the stored revenue rows of a range of booking days.
+     *
+     * @param from first day, inclusive
+     * @param to   last day, inclusive
+     * @return revenue by key {@code revenue:<day>:<class>}, or null if the read failed
+     */
+    public Map<String, Delta> loadRevenue(LocalDate from, LocalDate to) {
+        ensureTable();
+        String sql = "SELECT counter_key, count_value, amount_paise FROM dashboard_counters "
+                + "WHERE counter_key >= ? AND counter_key < ?";
+        return loadCounters(sql, DashboardCounters.REVENUE_PREFIX + from,
+                DashboardCounters.REVENUE_PREFIX + to.plusDays(1));
+    }
+
+    private Map<String, Delta> loadCounters(String sql, String... params) {
+        Map<String, Delta> counters = new HashMap<>();
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) {
+                stmt.setString(i + 1, params[i]);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    counters.put(rs.getString(1), new Delta(rs.getLong(2), rs.getLong(3)));
+                }
+            }
+            return counters;
+        } catch (SQLException e) {
+            System.err.println("Error reading dashboard counters: " + e.getMessage());
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Reconciliation
+    // -------------------------------------------------------------------------
+
+    /**
+     * Recomputes every counter from the users, trains and bookings tables and replaces the
+     * stored rows, unless another process reconciled more recently than {@code minAge}.
+     * The reconciliation row is locked for the whole transaction, so concurrent callers
+     * wait and then skip.
+     *
+     * <p>Changes still pending in other processes were already counted by the full
+     * aggregate and are added again at their next checkpoint; that drift is bounded by one
+     * checkpoint interval of writes and corrected by the next reconciliation.
+     *
+     * @param minAge skip if the counters were reconciled within this time
+     * @return true if the counters were recomputed
+     */
+    public boolean reconcile(Duration minAge) {
+        ensureTable();
+        try (Connection conn = DBConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                try (PreparedStatement stmt = conn.prepareStatement(
+                        "INSERT IGNORE INTO dashboard_counters (counter_key, count_value) VALUES (?, 0)")) {
+                    stmt.setString(1, RECONCILED_KEY);
+                    stmt.executeUpdate();
+                }
+                long reconciledAt = 0;
+                try (PreparedStatement stmt = conn.prepareStatement(
+                        "SELECT count_value FROM dashboard_counters WHERE counter_key = ? FOR UPDATE")) {
+                    stmt.setString(1, RECONCILED_KEY);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        if (rs.next()) {
+                            reconciledAt = rs.getLong(1);
+                        }
+                    }
+                }
+                long now = Instant.now().getEpochSecond();
+                if (now - reconciledAt < minAge.toSeconds()) {
+                    conn.rollback();
+                    return false;
+                }
+
+                Map<String, Delta> counters = aggregate(conn);
+                try (PreparedStatement stmt = conn.prepareStatement(
+                        "DELETE FROM dashboard_counters WHERE counter_key <> ?")) {
+                    stmt.setString(1, RECONCILED_KEY);
+                    stmt.executeUpdate();
+                }
+                try (PreparedStatement stmt = conn.prepareStatement(UPSERT_SQL)) {
+                    for (Map.Entry<String, Delta> entry : counters.entrySet()) {
+                        stmt.setString(1, entry.getKey());
+                        stmt.setLong(2, entry.getValue().count());
+                        stmt.setLong(3, entry.getValue().amountPaise());
+                        stmt.addBatch();
+                    }
+                    stmt.executeBatch();
+                }
+                try (PreparedStatement stmt = conn.prepareStatement(
+                        "UPDATE dashboard_counters SET count_value = ? WHERE counter_key = ?")) {
+                    stmt.setLong(1, now);
+                    stmt.setString(2, RECONCILED_KEY);
+                    stmt.executeUpdate();
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Error reconciling dashboard counters: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Computes every counter with full scans; the only place the dashboard still counts.
+     */
+    private Map<String, Delta> aggregate(Connection conn) throws SQLException {
+        Map<String, Delta> counters = new HashMap<>();
+        try (Statement stmt = conn.createStatement()) {
+            try (ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM users")) {
+                rs.next();
+                counters.put(DashboardCounters.USERS, new Delta(rs.getLong(1), 0));
+            }
+            try (ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM trains")) {
+                rs.next();
+                counters.put(DashboardCounters.TRAINS, new Delta(rs.getLong(1), 0));
+            }
+            try (ResultSet rs = stmt.executeQuery("SELECT status, COUNT(*) FROM bookings GROUP BY status")) {
+                while (rs.next()) {
+                    counters.put(DashboardCounters.BOOKINGS_PREFIX + rs.getString(1), new Delta(rs.getLong(2), 0));
+                }
+            }
+            String revenueSql = """
+                    SELECT DATE(b.booking_time) AS booking_day,
+                           (SELECT p.coach_type FROM passengers p WHERE p.booking_id = b.booking_id LIMIT 1) AS seat_class,
+                           COUNT(*), SUM(ROUND(b.total_fare * 100))
+                    FROM bookings b
+                    WHERE b.status IN ('conformed', 'confirmed')
+                    GROUP BY booking_day, seat_class
+                    """;
+            try (ResultSet rs = stmt.executeQuery(revenueSql)) {
+                while (rs.next()) {
+                    String key = DashboardCounters.revenueKey(rs.getDate(1).toLocalDate(), rs.getString(2));
+                    counters.merge(key, new Delta(rs.getLong(3), rs.getLong(4)), Delta::plus);
+                }
+            }
+        }
+        return counters;
+    }
+}
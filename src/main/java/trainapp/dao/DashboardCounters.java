@@ -0,0 +1,170 @@
+package trainapp.dao;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Changes to the admin dashboard totals made by this process since the last checkpoint.
+ *
+ * <p>Key Features:
+ * <ul>
+ *   <li>The DAO methods that write users, trains and bookings record their change here
+ *       after they commit, so the dashboard never has to count the tables</li>
+ *   <li>Striped {@link LongAdder}s, so concurrent bookings never contend on a counter</li>
+ *   <li>Revenue is kept in paise, so sums stay exact however many fares are added</li>
+ *   <li>{@link #drain()} hands the changes to the checkpoint, which adds them to the
+ *       {@code dashboard_counters} table (see {@link DashboardCounterDAO})</li>
+ * </ul>
+ *
+ * <p>Counters are keyed like the summary table rows: {@link #USERS}, {@link #TRAINS},
+ * {@code bookings:<status>} and {@code revenue:<yyyy-MM-dd>:<class>}, the latter holding the
+ * confirmed bookings and their fares per booking day and class.
+ */
+public final class DashboardCounters {
+
+    public static final String USERS = "users";
+    public static final String TRAINS = "trains";
+    public static final String BOOKINGS_PREFIX = "bookings:";
+    public static final String REVENUE_PREFIX = "revenue:";
+
+    private static final Map<String, Counter> pending = new ConcurrentHashMap<>();
+
+    private DashboardCounters() {
+    }
+
+    // -------------------------------------------------------------------------
+    // Recording
+    // -------------------------------------------------------------------------
+
+    static void usersChanged(int change) {
+        add(USERS, change, 0);
+    }
+
+    static void trainsChanged(int change) {
+        add(TRAINS, change, 0);
+    }
+
+    /**
+     * Records a booking that was created, changed status or was deleted.
+     *
+     * @param before the booking before the write, null if it was created
+     * @param after  the booking after the write, null if it was deleted
+     */
+    static void bookingChanged(BookingFacts before, BookingFacts after) {
+        if (before != null) {
+            add(BOOKINGS_PREFIX + before.status(), -1, 0);
+            if (before.isRevenue()) {
+                add(revenueKey(before.day(), before.seatClass()), -1, -toPaise(before.totalFare()));
+            }
+        }
+        if (after != null) {
+            add(BOOKINGS_PREFIX + after.status(), 1, 0);
+            if (after.isRevenue()) {
+                add(revenueKey(after.day(), after.seatClass()), 1, toPaise(after.totalFare()));
+            }
+        }
+    }
+
+    private static void add(String key, long count, long amountPaise) {
+        Counter counter = pending.computeIfAbsent(key, k -> new Counter(new LongAdder(), new LongAdder()));
+        counter.count().add(count);
+        if (amountPaise != 0) {
+            counter.amountPaise().add(amountPaise);
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Checkpointing
+    // -------------------------------------------------------------------------
+
+    /**
+     * Takes the changes recorded so far and resets them. A change recorded while draining
+     * lands either in this drain or in the next one, never in both or neither.
+     *
+     * @return non-zero changes by counter key
+     */
+    public static Map<String, Delta> drain() {
+        Map<String, Delta> drained = new HashMap<>();
+        pending.forEach((key, counter) -> {
+            Delta delta = new Delta(counter.count().sumThenReset(), counter.amountPaise().sumThenReset());
+            if (!delta.isZero()) {
+                drained.put(key, delta);
+            }
+        });
+        return drained;
+    }
+
+    /**
+     * Puts drained changes back, e.g. when the checkpoint could not write them.
+     */
+    public static void restore(Map<String, Delta> deltas) {
+        deltas.forEach((key, delta) -> add(key, delta.count(), delta.amountPaise()));
+    }
+
+    /**
+     * Changes recorded since the last drain, without resetting them.
+     */
+    public static Map<String, Delta> pending() {
+        Map<String, Delta> snapshot = new HashMap<>();
+        pending.forEach((key, counter) -> {
+            Delta delta = new Delta(counter.count().sum(), counter.amountPaise().sum());
+            if (!delta.isZero()) {
+                snapshot.put(key, delta);
+            }
+        });
+        return snapshot;
+    }
+
+    // -------------------------------------------------------------------------
+    // Keys
+    // -------------------------------------------------------------------------
+
+    public static String revenueKey(LocalDate day, String seatClass) {
+        return REVENUE_PREFIX + day + ":" + (seatClass != null ? seatClass : "");
+    }
+
+    static long toPaise(double amount) {
+        return Math.round(amount * 100);
+    }
+
+    private record Counter(LongAdder count, LongAdder amountPaise) {
+    }
+
+    /**
+     * Change of one counter: a number of users, trains or bookings, and an amount in paise.
+     */
+    public record Delta(long count, long amountPaise) {
+
+        public boolean isZero() {
+            return count == 0 && amountPaise == 0;
+        }
+
+        public Delta plus(Delta other) {
+            return new Delta(count + other.count, amountPaise + other.amountPaise);
+        }
+    }
+
+    /**
+     * What the counters need to know about a booking.
+     *
+     * @param status     status as stored in the database
+     * @param totalFare  fare of the whole booking
+     * @param day        day the booking was made
+     * @param seatClass  class of its passengers, null if it has none
+     */
+    record BookingFacts(String status, double totalFare, LocalDate day, String seatClass) {
+
+        /** Same booking in another status */
+        BookingFacts withStatus(String newStatus) {
+            return new BookingFacts(newStatus, totalFare, day, seatClass);
+        }
+
+        /** Whether the booking's fare counts as revenue, as in {@link BookingDAO#getTotalRevenue()} */
+        boolean isRevenue() {
+            return "conformed".equals(status) || "confirmed".equals(status);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package trainapp.dao;
+
+import trainapp.model.Passenger;
+import trainapp.model.Station;
+import trainapp.model.Train;
+import trainapp.model.User;
+import trainapp.util.BoundedCache;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Shared caches of rows looked up by id while rendering tickets and invoices.
+ *
+ * <p>Key Features:
+ * <ul>
+ *   <li>One cache per entity, shared by every reader instead of one map per service instance</li>
+ *   <li>Bounded size and time-to-live, so memory stays flat however many bookings are rendered</li>
+ *   <li>Entries are dropped by the DAO methods that write the underlying rows</li>
+ * </ul>
+ *
+ * <p>Reference data (trains, stations) changes rarely and is kept longer; passenger lists
+ * belong to live bookings and expire quickly.
+ */
+public final class EntityCache {
+
+    /** Users by id; dropped on profile, password, login and delete writes */
+    public static final BoundedCache<Integer, User> USERS =
+            new BoundedCache<>("users", 2_000, Duration.ofMinutes(10));
+
+    /** Trains by id; dropped on train updates and deletes */
+    public static final BoundedCache<Integer, Train> TRAINS =
+            new BoundedCache<>("trains", 1_000, Duration.ofMinutes(30));
+
+    /** Stations by id; dropped on station updates and deletes */
+    public static final BoundedCache<Integer, Station> STATIONS =
+            new BoundedCache<>("stations", 5_000, Duration.ofMinutes(30));
+
+    /** Passenger lists by booking id; dropped when a booking's passengers are written */
+    public static final BoundedCache<Long, List<Passenger>> PASSENGERS =
+            new BoundedCache<>("passengers", 5_000, Duration.ofMinutes(5));
+
+    private EntityCache() {
+    }
+
+    /**
+     * Drops every cached entry, e.g. after bulk data changes made outside the DAOs.
+     */
+    public static void invalidateAll() {
+        USERS.invalidateAll();
+        TRAINS.invalidateAll();
+        STATIONS.invalidateAll();
+        PASSENGERS.invalidateAll();
+    }
+
+    /**
+     * Returns a one-line summary of all entity caches for monitoring.
+     */
+    public static String describe() {
+        return String.join(" | ", USERS.getStats().toString(), TRAINS.getStats().toString(),
+                STATIONS.getStats().toString(), PASSENGERS.getStats().toString());
+    }
+}
@@ -7,10 +7,13 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 
 import java.sql.*;
 import java.time.LocalDate;
-import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Data Access Object (DAO) for train journey management.
@@ -20,18 +23,112 @@ import java.util.Map;
  * <ul>
  *   <li>Fetch journey by train & date or by ID</li>
  *   <li>Update available seat JSON for a journey</li>
+ *   <li>Row lock on a journey for bookings that choose seats inside a transaction</li>
+ *   <li>Conditional seat count updates on the same connection, which never take a class
+ *       below zero</li>
+ *   <li>Per-journey seat maps, the stored per-leg occupancy the seat planners update under
+ *       that lock</li>
  *   <li>Create new journey records with seats and departure date</li>
+ *   <li>Bulk, idempotent journey creation in multi-row inserts for the provisioning job</li>
  *   <li>Get available seats map for dynamic pricing integration</li>
  *   <li>Ensures proper resource management via try-with-resources</li>
  * </ul>
  * <p>
  * All operations use prepared statements to prevent SQL injection.
+ *
+ * <p>There is at most one journey per train and date, enforced by a unique key on
+ * {@code (train_id, departure_date)} that the migration
+ * {@code db/migration/V1__journeys_unique_train_date.sql} adds.
  */
 public class JourneyDAO {
 
+    /** Rows written by one multi-row INSERT (3 parameters each) */
+    private static final int INSERT_BATCH_ROWS = 500;
+
+    private static final String UNIQUE_KEY_NAME = "uq_journeys_train_date";
+
+    private static final String UNIQUE_KEY_MIGRATION = "db/migration/V1__journeys_unique_train_date.sql";
+
+    /** Set once the key was looked up, whether or not it exists */
+    private static volatile boolean uniqueKeyChecked;
+
+    private static volatile boolean seatMapTableReady;
+
     // Jackson ObjectMapper for JSON parsing
     private final ObjectMapper objectMapper = new ObjectMapper();
 
+    // -------------------------------------------------------------------------
+    // Schema
+    // -------------------------------------------------------------------------
+
+    /**
+     * Checks once per run that the unique key on {@code (train_id, departure_date)} exists. The
+     * key is added by the migration {@value #UNIQUE_KEY_MIGRATION}; without it, concurrent
+     * creators can insert the same journey twice, so its absence is reported on System.err.
+     * Nothing is changed here.
+     */
+    public static void checkUniqueKey() {
+        if (uniqueKeyChecked) {
+            return;
+        }
+        synchronized (JourneyDAO.class) {
+            if (uniqueKeyChecked) {
+                return;
+            }
+            String sql = """
+                    SELECT 1 FROM information_schema.statistics
+                    WHERE table_schema = DATABASE() AND table_name = 'journeys' AND index_name = ?
+                    LIMIT 1
+                    """;
+            try (Connection conn = DBConnection.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setString(1, UNIQUE_KEY_NAME);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (!rs.next()) {
+                        System.err.println("WARNING: journeys has no unique key " + UNIQUE_KEY_NAME
+                                + " on (train_id, departure_date). Journeys created concurrently can be duplicated"
+                                + " until the migration " + UNIQUE_KEY_MIGRATION + " is run.");
+                    }
+                }
+                uniqueKeyChecked = true;
+            } catch (SQLException e) {
+                System.err.println("Error checking unique key of journeys: " + e.getMessage());
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Creates the {@code journey_seat_maps} table if it does not exist yet. Runs on its own
+     * connection because DDL commits implicitly. Without the table, seat maps are neither read
+     * nor stored and every booking reads the journey's passengers instead.
+     */
+    public static void ensureSeatMapTable() {
+        if (seatMapTableReady) {
+            return;
+        }
+        synchronized (JourneyDAO.class) {
+            if (seatMapTableReady) {
+                return;
+            }
+            String sql = """
+                    CREATE TABLE IF NOT EXISTS journey_seat_maps (
+                        journey_id BIGINT PRIMARY KEY,
+                        seat_map MEDIUMBLOB NOT NULL,
+                        updated_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+                    )
+                    """;
+            try (Connection conn = DBConnection.getConnection();
+                 Statement stmt = conn.createStatement()) {
+                stmt.execute(sql);
+                seatMapTableReady = true;
+            } catch (SQLException e) {
+                System.err.println("Error creating journey seat map table: " + e.getMessage());
+                e.printStackTrace();
+            }
+        }
+    }
+
     // -------------------------------------------------------------------------
     // Read Operations
     // -------------------------------------------------------------------------
@@ -71,6 +168,73 @@ public class JourneyDAO {
         return null;
     }
 
+    /**
+     * Retrieves the journeys of several trains on one date in batched queries.
+     *
+     * @param trainIds IDs of the trains
+     * @param date     the journeys' departure date
+     * @return map of train ID to Journey; trains without a journey on that date are absent
+     */
+    public Map<Integer, Journey> getJourneysForTrainsAndDate(Collection<Integer> trainIds, LocalDate date) {
+        Map<Integer, Journey> journeys = new HashMap<>();
+        for (List<Integer> chunk : SqlBatch.chunks(new LinkedHashSet<>(trainIds))) {
+            String sql = "SELECT journey_id, train_id, departure_date, available_seats FROM journeys "
+                    + "WHERE departure_date = ? AND train_id IN (" + SqlBatch.placeholders(chunk.size()) + ")";
+
+            try (Connection conn = DBConnection.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+                stmt.setDate(1, Date.valueOf(date));
+                for (int i = 0; i < chunk.size(); i++) {
+                    stmt.setInt(i + 2, chunk.get(i));
+                }
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        Journey journey = new Journey();
+                        journey.setJourneyId(rs.getLong("journey_id"));
+                        journey.setTrainId(rs.getInt("train_id"));
+                        journey.setDepartureDate(rs.getDate("departure_date").toLocalDate());
+                        journey.setAvailableSeatsJson(rs.getString("available_seats"));
+                        journeys.put(journey.getTrainId(), journey);
+                    }
+                }
+            } catch (SQLException e) {
+                System.err.println("Error getting journeys for trains and date: " + e.getMessage());
+                e.printStackTrace();
+            }
+        }
+        return journeys;
+    }
+
+    /**
+     * Retrieves which trains already have a journey on each date of a range.
+     *
+     * @param from first departure date, inclusive
+     * @param to   last departure date, inclusive
+     * @return map of date to the IDs of trains with a journey on it; dates without journeys are absent
+     */
+    public Map<LocalDate, Set<Integer>> getTrainIdsWithJourneys(LocalDate from, LocalDate to) {
+        Map<LocalDate, Set<Integer>> provisioned = new HashMap<>();
+        String sql = "SELECT train_id, departure_date FROM journeys WHERE departure_date BETWEEN ? AND ?";
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setDate(1, Date.valueOf(from));
+            stmt.setDate(2, Date.valueOf(to));
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    provisioned.computeIfAbsent(rs.getDate("departure_date").toLocalDate(), d -> new HashSet<>())
+                            .add(rs.getInt("train_id"));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting provisioned journeys: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return provisioned;
+    }
+
     /**
      * Retrieves a journey by its unique journey ID.
      *
@@ -103,6 +267,43 @@ public class JourneyDAO {
         return null;
     }
 
+    /**
+     * Retrieves several journeys by ID in batched queries.
+     *
+     * @param journeyIds IDs of the journeys to load
+     * @return map of journey ID to Journey, missing IDs are absent
+     */
+    public Map<Long, Journey> getJourneysByIds(Collection<Long> journeyIds) {
+        Map<Long, Journey> journeys = new HashMap<>();
+        for (List<Long> chunk : SqlBatch.chunks(new LinkedHashSet<>(journeyIds))) {
+            String sql = "SELECT journey_id, train_id, departure_date, available_seats FROM journeys "
+                    + "WHERE journey_id IN (" + SqlBatch.placeholders(chunk.size()) + ")";
+
+            try (Connection conn = DBConnection.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+                for (int i = 0; i < chunk.size(); i++) {
+                    stmt.setLong(i + 1, chunk.get(i));
+                }
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        Journey journey = new Journey();
+                        journey.setJourneyId(rs.getLong("journey_id"));
+                        journey.setTrainId(rs.getInt("train_id"));
+                        journey.setDepartureDate(rs.getDate("departure_date").toLocalDate());
+                        journey.setAvailableSeatsJson(rs.getString("available_seats"));
+                        journeys.put(journey.getJourneyId(), journey);
+                    }
+                }
+            } catch (SQLException e) {
+                System.err.println("Error getting journeys by IDs: " + e.getMessage());
+                e.printStackTrace();
+            }
+        }
+        return journeys;
+    }
+
     // -------------------------------------------------------------------------
     // Update Operations
     // -------------------------------------------------------------------------
@@ -130,6 +331,172 @@ public class JourneyDAO {
         }
     }
 
+    /**
+     * Reads a journey and locks its row until the caller's transaction ends, so bookings of
+     * the same journey queue up behind each other while seats are chosen.
+     *
+     * @param conn      connection inside a transaction
+     * @param journeyId journey to lock
+     * @return the locked journey, or null if it does not exist
+     * @throws SQLException if the query fails
+     */
+    Journey lockJourney(Connection conn, long journeyId) throws SQLException {
+        String sql = """
+                SELECT journey_id, train_id, departure_date, available_seats
+                FROM journeys
+                WHERE journey_id = ?
+                FOR UPDATE
+                """;
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setLong(1, journeyId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    Journey journey = new Journey();
+                    journey.setJourneyId(rs.getLong("journey_id"));
+                    journey.setTrainId(rs.getInt("train_id"));
+                    journey.setDepartureDate(rs.getDate("departure_date").toLocalDate());
+                    journey.setAvailableSeatsJson(rs.getString("available_seats"));
+                    return journey;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Takes seats of one class off a journey's availability on the caller's connection, so it
+     * can share a transaction with {@link #lockJourney(Connection, long)}. The availability check
+     * and the decrement run as a single conditional UPDATE on the JSON column, so the count can
+     * never go below zero, whatever the caller computed.
+     *
+     * @param conn      connection inside a transaction
+     * @param journeyId journey to update
+     * @param seatClass seat class key in the availability JSON (e.g. "SL", "3A")
+     * @param count     number of seats to take
+     * @return true if the seats were taken, false if not enough were left or the journey does not exist
+     * @throws SQLException if the update fails
+     */
+    boolean decrementAvailableSeats(Connection conn, long journeyId, String seatClass, int count) throws SQLException {
+        if (count <= 0) {
+            throw new IllegalArgumentException("Seat count must be positive");
+        }
+        String sql = """
+                UPDATE journeys
+                SET available_seats = JSON_SET(available_seats, ?,
+                        CAST(JSON_EXTRACT(available_seats, ?) AS SIGNED) - ?)
+                WHERE journey_id = ?
+                  AND CAST(JSON_EXTRACT(available_seats, ?) AS SIGNED) >= ?
+                """;
+        String path = seatClassPath(seatClass);
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, path);
+            stmt.setString(2, path);
+            stmt.setInt(3, count);
+            stmt.setLong(4, journeyId);
+            stmt.setString(5, path);
+            stmt.setInt(6, count);
+            return stmt.executeUpdate() > 0;
+        }
+    }
+
+    /**
+     * Gives seats of one class back to a journey's availability on the caller's connection.
+     * Counterpart of {@link #decrementAvailableSeats(Connection, long, String, int)} used when a
+     * booking is cancelled before payment.
+     *
+     * @param conn      connection inside a transaction
+     * @param journeyId journey to update
+     * @param seatClass seat class key in the availability JSON (e.g. "SL", "3A")
+     * @param count     number of seats to give back
+     * @return true if the seats were given back, false if the journey does not exist
+     * @throws SQLException if the update fails
+     */
+    boolean incrementAvailableSeats(Connection conn, long journeyId, String seatClass, int count) throws SQLException {
+        if (count <= 0) {
+            throw new IllegalArgumentException("Seat count must be positive");
+        }
+        String sql = """
+                UPDATE journeys
+                SET available_seats = JSON_SET(available_seats, ?,
+                        COALESCE(CAST(JSON_EXTRACT(available_seats, ?) AS SIGNED), 0) + ?)
+                WHERE journey_id = ?
+                """;
+        String path = seatClassPath(seatClass);
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, path);
+            stmt.setString(2, path);
+            stmt.setInt(3, count);
+            stmt.setLong(4, journeyId);
+            return stmt.executeUpdate() > 0;
+        }
+    }
+
+    /**
+     * Reads a journey's seat map on the caller's connection. Call while holding the journey
+     * lock, which also guards the seat map.
+     *
+     * @param conn      connection inside a transaction
+     * @param journeyId locked journey
+     * @return the stored seat map, or null if there is none
+     * @throws SQLException if the query fails
+     */
+    byte[] selectSeatMap(Connection conn, long journeyId) throws SQLException {
+        if (!seatMapTableReady) {
+            return null;
+        }
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT seat_map FROM journey_seat_maps WHERE journey_id = ?")) {
+            stmt.setLong(1, journeyId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getBytes("seat_map") : null;
+            }
+        }
+    }
+
+    /**
+     * Stores or drops a journey's seat map on the caller's connection, while holding the
+     * journey lock.
+     *
+     * @param conn      connection inside a transaction
+     * @param journeyId locked journey
+     * @param seatMap   new seat map, or null to drop the stored one
+     * @throws SQLException if the write fails
+     */
+    void storeSeatMap(Connection conn, long journeyId, byte[] seatMap) throws SQLException {
+        if (!seatMapTableReady) {
+            return;
+        }
+        if (seatMap == null) {
+            dropSeatMap(conn, journeyId);
+            return;
+        }
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "INSERT INTO journey_seat_maps (journey_id, seat_map) VALUES (?, ?) "
+                        + "ON DUPLICATE KEY UPDATE seat_map = VALUES(seat_map)")) {
+            stmt.setLong(1, journeyId);
+            stmt.setBytes(2, seatMap);
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Drops a journey's seat map on the caller's connection, e.g. when a booking becomes active
+     * or inactive without a seat planner, so the next plan rebuilds it from the bookings.
+     *
+     * @param conn      connection inside a transaction that holds the journey lock
+     * @param journeyId locked journey
+     * @throws SQLException if the delete fails
+     */
+    void dropSeatMap(Connection conn, long journeyId) throws SQLException {
+        if (!seatMapTableReady) {
+            return;
+        }
+        try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM journey_seat_maps WHERE journey_id = ?")) {
+            stmt.setLong(1, journeyId);
+            stmt.executeUpdate();
+        }
+    }
+
     // -------------------------------------------------------------------------
     // Create Operations
     // -------------------------------------------------------------------------
@@ -171,10 +538,59 @@ public class JourneyDAO {
         }
     }
 
+    /**
+     * Creates journeys in multi-row inserts. Journeys whose train and date already exist are
+     * skipped by the unique key, so the call is safe to repeat and to race with other creators.
+     *
+     * @param journeys journeys to create; train ID, departure date and seats JSON must be set
+     * @return number of journeys actually created, or -1 if a batch failed
+     */
+    public int createJourneys(List<Journey> journeys) {
+        int created = 0;
+        for (int start = 0; start < journeys.size(); start += INSERT_BATCH_ROWS) {
+            List<Journey> batch = journeys.subList(start, Math.min(start + INSERT_BATCH_ROWS, journeys.size()));
+            StringBuilder sql = new StringBuilder(
+                    "INSERT IGNORE INTO journeys (train_id, departure_date, available_seats) VALUES ");
+            for (int i = 0; i < batch.size(); i++) {
+                sql.append(i == 0 ? "(?, ?, ?)" : ", (?, ?, ?)");
+            }
+
+            try (Connection conn = DBConnection.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+                int index = 1;
+                for (Journey journey : batch) {
+                    stmt.setInt(index++, journey.getTrainId());
+                    stmt.setDate(index++, Date.valueOf(journey.getDepartureDate()));
+                    stmt.setString(index++, journey.getAvailableSeatsJson());
+                }
+                created += stmt.executeUpdate();
+            } catch (SQLException e) {
+                System.err.println("Error creating journeys: " + e.getMessage());
+                e.printStackTrace();
+                return -1;
+            }
+        }
+        return created;
+    }
+
     // -------------------------------------------------------------------------
     // Helper Methods for Seat Availability
     // -------------------------------------------------------------------------
 
+    /**
+     * Builds the JSON path for a seat class key, e.g. {@code $."3A"}.
+     * Only alphanumeric class codes are accepted since the path is interpreted by MySQL.
+     *
+     * @param seatClass seat class key
+     * @return JSON path addressing that class in the availability JSON
+     */
+    private String seatClassPath(String seatClass) {
+        if (seatClass == null || !seatClass.matches("[A-Za-z0-9]+")) {
+            throw new IllegalArgumentException("Invalid seat class: " + seatClass);
+        }
+        return "$.\"" + seatClass + "\"";
+    }
+
     /**
      * Manual JSON parsing fallback for seat availability.
      * Handles simple JSON format: {"SL":45,"3A":28,"2A":15,"1A":8}
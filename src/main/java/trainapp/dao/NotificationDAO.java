@@ -50,21 +50,38 @@ public class NotificationDAO {
             throw new IllegalArgumentException("Sent timestamp cannot be null");
         }
 
+        try (Connection conn = DBConnection.getConnection()) {
+            return insertNotification(conn, notification);
+        } catch (SQLException e) {
+            System.err.println("Error creating notification: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        return false;
+    }
+
+    /**
+     * Inserts a notification on the caller's connection so it can share a transaction.
+     * Assigns the generated notification ID on success.
+     *
+     * @param conn         open connection, possibly inside a transaction
+     * @param notification validated notification to insert
+     * @return true if the row was inserted
+     * @throws SQLException if the insert fails
+     */
+    boolean insertNotification(Connection conn, Notification notification) throws SQLException {
         String sql = """
                 INSERT INTO notifications (booking_id, email_sent, sms_sent, sent_at)
                 VALUES (?, ?, ?, ?)
                 """;
 
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-
+        try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             stmt.setLong(1, notification.getBookingId());
             stmt.setBoolean(2, notification.isEmailSent());
             stmt.setBoolean(3, notification.isSmsSent());
             stmt.setTimestamp(4, Timestamp.valueOf(notification.getSentAt()));
 
-            int affectedRows = stmt.executeUpdate();
-            if (affectedRows > 0) {
+            if (stmt.executeUpdate() > 0) {
                 try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
                     if (generatedKeys.next()) {
                         notification.setNotificationId(generatedKeys.getLong(1));
@@ -72,11 +89,7 @@ public class NotificationDAO {
                     }
                 }
             }
-        } catch (SQLException e) {
-            System.err.println("Error creating notification: " + e.getMessage());
-            e.printStackTrace();
         }
-
         return false;
     }
 }
@@ -0,0 +1,346 @@
+package trainapp.dao;
+
+import trainapp.model.Notification;
+import trainapp.util.DBConnection;
+
+import java.sql.*;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Data Access Object (DAO) for the notification outbox.
+ * Outbox rows are written in the same transaction as the change that requires a
+ * notification, and are drained by a background dispatcher.
+ *
+ * <p>Key Features:
+ * <ul>
+ *   <li>One row per booking and message type; enqueueing twice is a no-op</li>
+ *   <li>Due rows are claimed with a lease, so a crashed worker's rows are picked up
+ *       again once the lease runs out</li>
+ *   <li>Completion is conditional on still holding the claim</li>
+ *   <li>Delivered and failed outcomes are recorded together with the notification row</li>
+ *   <li>All times come from the database clock</li>
+ * </ul>
+ *
+ * <p>Table layout (created on first use if missing):
+ * <pre>
+ *   notification_outbox(outbox_id PK, booking_id, message_type, status, attempts,
+ *                       next_attempt_at, claim_token, claimed_until, last_error,
+ *                       created_at, delivered_at)
+ *   UNIQUE (booking_id, message_type), INDEX (status, next_attempt_at)
+ * </pre>
+ */
+public class NotificationOutboxDAO {
+
+    private static final String CREATE_TABLE_SQL = """
+            CREATE TABLE IF NOT EXISTS notification_outbox (
+                outbox_id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                booking_id BIGINT NOT NULL,
+                message_type VARCHAR(40) NOT NULL,
+                status VARCHAR(16) NOT NULL DEFAULT 'pending',
+                attempts INT NOT NULL DEFAULT 0,
+                next_attempt_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                claim_token CHAR(36) NULL,
+                claimed_until DATETIME NULL,
+                last_error VARCHAR(500) NULL,
+                created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                delivered_at DATETIME NULL,
+                UNIQUE KEY uq_outbox_booking_type (booking_id, message_type),
+                KEY idx_outbox_due (status, next_attempt_at)
+            )
+            """;
+
+    private static volatile boolean tableReady;
+
+    private final NotificationDAO notificationDAO = new NotificationDAO();
+
+    // -------------------------------------------------------------------------
+    // Schema
+    // -------------------------------------------------------------------------
+
+    /**
+     * Creates the outbox table if it does not exist yet. Runs on its own connection because
+     * DDL commits implicitly; call it before opening a transaction that enqueues messages.
+     */
+    public static void ensureTable() {
+        if (tableReady) {
+            return;
+        }
+        synchronized (NotificationOutboxDAO.class) {
+            if (tableReady) {
+                return;
+            }
+            try (Connection conn = DBConnection.getConnection();
+                 Statement stmt = conn.createStatement()) {
+                stmt.execute(CREATE_TABLE_SQL);
+                tableReady = true;
+            } catch (SQLException e) {
+                System.err.println("Error creating notification outbox table: " + e.getMessage());
+                e.printStackTrace();
+            }
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Enqueue
+    // -------------------------------------------------------------------------
+
+    /**
+     * Adds a pending message on the caller's connection, inside the caller's transaction.
+     * A message that already exists for the booking and type is left unchanged.
+     *
+     * @param conn        open connection inside a transaction
+     * @param bookingId   booking the message is about
+     * @param messageType kind of message, e.g. booking confirmation
+     * @throws SQLException if the insert fails
+     */
+    void enqueue(Connection conn, long bookingId, String messageType) throws SQLException {
+        String sql = "INSERT IGNORE INTO notification_outbox (booking_id, message_type) VALUES (?, ?)";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setLong(1, bookingId);
+            stmt.setString(2, messageType);
+            stmt.executeUpdate();
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Claiming
+    // -------------------------------------------------------------------------
+
+    /**
+     * Claims up to {@code limit} due messages for this worker, oldest first.
+     *
+     * @param limit maximum number of messages
+     * @param lease how long the claim lasts before other workers may take the messages
+     * @return claimed messages, empty list if none are due or on error
+     */
+    public List<OutboxMessage> claimDue(int limit, Duration lease) {
+        ensureTable();
+        List<OutboxMessage> messages = new ArrayList<>();
+        String token = UUID.randomUUID().toString();
+
+        String claimSql = """
+                UPDATE notification_outbox
+                SET claim_token = ?, claimed_until = NOW() + INTERVAL ? SECOND
+                WHERE status = 'pending' AND next_attempt_at <= NOW()
+                  AND (claimed_until IS NULL OR claimed_until < NOW())
+                ORDER BY next_attempt_at
+                LIMIT ?
+                """;
+        String selectSql = """
+                SELECT outbox_id, booking_id, message_type, attempts
+                FROM notification_outbox WHERE claim_token = ?
+                ORDER BY next_attempt_at
+                """;
+
+        try (Connection conn = DBConnection.getConnection()) {
+            try (PreparedStatement stmt = conn.prepareStatement(claimSql)) {
+                stmt.setString(1, token);
+                stmt.setLong(2, lease.toSeconds());
+                stmt.setInt(3, limit);
+                if (stmt.executeUpdate() == 0) {
+                    return messages;
+                }
+            }
+            try (PreparedStatement stmt = conn.prepareStatement(selectSql)) {
+                stmt.setString(1, token);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        messages.add(new OutboxMessage(rs.getLong("outbox_id"), rs.getLong("booking_id"),
+                                rs.getString("message_type"), rs.getInt("attempts"), token));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error claiming outbox messages: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return messages;
+    }
+
+    /**
+     * Gives a claimed message back without counting an attempt, e.g. when the worker
+     * had no capacity for it.
+     *
+     * @param message claimed message
+     * @return false on database error
+     */
+    public boolean releaseClaim(OutboxMessage message) {
+        String sql = """
+                UPDATE notification_outbox SET claim_token = NULL, claimed_until = NULL
+                WHERE outbox_id = ? AND claim_token = ?
+                """;
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setLong(1, message.getOutboxId());
+            stmt.setString(2, message.getClaimToken());
+            stmt.executeUpdate();
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Error releasing outbox claim: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Completion
+    // -------------------------------------------------------------------------
+
+    /**
+     * Marks a message delivered and records the notification in one transaction.
+     *
+     * @param message      claimed message
+     * @param notification notification row describing the delivery
+     * @return false on database error; true otherwise, including when the claim had expired
+     */
+    public boolean markDelivered(OutboxMessage message, Notification notification) {
+        return complete(message, "delivered", null, notification);
+    }
+
+    /**
+     * Marks a message as permanently failed and records the notification in one transaction.
+     *
+     * @param message      claimed message
+     * @param error        reason for the failure
+     * @param notification notification row describing the failed delivery
+     * @return false on database error; true otherwise, including when the claim had expired
+     */
+    public boolean markFailed(OutboxMessage message, String error, Notification notification) {
+        return complete(message, "failed", error, notification);
+    }
+
+    private boolean complete(OutboxMessage message, String status, String error, Notification notification) {
+        String sql = """
+                UPDATE notification_outbox
+                SET status = ?, attempts = attempts + 1, last_error = ?,
+                    delivered_at = IF(? = 'delivered', NOW(), NULL),
+                    claim_token = NULL, claimed_until = NULL
+                WHERE outbox_id = ? AND claim_token = ? AND status = 'pending'
+                """;
+
+        try (Connection conn = DBConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setString(1, status);
+                    stmt.setString(2, truncate(error));
+                    stmt.setString(3, status);
+                    stmt.setLong(4, message.getOutboxId());
+                    stmt.setString(5, message.getClaimToken());
+                    if (stmt.executeUpdate() == 0) {
+                        conn.rollback();
+                        System.err.println("Outbox message " + message.getOutboxId()
+                                + " was reclaimed before it completed");
+                        return true;
+                    }
+                }
+                if (!notificationDAO.insertNotification(conn, notification)) {
+                    conn.rollback();
+                    return false;
+                }
+                conn.commit();
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error completing outbox message: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Counts an attempt and makes the message due again after a delay.
+     *
+     * @param message claimed message
+     * @param delay   time until the next attempt
+     * @param error   reason the attempt failed
+     * @return false on database error
+     */
+    public boolean scheduleRetry(OutboxMessage message, Duration delay, String error) {
+        String sql = """
+                UPDATE notification_outbox
+                SET attempts = attempts + 1, last_error = ?,
+                    next_attempt_at = NOW() + INTERVAL ? SECOND,
+                    claim_token = NULL, claimed_until = NULL
+                WHERE outbox_id = ? AND claim_token = ? AND status = 'pending'
+                """;
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, truncate(error));
+            stmt.setLong(2, delay.toSeconds());
+            stmt.setLong(3, message.getOutboxId());
+            stmt.setString(4, message.getClaimToken());
+            stmt.executeUpdate();
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Error scheduling outbox retry: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Reporting
+    // -------------------------------------------------------------------------
+
+    /**
+     * Counts messages that are still waiting for delivery.
+     *
+     * @return number of pending messages (0 on error)
+     */
+    public int getPendingCount() {
+        ensureTable();
+        String sql = "SELECT COUNT(*) FROM notification_outbox WHERE status = 'pending'";
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            return rs.next() ? rs.getInt(1) : 0;
+        } catch (SQLException e) {
+            System.err.println("Error counting pending outbox messages: " + e.getMessage());
+            e.printStackTrace();
+            return 0;
+        }
+    }
+
+    private static String truncate(String error) {
+        return error != null && error.length() > 500 ? error.substring(0, 500) : error;
+    }
+
+    // -------------------------------------------------------------------------
+    // Result Types
+    // -------------------------------------------------------------------------
+
+    /**
+     * A message claimed by this worker.
+     */
+    public static final class OutboxMessage {
+        private final long outboxId;
+        private final long bookingId;
+        private final String messageType;
+        private final int attempts;
+        private final String claimToken;
+
+        private OutboxMessage(long outboxId, long bookingId, String messageType, int attempts, String claimToken) {
+            this.outboxId = outboxId;
+            this.bookingId = bookingId;
+            this.messageType = messageType;
+            this.attempts = attempts;
+            this.claimToken = claimToken;
+        }
+
+        public long getOutboxId() { return outboxId; }
+        public long getBookingId() { return bookingId; }
+        public String getMessageType() { return messageType; }
+        /** @return attempts made before this one */
+        public int getAttempts() { return attempts; }
+        public String getClaimToken() { return claimToken; }
+    }
+}
@@ -30,23 +30,6 @@ import java.time.LocalDateTime;
  */
 public class OtpDAO {
 
-    // -------------------------------------------------------------------------
-    // Database Connection
-    // -------------------------------------------------------------------------
-
-    /**
-     * Database connection instance for all OTP operations
-     */
-    private final Connection connection;
-
-    /**
-     * Constructor that initializes the database connection.
-     * Uses DBConnection utility to establish connection to the database.
-     */
-    public OtpDAO() {
-        this.connection = DBConnection.getConnection();
-    }
-
     // -------------------------------------------------------------------------
     // Create Operations
     // -------------------------------------------------------------------------
@@ -81,7 +64,8 @@ public class OtpDAO {
                 VALUES (?, ?, ?, ?, ?)
                 """;
 
-        try (PreparedStatement stmt = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             stmt.setString(1, otpRecord.getEmail());
             stmt.setString(2, otpRecord.getOtpCode());
             stmt.setTimestamp(3, Timestamp.valueOf(otpRecord.getExpiryTime()));
@@ -142,7 +126,8 @@ public class OtpDAO {
                 LIMIT 1
                 """;
 
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, email);
             stmt.setString(2, otpCode);
 
@@ -182,7 +167,8 @@ public class OtpDAO {
     private void markOtpAsUsed(int otpId) {
         String sql = "UPDATE otp_records SET is_used = true WHERE id = ?";
 
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, otpId);
             stmt.executeUpdate();
         } catch (SQLException e) {
@@ -200,7 +186,8 @@ public class OtpDAO {
     private void deleteOtp(int otpId) {
         String sql = "DELETE FROM otp_records WHERE id = ?";
 
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, otpId);
             stmt.executeUpdate();
         } catch (SQLException e) {
@@ -230,7 +217,8 @@ public class OtpDAO {
     public void cleanupExpiredOtps() {
         String sql = "DELETE FROM otp_records WHERE expiry_time < ?";
 
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setTimestamp(1, Timestamp.valueOf(LocalDateTime.now()));
             int deleted = stmt.executeUpdate();
         } catch (SQLException e) {
@@ -0,0 +1,292 @@
+package trainapp.dao;
+
+import trainapp.model.*;
+import trainapp.util.DBConnection;
+
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Data Access Object (DAO) for PNR status lookups.
+ * Loads everything the PNR status screen shows in two queries on one connection, and keeps
+ * recently viewed PNRs in a small cache.
+ *
+ * <p>Key Features:
+ * <ul>
+ *   <li>One joined query for booking, train, both stations, journey and latest payment</li>
+ *   <li>One query for the booking's passengers</li>
+ *   <li>Bounded LRU cache of recent lookups with a time-to-live</li>
+ *   <li>Entries are dropped when {@link BookingDAO} or {@link PaymentDAO} writes touch
+ *       their booking</li>
+ * </ul>
+ *
+ * <p>Cached objects are shared between callers and must be treated as read-only.
+ */
+public class PNRStatusDAO {
+
+    // -------------------------------------------------------------------------
+    // Cache Configuration and State
+    // -------------------------------------------------------------------------
+
+    /** Maximum number of PNRs kept in the cache */
+    private static final int CACHE_CAPACITY = 512;
+
+    /** How long a cached lookup stays valid; bounds staleness from writes made elsewhere */
+    private static final long CACHE_TTL_NANOS = TimeUnit.MINUTES.toNanos(2);
+
+    /** Cached lookups by PNR in access order; guarded by itself */
+    private static final LinkedHashMap<String, CacheEntry> cache =
+            new LinkedHashMap<>(64, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
+                    return size() > CACHE_CAPACITY;
+                }
+            };
+
+    /** Bumped on every invalidation so a lookup racing a write does not cache stale data */
+    private static final AtomicLong invalidations = new AtomicLong();
+
+    private static final LongAdder hitCount = new LongAdder();
+    private static final LongAdder missCount = new LongAdder();
+
+    // -------------------------------------------------------------------------
+    // Read Operations
+    // -------------------------------------------------------------------------
+
+    /**
+     * Retrieves the full PNR status of a booking, from the cache when possible.
+     *
+     * @param pnr the PNR number to look up
+     * @return PNR details, or null if the PNR does not exist or on error
+     */
+    public PNRDetails getPNRDetails(String pnr) {
+        if (pnr == null || pnr.isBlank()) {
+            return null;
+        }
+
+        long now = System.nanoTime();
+        synchronized (cache) {
+            CacheEntry entry = cache.get(pnr);
+            if (entry != null) {
+                if (now - entry.loadedAt < CACHE_TTL_NANOS) {
+                    hitCount.increment();
+                    return entry.details;
+                }
+                cache.remove(pnr);
+            }
+        }
+        missCount.increment();
+
+        long generation = invalidations.get();
+        PNRDetails details = loadPNRDetails(pnr);
+        if (details != null) {
+            synchronized (cache) {
+                if (invalidations.get() == generation) {
+                    cache.put(pnr, new CacheEntry(details, now));
+                }
+            }
+        }
+        return details;
+    }
+
+    private PNRDetails loadPNRDetails(String pnr) {
+        String headerSql = """
+                SELECT b.booking_id, b.user_id, b.journey_id, b.train_id, b.source_station_id,
+                       b.dest_station_id, b.booking_time, b.total_fare, b.status, b.pnr,
+                       t.train_id AS t_train_id, t.train_number, t.name AS train_name,
+                       t.source_station_id AS t_source_station_id,
+                       t.destination_station_id AS t_destination_station_id, t.total_coaches,
+                       fs.station_id AS fs_station_id, fs.station_code AS fs_code, fs.name AS fs_name,
+                       fs.city AS fs_city, fs.state AS fs_state,
+                       ts.station_id AS ts_station_id, ts.station_code AS ts_code, ts.name AS ts_name,
+                       ts.city AS ts_city, ts.state AS ts_state,
+                       j.journey_id AS j_journey_id, j.departure_date, j.available_seats,
+                       p.payment_id, p.method, p.transaction_id, p.amount, p.status AS payment_status,
+                       p.provider, p.payment_time
+                FROM bookings b
+                LEFT JOIN trains t ON t.train_id = b.train_id
+                LEFT JOIN stations fs ON fs.station_id = b.source_station_id
+                LEFT JOIN stations ts ON ts.station_id = b.dest_station_id
+                LEFT JOIN journeys j ON j.journey_id = b.journey_id
+                LEFT JOIN payments p ON p.payment_id = (
+                    SELECT p2.payment_id FROM payments p2
+                    WHERE p2.booking_id = b.booking_id
+                    ORDER BY p2.payment_time DESC LIMIT 1)
+                WHERE b.pnr = ?
+                """;
+        String passengerSql = """
+                SELECT passenger_id, booking_id, name, age, gender, seat_number, coach_type
+                FROM passengers WHERE booking_id = ?
+                ORDER BY passenger_id
+                """;
+
+        try (Connection conn = DBConnection.getConnection()) {
+            PNRDetails details;
+            try (PreparedStatement stmt = conn.prepareStatement(headerSql)) {
+                stmt.setString(1, pnr);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (!rs.next()) {
+                        return null;
+                    }
+                    details = mapHeader(rs);
+                }
+            }
+
+            try (PreparedStatement stmt = conn.prepareStatement(passengerSql)) {
+                stmt.setLong(1, details.booking.getBookingId());
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        Passenger passenger = new Passenger();
+                        passenger.setPassengerId(rs.getLong("passenger_id"));
+                        passenger.setBookingId(rs.getLong("booking_id"));
+                        passenger.setName(rs.getString("name"));
+                        passenger.setAge(rs.getInt("age"));
+                        passenger.setGender(rs.getString("gender"));
+                        passenger.setSeatNumber(rs.getString("seat_number"));
+                        passenger.setCoachType(rs.getString("coach_type"));
+                        details.passengers.add(passenger);
+                    }
+                }
+            }
+            return details;
+
+        } catch (SQLException e) {
+            System.err.println("Error getting PNR details: " + e.getMessage());
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    private PNRDetails mapHeader(ResultSet rs) throws SQLException {
+        Booking booking = new Booking();
+        booking.setBookingId(rs.getLong("booking_id"));
+        booking.setUserId(rs.getInt("user_id"));
+        booking.setJourneyId(rs.getLong("journey_id"));
+        booking.setTrainId(rs.getInt("train_id"));
+        booking.setSourceStationId(rs.getInt("source_station_id"));
+        booking.setDestStationId(rs.getInt("dest_station_id"));
+        booking.setBookingTime(rs.getTimestamp("booking_time").toLocalDateTime());
+        booking.setTotalFare(rs.getDouble("total_fare"));
+        booking.setStatus(rs.getString("status"));
+        booking.setPnr(rs.getString("pnr"));
+
+        Train train = null;
+        if (rs.getObject("t_train_id") != null) {
+            train = new Train();
+            train.setTrainId(rs.getInt("t_train_id"));
+            train.setTrainNumber(rs.getString("train_number"));
+            train.setName(rs.getString("train_name"));
+            train.setSourceStationId(rs.getInt("t_source_station_id"));
+            train.setDestinationStationId(rs.getInt("t_destination_station_id"));
+            train.setTotalCoaches(rs.getInt("total_coaches"));
+        }
+
+        Journey journey = null;
+        if (rs.getObject("j_journey_id") != null) {
+            journey = new Journey();
+            journey.setJourneyId(rs.getLong("j_journey_id"));
+            journey.setTrainId(booking.getTrainId());
+            journey.setDepartureDate(rs.getDate("departure_date").toLocalDate());
+            journey.setAvailableSeatsJson(rs.getString("available_seats"));
+        }
+
+        Payment payment = null;
+        if (rs.getObject("payment_id") != null) {
+            payment = new Payment();
+            payment.setPaymentId(rs.getLong("payment_id"));
+            payment.setBookingId(booking.getBookingId());
+            payment.setMethod(rs.getString("method"));
+            payment.setTransactionId(rs.getString("transaction_id"));
+            payment.setAmount(rs.getDouble("amount"));
+            payment.setStatus(rs.getString("payment_status"));
+            payment.setProvider(rs.getString("provider"));
+            payment.setPaymentTime(rs.getTimestamp("payment_time").toLocalDateTime());
+        }
+
+        return new PNRDetails(booking, train, mapStation(rs, "fs_"), mapStation(rs, "ts_"), journey, payment);
+    }
+
+    private Station mapStation(ResultSet rs, String prefix) throws SQLException {
+        if (rs.getObject(prefix + "station_id") == null) {
+            return null;
+        }
+        return new Station(rs.getInt(prefix + "station_id"), rs.getString(prefix + "code"),
+                rs.getString(prefix + "name"), rs.getString(prefix + "city"), rs.getString(prefix + "state"));
+    }
+
+    // -------------------------------------------------------------------------
+    // Cache Invalidation and Metrics
+    // -------------------------------------------------------------------------
+
+    /**
+     * Drops the cached lookup of a booking. Called by DAO methods that change a booking
+     * or its payments.
+     *
+     * @param bookingId the booking that was written
+     */
+    static void invalidateBooking(long bookingId) {
+        invalidations.incrementAndGet();
+        synchronized (cache) {
+            cache.values().removeIf(entry -> entry.details.booking.getBookingId() == bookingId);
+        }
+    }
+
+    /**
+     * Returns a snapshot of cache metrics.
+     */
+    public static CacheStats getCacheStats() {
+        int size;
+        synchronized (cache) {
+            size = cache.size();
+        }
+        return new CacheStats(size, hitCount.sum(), missCount.sum());
+    }
+
+    /**
+     * Point-in-time cache metrics.
+     */
+    public record CacheStats(int size, long hits, long misses) {
+    }
+
+    // -------------------------------------------------------------------------
+    // Result Types
+    // -------------------------------------------------------------------------
+
+    /**
+     * Everything known about one PNR. Train, stations, journey and payment are null when
+     * the referenced row does not exist.
+     */
+    public static final class PNRDetails {
+        private final Booking booking;
+        private final Train train;
+        private final Station fromStation;
+        private final Station toStation;
+        private final Journey journey;
+        private final Payment payment;
+        private final List<Passenger> passengers = new ArrayList<>();
+
+        private PNRDetails(Booking booking, Train train, Station fromStation, Station toStation,
+                           Journey journey, Payment payment) {
+            this.booking = booking;
+            this.train = train;
+            this.fromStation = fromStation;
+            this.toStation = toStation;
+            this.journey = journey;
+            this.payment = payment;
+        }
+
+        public Booking getBooking() { return booking; }
+        public Train getTrain() { return train; }
+        public Station getFromStation() { return fromStation; }
+        public Station getToStation() { return toStation; }
+        public Journey getJourney() { return journey; }
+        public Payment getPayment() { return payment; }
+        public List<Passenger> getPassengers() { return Collections.unmodifiableList(passengers); }
+    }
+
+    private record CacheEntry(PNRDetails details, long loadedAt) {
+    }
+}
@@ -5,7 +5,11 @@ import trainapp.util.DBConnection;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Data Access Object (DAO) for passenger record management.
@@ -14,7 +18,10 @@ import java.util.List;
  * <p>Key Features:
  * <ul>
  *   <li>Create new passenger records tied to bookings</li>
+ *   <li>Batch insert of a booking's passengers inside the booking transaction</li>
  *   <li>Retrieve all passengers for a given booking</li>
+ *   <li>Load the occupied seats of whole journeys for seat inventories, also inside a
+ *       booking transaction</li>
  *   <li>Manages auto-generated passenger IDs</li>
  *   <li>Prevents SQL injection via prepared statements</li>
  *   <li>Ensures resources are released with try-with-resources</li>
@@ -24,6 +31,11 @@ import java.util.List;
  */
 public class PassengerDAO {
 
+    /** Occupied seats with the stations of their booking; callers add WHERE and ORDER BY */
+    private static final String SEAT_OCCUPANCY_SELECT =
+            "SELECT b.booking_id, b.journey_id, b.source_station_id, b.dest_station_id, p.coach_type, p.seat_number "
+                    + "FROM bookings b JOIN passengers p ON p.booking_id = b.booking_id ";
+
     // -------------------------------------------------------------------------
     // Create Operations
     // -------------------------------------------------------------------------
@@ -64,6 +76,8 @@ public class PassengerDAO {
                 try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
                     if (generatedKeys.next()) {
                         passenger.setPassengerId(generatedKeys.getLong(1));
+                        PNRStatusDAO.invalidateBooking(passenger.getBookingId());
+                        EntityCache.PASSENGERS.invalidate(passenger.getBookingId());
                         return true;
                     }
                 }
@@ -76,6 +90,50 @@ public class PassengerDAO {
         return false;
     }
 
+    /**
+     * Inserts the passengers of one booking on the caller's connection as a single JDBC batch,
+     * so they can share the booking's transaction. With {@code rewriteBatchedStatements} the
+     * driver sends the batch as one multi-row insert. Assigns the generated passenger IDs.
+     *
+     * @param conn       open connection, possibly inside a transaction
+     * @param passengers validated passengers, all with their booking ID set
+     * @return true if every row was inserted
+     * @throws SQLException if the insert fails
+     */
+    boolean insertPassengers(Connection conn, List<Passenger> passengers) throws SQLException {
+        String sql = """
+                INSERT INTO passengers (booking_id, name, age, gender, seat_number, coach_type)
+                VALUES (?, ?, ?, ?, ?, ?)
+                """;
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            for (Passenger passenger : passengers) {
+                stmt.setLong(1, passenger.getBookingId());
+                stmt.setString(2, passenger.getName());
+                stmt.setInt(3, passenger.getAge());
+                stmt.setString(4, passenger.getGender());
+                stmt.setString(5, passenger.getSeatNumber());
+                stmt.setString(6, passenger.getCoachType());
+                stmt.addBatch();
+            }
+
+            for (int affected : stmt.executeBatch()) {
+                if (affected == 0) {
+                    return false;
+                }
+            }
+            try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                for (Passenger passenger : passengers) {
+                    if (!generatedKeys.next()) {
+                        return false;
+                    }
+                    passenger.setPassengerId(generatedKeys.getLong(1));
+                }
+            }
+        }
+        return true;
+    }
+
     // -------------------------------------------------------------------------
     // Read Operations
     // -------------------------------------------------------------------------
@@ -119,4 +177,144 @@ public class PassengerDAO {
 
         return passengers;
     }
+
+    /**
+     * Retrieves the passengers of several bookings in batched queries.
+     *
+     * @param bookingIds booking IDs whose passengers to load
+     * @return map of booking ID to its passengers ordered by passenger ID; bookings without passengers are absent
+     */
+    public Map<Long, List<Passenger>> getPassengersByBookingIds(Collection<Long> bookingIds) {
+        Map<Long, List<Passenger>> passengers = new HashMap<>();
+        for (List<Long> chunk : SqlBatch.chunks(new LinkedHashSet<>(bookingIds))) {
+            String sql = "SELECT passenger_id, booking_id, name, age, gender, seat_number, coach_type "
+                    + "FROM passengers WHERE booking_id IN (" + SqlBatch.placeholders(chunk.size()) + ") "
+                    + "ORDER BY booking_id, passenger_id";
+
+            try (Connection conn = DBConnection.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+                for (int i = 0; i < chunk.size(); i++) {
+                    stmt.setLong(i + 1, chunk.get(i));
+                }
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        Passenger passenger = new Passenger();
+                        passenger.setPassengerId(rs.getLong("passenger_id"));
+                        passenger.setBookingId(rs.getLong("booking_id"));
+                        passenger.setName(rs.getString("name"));
+                        passenger.setAge(rs.getInt("age"));
+                        passenger.setGender(rs.getString("gender"));
+                        passenger.setSeatNumber(rs.getString("seat_number"));
+                        passenger.setCoachType(rs.getString("coach_type"));
+                        passengers.computeIfAbsent(passenger.getBookingId(), k -> new ArrayList<>()).add(passenger);
+                    }
+                }
+            } catch (SQLException e) {
+                System.err.println("Error getting passengers by booking IDs: " + e.getMessage());
+                e.printStackTrace();
+            }
+        }
+        return passengers;
+    }
+
+    /**
+     * Retrieves the seats held by the passengers of all active (not cancelled) bookings on
+     * several journeys, together with the stations each booking travels between. Used to
+     * rebuild per-leg seat inventories.
+     *
+     * @param journeyIds journeys whose occupied seats to load
+     * @return map of journey ID to its occupied seats; journeys without bookings are absent
+     */
+    public Map<Long, List<SeatOccupancy>> getSeatOccupancyByJourneyIds(Collection<Long> journeyIds) {
+        Map<Long, List<SeatOccupancy>> occupancy = new HashMap<>();
+        for (List<Long> chunk : SqlBatch.chunks(new LinkedHashSet<>(journeyIds))) {
+            String sql = SEAT_OCCUPANCY_SELECT
+                    + "WHERE b.journey_id IN (" + SqlBatch.placeholders(chunk.size()) + ") "
+                    + "AND b.status <> 'cancelled' "
+                    + "ORDER BY b.journey_id, p.passenger_id";
+
+            try (Connection conn = DBConnection.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+                for (int i = 0; i < chunk.size(); i++) {
+                    stmt.setLong(i + 1, chunk.get(i));
+                }
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        occupancy.computeIfAbsent(rs.getLong("journey_id"), k -> new ArrayList<>())
+                                .add(mapSeatOccupancy(rs));
+                    }
+                }
+            } catch (SQLException e) {
+                System.err.println("Error getting seat occupancy by journey IDs: " + e.getMessage());
+                e.printStackTrace();
+            }
+        }
+        return occupancy;
+    }
+
+    /**
+     * Retrieves the seats of one booking's passengers, whatever the booking's status, with the
+     * stations the booking travels between.
+     *
+     * @param bookingId the booking
+     * @return its passengers' seats, empty if it has none or the query failed
+     */
+    public List<SeatOccupancy> getSeatOccupancyOfBooking(long bookingId) {
+        String sql = SEAT_OCCUPANCY_SELECT + "WHERE b.booking_id = ? ORDER BY p.passenger_id";
+        List<SeatOccupancy> occupancy = new ArrayList<>();
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setLong(1, bookingId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    occupancy.add(mapSeatOccupancy(rs));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting seats of booking: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return occupancy;
+    }
+
+    /**
+     * Reads the seats held by the active bookings of one journey on the caller's connection,
+     * so seats can be chosen while the journey is locked.
+     *
+     * @param conn      connection inside a transaction
+     * @param journeyId journey whose occupied seats to load
+     * @return occupied seats, empty if the journey has no active bookings
+     * @throws SQLException if the query fails
+     */
+    List<SeatOccupancy> selectSeatOccupancy(Connection conn, long journeyId) throws SQLException {
+        String sql = SEAT_OCCUPANCY_SELECT
+                + "WHERE b.journey_id = ? AND b.status <> 'cancelled' "
+                + "ORDER BY p.passenger_id";
+        List<SeatOccupancy> occupancy = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setLong(1, journeyId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    occupancy.add(mapSeatOccupancy(rs));
+                }
+            }
+        }
+        return occupancy;
+    }
+
+    private SeatOccupancy mapSeatOccupancy(ResultSet rs) throws SQLException {
+        return new SeatOccupancy(rs.getLong("booking_id"), rs.getString("coach_type"), rs.getString("seat_number"),
+                rs.getInt("source_station_id"), rs.getInt("dest_station_id"));
+    }
+
+    /**
+     * Seat of one passenger of an active booking and the stations the booking travels between.
+     */
+    public record SeatOccupancy(long bookingId, String coachType, String seatNumber,
+                                int sourceStationId, int destStationId) {
+    }
 }
@@ -6,7 +6,11 @@ import trainapp.util.DBConnection;
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Data Access Object (DAO) for payment record management.
@@ -60,14 +64,35 @@ public class PaymentDAO {
             throw new IllegalArgumentException("Payment time cannot be null");
         }
 
+        try (Connection conn = DBConnection.getConnection()) {
+            if (insertPayment(conn, payment)) {
+                PNRStatusDAO.invalidateBooking(payment.getBookingId());
+                return true;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error creating payment: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        return false;
+    }
+
+    /**
+     * Inserts a payment on the caller's connection so it can share a transaction.
+     * Assigns the generated payment ID on success.
+     *
+     * @param conn    open connection, possibly inside a transaction
+     * @param payment validated payment to insert
+     * @return true if the row was inserted
+     * @throws SQLException if the insert fails
+     */
+    boolean insertPayment(Connection conn, Payment payment) throws SQLException {
         String sql = """
                 INSERT INTO payments (booking_id, method, transaction_id, amount, status, provider, payment_time)
                 VALUES (?, ?, ?, ?, ?, ?, ?)
                 """;
 
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-
+        try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             stmt.setLong(1, payment.getBookingId());
             stmt.setString(2, payment.getMethod());
             stmt.setString(3, payment.getTransactionId());
@@ -76,8 +101,7 @@ public class PaymentDAO {
             stmt.setString(6, payment.getProvider());
             stmt.setTimestamp(7, Timestamp.valueOf(payment.getPaymentTime()));
 
-            int affectedRows = stmt.executeUpdate();
-            if (affectedRows > 0) {
+            if (stmt.executeUpdate() > 0) {
                 try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
                     if (generatedKeys.next()) {
                         payment.setPaymentId(generatedKeys.getLong(1));
@@ -85,11 +109,7 @@ public class PaymentDAO {
                     }
                 }
             }
-        } catch (SQLException e) {
-            System.err.println("Error creating payment: " + e.getMessage());
-            e.printStackTrace();
         }
-
         return false;
     }
 
@@ -143,4 +163,51 @@ public class PaymentDAO {
 
         return null;
     }
+
+    /**
+     * Retrieves the most recent payment of several bookings in batched queries.
+     * Matches {@link #getPaymentByBookingId(long)} for each booking.
+     *
+     * @param bookingIds booking IDs whose payments to load
+     * @return map of booking ID to its latest Payment; bookings without payments are absent
+     */
+    public Map<Long, Payment> getLatestPaymentsByBookingIds(Collection<Long> bookingIds) {
+        Map<Long, Payment> payments = new HashMap<>();
+        for (List<Long> chunk : SqlBatch.chunks(new LinkedHashSet<>(bookingIds))) {
+            String sql = "SELECT payment_id, booking_id, method, transaction_id, amount, status, provider, payment_time "
+                    + "FROM payments WHERE booking_id IN (" + SqlBatch.placeholders(chunk.size()) + ") "
+                    + "ORDER BY booking_id, payment_time DESC";
+
+            try (Connection conn = DBConnection.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+                for (int i = 0; i < chunk.size(); i++) {
+                    stmt.setLong(i + 1, chunk.get(i));
+                }
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        long bookingId = rs.getLong("booking_id");
+                        if (payments.containsKey(bookingId)) {
+                            continue; // Rows are newest first per booking
+                        }
+                        Payment payment = new Payment();
+                        payment.setPaymentId(rs.getLong("payment_id"));
+                        payment.setBookingId(bookingId);
+                        payment.setMethod(rs.getString("method"));
+                        payment.setTransactionId(rs.getString("transaction_id"));
+                        payment.setAmount(rs.getDouble("amount"));
+                        payment.setStatus(rs.getString("status"));
+                        payment.setProvider(rs.getString("provider"));
+                        payment.setPaymentTime(rs.getTimestamp("payment_time").toLocalDateTime());
+                        payments.put(bookingId, payment);
+                    }
+                }
+            } catch (SQLException e) {
+                System.err.println("Error getting payments by booking IDs: " + e.getMessage());
+                e.printStackTrace();
+            }
+        }
+        return payments;
+    }
 }
\ No newline at end of file
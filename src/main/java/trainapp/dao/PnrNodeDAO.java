@@ -0,0 +1,151 @@
+package trainapp.dao;
+
+import trainapp.util.DBConnection;
+
+import java.sql.*;
+import java.time.Duration;
+
+/**
+ * Data Access Object for the {@code pnr_nodes} table, which hands out the node numbers of
+ * {@link trainapp.util.PnrGenerator} so that two running instances never issue PNRs as the
+ * same node.
+ *
+ * <p>Key Features:
+ * <ul>
+ *   <li>A node is claimed by inserting its row; the primary key lets only one instance win</li>
+ *   <li>Claims are leases: the holder renews its row, and a row whose lease ran out, e.g.
+ *       after a crash, can be claimed by another instance</li>
+ *   <li>Lease times come from the database clock, so instances need not agree on the time</li>
+ *   <li>Creates its table on first use</li>
+ * </ul>
+ *
+ * <p>Schema:
+ * <pre>
+ *   pnr_nodes(node_id PK, holder, leased_until)
+ * </pre>
+ */
+public class PnrNodeDAO {
+
+    private static final String CREATE_TABLE_SQL = """
+            CREATE TABLE IF NOT EXISTS pnr_nodes (
+                node_id INT PRIMARY KEY,
+                holder VARCHAR(100) NOT NULL,
+                leased_until DATETIME(3) NOT NULL
+            )
+            """;
+
+    private static volatile boolean tableReady;
+
+    // -------------------------------------------------------------------------
+    // Schema
+    // -------------------------------------------------------------------------
+
+    /**
+     * Creates the node table if it does not exist yet. Runs on its own connection because DDL
+     * commits implicitly.
+     */
+    public static void ensureTable() {
+        if (tableReady) {
+            return;
+        }
+        synchronized (PnrNodeDAO.class) {
+            if (tableReady) {
+                return;
+            }
+            try (Connection conn = DBConnection.getConnection();
+                 Statement stmt = conn.createStatement()) {
+                stmt.execute(CREATE_TABLE_SQL);
+                tableReady = true;
+            } catch (SQLException e) {
+                System.err.println("Error creating PNR node table: " + e.getMessage());
+                e.printStackTrace();
+            }
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Leases
+    // -------------------------------------------------------------------------
+
+    /**
+     * Claims the lowest node that is free or whose lease ran out.
+     *
+     * @param holder   unique name of the claiming instance
+     * @param maxNodes number of nodes; nodes are numbered from 0
+     * @param lease    how long the claim lasts unless renewed
+     * @return the claimed node, or -1 if every node is leased or the database failed
+     */
+    public int claim(String holder, int maxNodes, Duration lease) {
+        ensureTable();
+        String takeOverSql = """
+                UPDATE pnr_nodes SET holder = ?, leased_until = NOW(3) + INTERVAL ? SECOND
+                WHERE node_id = ? AND leased_until < NOW(3)
+                """;
+        String insertSql = "INSERT IGNORE INTO pnr_nodes (node_id, holder, leased_until) "
+                + "VALUES (?, ?, NOW(3) + INTERVAL ? SECOND)";
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement takeOver = conn.prepareStatement(takeOverSql);
+             PreparedStatement insert = conn.prepareStatement(insertSql)) {
+            for (int node = 0; node < maxNodes; node++) {
+                insert.setInt(1, node);
+                insert.setString(2, holder);
+                insert.setLong(3, lease.toSeconds());
+                if (insert.executeUpdate() == 1) {
+                    return node;
+                }
+                takeOver.setString(1, holder);
+                takeOver.setLong(2, lease.toSeconds());
+                takeOver.setInt(3, node);
+                if (takeOver.executeUpdate() == 1) {
+                    return node;
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error claiming PNR node: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return -1;
+    }
+
+    /**
+     * Extends a lease that is still held.
+     *
+     * @param node   claimed node
+     * @param holder name the node was claimed with
+     * @param lease  how long the claim lasts from now
+     * @return true if the holder still had the node
+     */
+    public boolean renew(int node, String holder, Duration lease) {
+        String sql = "UPDATE pnr_nodes SET leased_until = NOW(3) + INTERVAL ? SECOND WHERE node_id = ? AND holder = ?";
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setLong(1, lease.toSeconds());
+            stmt.setInt(2, node);
+            stmt.setString(3, holder);
+            return stmt.executeUpdate() == 1;
+        } catch (SQLException e) {
+            System.err.println("Error renewing PNR node " + node + ": " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Gives a node back, e.g. on application exit.
+     *
+     * @param node   claimed node
+     * @param holder name the node was claimed with
+     */
+    public void release(int node, String holder) {
+        String sql = "DELETE FROM pnr_nodes WHERE node_id = ? AND holder = ?";
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, node);
+            stmt.setString(2, holder);
+            stmt.executeUpdate();
+        } catch (SQLException e) {
+            System.err.println("Error releasing PNR node " + node + ": " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+}
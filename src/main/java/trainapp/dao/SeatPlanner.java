@@ -0,0 +1,52 @@
+package trainapp.dao;
+
+import trainapp.dao.PassengerDAO.SeatOccupancy;
+import trainapp.model.Journey;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Decides seats inside a booking transaction, while the journey row is locked.
+ *
+ * <p>The DAO locks the journey and hands it to the planner together with the journey's seat
+ * map: the per-leg occupancy the previous plan stored. The planner can also load the seats held
+ * by the journey's active bookings, which reads every passenger of the journey, and only does so
+ * when the seat map is missing or outdated. Whatever the planner returns is written back, the
+ * change to the available seats and the new seat map, in the same transaction, so no other
+ * booking of the journey can interleave between the check and the write.
+ */
+@FunctionalInterface
+public interface SeatPlanner {
+
+    /**
+     * Plans the seat change of one booking.
+     *
+     * @param journey   locked journey with its current seat availability
+     * @param seatMap   stored seat map of the journey, or null if there is none
+     * @param occupancy loads the seats held by the journey's active bookings
+     * @return the change to the journey's availability and its new seat map, or null to roll the
+     *         transaction back
+     * @throws SQLException if loading the occupancy fails
+     */
+    SeatPlan plan(Journey journey, byte[] seatMap, OccupancyLoader occupancy) throws SQLException;
+
+    /**
+     * Reads the seats held by the active bookings of the locked journey.
+     */
+    @FunctionalInterface
+    interface OccupancyLoader {
+        List<SeatOccupancy> load() throws SQLException;
+    }
+
+    /**
+     * Outcome of a plan.
+     *
+     * @param seatClass       class whose available seats change; may be null if they do not
+     * @param availableChange seats the class gains, negative for seats it loses; the plan is
+     *                        rolled back if the class has fewer seats left than it loses
+     * @param seatMap         the journey's new seat map, or null to drop the stored one
+     */
+    record SeatPlan(String seatClass, int availableChange, byte[] seatMap) {
+    }
+}
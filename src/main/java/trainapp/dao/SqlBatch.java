@@ -0,0 +1,56 @@
+package trainapp.dao;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Helpers shared by the DAOs for batched {@code WHERE id IN (...)} lookups.
+ * ID sets are split into chunks so that a single statement never binds an
+ * unbounded number of parameters.
+ */
+final class SqlBatch {
+
+    /** Maximum number of IDs bound in one IN list */
+    static final int MAX_IN_LIST = 500;
+
+    private SqlBatch() {
+    }
+
+    /**
+     * Builds a comma-separated placeholder list, e.g. {@code ?,?,?} for 3.
+     *
+     * @param count number of placeholders
+     * @return placeholder list for an IN clause
+     */
+    static String placeholders(int count) {
+        StringBuilder sb = new StringBuilder(count * 2);
+        for (int i = 0; i < count; i++) {
+            if (i > 0) sb.append(',');
+            sb.append('?');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Splits distinct IDs into chunks of at most {@link #MAX_IN_LIST}.
+     *
+     * @param ids IDs to split
+     * @return list of chunks, empty if there are no IDs
+     */
+    static <T> List<List<T>> chunks(Collection<T> ids) {
+        List<List<T>> chunks = new ArrayList<>();
+        List<T> current = new ArrayList<>(Math.min(ids.size(), MAX_IN_LIST));
+        for (T id : ids) {
+            current.add(id);
+            if (current.size() == MAX_IN_LIST) {
+                chunks.add(current);
+                current = new ArrayList<>(MAX_IN_LIST);
+            }
+        }
+        if (!current.isEmpty()) {
+            chunks.add(current);
+        }
+        return chunks;
+    }
+}
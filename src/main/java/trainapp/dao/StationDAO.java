@@ -5,7 +5,11 @@ import trainapp.util.DBConnection;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Data Access Object (DAO) for railway station management.
@@ -141,6 +145,45 @@ public class StationDAO {
         return stations;
     }
 
+    /**
+     * Retrieves several stations in batched queries.
+     * Used by list screens to avoid one lookup per row.
+     *
+     * @param stationIds IDs of the stations to load
+     * @return map of station ID to Station, missing IDs are absent
+     */
+    public Map<Integer, Station> getStationsByIds(Collection<Integer> stationIds) {
+        Map<Integer, Station> stations = new HashMap<>();
+        for (List<Integer> chunk : SqlBatch.chunks(new LinkedHashSet<>(stationIds))) {
+            String sql = "SELECT station_id, station_code, name, city, state FROM stations WHERE station_id IN ("
+                    + SqlBatch.placeholders(chunk.size()) + ")";
+
+            try (Connection conn = DBConnection.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+                for (int i = 0; i < chunk.size(); i++) {
+                    stmt.setInt(i + 1, chunk.get(i));
+                }
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        Station station = new Station();
+                        station.setStationId(rs.getInt("station_id"));
+                        station.setStationCode(rs.getString("station_code"));
+                        station.setName(rs.getString("name"));
+                        station.setCity(rs.getString("city"));
+                        station.setState(rs.getString("state"));
+                        stations.put(station.getStationId(), station);
+                    }
+                }
+            } catch (SQLException e) {
+                System.err.println("Error getting stations by IDs: " + e.getMessage());
+                e.printStackTrace();
+            }
+        }
+        return stations;
+    }
+
     // -------------------------------------------------------------------------
     // Create Operations
     // -------------------------------------------------------------------------
@@ -222,6 +265,7 @@ public class StationDAO {
             stmt.setInt(5, station.getStationId());
 
             int rowsAffected = stmt.executeUpdate();
+            if (rowsAffected > 0) EntityCache.STATIONS.invalidate(station.getStationId());
             return rowsAffected > 0;
 
         } catch (SQLException e) {
@@ -257,6 +301,7 @@ public class StationDAO {
 
             stmt.setInt(1, stationId);
             int rowsAffected = stmt.executeUpdate();
+            if (rowsAffected > 0) EntityCache.STATIONS.invalidate(stationId);
             return rowsAffected > 0;
 
         } catch (SQLException e) {
@@ -7,7 +7,11 @@ import trainapp.util.DBConnection;
 import java.sql.*;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Data Access Object (DAO) for train and train schedule management.
@@ -185,6 +189,46 @@ public class TrainDAO {
         return trains;
     }
 
+    /**
+     * Retrieves several trains in batched queries.
+     * Used by list screens to avoid one lookup per row.
+     *
+     * @param trainIds IDs of the trains to load
+     * @return map of train ID to Train, missing IDs are absent
+     */
+    public Map<Integer, Train> getTrainsByIds(Collection<Integer> trainIds) {
+        Map<Integer, Train> trains = new HashMap<>();
+        for (List<Integer> chunk : SqlBatch.chunks(new LinkedHashSet<>(trainIds))) {
+            String sql = "SELECT train_id, train_number, name, source_station_id, destination_station_id, total_coaches "
+                    + "FROM trains WHERE train_id IN (" + SqlBatch.placeholders(chunk.size()) + ")";
+
+            try (Connection conn = DBConnection.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+                for (int i = 0; i < chunk.size(); i++) {
+                    stmt.setInt(i + 1, chunk.get(i));
+                }
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        Train train = new Train();
+                        train.setTrainId(rs.getInt("train_id"));
+                        train.setTrainNumber(rs.getString("train_number"));
+                        train.setName(rs.getString("name"));
+                        train.setSourceStationId(rs.getInt("source_station_id"));
+                        train.setDestinationStationId(rs.getInt("destination_station_id"));
+                        train.setTotalCoaches(rs.getInt("total_coaches"));
+                        trains.put(train.getTrainId(), train);
+                    }
+                }
+            } catch (SQLException e) {
+                System.err.println("Error getting trains by IDs: " + e.getMessage());
+                e.printStackTrace();
+            }
+        }
+        return trains;
+    }
+
     // -------------------------------------------------------------------------
     // Schedule Operations
     // -------------------------------------------------------------------------
@@ -385,6 +429,7 @@ public class TrainDAO {
             stmt.setInt(5, train.getTotalCoaches());
 
             int rowsAffected = stmt.executeUpdate();
+            if (rowsAffected > 0) DashboardCounters.trainsChanged(1);
             return rowsAffected > 0;
 
         } catch (SQLException e) {
@@ -433,6 +478,7 @@ public class TrainDAO {
             stmt.setInt(5, train.getTrainId());
 
             int rowsAffected = stmt.executeUpdate();
+            if (rowsAffected > 0) EntityCache.TRAINS.invalidate(train.getTrainId());
             return rowsAffected > 0;
 
         } catch (SQLException e) {
@@ -506,6 +552,8 @@ public class TrainDAO {
 
                     if (rowsAffected > 0) {
                         conn.commit();
+                        EntityCache.TRAINS.invalidate(trainId);
+                        DashboardCounters.trainsChanged(-1);
                         return true;
                     } else {
                         conn.rollback();
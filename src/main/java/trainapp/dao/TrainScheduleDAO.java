@@ -6,6 +6,8 @@ import java.sql.*;
 import java.time.LocalTime;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Data Access Object (DAO) for train schedule management.
@@ -346,6 +348,69 @@ public class TrainScheduleDAO {
         return 0;
     }
 
+    /**
+     * Retrieves the stop sequence of every train in a single query.
+     * Only train ID, station ID and sequence order are populated; used to build
+     * the in-memory route index.
+     *
+     * @return all schedule entries ordered by train and sequence, empty list on error
+     */
+    public List<TrainSchedule> getAllRouteStops() {
+        List<TrainSchedule> stops = new ArrayList<>();
+        String sql = """
+                SELECT train_id, station_id, sequence_order
+                FROM train_schedule
+                ORDER BY train_id, sequence_order
+                """;
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+
+            while (rs.next()) {
+                TrainSchedule stop = new TrainSchedule();
+                stop.setTrainId(rs.getInt("train_id"));
+                stop.setStationId(rs.getInt("station_id"));
+                stop.setSequenceOrder(rs.getInt("sequence_order"));
+                stops.add(stop);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting route stops: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        return stops;
+    }
+
+    /**
+     * Counts how many scheduled stops each station has across all trains.
+     * Used as the popularity signal when ranking station search results.
+     *
+     * @return stop count by station ID, empty map on error
+     */
+    public Map<Integer, Integer> getStopCountsByStation() {
+        Map<Integer, Integer> counts = new HashMap<>();
+        String sql = """
+                SELECT station_id, COUNT(*) AS stop_count
+                FROM train_schedule
+                GROUP BY station_id
+                """;
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+
+            while (rs.next()) {
+                counts.put(rs.getInt("station_id"), rs.getInt("stop_count"));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting station stop counts: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        return counts;
+    }
+
     // -------------------------------------------------------------------------
     // Validation Operations
     // -------------------------------------------------------------------------
@@ -35,21 +35,6 @@ import java.util.List;
  */
 public class UserDAO {
 
-    // -------------------------------------------------------------------------
-    // Database Connection
-    // -------------------------------------------------------------------------
-
-    /** Database connection instance for all user operations */
-    private final Connection connection;
-
-    /**
-     * Constructor that initializes the database connection.
-     * Uses DBConnection utility to establish connection to the database.
-     */
-    public UserDAO() {
-        this.connection = DBConnection.getConnection();
-    }
-
     // -------------------------------------------------------------------------
     // Create Operations
     // -------------------------------------------------------------------------
@@ -82,7 +67,8 @@ public class UserDAO {
                 VALUES (?, ?, ?, ?, ?)
                 """;
 
-        try (PreparedStatement stmt = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             stmt.setString(1, user.getName());
             stmt.setString(2, user.getEmail());
             stmt.setString(3, user.getPhone());
@@ -94,6 +80,7 @@ public class UserDAO {
                 try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
                     if (generatedKeys.next()) {
                         user.setUserId(generatedKeys.getInt(1));
+                        DashboardCounters.usersChanged(1);
                         return true;
                     }
                 }
@@ -126,7 +113,8 @@ public class UserDAO {
         }
 
         String sql = "INSERT INTO users (name, email, phone, password_hash, created_at) VALUES (?, ?, ?, ?, ?)";
-        try (PreparedStatement stmt = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             stmt.setString(1, user.getName());
             stmt.setString(2, user.getEmail());
             stmt.setString(3, user.getPhone());
@@ -138,6 +126,7 @@ public class UserDAO {
                 try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
                     if (generatedKeys.next()) {
                         user.setUserId(generatedKeys.getInt(1));
+                        DashboardCounters.usersChanged(1);
                         return true;
                     }
                 }
@@ -168,7 +157,8 @@ public class UserDAO {
                 WHERE name = ?
                 """;
 
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, name);
 
             try (ResultSet rs = stmt.executeQuery()) {
@@ -213,7 +203,8 @@ public class UserDAO {
                 WHERE user_id = ?
                 """;
 
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, userId);
 
             try (ResultSet rs = stmt.executeQuery()) {
@@ -248,7 +239,8 @@ public class UserDAO {
                 WHERE email = ?
                 """;
 
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, email);
 
             try (ResultSet rs = stmt.executeQuery()) {
@@ -273,7 +265,8 @@ public class UserDAO {
     public List<User> getAllUsers() {
         String sql = "SELECT user_id, name, email, phone, password_hash, created_at, last_login FROM users ORDER BY created_at DESC";
         List<User> users = new ArrayList<>();
-        try (PreparedStatement stmt = connection.prepareStatement(sql);
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
             while (rs.next()) {
                 users.add(mapResultSetToUser(rs));
@@ -316,13 +309,16 @@ public class UserDAO {
                 SET name = ?, email = ?, phone = ?
                 WHERE user_id = ?
                 """;
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, user.getName());
             stmt.setString(2, user.getEmail());
             stmt.setString(3, user.getPhone());
             stmt.setInt(4, user.getUserId());
 
-            return stmt.executeUpdate() > 0;
+            boolean updated = stmt.executeUpdate() > 0;
+            if (updated) EntityCache.USERS.invalidate(user.getUserId());
+            return updated;
         } catch (SQLException e) {
             System.err.println("Error updating user: " + e.getMessage());
             e.printStackTrace();
@@ -349,11 +345,13 @@ public class UserDAO {
 
         String sql = "UPDATE users SET password_hash = ? WHERE email = ?";
 
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, PasswordUtil.hashPassword(newPassword));
             stmt.setString(2, email);
 
             int result = stmt.executeUpdate();
+            if (result > 0) EntityCache.USERS.invalidateIf(cached -> email.equalsIgnoreCase(cached.getEmail()));
             return result > 0;
         } catch (SQLException e) {
             System.err.println("Error changing password by email: " + e.getMessage());
@@ -372,10 +370,12 @@ public class UserDAO {
     private void updateLastLogin(int userId) {
         String sql = "UPDATE users SET last_login = ? WHERE user_id = ?";
 
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setTimestamp(1, Timestamp.valueOf(LocalDateTime.now()));
             stmt.setInt(2, userId);
             stmt.executeUpdate();
+            EntityCache.USERS.invalidate(userId);
         } catch (SQLException e) {
             System.err.println("Error updating last login: " + e.getMessage());
             e.printStackTrace();
@@ -402,9 +402,15 @@ public class UserDAO {
         }
 
         String sql = "DELETE FROM users WHERE user_id = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, userId);
-            return stmt.executeUpdate() > 0;
+            boolean deleted = stmt.executeUpdate() > 0;
+            if (deleted) {
+                EntityCache.USERS.invalidate(userId);
+                DashboardCounters.usersChanged(-1);
+            }
+            return deleted;
         } catch (SQLException e) {
             System.err.println("Error deleting user: " + e.getMessage());
             e.printStackTrace();
@@ -430,7 +436,8 @@ public class UserDAO {
 
         String sql = "SELECT COUNT(*) FROM users WHERE name = ?";
 
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, name);
 
             try (ResultSet rs = stmt.executeQuery()) {
@@ -458,7 +465,8 @@ public class UserDAO {
 
         String sql = "SELECT COUNT(*) FROM users WHERE email = ?";
 
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, email);
 
             try (ResultSet rs = stmt.executeQuery()) {
@@ -486,7 +494,8 @@ public class UserDAO {
 
         String sql = "SELECT COUNT(*) FROM users WHERE phone = ?";
 
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, phone);
 
             try (ResultSet rs = stmt.executeQuery()) {
@@ -512,7 +521,8 @@ public class UserDAO {
      */
     public int getUserCount() {
         String sql = "SELECT COUNT(*) FROM users";
-        try (PreparedStatement stmt = connection.prepareStatement(sql);
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
             if (rs.next()) {
                 return rs.getInt(1);
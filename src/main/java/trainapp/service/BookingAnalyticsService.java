@@ -0,0 +1,98 @@
+package trainapp.service;
+
+import trainapp.dao.BookingDAO;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Keeps a {@link BookingAnalytics} snapshot of all bookings for admin reports.
+ *
+ * <h2>Lifecycle:</h2>
+ * <ul>
+ *   <li>Loaded on first use with one streaming query, without building a Booking per row</li>
+ *   <li>Reused until it is {@link #MAX_AGE} old or {@link #invalidate()} is called, e.g. by an
+ *       explicit refresh; reports say how old their data is</li>
+ *   <li>If a reload fails, the previous snapshot stays in use</li>
+ * </ul>
+ */
+public class BookingAnalyticsService {
+
+    // =========================================================================
+    // CONFIGURATION AND STATE
+    // =========================================================================
+
+    /** Snapshots older than this are reloaded on the next request */
+    static final Duration MAX_AGE = Duration.ofMinutes(10);
+
+    private static BookingAnalyticsService instance;
+
+    private final BookingDAO bookingDAO;
+
+    private volatile BookingAnalytics snapshot;
+    private volatile boolean stale;
+
+    BookingAnalyticsService(BookingDAO bookingDAO) {
+        this.bookingDAO = bookingDAO;
+    }
+
+    /**
+     * Returns the shared analytics service.
+     */
+    public static synchronized BookingAnalyticsService getInstance() {
+        if (instance == null) {
+            instance = new BookingAnalyticsService(new BookingDAO());
+        }
+        return instance;
+    }
+
+    // =========================================================================
+    // SNAPSHOT
+    // =========================================================================
+
+    /**
+     * Returns a current snapshot, loading one if there is none or it is too old. Loading reads
+     * the whole bookings table, so call it off the FX thread.
+     *
+     * @return the snapshot, or null if none could be loaded
+     */
+    public BookingAnalytics getAnalytics() {
+        BookingAnalytics current = snapshot;
+        if (current != null && !isOutdated(current)) {
+            return current;
+        }
+        synchronized (this) {
+            // Another caller may have reloaded while this one waited
+            current = snapshot;
+            if (current != null && !isOutdated(current)) {
+                return current;
+            }
+            stale = false;
+            BookingAnalytics loaded = load();
+            if (loaded != null) {
+                snapshot = loaded;
+                return loaded;
+            }
+            return current;
+        }
+    }
+
+    /**
+     * Makes the next {@link #getAnalytics()} reload the snapshot.
+     */
+    public void invalidate() {
+        stale = true;
+    }
+
+    private boolean isOutdated(BookingAnalytics analytics) {
+        return stale || analytics.getLoadedAt().plus(MAX_AGE).isBefore(LocalDateTime.now());
+    }
+
+    private BookingAnalytics load() {
+        BookingAnalytics.Builder builder = new BookingAnalytics.Builder();
+        if (bookingDAO.streamAnalyticsRows(builder::add) < 0) {
+            return null;
+        }
+        return builder.build();
+    }
+}
@@ -2,12 +2,12 @@ package trainapp.service;
 
 import trainapp.dao.*;
 import trainapp.model.*;
-import trainapp.util.PDFGenerator;
+import trainapp.service.CoachLayout.BerthType;
 import trainapp.util.Razorpayclient;
+import trainapp.util.PnrGenerator;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.*;
 
 /**
@@ -19,7 +19,7 @@ import java.util.*;
  *   <li><b>Payment Processing Integration</b> - Seamless integration with Razorpay payment gateway</li>
  *   <li><b>Amount Consistency Enforcement</b> - Ensures booking summary = payment amount = invoice amount</li>
  *   <li><b>Passenger Management</b> - Creates and manages passenger records with seat assignments</li>
- *   <li><b>Seat Availability Management</b> - Real-time seat availability checking and updates</li>
+ *   <li><b>Seat Availability Management</b> - Berths are assigned when the booking is saved and freed if payment does not complete</li>
  *   <li><b>Notification and Communication</b> - Email confirmations, PDF generation, and notifications</li>
  * </ul>
  *
@@ -36,14 +36,13 @@ import java.util.*;
  *
  * <h2>Booking Workflow:</h2>
  * <ol>
- *   <li>Validate booking request and check seat availability</li>
+ *   <li>Validate booking request</li>
  *   <li>Create initial booking record with consistent amount</li>
- *   <li>Generate passenger records with seat assignments</li>
+ *   <li>Save it with passenger records and their berths, and hold the berths with a time limit</li>
  *   <li>Create Razorpay payment order</li>
  *   <li>Process payment verification and confirmation</li>
- *   <li>Update booking status and seat availability</li>
- *   <li>Generate tickets and invoices</li>
- *   <li>Send confirmation notifications</li>
+ *   <li>Confirm the seat hold and update booking status</li>
+ *   <li>Confirm the booking, record the payment and queue the confirmation email in one transaction</li>
  * </ol>
  *
  * <h2>Payment Integration:</h2>
@@ -63,40 +62,37 @@ public class BookingService {
     /** Data access object for booking operations */
     private final BookingDAO bookingDAO = new BookingDAO();
 
-    /** Data access object for passenger management */
-    private final PassengerDAO passengerDAO = new PassengerDAO();
-
     /** Data access object for payment transactions */
     private final PaymentDAO paymentDAO = new PaymentDAO();
 
     /** Data access object for journey information */
     private final JourneyDAO journeyDAO = new JourneyDAO();
 
-    /** Data access object for notification tracking */
-    private final NotificationDAO notificationDAO = new NotificationDAO();
-
-    /** Data access object for user information */
-    private final UserDAO userDAO = new UserDAO();
-
-    /** Data access object for train information */
-    private final TrainDAO trainDAO = new TrainDAO();
-
     /** Data access object for station information */
     private final StationDAO stationDAO = new StationDAO();
 
+    /** Train routes, to resolve station names to the stations the train actually stops at */
+    private final RouteIndex routeIndex = RouteIndex.getInstance();
+
     // External Service Dependencies
     /** Razorpay client for payment gateway operations */
     private final Razorpayclient razorpayClient = new Razorpayclient();
 
-    /** Email service for communication */
-    private final EmailService emailService = new EmailService();
-
-    /** PDF generator for tickets and invoices */
-    private final PDFGenerator pdfGenerator = new PDFGenerator();
-
     /** Train service for scheduling and availability */
     private final TrainService trainService = new TrainService();
 
+    /** Passengers of this age or older get a lower berth unless they asked for another */
+    private static final int SENIOR_AGE = 60;
+
+    /** Assigns berths inside the booking transaction */
+    private final SeatAllocationService seatAllocationService = SeatAllocationService.getInstance();
+
+    /** Seat holds taken between booking creation and payment */
+    private final SeatHoldService seatHoldService = SeatHoldService.getInstance();
+
+    /** Delivers confirmations queued in the notification outbox */
+    private final NotificationOutboxDispatcher outboxDispatcher = NotificationOutboxDispatcher.getInstance();
+
     // =========================================================================
     // CORE BOOKING WORKFLOW METHODS
     // =========================================================================
@@ -107,12 +103,18 @@ public class BookingService {
      * <h3>Process Overview:</h3>
      * <ol>
      *   <li>Validates booking request parameters</li>
-     *   <li>Checks seat availability for requested class</li>
-     *   <li>Creates initial booking record with exact amount</li>
-     *   <li>Generates passenger records with seat assignments</li>
+     *   <li>Creates the booking record with exact amount and its passenger records with
+     *       their berths in one transaction</li>
+     *   <li>Holds the berths until payment</li>
      *   <li>Creates Razorpay payment order for processing</li>
      * </ol>
      *
+     * <h3>Seat Hold:</h3>
+     * Berths are chosen while the journey is locked in the booking transaction, so concurrent
+     * users cannot both pay for the last seats or get the same berth. The hold expires after
+     * {@link SeatHoldService#DEFAULT_HOLD_TTL} unless payment succeeds; any failure in the
+     * later steps gives the berths back immediately.
+     *
      * <h3>Amount Consistency:</h3>
      * Uses exact amount from booking summary without recalculation to ensure
      * consistency across booking, payment, and invoice stages.
@@ -122,6 +124,7 @@ public class BookingService {
      */
     public BookingResult createBookingWithPayment(BookingRequest bookingRequest) {
         BookingResult result = new BookingResult();
+        Booking booking = null;
         try {
             // Step 1: Validate booking request
             if (!validateBookingRequest(bookingRequest)) {
@@ -130,8 +133,9 @@ public class BookingService {
                 return result;
             }
 
-            // Step 2: Check seat availability
-            if (!checkSeatAvailability(bookingRequest)) {
+            // Step 2: Resolve the journey
+            Journey journey = ensureJourneyExists(bookingRequest.getTrainId(), bookingRequest.getJourneyDate());
+            if (journey == null) {
                 result.setSuccess(false);
                 result.setMessage("Seats not available for selected class");
                 return result;
@@ -141,30 +145,28 @@ public class BookingService {
             double exactBookingAmount = Math.round(bookingRequest.getTotalAmount() * 100.0) / 100.0;
             bookingRequest.setTotalAmount(exactBookingAmount);
 
-            // Step 4: Create initial booking record
-            Booking booking = createInitialBooking(bookingRequest);
-            if (booking == null) {
+            // Step 4: Create booking and passenger records with their berths and start the hold timer
+            booking = createInitialBooking(bookingRequest, journey);
+            long bookingId = booking == null ? 0 : saveBookingWithSeats(bookingRequest, booking);
+            if (bookingId <= 0) {
                 result.setSuccess(false);
-                result.setMessage("Failed to create booking record");
+                result.setMessage(bookingId == SeatAllocationService.NO_SEATS
+                        ? "Seats not available for selected class" : "Failed to create booking record");
                 return result;
             }
+            seatHoldService.activate(bookingId, journey.getJourneyId(), bookingRequest.getSeatClass(),
+                    bookingRequest.getPassengers().size());
 
-            // Step 5: Create passenger records
-            if (!createPassengerRecords(booking.getBookingId(), bookingRequest.getPassengers(), bookingRequest.getSeatClass())) {
-                result.setSuccess(false);
-                result.setMessage("Failed to create passenger records");
-                return result;
-            }
-
-            // Step 6: Create Razorpay payment order
+            // Step 5: Create Razorpay payment order
             String razorpayOrderId = razorpayClient.createOrder(booking.getTotalFare(), "INR", booking.getPnr());
             if (razorpayOrderId == null) {
+                abandonBooking(booking);
                 result.setSuccess(false);
                 result.setMessage("Failed to create payment order");
                 return result;
             }
 
-            // Step 7: Return successful result
+            // Step 6: Return successful result
             result.setSuccess(true);
             result.setBooking(booking);
             result.setRazorpayOrderId(razorpayOrderId);
@@ -173,6 +175,9 @@ public class BookingService {
             return result;
 
         } catch (Exception e) {
+            if (booking != null && booking.getBookingId() > 0) {
+                abandonBooking(booking);
+            }
             result.setSuccess(false);
             result.setMessage("Booking failed: " + e.getMessage());
             return result;
@@ -189,11 +194,12 @@ public class BookingService {
      * <h3>Payment Processing Steps:</h3>
      * <ol>
      *   <li>Verifies payment with Razorpay using signature validation</li>
-     *   <li>Updates booking status to confirmed</li>
-     *   <li>Creates payment record with complete transaction details</li>
-     *   <li>Updates seat availability after booking confirmation</li>
-     *   <li>Generates and sends tickets and invoices</li>
-     *   <li>Records notification delivery status</li>
+     *   <li>Checks the seat hold is still active, re-taking the same berths if it already expired</li>
+     *   <li>In one transaction, updates booking status to confirmed, creates the payment record
+     *       and queues the confirmation email in the notification outbox</li>
+     *   <li>Confirms the seat hold only once that transaction committed; if it did not, the hold
+     *       keeps running, so the berths are freed at expiry unless the payment is retried</li>
+     *   <li>Wakes the outbox dispatcher without waiting for delivery</li>
      * </ol>
      *
      * <h3>Critical Fix Applied:</h3>
@@ -226,30 +232,42 @@ public class BookingService {
                 return result;
             }
 
-            // Step 3: Update booking status to confirmed
-            if (!bookingDAO.updateBookingStatus(booking.getBookingId(), "confirmed")) {
-                result.setSuccess(false);
-                result.setMessage("Failed to confirm booking");
+            // Step 3: The berths must still be held; a late payment takes them again if they are still free
+            if (!isHeld(booking) && !reacquireSeats(booking)) {
+                refuseLatePayment(paymentRequest, booking, result);
                 return result;
             }
-            booking.setStatus("confirmed");
 
-            // Step 4: Create complete payment record
+            // Step 4: Confirm booking, record payment and queue the confirmation together. Only a
+            // waiting booking is confirmed, so a hold expiring meanwhile fails this; take the
+            // berths again once before giving up
             Payment payment = createPaymentRecord(paymentRequest, booking);
-            if (!paymentDAO.createPayment(payment)) {
-                // Non-fatal error - booking is still confirmed
+            boolean confirmed = bookingDAO.confirmBooking(booking.getBookingId(), payment,
+                    NotificationOutboxDispatcher.BOOKING_CONFIRMATION);
+            if (!confirmed && !isHeld(booking)) {
+                if (!reacquireSeats(booking)) {
+                    refuseLatePayment(paymentRequest, booking, result);
+                    return result;
+                }
+                confirmed = bookingDAO.confirmBooking(booking.getBookingId(), payment,
+                        NotificationOutboxDispatcher.BOOKING_CONFIRMATION);
             }
+            if (!confirmed) {
+                // A running hold frees the berths at expiry; re-taken berths have none, so free them now
+                if (!isHeld(booking)) {
+                    seatAllocationService.release(booking.getBookingId(), booking.getJourneyId());
+                }
+                result.setSuccess(false);
+                result.setMessage("Failed to confirm booking");
+                return result;
+            }
+            seatHoldService.confirm(booking.getBookingId());
+            booking.setStatus("confirmed");
 
-            // Step 5: Update seat availability
-            updateSeatAvailabilityAfterBooking(booking);
-
-            // Step 6: Generate and send confirmations
-            generateAndSendConfirmations(booking);
-
-            // Step 7: Record notification status
-            recordNotifications(booking.getBookingId());
+            // Step 5: Tickets and email are delivered in the background
+            outboxDispatcher.wake();
 
-            // Step 8: Return success result
+            // Step 6: Return success result
             result.setSuccess(true);
             result.setBooking(booking);
             result.setMessage("Booking confirmed successfully! Amount: ₹" + String.format("%.2f", booking.getTotalFare()));
@@ -268,7 +286,7 @@ public class BookingService {
      *
      * <h3>Failure Handling Process:</h3>
      * <ol>
-     *   <li>Updates booking status to cancelled</li>
+     *   <li>Frees the held berths and cancels the booking</li>
      *   <li>Creates failed payment record for audit trail</li>
      *   <li>Logs failure reason for administrative review</li>
      * </ol>
@@ -280,6 +298,12 @@ public class BookingService {
         try {
             Booking booking = bookingDAO.getBookingById(bookingId);
             if (booking != null) {
+                // Give the berths back right away instead of waiting for the hold to expire;
+                // without a hold (e.g. after a restart) free them directly if still waiting
+                if (!seatHoldService.release(bookingId)) {
+                    seatAllocationService.release(bookingId, booking.getJourneyId());
+                }
+
                 // Update booking status to cancelled
                 bookingDAO.updateBookingStatus(bookingId, "cancelled");
 
@@ -342,33 +366,25 @@ public class BookingService {
      *
      * <h3>Creation Process:</h3>
      * <ol>
-     *   <li>Creates booking object with user and train information</li>
-     *   <li>Ensures journey exists or creates new journey record</li>
+     *   <li>Creates booking object with user, train and journey information</li>
      *   <li>Maps station names to station IDs</li>
      *   <li>Sets exact amount from booking summary</li>
      *   <li>Generates unique PNR for tracking</li>
-     *   <li>Saves booking to database</li>
      * </ol>
      *
      * @param request Validated booking request
-     * @return Created Booking object or null if creation failed
+     * @param journey Journey to book
+     * @return Booking object ready to be saved, or null if its stations were not found
      */
-    private Booking createInitialBooking(BookingRequest request) {
+    private Booking createInitialBooking(BookingRequest request, Journey journey) {
         try {
             Booking booking = new Booking();
             booking.setUserId(request.getUserId());
-
-            // Ensure journey exists for the train and date
-            Journey journey = ensureJourneyExists(request.getTrainId(), request.getJourneyDate());
-            if (journey == null) {
-                return null;
-            }
-
             booking.setJourneyId(journey.getJourneyId());
             booking.setTrainId(request.getTrainId());
 
             // Map station names to IDs
-            if (!setBookingStations(booking, request.getFromStation(), request.getToStation())) {
+            if (!setBookingStations(booking, request.getTrainId(), request.getFromStation(), request.getToStation())) {
                 return null;
             }
 
@@ -377,15 +393,7 @@ public class BookingService {
             booking.setStatus("waiting");
             booking.setPnr(generatePNR());
             booking.setBookingTime(LocalDateTime.now());
-
-            // Save to database
-            long bookingId = bookingDAO.createBooking(booking);
-            if (bookingId > 0) {
-                booking.setBookingId(bookingId);
-                return booking;
-            }
-
-            return null;
+            return booking;
         } catch (Exception e) {
             return null;
         }
@@ -410,12 +418,41 @@ public class BookingService {
     /**
      * Sets booking station IDs from station names.
      *
+     * <p>Several stations can share a name, so the names are resolved on the train's own route
+     * the same way {@link RouteIndex#findTrainsBetween} matched the train: the first stop with
+     * the source name and the last stop with the destination name after it. Only a train the
+     * index has no route for falls back to the station table.
+     *
      * @param booking Booking object to update
+     * @param trainId Train being booked
      * @param fromStationName Source station name
      * @param toStationName Destination station name
      * @return true if both stations were found and set successfully
      */
-    private boolean setBookingStations(Booking booking, String fromStationName, String toStationName) {
+    private boolean setBookingStations(Booking booking, int trainId, String fromStationName, String toStationName) {
+        int[] stops = routeIndex.getStops(trainId);
+        if (stops.length > 0) {
+            int[] fromIds = routeIndex.getStationIds(fromStationName);
+            int[] toIds = routeIndex.getStationIds(toStationName);
+            int from = -1;
+            int to = -1;
+            for (int k = 0; k < stops.length; k++) {
+                if (from < 0 && contains(fromIds, stops[k])) {
+                    from = k;
+                }
+                if (contains(toIds, stops[k])) {
+                    to = k;
+                }
+            }
+            if (from < 0 || from >= to) {
+                System.err.println("Train " + trainId + " does not run from " + fromStationName + " to " + toStationName);
+                return false;
+            }
+            booking.setSourceStationId(stops[from]);
+            booking.setDestStationId(stops[to]);
+            return true;
+        }
+
         Station fromStation = stationDAO.getStationByName(fromStationName);
         Station toStation = stationDAO.getStationByName(toStationName);
 
@@ -428,6 +465,15 @@ public class BookingService {
         return false;
     }
 
+    private static boolean contains(int[] stationIds, int stationId) {
+        for (int id : stationIds) {
+            if (id == stationId) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Validates booking request for completeness and correctness.
      *
@@ -446,63 +492,55 @@ public class BookingService {
     }
 
     /**
-     * Checks seat availability for the requested booking.
+     * Saves a booking and its passengers in one transaction, so a failure leaves no orphan
+     * booking, with a berth for every passenger. Berth preferences are honoured where the
+     * chosen bay allows; senior passengers without a preference ask for a lower berth.
      *
-     * @param request BookingRequest with seat requirements
-     * @return true if sufficient seats are available, false otherwise
+     * @param request Validated booking request
+     * @param booking Booking from {@link #createInitialBooking}
+     * @return booking ID, {@link SeatAllocationService#NO_SEATS} if too few seats are free for
+     *         the trip, or 0 if saving failed
      */
-    private boolean checkSeatAvailability(BookingRequest request) {
-        try {
-            Journey journey = journeyDAO.getJourneyForTrainAndDate(request.getTrainId(), request.getJourneyDate());
-            if (journey != null) {
-                Train train = trainDAO.getTrainById(request.getTrainId());
-                Map<String, Integer> availability = trainService.getAvailableSeatsForDate(train, request.getJourneyDate());
-                int availableSeats = availability.getOrDefault(request.getSeatClass(), 0);
-                return availableSeats >= request.getPassengers().size();
+    private long saveBookingWithSeats(BookingRequest request, Booking booking) {
+        List<Passenger> passengers = createPassengerRecords(request.getPassengers(), request.getSeatClass());
+        List<BerthType> preferences = new ArrayList<>(passengers.size());
+        for (PassengerInfo passenger : request.getPassengers()) {
+            BerthType preference = BerthType.fromCode(passenger.getBerthPreference());
+            if (preference == null && passenger.getAge() >= SENIOR_AGE) {
+                preference = BerthType.LOWER;
             }
-            return false;
-        } catch (Exception e) {
-            return false;
+            preferences.add(preference);
         }
+        return seatAllocationService.book(booking, passengers, preferences);
     }
 
     /**
-     * Creates passenger records with seat assignments.
+     * Creates passenger records for a booking.
      *
      * <h3>Passenger Record Creation:</h3>
      * <ul>
      *   <li>Maps passenger information to database format</li>
-     *   <li>Assigns seats based on class and sequence</li>
      *   <li>Validates and normalizes gender information</li>
-     *   <li>Links passengers to booking ID</li>
      * </ul>
+     * The booking ID and seat number are filled in when the records are saved with their booking.
      *
-     * @param bookingId Associated booking ID
      * @param passengers List of passenger information
      * @param selectedClass Selected seat class
-     * @return true if all passenger records were created successfully
+     * @return passenger records ready to be saved
      */
-    private boolean createPassengerRecords(long bookingId, List<PassengerInfo> passengers, String selectedClass) {
-        try {
-            for (int i = 0; i < passengers.size(); i++) {
-                PassengerInfo passenger = passengers.get(i);
-                trainapp.model.Passenger dbPassenger = new trainapp.model.Passenger();
-
-                dbPassenger.setBookingId(bookingId);
-                dbPassenger.setName(passenger.getName());
-                dbPassenger.setAge(passenger.getAge());
-                dbPassenger.setGender(mapGender(passenger.getGender()));
-                dbPassenger.setCoachType(selectedClass);
-                dbPassenger.setSeatNumber(generateSeatNumber(selectedClass, i + 1));
-
-                if (!passengerDAO.createPassenger(dbPassenger)) {
-                    return false;
-                }
-            }
-            return true;
-        } catch (Exception e) {
-            return false;
+    private List<Passenger> createPassengerRecords(List<PassengerInfo> passengers, String selectedClass) {
+        List<Passenger> records = new ArrayList<>(passengers.size());
+        for (int i = 0; i < passengers.size(); i++) {
+            PassengerInfo passenger = passengers.get(i);
+            Passenger dbPassenger = new Passenger();
+
+            dbPassenger.setName(passenger.getName());
+            dbPassenger.setAge(passenger.getAge());
+            dbPassenger.setGender(mapGender(passenger.getGender()));
+            dbPassenger.setCoachType(selectedClass);
+            records.add(dbPassenger);
         }
+        return records;
     }
 
     // =========================================================================
@@ -510,135 +548,48 @@ public class BookingService {
     // =========================================================================
 
     /**
-     * Updates seat availability after successful booking confirmation.
-     *
-     * <h3>Update Process:</h3>
-     * <ol>
-     *   <li>Retrieves passenger details from booking</li>
-     *   <li>Determines seat class and passenger count</li>
-     *   <li>Updates train service with booked seats</li>
-     *   <li>Maintains availability accuracy for future bookings</li>
-     * </ol>
-     *
-     * @param booking Confirmed booking object
+     * Whether this process still holds the booking's berths for payment.
      */
-    private void updateSeatAvailabilityAfterBooking(Booking booking) {
-        try {
-            List<Passenger> passengers = passengerDAO.getPassengersByBookingId(booking.getBookingId());
-            if (!passengers.isEmpty()) {
-                String seatClass = passengers.get(0).getCoachType();
-                int passengerCount = passengers.size();
-                Journey journey = journeyDAO.getJourneyById(booking.getJourneyId());
-
-                if (journey != null) {
-                    trainService.bookSeats(booking.getTrainId(), journey.getDepartureDate(), seatClass, passengerCount);
-                }
-            }
-        } catch (Exception e) {
-            // Non-fatal error - log but don't fail the booking
-        }
+    private boolean isHeld(Booking booking) {
+        return seatHoldService.getHoldExpiry(booking.getBookingId()) != null;
     }
 
-    // =========================================================================
-    // NOTIFICATION AND COMMUNICATION
-    // =========================================================================
-
     /**
-     * Generates and sends booking confirmations including tickets and invoices.
-     *
-     * @param booking Confirmed booking object
+     * Cancels a booking paid for after its berths were given to someone else and records the
+     * payment for the refund.
      */
-    private void generateAndSendConfirmations(Booking booking) {
-        try {
-            byte[] ticketPdf = pdfGenerator.generateTicketPDF(booking);
-            byte[] invoicePdf = pdfGenerator.generateInvoicePDF(booking);
-            sendConfirmationEmail(booking, ticketPdf, invoicePdf);
-        } catch (Exception e) {
-            // Non-fatal error - booking is still confirmed
-        }
+    private void refuseLatePayment(PaymentSuccessRequest paymentRequest, Booking booking, BookingResult result) {
+        paymentDAO.createPayment(createPaymentRecord(paymentRequest, booking)); // Audit trail for the refund
+        bookingDAO.updateBookingStatus(booking.getBookingId(), "cancelled");
+        result.setSuccess(false);
+        result.setMessage("Seat hold expired and the seats are no longer available. Your payment will be refunded.");
     }
 
     /**
-     * Sends booking confirmation email with ticket and invoice attachments.
+     * Takes the berths again for a paid booking whose hold is gone, e.g. because payment
+     * completed after the hold expired or the application was restarted in between.
      *
-     * <h3>Email Content:</h3>
-     * <ul>
-     *   <li>Booking confirmation details</li>
-     *   <li>Train and journey information</li>
-     *   <li>PDF ticket attachment</li>
-     *   <li>PDF invoice attachment</li>
-     * </ul>
-     *
-     * @param booking Confirmed booking object
-     * @param ticketPdf Generated ticket PDF
-     * @param invoicePdf Generated invoice PDF
+     * @param booking Paid booking object
+     * @return true if the booking's berths were still free and are taken again
      */
-    private void sendConfirmationEmail(Booking booking, byte[] ticketPdf, byte[] invoicePdf) {
+    private boolean reacquireSeats(Booking booking) {
         try {
-            User user = userDAO.getUserById(booking.getUserId());
-            Train train = trainDAO.getTrainById(booking.getTrainId());
-            Station fromStation = stationDAO.getStationById(booking.getSourceStationId());
-            Station toStation = stationDAO.getStationById(booking.getDestStationId());
-
-            if (user != null) {
-                String trainDetails = buildTrainDetails(train);
-                String journeyDetails = buildJourneyDetails(fromStation, toStation, booking);
-
-                emailService.sendBookingConfirmationWithAttachments(
-                        user.getEmail(), user.getName(), booking.getPnr(),
-                        trainDetails, journeyDetails, ticketPdf, invoicePdf
-                );
-            }
+            return seatAllocationService.retake(booking);
         } catch (Exception e) {
-            // Non-fatal error - booking confirmation still valid
-        }
-    }
-
-    /**
-     * Builds train details string for email content.
-     *
-     * @param train Train object
-     * @return Formatted train details string
-     */
-    private String buildTrainDetails(Train train) {
-        return (train != null)
-                ? train.getTrainNumber() + " - " + train.getName()
-                : "Train Details";
-    }
-
-    /**
-     * Builds journey details string for email content.
-     *
-     * @param fromStation Source station
-     * @param toStation Destination station
-     * @param booking Booking object
-     * @return Formatted journey details string
-     */
-    private String buildJourneyDetails(Station fromStation, Station toStation, Booking booking) {
-        if (fromStation != null && toStation != null) {
-            return fromStation.getName() + " → " + toStation.getName() + " | " +
-                    booking.getBookingTime().toLocalDate().format(DateTimeFormatter.ofPattern("dd MMM yyyy")) +
-                    " | Confirmed | Amount: ₹" + String.format("%.2f", booking.getTotalFare());
+            return false;
         }
-        return "Journey Details";
     }
 
     /**
-     * Records notification delivery status for tracking purposes.
+     * Cancels a booking that failed before payment and frees its berths.
      *
-     * @param bookingId Booking ID for notification tracking
+     * @param booking Booking that could not be completed
      */
-    private void recordNotifications(long bookingId) {
-        try {
-            Notification notification = new Notification();
-            notification.setBookingId(bookingId);
-            notification.setEmailSent(true);
-            notification.setSmsSent(true);
-            notification.setSentAt(LocalDateTime.now());
-            notificationDAO.createNotification(notification);
-        } catch (Exception e) {
-            // Non-fatal error - notification tracking failure
+    private void abandonBooking(Booking booking) {
+        if (!seatHoldService.release(booking.getBookingId())) {
+            seatAllocationService.release(booking.getBookingId(), booking.getJourneyId());
         }
+        bookingDAO.updateBookingStatus(booking.getBookingId(), "cancelled");
     }
 
     // =========================================================================
@@ -649,9 +600,10 @@ public class BookingService {
      * Generates unique PNR (Passenger Name Record) for booking identification.
      *
      * @return Unique PNR string
+     * @see PnrGenerator
      */
     private String generatePNR() {
-        return "PNR" + System.currentTimeMillis() % 10000000L;
+        return PnrGenerator.getInstance().nextPnr();
     }
 
     /**
@@ -668,24 +620,6 @@ public class BookingService {
         };
     }
 
-    /**
-     * Generates seat number based on class and sequence.
-     *
-     * @param classType Seat class type
-     * @param sequenceNumber Passenger sequence number
-     * @return Generated seat number
-     */
-    private String generateSeatNumber(String classType, int sequenceNumber) {
-        String prefix = switch (classType) {
-            case "SL" -> "S";
-            case "3A" -> "A";
-            case "2A" -> "B";
-            case "1A" -> "H";
-            default -> "S";
-        };
-        return prefix + sequenceNumber;
-    }
-
     // =========================================================================
     // DATA TRANSFER OBJECTS
     // =========================================================================
@@ -734,6 +668,7 @@ public class BookingService {
         private String name;
         private int age;
         private String gender;
+        private String berthPreference;
 
         // Getters and setters
         public String getName() { return name; }
@@ -742,6 +677,9 @@ public class BookingService {
         public void setAge(int age) { this.age = age; }
         public String getGender() { return gender; }
         public void setGender(String gender) { this.gender = gender; }
+        /** Berth code such as "LB" or "SU"; null or blank for no preference */
+        public String getBerthPreference() { return berthPreference; }
+        public void setBerthPreference(String berthPreference) { this.berthPreference = berthPreference; }
     }
 
     /**
@@ -0,0 +1,138 @@
+package trainapp.service;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Coach layout of each seat class: berths per coach, how berths are grouped into bays and
+ * which kind each berth is.
+ *
+ * <h2>Seat Numbering:</h2>
+ * Seats of a class on one journey are numbered from 0 through all its coaches; seat
+ * {@code i} is berth {@code i % berthsPerCoach + 1} of coach {@code i / berthsPerCoach + 1}.
+ * On tickets a seat is written as coach and berth, e.g. {@code S2/17} for berth 17 of the
+ * second sleeper coach.
+ *
+ * <h2>Bays:</h2>
+ * Berths come in bays that repeat through the coach, e.g. sleeper bays of eight berths:
+ * three tiers on each side and two side berths. Groups are seated in as few bays as possible.
+ */
+public enum CoachLayout {
+
+    SL("S", 72, BerthType.LOWER, BerthType.MIDDLE, BerthType.UPPER,
+            BerthType.LOWER, BerthType.MIDDLE, BerthType.UPPER, BerthType.SIDE_LOWER, BerthType.SIDE_UPPER),
+    AC_3_TIER("A", 64, BerthType.LOWER, BerthType.MIDDLE, BerthType.UPPER,
+            BerthType.LOWER, BerthType.MIDDLE, BerthType.UPPER, BerthType.SIDE_LOWER, BerthType.SIDE_UPPER),
+    AC_2_TIER("B", 48, BerthType.LOWER, BerthType.UPPER, BerthType.LOWER, BerthType.UPPER,
+            BerthType.SIDE_LOWER, BerthType.SIDE_UPPER),
+    AC_FIRST("H", 24, BerthType.LOWER, BerthType.UPPER, BerthType.LOWER, BerthType.UPPER);
+
+    /**
+     * Kind of berth, as chosen in berth preferences.
+     */
+    public enum BerthType {
+        LOWER("LB"), MIDDLE("MB"), UPPER("UB"), SIDE_LOWER("SL"), SIDE_UPPER("SU");
+
+        private final String code;
+
+        BerthType(String code) {
+            this.code = code;
+        }
+
+        public String getCode() {
+            return code;
+        }
+
+        /**
+         * Parses a berth code such as "LB", case-insensitively.
+         *
+         * @return the berth type, or null for null, blank or unknown codes
+         */
+        public static BerthType fromCode(String code) {
+            if (code != null) {
+                for (BerthType type : values()) {
+                    if (type.code.equalsIgnoreCase(code.trim())) {
+                        return type;
+                    }
+                }
+            }
+            return null;
+        }
+    }
+
+    private static final Pattern SEAT_LABEL = Pattern.compile("([A-Z]+)(\\d{1,4})/(\\d{1,4})");
+
+    private final String coachPrefix;
+    private final int berthsPerCoach;
+    private final BerthType[] bay;
+
+    CoachLayout(String coachPrefix, int berthsPerCoach, BerthType... bay) {
+        this.coachPrefix = coachPrefix;
+        this.berthsPerCoach = berthsPerCoach;
+        this.bay = bay;
+    }
+
+    /**
+     * Returns the layout of a seat class code ("SL", "3A", "2A", "1A").
+     *
+     * @throws IllegalArgumentException for unknown class codes
+     */
+    public static CoachLayout forClass(String classCode) {
+        return switch (classCode) {
+            case "SL" -> SL;
+            case "3A" -> AC_3_TIER;
+            case "2A" -> AC_2_TIER;
+            case "1A" -> AC_FIRST;
+            default -> throw new IllegalArgumentException("Invalid class: " + classCode);
+        };
+    }
+
+    public int getBerthsPerCoach() {
+        return berthsPerCoach;
+    }
+
+    public int getBaySize() {
+        return bay.length;
+    }
+
+    /**
+     * Returns the kind of berth a seat is.
+     *
+     * @param seat seat index, from 0
+     */
+    public BerthType berthType(int seat) {
+        return bay[(seat % berthsPerCoach) % bay.length];
+    }
+
+    /**
+     * Writes a seat as coach and berth, e.g. {@code S2/17}.
+     *
+     * @param seat seat index, from 0
+     */
+    public String label(int seat) {
+        return coachPrefix + (seat / berthsPerCoach + 1) + "/" + (seat % berthsPerCoach + 1);
+    }
+
+    /**
+     * Reads a seat written by {@link #label(int)}.
+     *
+     * @param label seat number stored with a passenger
+     * @return the seat index, or -1 if the label is not a seat of this layout (for example a
+     *         seat number from before seats were allocated)
+     */
+    public int parse(String label) {
+        if (label == null) {
+            return -1;
+        }
+        Matcher matcher = SEAT_LABEL.matcher(label.trim());
+        if (!matcher.matches() || !matcher.group(1).equals(coachPrefix)) {
+            return -1;
+        }
+        int coach = Integer.parseInt(matcher.group(2));
+        int berth = Integer.parseInt(matcher.group(3));
+        if (coach < 1 || berth < 1 || berth > berthsPerCoach) {
+            return -1;
+        }
+        return (coach - 1) * berthsPerCoach + berth - 1;
+    }
+}
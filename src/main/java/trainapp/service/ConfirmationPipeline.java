@@ -0,0 +1,383 @@
+package trainapp.service;
+
+import trainapp.dao.NotificationOutboxDAO;
+import trainapp.dao.NotificationOutboxDAO.OutboxMessage;
+import trainapp.dao.StationDAO;
+import trainapp.dao.TrainDAO;
+import trainapp.dao.UserDAO;
+import trainapp.model.*;
+import trainapp.util.PDFGenerator;
+
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ConfirmationPipeline does the slow work after a payment is confirmed, so the payment
+ * screen can report success as soon as the booking and payment are committed. Jobs come
+ * from the {@link NotificationOutboxDispatcher}, one per claimed outbox message.
+ *
+ * <h2>Stages:</h2>
+ * <ol>
+ *   <li><b>render</b> - Generates the ticket and invoice PDFs</li>
+ *   <li><b>email</b> - Sends the confirmation email with both PDFs attached</li>
+ *   <li><b>record</b> - Completes the outbox message: delivered, retried later, or failed</li>
+ * </ol>
+ *
+ * <h2>Flow Control:</h2>
+ * <ul>
+ *   <li>Each stage has a bounded queue and a fixed set of worker threads</li>
+ *   <li>A full downstream queue blocks the upstream worker, so backpressure reaches
+ *       {@link #submit(Booking, OutboxMessage)}, which waits briefly and then rejects the job</li>
+ *   <li>Rendering and recording are retried in place with exponential backoff; a failed
+ *       email is not, as the outbox schedules the next attempt</li>
+ *   <li>Per-stage metrics cover queue depth, outcomes and latency (queue wait plus work)</li>
+ * </ul>
+ */
+public class ConfirmationPipeline {
+
+    // =========================================================================
+    // CONFIGURATION
+    // =========================================================================
+
+    /** How long {@link #submit(Booking, OutboxMessage)} waits for room in the first queue */
+    private static final long SUBMIT_TIMEOUT_MILLIS = 2000;
+
+    /** First retry delay; doubled on every further attempt */
+    private static final long RETRY_BASE_DELAY_MILLIS = 2000;
+
+    /** How long {@link #shutdown()} waits for queued confirmations to finish; unfinished ones stay in the outbox */
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
+
+    private static final DateTimeFormatter EMAIL_DATE_FORMAT = DateTimeFormatter.ofPattern("dd MMM yyyy");
+
+    private static ConfirmationPipeline instance;
+
+    // =========================================================================
+    // DEPENDENCIES AND STATE
+    // =========================================================================
+
+    private final PDFGenerator pdfGenerator = new PDFGenerator();
+    private final EmailService emailService = new EmailService();
+    private final NotificationOutboxDAO outboxDAO = new NotificationOutboxDAO();
+    private final UserDAO userDAO = new UserDAO();
+    private final TrainDAO trainDAO = new TrainDAO();
+    private final StationDAO stationDAO = new StationDAO();
+
+    private final Stage renderStage;
+    private final Stage emailStage;
+    private final Stage recordStage;
+    private final List<Thread> workers = new ArrayList<>();
+
+    /** Jobs accepted and not yet through the record stage */
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder rejectedCount = new LongAdder();
+
+    private volatile boolean accepting = true;
+
+    private ConfirmationPipeline() {
+        recordStage = new Stage("record", 64, 1, 3, this::recordOutcome, null);
+        emailStage = new Stage("email", 32, 2, 1, this::sendEmail, recordStage);
+        renderStage = new Stage("render", 32, 2, 2, this::renderPdfs, emailStage);
+    }
+
+    /**
+     * Returns the shared pipeline, starting its workers on first use.
+     */
+    public static synchronized ConfirmationPipeline getInstance() {
+        if (instance == null) {
+            instance = new ConfirmationPipeline();
+            instance.start();
+        }
+        return instance;
+    }
+
+    private void start() {
+        for (Stage stage : List.of(renderStage, emailStage, recordStage)) {
+            for (int i = 1; i <= stage.workerCount; i++) {
+                Thread worker = new Thread(stage::runWorker, "confirm-" + stage.name + "-" + i);
+                worker.setDaemon(true);
+                worker.start();
+                workers.add(worker);
+            }
+        }
+    }
+
+    // =========================================================================
+    // SUBMISSION
+    // =========================================================================
+
+    /**
+     * Queues the confirmation documents and email of a confirmed booking.
+     *
+     * @param booking confirmed booking; must not be modified afterwards
+     * @param message claimed outbox message the job completes
+     * @return true if the job was accepted, false if the pipeline is full or shutting down
+     */
+    public boolean submit(Booking booking, OutboxMessage message) {
+        if (!accepting) {
+            rejectedCount.increment();
+            return false;
+        }
+        inFlight.incrementAndGet();
+        try {
+            if (renderStage.offer(new Job(booking, message), SUBMIT_TIMEOUT_MILLIS)) {
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        inFlight.decrementAndGet();
+        rejectedCount.increment();
+        System.err.println("Confirmation pipeline full, booking " + booking.getBookingId() + " stays in the outbox");
+        return false;
+    }
+
+    // =========================================================================
+    // STAGE WORK
+    // =========================================================================
+
+    private boolean renderPdfs(Job job) {
+        job.ticketPdf = pdfGenerator.generateTicketPDF(job.booking);
+        job.invoicePdf = pdfGenerator.generateInvoicePDF(job.booking);
+        return job.ticketPdf != null && job.invoicePdf != null;
+    }
+
+    private boolean sendEmail(Job job) {
+        if (job.ticketPdf == null || job.invoicePdf == null) {
+            job.error = "Ticket rendering failed";
+            return true;
+        }
+        Booking booking = job.booking;
+        User user = userDAO.getUserById(booking.getUserId());
+        if (user == null) {
+            job.error = "No user for booking";
+            job.permanent = true; // Retrying will not help
+            return true;
+        }
+        Train train = trainDAO.getTrainById(booking.getTrainId());
+        Station fromStation = stationDAO.getStationById(booking.getSourceStationId());
+        Station toStation = stationDAO.getStationById(booking.getDestStationId());
+
+        job.emailSent = emailService.sendBookingConfirmationWithAttachments(
+                user.getEmail(), user.getName(), booking.getPnr(),
+                buildTrainDetails(train), buildJourneyDetails(fromStation, toStation, booking),
+                job.ticketPdf, job.invoicePdf);
+        if (!job.emailSent) {
+            job.error = "Email delivery failed";
+        }
+        // Attachments are no longer needed; let them be collected while the job waits
+        job.ticketPdf = null;
+        job.invoicePdf = null;
+        return job.emailSent;
+    }
+
+    private boolean recordOutcome(Job job) {
+        OutboxMessage message = job.message;
+        long bookingId = job.booking.getBookingId();
+        if (job.emailSent) {
+            return outboxDAO.markDelivered(message,
+                    NotificationOutboxDispatcher.buildNotification(bookingId, true));
+        }
+        if (job.permanent || message.getAttempts() + 1 >= NotificationOutboxDispatcher.MAX_ATTEMPTS) {
+            return outboxDAO.markFailed(message, job.error,
+                    NotificationOutboxDispatcher.buildNotification(bookingId, false));
+        }
+        return outboxDAO.scheduleRetry(message, NotificationOutboxDispatcher.retryDelay(message.getAttempts()), job.error);
+    }
+
+    private String buildTrainDetails(Train train) {
+        return (train != null)
+                ? train.getTrainNumber() + " - " + train.getName()
+                : "Train Details";
+    }
+
+    private String buildJourneyDetails(Station fromStation, Station toStation, Booking booking) {
+        if (fromStation != null && toStation != null) {
+            return fromStation.getName() + " → " + toStation.getName() + " | " +
+                    booking.getBookingTime().toLocalDate().format(EMAIL_DATE_FORMAT) +
+                    " | Confirmed | Amount: ₹" + String.format("%.2f", booking.getTotalFare());
+        }
+        return "Journey Details";
+    }
+
+    // =========================================================================
+    // SHUTDOWN
+    // =========================================================================
+
+    /**
+     * Stops accepting jobs, waits briefly for queued confirmations to finish and stops
+     * the workers. Called from {@code MainApp.stop()}.
+     */
+    public static synchronized void shutdown() {
+        if (instance == null) {
+            return;
+        }
+        ConfirmationPipeline pipeline = instance;
+        pipeline.accepting = false;
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(SHUTDOWN_TIMEOUT_SECONDS);
+        try {
+            while (pipeline.inFlight.get() > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(50);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (pipeline.inFlight.get() > 0) {
+            System.err.println(pipeline.inFlight.get() + " booking confirmation(s) unfinished at shutdown");
+        }
+        pipeline.workers.forEach(Thread::interrupt);
+        instance = null;
+    }
+
+    // =========================================================================
+    // METRICS
+    // =========================================================================
+
+    /**
+     * Returns a snapshot of pipeline metrics.
+     */
+    public PipelineStats getStats() {
+        return new PipelineStats(inFlight.get(), rejectedCount.sum(),
+                List.of(renderStage.stats(), emailStage.stats(), recordStage.stats()));
+    }
+
+    /**
+     * Point-in-time pipeline metrics.
+     */
+    public record PipelineStats(int inFlight, long rejected, List<StageStats> stages) {
+    }
+
+    /**
+     * Point-in-time metrics of one stage. Latency runs from entering the stage's queue to
+     * leaving the stage.
+     */
+    public record StageStats(String name, int queued, long processed, long failed, long retried,
+                             double avgLatencyMillis, double maxLatencyMillis) {
+    }
+
+    // =========================================================================
+    // PIPELINE INTERNALS
+    // =========================================================================
+
+    /**
+     * Work of one stage on one job; returns false to have the job retried.
+     */
+    @FunctionalInterface
+    private interface StageWork {
+        boolean process(Job job) throws Exception;
+    }
+
+    /**
+     * A bounded queue with its workers, retry policy and metrics.
+     */
+    private final class Stage {
+        private final String name;
+        private final BlockingQueue<Job> queue;
+        private final int workerCount;
+        private final int maxAttempts;
+        private final StageWork work;
+        private final Stage next;
+
+        private final LongAdder processedCount = new LongAdder();
+        private final LongAdder failedCount = new LongAdder();
+        private final LongAdder retriedCount = new LongAdder();
+        private final LongAdder latencyNanos = new LongAdder();
+        private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+        private Stage(String name, int capacity, int workerCount, int maxAttempts, StageWork work, Stage next) {
+            this.name = name;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            this.workerCount = workerCount;
+            this.maxAttempts = maxAttempts;
+            this.work = work;
+            this.next = next;
+        }
+
+        private boolean offer(Job job, long timeoutMillis) throws InterruptedException {
+            job.enteredStageAt = System.nanoTime();
+            return queue.offer(job, timeoutMillis, TimeUnit.MILLISECONDS);
+        }
+
+        private void put(Job job) throws InterruptedException {
+            job.enteredStageAt = System.nanoTime();
+            queue.put(job);
+        }
+
+        private void runWorker() {
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
+                    Job job = queue.take();
+                    process(job);
+                    if (next != null) {
+                        next.put(job); // Blocks while the next stage is full
+                    } else {
+                        inFlight.decrementAndGet();
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void process(Job job) throws InterruptedException {
+            for (int attempt = 1; ; attempt++) {
+                boolean done;
+                try {
+                    done = work.process(job);
+                } catch (Exception e) {
+                    System.err.println("Confirmation " + name + " failed for booking "
+                            + job.booking.getBookingId() + ": " + e.getMessage());
+                    done = false;
+                }
+
+                if (done || attempt >= maxAttempts) {
+                    if (done) processedCount.increment();
+                    else failedCount.increment();
+                    recordLatency(System.nanoTime() - job.enteredStageAt);
+                    return;
+                }
+                retriedCount.increment();
+                Thread.sleep(RETRY_BASE_DELAY_MILLIS << (attempt - 1));
+            }
+        }
+
+        private void recordLatency(long nanos) {
+            latencyNanos.add(nanos);
+            maxLatencyNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        private StageStats stats() {
+            long completed = processedCount.sum() + failedCount.sum();
+            return new StageStats(name, queue.size(), processedCount.sum(), failedCount.sum(), retriedCount.sum(),
+                    completed == 0 ? 0.0 : latencyNanos.sum() / (double) completed / 1_000_000.0,
+                    maxLatencyNanos.get() / 1_000_000.0);
+        }
+    }
+
+    /**
+     * One booking moving through the stages.
+     */
+    private static final class Job {
+        private final Booking booking;
+        private final OutboxMessage message;
+        private volatile byte[] ticketPdf;
+        private volatile byte[] invoicePdf;
+        private volatile boolean emailSent;
+        private volatile String error;
+        private volatile boolean permanent;
+        private volatile long enteredStageAt;
+
+        private Job(Booking booking, OutboxMessage message) {
+            this.booking = booking;
+            this.message = message;
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package trainapp.service;
+
+import trainapp.dao.DashboardCounterDAO;
+import trainapp.dao.DashboardCounters;
+import trainapp.dao.DashboardCounters.Delta;
+import trainapp.model.TravelStatistics;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DashboardStatsService serves the admin dashboard totals from incrementally maintained
+ * counters instead of counting the users, trains and bookings tables on every load.
+ *
+ * <h2>How It Works:</h2>
+ * <ul>
+ *   <li><b>Recording</b> - The DAO write paths record each committed change in
+ *       {@link DashboardCounters}, in memory</li>
+ *   <li><b>Checkpoint</b> - Every {@link #CHECKPOINT_INTERVAL_SECONDS} seconds the recorded
+ *       changes are added to the {@code dashboard_counters} table; if that fails they are kept
+ *       for the next checkpoint</li>
+ *   <li><b>Reads</b> - Stored counters plus this process's changes not yet checkpointed, so
+ *       an admin sees their own writes at once and other processes' within one interval</li>
+ *   <li><b>Reconciliation</b> - On start when the counters are stale, and nightly at
+ *       {@link #RECONCILE_AT}, the counters are recomputed from the tables; this repairs drift
+ *       from crashes before a checkpoint and from writes made outside the DAOs</li>
+ * </ul>
+ */
+public class DashboardStatsService {
+
+    // =========================================================================
+    // CONFIGURATION
+    // =========================================================================
+
+    static final long CHECKPOINT_INTERVAL_SECONDS = 30;
+
+    /** Local time of the nightly reconciliation */
+    static final LocalTime RECONCILE_AT = LocalTime.of(3, 0);
+
+    /** Counters reconciled more recently than this, by any process, are not recomputed */
+    private static final Duration RECONCILE_MIN_AGE = Duration.ofHours(20);
+
+    private static final Delta ZERO = new Delta(0, 0);
+
+    private static DashboardStatsService instance;
+
+    // =========================================================================
+    // DEPENDENCIES AND STATE
+    // =========================================================================
+
+    private final DashboardCounterDAO counterDAO;
+
+    /** Single thread, so checkpoints and reconciliations never overlap */
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "dashboard-stats");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    DashboardStatsService(DashboardCounterDAO counterDAO) {
+        this.counterDAO = counterDAO;
+    }
+
+    /**
+     * Returns the shared service, starting checkpoints and reconciliation on first use.
+     * Counters that were never reconciled, or not for a day, are reconciled right away.
+     */
+    public static synchronized DashboardStatsService getInstance() {
+        if (instance == null) {
+            instance = new DashboardStatsService(new DashboardCounterDAO());
+            instance.scheduler.scheduleWithFixedDelay(instance::checkpoint,
+                    CHECKPOINT_INTERVAL_SECONDS, CHECKPOINT_INTERVAL_SECONDS, TimeUnit.SECONDS);
+            instance.scheduler.execute(instance::reconcile);
+            instance.scheduler.scheduleAtFixedRate(instance::reconcile,
+                    delayUntil(RECONCILE_AT, LocalDateTime.now()).toSeconds(),
+                    TimeUnit.DAYS.toSeconds(1), TimeUnit.SECONDS);
+        }
+        return instance;
+    }
+
+    // =========================================================================
+    // READS
+    // =========================================================================
+
+    /**
+     * Returns the dashboard totals: users, trains, bookings in any status and confirmed revenue.
+     *
+     * @return current totals, or null if the stored counters could not be read
+     */
+    public TravelStatistics getTravelStatistics() {
+        Map<String, Delta> counters = currentTotals();
+        if (counters == null) {
+            return null;
+        }
+        long bookings = 0;
+        for (Map.Entry<String, Delta> entry : counters.entrySet()) {
+            if (entry.getKey().startsWith(DashboardCounters.BOOKINGS_PREFIX)) {
+                bookings += entry.getValue().count();
+            }
+        }
+
+        TravelStatistics stats = new TravelStatistics();
+        stats.setTotalUsers((int) countOf(counters, DashboardCounters.USERS));
+        stats.setActiveTrains((int) countOf(counters, DashboardCounters.TRAINS));
+        stats.setTotalBookings((int) bookings);
+        stats.setTotalRevenue(counters.getOrDefault(DashboardCounters.REVENUE_PREFIX, ZERO).amountPaise() / 100.0);
+        return stats;
+    }
+
+    /**
+     * Returns the number of bookings in each status and the confirmed revenue.
+     *
+     * @return current booking totals, or null if the stored counters could not be read
+     */
+    public BookingTotals getBookingTotals() {
+        Map<String, Delta> counters = currentTotals();
+        if (counters == null) {
+            return null;
+        }
+        Map<String, Long> byStatus = new TreeMap<>();
+        counters.forEach((key, delta) -> {
+            if (key.startsWith(DashboardCounters.BOOKINGS_PREFIX)) {
+                byStatus.put(key.substring(DashboardCounters.BOOKINGS_PREFIX.length()), delta.count());
+            }
+        });
+        double revenue = counters.getOrDefault(DashboardCounters.REVENUE_PREFIX, ZERO).amountPaise() / 100.0;
+        return new BookingTotals(byStatus, revenue);
+    }
+
+    /**
+     * Returns the confirmed revenue per booking day and class.
+     *
+     * @param from first booking day, inclusive
+     * @param to   last booking day, inclusive
+     * @return revenue rows ordered by day and class, or null if the stored counters could not be read
+     */
+    public List<DailyRevenue> getDailyRevenue(LocalDate from, LocalDate to) {
+        Map<String, Delta> stored = counterDAO.loadRevenue(from, to);
+        if (stored == null) {
+            return null;
+        }
+        Map<String, Delta> revenue = new TreeMap<>(stored);
+        DashboardCounters.pending().forEach((key, delta) -> {
+            if (key.startsWith(DashboardCounters.REVENUE_PREFIX)) {
+                revenue.merge(key, delta, Delta::plus);
+            }
+        });
+
+        List<DailyRevenue> rows = new ArrayList<>();
+        int dayStart = DashboardCounters.REVENUE_PREFIX.length();
+        for (Map.Entry<String, Delta> entry : revenue.entrySet()) {
+            String key = entry.getKey();
+            LocalDate day = LocalDate.parse(key.substring(dayStart, dayStart + 10));
+            if (day.isBefore(from) || day.isAfter(to) || entry.getValue().count() == 0) {
+                continue;
+            }
+            rows.add(new DailyRevenue(day, key.substring(dayStart + 11), entry.getValue().count(),
+                    entry.getValue().amountPaise() / 100.0));
+        }
+        return rows;
+    }
+
+    /**
+     * Stored totals with this process's pending changes added.
+     */
+    private Map<String, Delta> currentTotals() {
+        Map<String, Delta> totals = counterDAO.loadTotals();
+        if (totals == null) {
+            return null;
+        }
+        DashboardCounters.pending().forEach((key, delta) -> {
+            String totalKey = key.startsWith(DashboardCounters.REVENUE_PREFIX) ? DashboardCounters.REVENUE_PREFIX : key;
+            totals.merge(totalKey, delta, Delta::plus);
+        });
+        return totals;
+    }
+
+    private static long countOf(Map<String, Delta> counters, String key) {
+        return counters.getOrDefault(key, ZERO).count();
+    }
+
+    // =========================================================================
+    // CHECKPOINT AND RECONCILIATION
+    // =========================================================================
+
+    /**
+     * Adds the changes recorded since the last checkpoint to the stored counters.
+     */
+    void checkpoint() {
+        try {
+            Map<String, Delta> deltas = DashboardCounters.drain();
+            if (!deltas.isEmpty() && !counterDAO.addDeltas(deltas)) {
+                DashboardCounters.restore(deltas);
+            }
+        } catch (Exception e) {
+            System.err.println("Error checkpointing dashboard counters: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Checkpoints, then recomputes the stored counters unless another process just did.
+     */
+    void reconcile() {
+        try {
+            checkpoint();
+            counterDAO.reconcile(RECONCILE_MIN_AGE);
+        } catch (Exception e) {
+            System.err.println("Error reconciling dashboard counters: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Time from {@code now} until the next {@code at}, today or tomorrow.
+     */
+    static Duration delayUntil(LocalTime at, LocalDateTime now) {
+        LocalDateTime next = now.toLocalDate().atTime(at);
+        if (!next.isAfter(now)) {
+            next = next.plusDays(1);
+        }
+        return Duration.between(now, next);
+    }
+
+    /**
+     * Stops the schedule and writes the changes not yet checkpointed. Call on application exit.
+     */
+    public static synchronized void shutdown() {
+        if (instance == null) {
+            return;
+        }
+        instance.scheduler.shutdownNow();
+        try {
+            instance.scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        instance.checkpoint();
+        instance = null;
+    }
+
+    /**
+     * Bookings per status and confirmed revenue.
+     *
+     * @param bookingsByStatus number of bookings by database status
+     * @param revenue          total fare of the confirmed bookings
+     */
+    public record BookingTotals(Map<String, Long> bookingsByStatus, double revenue) {
+    }
+
+    /**
+     * Confirmed revenue of one booking day and class.
+     *
+     * @param day       day the bookings were made
+     * @param seatClass class code, empty for bookings without passengers
+     * @param bookings  number of confirmed bookings
+     * @param revenue   their total fare
+     */
+    public record DailyRevenue(LocalDate day, String seatClass, long bookings, double revenue) {
+    }
+}
@@ -15,6 +15,7 @@ import java.util.Properties;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ConcurrentHashMap;
+import trainapp.util.SmtpTransportPool;
 
 /**
  * High-Performance EmailService with advanced optimization techniques for enterprise-grade email delivery.
@@ -22,7 +23,7 @@ import java.util.concurrent.ConcurrentHashMap;
  * <h2>Core Responsibilities:</h2>
  * <ul>
  *   <li><b>Multi-Type Email Delivery</b> - OTP, booking confirmations, welcome emails, and notifications</li>
- *   <li><b>Performance Optimization</b> - Pre-initialized sessions, template caching, and connection pooling</li>
+ *   <li><b>Performance Optimization</b> - Pre-initialized sessions, template caching, and pooled SMTP connections</li>
  *   <li><b>Attachment Management</b> - Efficient PDF attachment handling with memory optimization</li>
  *   <li><b>Asynchronous Operations</b> - Non-blocking email delivery with thread pool management</li>
  *   <li><b>Template Management</b> - Pre-compiled HTML templates for instant email generation</li>
@@ -67,6 +68,28 @@ public class EmailService {
     /** Connection timeout in milliseconds for SMTP operations */
     private static final String SMTP_TIMEOUT = "8000";
 
+    /** Maximum number of open SMTP connections */
+    private static final int SMTP_POOL_SIZE = 3;
+
+    /** How long a send waits for a free SMTP connection */
+    private static final long SMTP_BORROW_TIMEOUT_MILLIS = 10_000;
+
+    /** Idle SMTP connections are closed after this long, before the server drops them */
+    private static final long SMTP_IDLE_TIMEOUT_MILLIS = 60_000;
+
+    /** Emails sent on one SMTP connection before it is replaced */
+    private static final int SMTP_MAX_MESSAGES_PER_CONNECTION = 100;
+
+    /** SMTP server; override with -Dtrainapp.smtp.host, e.g. to use a local test server */
+    private static final String SMTP_HOST = System.getProperty("trainapp.smtp.host", "smtp.gmail.com");
+
+    /** SMTP port; override with -Dtrainapp.smtp.port */
+    private static final String SMTP_PORT = System.getProperty("trainapp.smtp.port", "587");
+
+    /** Whether STARTTLS is required; set -Dtrainapp.smtp.starttls=false for a plain local server */
+    private static final boolean SMTP_STARTTLS =
+            Boolean.parseBoolean(System.getProperty("trainapp.smtp.starttls", "true"));
+
     // =========================================================================
     // PRE-INITIALIZED PERFORMANCE COMPONENTS
     // =========================================================================
@@ -77,6 +100,10 @@ public class EmailService {
     /** Pre-initialized email session for connection reuse */
     private static final Session EMAIL_SESSION = createOptimizedSession();
 
+    /** Connected, authenticated SMTP transports shared by all send paths */
+    private static final SmtpTransportPool TRANSPORT_POOL = new SmtpTransportPool(EMAIL_SESSION,
+            SMTP_POOL_SIZE, SMTP_BORROW_TIMEOUT_MILLIS, SMTP_IDLE_TIMEOUT_MILLIS, SMTP_MAX_MESSAGES_PER_CONNECTION);
+
     /** Pre-initialized sender address to eliminate repeated parsing */
     private static InternetAddress fromAddress;
 
@@ -178,15 +205,17 @@ public class EmailService {
         Properties props = new Properties(12); // Pre-sized for performance
 
         // Core SMTP Configuration
-        props.put("mail.smtp.host", "smtp.gmail.com");
-        props.put("mail.smtp.port", "587");
+        props.put("mail.smtp.host", SMTP_HOST);
+        props.put("mail.smtp.port", SMTP_PORT);
         props.put("mail.smtp.auth", "true");
 
         // Security Configuration
-        props.put("mail.smtp.starttls.enable", "true");
-        props.put("mail.smtp.starttls.required", "true");
-        props.put("mail.smtp.ssl.trust", "smtp.gmail.com");
-        props.put("mail.smtp.ssl.protocols", "TLSv1.2");
+        if (SMTP_STARTTLS) {
+            props.put("mail.smtp.starttls.enable", "true");
+            props.put("mail.smtp.starttls.required", "true");
+            props.put("mail.smtp.ssl.trust", SMTP_HOST);
+            props.put("mail.smtp.ssl.protocols", "TLSv1.2");
+        }
 
         // Performance and Reliability Configuration
         props.put("mail.smtp.connectiontimeout", SMTP_TIMEOUT);
@@ -259,7 +288,7 @@ public class EmailService {
             message.setSubject("Password Reset - Verification Code");
             message.setContent(String.format(OTP_TEMPLATE, otpCode), "text/html; charset=utf-8");
 
-            Transport.send(message);
+            TRANSPORT_POOL.send(message);
             return true;
 
         } catch (Exception e) {
@@ -320,7 +349,7 @@ public class EmailService {
             addOptimizedPdfAttachment(multipart, invoicePdf, "Invoice_" + pnr + ".pdf");
 
             message.setContent(multipart);
-            Transport.send(message);
+            TRANSPORT_POOL.send(message);
             return true;
 
         } catch (Exception e) {
@@ -393,7 +422,7 @@ public class EmailService {
             message.setSubject(subject);
             message.setContent(htmlContent, "text/html; charset=utf-8");
 
-            Transport.send(message);
+            TRANSPORT_POOL.send(message);
             return true;
 
         } catch (Exception e) {
@@ -419,6 +448,25 @@ public class EmailService {
         }
     }
 
+    // =========================================================================
+    // TRANSPORT POOL LIFECYCLE AND METRICS
+    // =========================================================================
+
+    /**
+     * Returns handshake and send metrics of the shared SMTP connections.
+     */
+    public static SmtpTransportPool.TransportStats getTransportStats() {
+        return TRANSPORT_POOL.getStats();
+    }
+
+    /**
+     * Closes the shared SMTP connections. Called from {@code MainApp.stop()} after the
+     * confirmation pipeline has finished.
+     */
+    public static void shutdown() {
+        TRANSPORT_POOL.shutdown();
+    }
+
     // =========================================================================
     // INTERNAL UTILITY CLASSES
     // =========================================================================
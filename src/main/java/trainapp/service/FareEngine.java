@@ -0,0 +1,277 @@
+package trainapp.service;
+
+import trainapp.model.TrainClass;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * FareEngine prices journeys from a fare table computed once, instead of evaluating the fare
+ * formula on every call.
+ *
+ * <h2>How It Works:</h2>
+ * <ul>
+ *   <li><b>Formula</b> - {@link #computeFare} is the dynamic fare formula: per-km rate with a
+ *       long-distance bonus, distance discount tier, reservation charge, time multiplier,
+ *       class premium, minimum fare and rounding to ₹5</li>
+ *   <li><b>Table</b> - The formula is evaluated up front for every time bucket, class and
+ *       whole kilometre from 0 to {@value #MAX_KM}, so a fare is three array indexes and the
+ *       table holds exactly the values the formula returns (about 400 KB)</li>
+ *   <li><b>Time buckets</b> - The time multiplier depends only on the local day and hour, so
+ *       the current bucket is kept until the hour ends instead of being derived from the
+ *       clock on every call</li>
+ *   <li><b>Batch</b> - {@link #fares(int[])} prices every class of a whole result page with
+ *       one bucket lookup</li>
+ * </ul>
+ *
+ * <p>Fractional distances are not in the table and are computed with the formula directly.
+ */
+public class FareEngine {
+
+    // =========================================================================
+    // RATES
+    // =========================================================================
+
+    /** Distances are clamped to this range before pricing */
+    static final int MIN_KM = 50;
+    static final int MAX_KM = 2500;
+
+    /** Base fare per kilometre, by {@link TrainClass#ordinal()} */
+    private static final double[] BASE_FARE_PER_KM = {0.75, 2.25, 3.50, 5.50};
+
+    /** Reservation charge, by {@link TrainClass#ordinal()} */
+    private static final double[] RESERVATION_CHARGE = {30.0, 50.0, 75.0, 125.0};
+
+    /** Minimum fare, by {@link TrainClass#ordinal()} */
+    private static final double[] MINIMUM_FARE = {120.0, 220.0, 320.0, 550.0};
+
+    /** Lower bounds of the distance discount tiers and their factors; shorter trips get none */
+    private static final int[] DISCOUNT_TIER_KM = {100, 300, 500, 800, 1000, 1500, 2000};
+    private static final double[] DISCOUNT_TIER_FACTOR = {1.00, 0.98, 0.95, 0.92, 0.90, 0.87, 0.85};
+
+    // Time buckets and their multipliers
+    static final int REGULAR = 0;
+    static final int WEEKEND = 1;
+    static final int PEAK_MORNING = 2;
+    static final int PEAK_EVENING = 3;
+    static final int OFF_PEAK = 4;
+    private static final double[] TIME_MULTIPLIER = {1.00, 1.20, 1.15, 1.10, 0.95};
+
+    private static FareEngine instance;
+
+    // =========================================================================
+    // STATE
+    // =========================================================================
+
+    /** Fares by time bucket, class ordinal and kilometre */
+    private final double[][][] fareTable;
+
+    private volatile TimeBucket currentBucket = new TimeBucket(REGULAR, 0, 0);
+
+    FareEngine() {
+        TrainClass[] classes = TrainClass.values();
+        fareTable = new double[TIME_MULTIPLIER.length][classes.length][MAX_KM + 1];
+        for (int bucket = 0; bucket < TIME_MULTIPLIER.length; bucket++) {
+            for (TrainClass trainClass : classes) {
+                double[] row = fareTable[bucket][trainClass.ordinal()];
+                for (int km = 0; km <= MAX_KM; km++) {
+                    row[km] = computeFare(trainClass, km, bucket);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the shared fare engine, building its table on first use.
+     */
+    public static synchronized FareEngine getInstance() {
+        if (instance == null) {
+            instance = new FareEngine();
+        }
+        return instance;
+    }
+
+    // =========================================================================
+    // PRICING
+    // =========================================================================
+
+    /**
+     * Fare of one class for the current time.
+     *
+     * @param trainClass class to price
+     * @param distanceKm journey distance, clamped to {@value #MIN_KM}-{@value #MAX_KM} km
+     * @return fare rounded to the nearest ₹5
+     */
+    public double fare(TrainClass trainClass, int distanceKm) {
+        return fareTable[currentBucket()][trainClass.ordinal()][tableIndex(distanceKm)];
+    }
+
+    /**
+     * Fare of one class for the current time, for a distance that may be fractional.
+     *
+     * @param trainClass class to price
+     * @param distanceKm journey distance, clamped to {@value #MIN_KM}-{@value #MAX_KM} km
+     * @return fare rounded to the nearest ₹5
+     */
+    public double fare(TrainClass trainClass, double distanceKm) {
+        if (distanceKm == Math.rint(distanceKm) && distanceKm >= 0 && distanceKm <= MAX_KM) {
+            return fareTable[currentBucket()][trainClass.ordinal()][(int) distanceKm];
+        }
+        return computeFare(trainClass, distanceKm, currentBucket());
+    }
+
+    /**
+     * Fares of every class for one distance, for the current time.
+     *
+     * @param distanceKm journey distance, clamped to {@value #MIN_KM}-{@value #MAX_KM} km
+     * @return fares by {@link TrainClass#ordinal()}
+     */
+    public double[] fares(int distanceKm) {
+        return faresAt(currentBucket(), tableIndex(distanceKm));
+    }
+
+    /**
+     * Fares of every class for many distances, e.g. all trains of a search result, for the
+     * current time.
+     *
+     * @param distancesKm journey distances, each clamped to {@value #MIN_KM}-{@value #MAX_KM} km
+     * @return for each distance, fares by {@link TrainClass#ordinal()}
+     */
+    public double[][] fares(int[] distancesKm) {
+        int bucket = currentBucket();
+        double[][] fares = new double[distancesKm.length][];
+        for (int i = 0; i < distancesKm.length; i++) {
+            fares[i] = faresAt(bucket, tableIndex(distancesKm[i]));
+        }
+        return fares;
+    }
+
+    private double[] faresAt(int bucket, int km) {
+        double[][] byClass = fareTable[bucket];
+        double[] fares = new double[byClass.length];
+        for (int c = 0; c < byClass.length; c++) {
+            fares[c] = byClass[c][km];
+        }
+        return fares;
+    }
+
+    /**
+     * Table column of a distance. Distances below {@value #MIN_KM} km are clamped by the
+     * formula, so their columns hold the minimum distance's fare.
+     */
+    private static int tableIndex(int distanceKm) {
+        return Math.max(0, Math.min(distanceKm, MAX_KM));
+    }
+
+    // =========================================================================
+    // FORMULA
+    // =========================================================================
+
+    /**
+     * Evaluates the dynamic fare formula.
+     *
+     * @param trainClass class to price
+     * @param distanceKm journey distance, clamped to {@value #MIN_KM}-{@value #MAX_KM} km
+     * @param timeBucket time bucket from {@link #bucketOf}
+     * @return fare rounded to the nearest ₹5
+     */
+    static double computeFare(TrainClass trainClass, double distanceKm, int timeBucket) {
+        int c = trainClass.ordinal();
+        distanceKm = Math.max(MIN_KM, Math.min(distanceKm, MAX_KM));
+
+        // Long-distance bonus on the per-km rate
+        double baseFarePerKm = BASE_FARE_PER_KM[c];
+        if (distanceKm > 1500) {
+            baseFarePerKm *= 0.85;
+        } else if (distanceKm > 1000) {
+            baseFarePerKm *= 0.90;
+        } else if (distanceKm > 500) {
+            baseFarePerKm *= 0.95;
+        }
+        double baseFare = distanceKm * baseFarePerKm;
+
+        int tier = discountTier((int) distanceKm);
+        if (tier >= 0) {
+            baseFare *= DISCOUNT_TIER_FACTOR[tier];
+        }
+
+        double totalFare = (baseFare + RESERVATION_CHARGE[c]) * TIME_MULTIPLIER[timeBucket];
+        totalFare = switch (trainClass) {
+            case _1A -> totalFare * 1.08;
+            case _2A -> totalFare * 1.03;
+            case _3A -> totalFare * 1.01;
+            default -> totalFare;
+        };
+        totalFare = Math.max(totalFare, MINIMUM_FARE[c]);
+
+        return Math.round(totalFare / 5) * 5;
+    }
+
+    /**
+     * Index of the discount tier a distance falls in, or -1 below the first tier.
+     */
+    private static int discountTier(int distanceKm) {
+        int tier = -1;
+        for (int i = 0; i < DISCOUNT_TIER_KM.length && DISCOUNT_TIER_KM[i] <= distanceKm; i++) {
+            tier = i;
+        }
+        return tier;
+    }
+
+    /**
+     * Time bucket of a local date and time: weekend all day, otherwise peak morning (6-10),
+     * peak evening (17-21), off-peak night (22-5) or regular.
+     */
+    static int bucketOf(LocalDateTime time) {
+        int hour = time.getHour();
+        if (time.getDayOfWeek().getValue() >= 6) {
+            return WEEKEND;
+        } else if (hour >= 6 && hour <= 10) {
+            return PEAK_MORNING;
+        } else if (hour >= 17 && hour <= 21) {
+            return PEAK_EVENING;
+        } else if (hour >= 22 || hour <= 5) {
+            return OFF_PEAK;
+        }
+        return REGULAR;
+    }
+
+    /**
+     * Bucket of the current time, recomputed only when the clock leaves the hour it was
+     * computed for.
+     */
+    private int currentBucket() {
+        long now = System.currentTimeMillis();
+        TimeBucket bucket = currentBucket;
+        if (now < bucket.from() || now >= bucket.until()) {
+            ZonedDateTime time = Instant.ofEpochMilli(now).atZone(ZoneId.systemDefault());
+            ZonedDateTime hourStart = time.truncatedTo(ChronoUnit.HOURS);
+            bucket = new TimeBucket(bucketOf(time.toLocalDateTime()),
+                    hourStart.toInstant().toEpochMilli(), hourStart.plusHours(1).toInstant().toEpochMilli());
+            currentBucket = bucket;
+        }
+        return bucket.bucket();
+    }
+
+    // =========================================================================
+    // RATE LOOKUPS
+    // =========================================================================
+
+    public static double baseFarePerKm(TrainClass trainClass) {
+        return BASE_FARE_PER_KM[trainClass.ordinal()];
+    }
+
+    public static double reservationCharge(TrainClass trainClass) {
+        return RESERVATION_CHARGE[trainClass.ordinal()];
+    }
+
+
+    /**
+     * Bucket of the current time and the epoch milliseconds it is valid for.
+     */
+    private record TimeBucket(int bucket, long from, long until) {
+    }
+}
@@ -0,0 +1,201 @@
+package trainapp.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import trainapp.dao.JourneyDAO;
+import trainapp.dao.TrainDAO;
+import trainapp.model.Journey;
+import trainapp.model.Train;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JourneyProvisioner creates the journeys of all trains for the booking window ahead of time,
+ * so searching never writes to the database.
+ *
+ * <h2>Core Responsibilities:</h2>
+ * <ul>
+ *   <li><b>Bulk Provisioning</b> - Creates every missing journey from today up to
+ *       {@link #BOOKING_WINDOW_DAYS} days ahead in multi-row inserts</li>
+ *   <li><b>Idempotency</b> - Existing journeys are skipped, and a unique key on train and date
+ *       makes concurrent runs and bookings insert each journey only once</li>
+ *   <li><b>Scheduling</b> - Runs on start and every {@link #RUN_INTERVAL_HOURS} hours, so the
+ *       window moves forward as days pass and new trains are picked up</li>
+ *   <li><b>Booking Fallback</b> - {@link #provision(int, LocalDate)} creates a single journey
+ *       for bookings outside the window, using the same idempotent insert</li>
+ * </ul>
+ */
+public class JourneyProvisioner {
+
+    // =========================================================================
+    // CONFIGURATION
+    // =========================================================================
+
+    /** Days ahead, including today, for which journeys are created */
+    public static final int BOOKING_WINDOW_DAYS = 120;
+
+    private static final long RUN_INTERVAL_HOURS = 6;
+
+    private static JourneyProvisioner instance;
+
+    // =========================================================================
+    // DEPENDENCIES AND STATE
+    // =========================================================================
+
+    private final TrainDAO trainDAO;
+    private final JourneyDAO journeyDAO;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /** Single thread, so runs never overlap */
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "journey-provisioner");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile RunStats lastRun;
+
+    /**
+     * Creates a provisioner over the given DAOs.
+     */
+    JourneyProvisioner(TrainDAO trainDAO, JourneyDAO journeyDAO) {
+        this.trainDAO = trainDAO;
+        this.journeyDAO = journeyDAO;
+    }
+
+    /**
+     * Returns the shared provisioner, starting its schedule on first use. The first run
+     * starts immediately.
+     */
+    public static synchronized JourneyProvisioner getInstance() {
+        if (instance == null) {
+            instance = new JourneyProvisioner(new TrainDAO(), new JourneyDAO());
+            instance.scheduler.scheduleWithFixedDelay(instance::runScheduled, 0, RUN_INTERVAL_HOURS, TimeUnit.HOURS);
+        }
+        return instance;
+    }
+
+    // =========================================================================
+    // PROVISIONING
+    // =========================================================================
+
+    private void runScheduled() {
+        try {
+            provisionWindow(LocalDate.now(), BOOKING_WINDOW_DAYS);
+        } catch (Exception e) {
+            System.err.println("Error provisioning journeys: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Creates the missing journeys of all trains for a range of dates.
+     *
+     * @param from first departure date
+     * @param days number of dates, starting with {@code from}
+     * @return what the run did
+     */
+    RunStats provisionWindow(LocalDate from, int days) {
+        long start = System.nanoTime();
+        JourneyDAO.checkUniqueKey();
+
+        LocalDate to = from.plusDays(days - 1L);
+        List<Train> trains = trainDAO.getAllTrains();
+        Map<LocalDate, Set<Integer>> existing = journeyDAO.getTrainIdsWithJourneys(from, to);
+
+        List<Journey> missing = new ArrayList<>();
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            Set<Integer> provisioned = existing.getOrDefault(date, Set.of());
+            for (Train train : trains) {
+                if (!provisioned.contains(train.getTrainId())) {
+                    Journey journey = newJourney(train, date);
+                    if (journey != null) {
+                        missing.add(journey);
+                    }
+                }
+            }
+        }
+
+        int created = missing.isEmpty() ? 0 : journeyDAO.createJourneys(missing);
+        RunStats stats = new RunStats(from, to, trains.size(), missing.size(), created,
+                (System.nanoTime() - start) / 1_000_000);
+        lastRun = stats;
+        return stats;
+    }
+
+    /**
+     * Creates the journey of one train on one date if it does not exist yet. Used by bookings
+     * for dates the scheduled runs have not reached.
+     *
+     * @param trainId     the train
+     * @param journeyDate the departure date
+     * @return true if the journey exists after the call
+     */
+    public boolean provision(int trainId, LocalDate journeyDate) {
+        if (journeyDAO.getJourneyForTrainAndDate(trainId, journeyDate) != null) {
+            return true;
+        }
+        Train train = trainDAO.getTrainById(trainId);
+        if (train == null) {
+            return false;
+        }
+        JourneyDAO.checkUniqueKey();
+
+        Journey journey = newJourney(train, journeyDate);
+        return journey != null && journeyDAO.createJourneys(List.of(journey)) >= 0;
+    }
+
+    private Journey newJourney(Train train, LocalDate date) {
+        try {
+            Journey journey = new Journey();
+            journey.setTrainId(train.getTrainId());
+            journey.setDepartureDate(date);
+            journey.setAvailableSeatsJson(objectMapper.writeValueAsString(TrainService.initialSeatAvailability(train)));
+            return journey;
+        } catch (JsonProcessingException e) {
+            System.err.println("Error building seats for train " + train.getTrainId() + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    // =========================================================================
+    // METRICS AND SHUTDOWN
+    // =========================================================================
+
+    /**
+     * Returns the result of the most recent run, or null if none has finished yet.
+     */
+    public RunStats getLastRun() {
+        return lastRun;
+    }
+
+    /**
+     * Result of one provisioning run.
+     */
+    public record RunStats(LocalDate from, LocalDate to, int trains, int missing, int created, long millis) {
+    }
+
+    /**
+     * Stops the schedule. A run in progress finishes its current insert. Called from
+     * {@code MainApp.stop()}.
+     */
+    public static synchronized void shutdown() {
+        if (instance == null) {
+            return;
+        }
+        instance.scheduler.shutdownNow();
+        try {
+            instance.scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        instance = null;
+    }
+}
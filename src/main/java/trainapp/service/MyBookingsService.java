@@ -39,14 +39,8 @@ public class MyBookingsService {
                 return MyBookingsResult.noBookings("No bookings found. Book your first train journey!");
             }
 
-            // Convert to detailed booking info
-            List<DetailedBookingInfo> detailedBookings = new ArrayList<>();
-            for (Booking booking : bookings) {
-                DetailedBookingInfo detailedInfo = createDetailedBookingInfo(booking);
-                if (detailedInfo != null) {
-                    detailedBookings.add(detailedInfo);
-                }
-            }
+            // Convert to detailed booking info, loading related rows for the whole page at once
+            List<DetailedBookingInfo> detailedBookings = createDetailedBookingInfos(bookings);
 
             // Sort by booking time (newest first)
             detailedBookings.sort((a, b) -> b.getBooking().getBookingTime().compareTo(a.getBooking().getBookingTime()));
@@ -61,45 +55,46 @@ public class MyBookingsService {
     }
 
     /**
-     * Creates detailed booking information by gathering related data.
-     * Assembles complete booking details from multiple tables.
+     * Creates detailed booking information for a list of bookings.
+     * Related trains, stations, passengers, payments and journeys are fetched with one
+     * batched query per table instead of one query per booking, so the number of
+     * statements stays constant regardless of how many bookings the user has.
      *
-     * @param booking Base booking object
-     * @return DetailedBookingInfo with all related data or null on error
+     * @param bookings Base booking objects
+     * @return DetailedBookingInfo list in the same order as the bookings
      */
-    private DetailedBookingInfo createDetailedBookingInfo(Booking booking) {
-        try {
-            DetailedBookingInfo info = new DetailedBookingInfo();
-            info.setBooking(booking);
-
-            // Get train information
-            Train train = trainDAO.getTrainById(booking.getTrainId());
-            info.setTrain(train);
-
-            // Get station information
-            Station fromStation = stationDAO.getStationById(booking.getSourceStationId());
-            Station toStation = stationDAO.getStationById(booking.getDestStationId());
-            info.setFromStation(fromStation);
-            info.setToStation(toStation);
-
-            // Get passengers
-            List<Passenger> passengers = passengerDAO.getPassengersByBookingId(booking.getBookingId());
-            info.setPassengers(passengers);
-
-            // Get payment information
-            Payment payment = paymentDAO.getPaymentByBookingId(booking.getBookingId());
-            info.setPayment(payment);
-
-            // Get journey information
-            Journey journey = journeyDAO.getJourneyById(booking.getJourneyId());
-            info.setJourney(journey);
+    private List<DetailedBookingInfo> createDetailedBookingInfos(List<Booking> bookings) {
+        Set<Integer> trainIds = new HashSet<>();
+        Set<Integer> stationIds = new HashSet<>();
+        Set<Long> bookingIds = new HashSet<>();
+        Set<Long> journeyIds = new HashSet<>();
+        for (Booking booking : bookings) {
+            trainIds.add(booking.getTrainId());
+            stationIds.add(booking.getSourceStationId());
+            stationIds.add(booking.getDestStationId());
+            bookingIds.add(booking.getBookingId());
+            journeyIds.add(booking.getJourneyId());
+        }
 
-            return info;
+        Map<Integer, Train> trains = trainDAO.getTrainsByIds(trainIds);
+        Map<Integer, Station> stations = stationDAO.getStationsByIds(stationIds);
+        Map<Long, List<Passenger>> passengers = passengerDAO.getPassengersByBookingIds(bookingIds);
+        Map<Long, Payment> payments = paymentDAO.getLatestPaymentsByBookingIds(bookingIds);
+        Map<Long, Journey> journeys = journeyDAO.getJourneysByIds(journeyIds);
 
-        } catch (Exception e) {
-            System.err.println("Error creating detailed booking info: " + e.getMessage());
-            return null;
+        List<DetailedBookingInfo> detailedBookings = new ArrayList<>(bookings.size());
+        for (Booking booking : bookings) {
+            DetailedBookingInfo info = new DetailedBookingInfo();
+            info.setBooking(booking);
+            info.setTrain(trains.get(booking.getTrainId()));
+            info.setFromStation(stations.get(booking.getSourceStationId()));
+            info.setToStation(stations.get(booking.getDestStationId()));
+            info.setPassengers(passengers.getOrDefault(booking.getBookingId(), new ArrayList<>()));
+            info.setPayment(payments.get(booking.getBookingId()));
+            info.setJourney(journeys.get(booking.getJourneyId()));
+            detailedBookings.add(info);
         }
+        return detailedBookings;
     }
 
     // -------------------------------------------------------------------------
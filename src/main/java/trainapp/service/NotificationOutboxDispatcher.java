@@ -0,0 +1,182 @@
+package trainapp.service;
+
+import trainapp.dao.BookingDAO;
+import trainapp.dao.NotificationOutboxDAO;
+import trainapp.dao.NotificationOutboxDAO.OutboxMessage;
+import trainapp.model.Booking;
+import trainapp.model.Notification;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * NotificationOutboxDispatcher drains the notification outbox into the
+ * {@link ConfirmationPipeline}.
+ *
+ * <h2>Delivery Guarantees:</h2>
+ * <ul>
+ *   <li>A confirmation is queued in the same transaction that confirms the booking, so a
+ *       confirmed booking always has a pending message, even if the app stops right after</li>
+ *   <li>Messages are claimed in batches with a lease; messages claimed by a process that
+ *       died are picked up again once the lease runs out</li>
+ *   <li>A message is marked delivered only after the mail server accepted the email</li>
+ *   <li>Failed attempts are retried with exponential backoff up to {@link #MAX_ATTEMPTS}</li>
+ * </ul>
+ *
+ * <p>Delivery is at least once: if the app stops after the email is sent but before the
+ * message is marked delivered, the email is sent again once the lease expires.
+ */
+public class NotificationOutboxDispatcher {
+
+    // =========================================================================
+    // CONFIGURATION
+    // =========================================================================
+
+    /** Outbox message type of the booking confirmation email */
+    public static final String BOOKING_CONFIRMATION = "BOOKING_CONFIRMATION";
+
+    /** Attempts before a message is marked failed */
+    static final int MAX_ATTEMPTS = 8;
+
+    private static final int BATCH_SIZE = 20;
+    private static final long POLL_INTERVAL_SECONDS = 5;
+
+    /** Must comfortably exceed the time a message spends in the pipeline */
+    private static final Duration CLAIM_LEASE = Duration.ofMinutes(5);
+
+    private static final Duration RETRY_BASE_DELAY = Duration.ofSeconds(30);
+    private static final Duration RETRY_MAX_DELAY = Duration.ofHours(1);
+
+    private static NotificationOutboxDispatcher instance;
+
+    // =========================================================================
+    // DEPENDENCIES AND STATE
+    // =========================================================================
+
+    private final NotificationOutboxDAO outboxDAO = new NotificationOutboxDAO();
+    private final BookingDAO bookingDAO = new BookingDAO();
+    private final ConfirmationPipeline confirmationPipeline = ConfirmationPipeline.getInstance();
+
+    /** Single thread, so drains never overlap */
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "outbox-dispatcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private NotificationOutboxDispatcher() {
+    }
+
+    /**
+     * Returns the shared dispatcher, starting its polling on first use. The first poll
+     * picks up messages left pending by a previous run.
+     */
+    public static synchronized NotificationOutboxDispatcher getInstance() {
+        if (instance == null) {
+            instance = new NotificationOutboxDispatcher();
+            instance.scheduler.scheduleWithFixedDelay(instance::drain, 0, POLL_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        }
+        return instance;
+    }
+
+    // =========================================================================
+    // DISPATCH
+    // =========================================================================
+
+    /**
+     * Drains the outbox now instead of waiting for the next poll. Called right after a
+     * booking is confirmed.
+     */
+    public void wake() {
+        try {
+            scheduler.execute(this::drain);
+        } catch (Exception e) {
+            // Shutting down; the message stays pending for the next run
+        }
+    }
+
+    private void drain() {
+        try {
+            List<OutboxMessage> batch;
+            do {
+                batch = outboxDAO.claimDue(BATCH_SIZE, CLAIM_LEASE);
+                for (int i = 0; i < batch.size(); i++) {
+                    if (!dispatch(batch.get(i))) {
+                        // Pipeline is full; hand back the rest and wait for the next poll
+                        batch.subList(i, batch.size()).forEach(outboxDAO::releaseClaim);
+                        return;
+                    }
+                }
+            } while (batch.size() == BATCH_SIZE);
+        } catch (Exception e) {
+            System.err.println("Error draining notification outbox: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Hands one message to the pipeline.
+     *
+     * @return false if the pipeline did not accept it
+     */
+    private boolean dispatch(OutboxMessage message) {
+        Booking booking = bookingDAO.getBookingById(message.getBookingId());
+        if (booking == null) {
+            outboxDAO.markFailed(message, "Booking not found", buildNotification(message.getBookingId(), false));
+            return true;
+        }
+        return confirmationPipeline.submit(booking, message);
+    }
+
+    // =========================================================================
+    // RETRY POLICY
+    // =========================================================================
+
+    /**
+     * Delay before the next attempt: 30s, 1m, 2m, 4m ... capped at one hour.
+     *
+     * @param attempts attempts made before the one that just failed
+     */
+    static Duration retryDelay(int attempts) {
+        Duration delay = RETRY_BASE_DELAY.multipliedBy(1L << Math.min(attempts, 20));
+        return delay.compareTo(RETRY_MAX_DELAY) > 0 ? RETRY_MAX_DELAY : delay;
+    }
+
+    /**
+     * Builds the notification row recorded when a message is completed.
+     */
+    static Notification buildNotification(long bookingId, boolean emailSent) {
+        Notification notification = new Notification();
+        notification.setBookingId(bookingId);
+        notification.setEmailSent(emailSent);
+        notification.setSmsSent(false);
+        notification.setSentAt(LocalDateTime.now());
+        return notification;
+    }
+
+    // =========================================================================
+    // SHUTDOWN
+    // =========================================================================
+
+    /**
+     * Stops polling. Messages already handed to the pipeline finish there; anything still
+     * pending is delivered on the next start. Called from {@code MainApp.stop()} before the
+     * pipeline shuts down.
+     */
+    public static synchronized void shutdown() {
+        if (instance == null) {
+            return;
+        }
+        instance.scheduler.shutdown();
+        try {
+            instance.scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        instance = null;
+    }
+}
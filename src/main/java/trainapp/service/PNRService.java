@@ -13,12 +13,7 @@ import java.util.List;
  */
 public class PNRService {
 
-    private final BookingDAO bookingDAO = new BookingDAO();
-    private final PassengerDAO passengerDAO = new PassengerDAO();
-    private final PaymentDAO paymentDAO = new PaymentDAO();
-    private final TrainDAO trainDAO = new TrainDAO();
-    private final StationDAO stationDAO = new StationDAO();
-    private final JourneyDAO journeyDAO = new JourneyDAO();
+    private final PNRStatusDAO pnrStatusDAO = new PNRStatusDAO();
 
     // -------------------------------------------------------------------------
     // Core PNR Lookup & Reporting Methods
@@ -26,34 +21,28 @@ public class PNRService {
 
     /**
      * Retrieves comprehensive PNR status details for a given PNR number.
-     * Includes booking info, train, route, passengers, payment, and journey.
+     * Includes booking info, train, route, passengers, payment, and journey, loaded in a
+     * single round trip or served from the recent-PNR cache.
      *
      * @param pnrNumber Passenger Name Record number
      * @return PNRStatusResult containing information or error/reason
      */
     public PNRStatusResult getPNRStatus(String pnrNumber) {
         try {
-            Booking booking = getBookingByPNR(pnrNumber);
-            if (booking == null) {
+            PNRStatusDAO.PNRDetails details = pnrStatusDAO.getPNRDetails(pnrNumber);
+            if (details == null) {
                 return PNRStatusResult.notFound("PNR not found. Please check your PNR number and try again.");
             }
 
-            Train train = trainDAO.getTrainById(booking.getTrainId());
-            Station fromStation = stationDAO.getStationById(booking.getSourceStationId());
-            Station toStation = stationDAO.getStationById(booking.getDestStationId());
-            List<Passenger> passengers = passengerDAO.getPassengersByBookingId(booking.getBookingId());
-            Payment payment = paymentDAO.getPaymentByBookingId(booking.getBookingId());
-            Journey journey = journeyDAO.getJourneyById(booking.getJourneyId());
-
             PNRStatusInfo pnrInfo = new PNRStatusInfo();
             pnrInfo.setPnr(pnrNumber);
-            pnrInfo.setBooking(booking);
-            pnrInfo.setTrain(train);
-            pnrInfo.setFromStation(fromStation);
-            pnrInfo.setToStation(toStation);
-            pnrInfo.setPassengers(passengers);
-            pnrInfo.setPayment(payment);
-            pnrInfo.setJourney(journey);
+            pnrInfo.setBooking(details.getBooking());
+            pnrInfo.setTrain(details.getTrain());
+            pnrInfo.setFromStation(details.getFromStation());
+            pnrInfo.setToStation(details.getToStation());
+            pnrInfo.setPassengers(details.getPassengers());
+            pnrInfo.setPayment(details.getPayment());
+            pnrInfo.setJourney(details.getJourney());
 
             return PNRStatusResult.success("PNR details retrieved successfully.", pnrInfo);
 
@@ -64,20 +53,6 @@ public class PNRService {
         }
     }
 
-    /**
-     * Looks up booking info for a given PNR number.
-     * @param pnr the PNR number to search
-     * @return Booking object, or null if not found/error
-     */
-    private Booking getBookingByPNR(String pnr) {
-        try {
-            return bookingDAO.getBookingByPNR(pnr);
-        } catch (Exception e) {
-            System.err.println("Error getting booking by PNR: " + e.getMessage());
-            return null;
-        }
-    }
-
     // -------------------------------------------------------------------------
     // Status Formatting & Styling Helpers
     // -------------------------------------------------------------------------
@@ -0,0 +1,409 @@
+package trainapp.service;
+
+import trainapp.dao.StationDAO;
+import trainapp.dao.TrainDAO;
+import trainapp.dao.TrainScheduleDAO;
+import trainapp.model.Station;
+import trainapp.model.Train;
+import trainapp.model.TrainSchedule;
+
+import java.util.*;
+
+/**
+ * In-memory route index answering "which trains run from A to B" without touching the database.
+ *
+ * <h2>Structure:</h2>
+ * For every station the index keeps a posting list of the trains that stop there, stored as two
+ * parallel primitive arrays sorted by train ID (ties by sequence order):
+ * <pre>
+ *   stationId -> trainIds[]  = {12, 12, 40, 57}
+ *                sequences[] = { 3,  9,  1,  6}
+ * </pre>
+ * A search intersects the posting lists of the source and destination stations with a linear
+ * merge and keeps the trains whose source sequence precedes the destination sequence. Several
+ * stations may share a name; a name then stands for all of them and their posting lists are
+ * merged first, so a search matches a train through any of them, as the SQL search did.
+ *
+ * <h2>Lifecycle:</h2>
+ * <ul>
+ *   <li>Built lazily on first use from one query each for trains, stations and schedules</li>
+ *   <li>Refreshed per train via {@link #refreshTrain(int)} after route or train edits</li>
+ *   <li>Station names are reloaded via {@link #refreshStations()} after station edits</li>
+ * </ul>
+ *
+ * <p>Readers work on an immutable snapshot that is swapped atomically on refresh, so searches
+ * never block and never observe a half-updated index.
+ */
+public class RouteIndex {
+
+    private static RouteIndex instance;
+
+    private final TrainDAO trainDAO = new TrainDAO();
+    private final StationDAO stationDAO = new StationDAO();
+    private final TrainScheduleDAO scheduleDAO = new TrainScheduleDAO();
+
+    /** Current immutable snapshot, null until first load */
+    private volatile Snapshot snapshot;
+
+    private RouteIndex() {
+    }
+
+    /**
+     * Returns the shared route index instance.
+     */
+    public static synchronized RouteIndex getInstance() {
+        if (instance == null) {
+            instance = new RouteIndex();
+        }
+        return instance;
+    }
+
+    // -------------------------------------------------------------------------
+    // Queries
+    // -------------------------------------------------------------------------
+
+    /**
+     * Finds trains that stop at the source station before the destination station.
+     * Station names are matched case-insensitively.
+     *
+     * @param fromStationName source station name
+     * @param toStationName   destination station name
+     * @return trains serving the route ordered by train number, empty list if none
+     */
+    public List<Train> findTrainsBetween(String fromStationName, String toStationName) {
+        Snapshot current = ensureLoaded();
+
+        Posting from = postingOf(current, fromStationName);
+        Posting to = postingOf(current, toStationName);
+        if (from == null || to == null) {
+            return new ArrayList<>();
+        }
+
+        List<Train> result = new ArrayList<>();
+        int i = 0, j = 0;
+        while (i < from.trainIds.length && j < to.trainIds.length) {
+            int a = from.trainIds[i];
+            int b = to.trainIds[j];
+            if (a < b) {
+                i++;
+            } else if (a > b) {
+                j++;
+            } else {
+                // First stop at the source vs. last stop at the destination for this train
+                int fromSeq = from.sequences[i];
+                while (j + 1 < to.trainIds.length && to.trainIds[j + 1] == b) j++;
+                int toSeq = to.sequences[j];
+
+                if (fromSeq < toSeq) {
+                    Train train = current.trainsById.get(a);
+                    if (train != null) {
+                        result.add(copyOf(train));
+                    }
+                }
+                while (i < from.trainIds.length && from.trainIds[i] == a) i++;
+                j++;
+            }
+        }
+
+        result.sort(Comparator.comparing(Train::getTrainNumber, Comparator.nullsLast(Comparator.naturalOrder())));
+        return result;
+    }
+
+    /**
+     * Posting list of every station with a name, merged when several share it.
+     *
+     * @return the trains stopping at any of the stations, or null if none do
+     */
+    private Posting postingOf(Snapshot current, String stationName) {
+        int[] stationIds = current.stationIdsByName.get(normalize(stationName));
+        if (stationIds == null) {
+            return null;
+        }
+        if (stationIds.length == 1) {
+            return current.postings.get(stationIds[0]);
+        }
+        LongListBuilder merged = new LongListBuilder();
+        for (int stationId : stationIds) {
+            Posting posting = current.postings.get(stationId);
+            if (posting != null) {
+                for (int k = 0; k < posting.trainIds.length; k++) {
+                    merged.add(pack(posting.trainIds[k], posting.sequences[k]));
+                }
+            }
+        }
+        return merged.size == 0 ? null : Posting.fromPacked(merged.toSortedArray());
+    }
+
+    /**
+     * Returns the stations a train stops at, in route order.
+     *
+     * @param trainId the train
+     * @return station IDs in sequence order, empty if the train has no route
+     */
+    public int[] getStops(int trainId) {
+        int[] stops = ensureLoaded().stationsByTrain.get(trainId);
+        return stops == null ? new int[0] : stops.clone();
+    }
+
+    /**
+     * Looks up the IDs of the stations with a name, case-insensitively.
+     *
+     * @param stationName station name
+     * @return IDs of every station with that name in ascending order, empty if there is none
+     */
+    public int[] getStationIds(String stationName) {
+        int[] stationIds = ensureLoaded().stationIdsByName.get(normalize(stationName));
+        return stationIds == null ? new int[0] : stationIds.clone();
+    }
+
+    /**
+     * Returns whether the index has been loaded.
+     */
+    public boolean isLoaded() {
+        return snapshot != null;
+    }
+
+    // -------------------------------------------------------------------------
+    // Loading and Refresh
+    // -------------------------------------------------------------------------
+
+    /**
+     * Rebuilds the whole index from the database. An empty result (for example when the
+     * database is unreachable) is not installed, so the next search retries the load.
+     */
+    public synchronized void reload() {
+        Snapshot built = build();
+        if (!built.trainsById.isEmpty()) {
+            snapshot = built;
+        }
+    }
+
+    private Snapshot build() {
+        Map<Integer, Train> trains = new HashMap<>();
+        for (Train train : trainDAO.getAllTrains()) {
+            trains.put(train.getTrainId(), train);
+        }
+
+        Map<Integer, List<TrainSchedule>> stopsByTrain = new HashMap<>();
+        for (TrainSchedule stop : scheduleDAO.getAllRouteStops()) {
+            stopsByTrain.computeIfAbsent(stop.getTrainId(), k -> new ArrayList<>()).add(stop);
+        }
+
+        Map<Integer, LongListBuilder> builders = new HashMap<>();
+        Map<Integer, int[]> stationsByTrain = new HashMap<>();
+        for (Map.Entry<Integer, List<TrainSchedule>> entry : stopsByTrain.entrySet()) {
+            int trainId = entry.getKey();
+            List<TrainSchedule> stops = entry.getValue();
+            int[] stationIds = new int[stops.size()];
+            for (int k = 0; k < stops.size(); k++) {
+                TrainSchedule stop = stops.get(k);
+                stationIds[k] = stop.getStationId();
+                builders.computeIfAbsent(stop.getStationId(), s -> new LongListBuilder())
+                        .add(pack(trainId, stop.getSequenceOrder()));
+            }
+            stationsByTrain.put(trainId, stationIds);
+        }
+
+        Map<Integer, Posting> postings = new HashMap<>(builders.size() * 2);
+        builders.forEach((stationId, builder) -> postings.put(stationId, Posting.fromPacked(builder.toSortedArray())));
+
+        return new Snapshot(postings, loadStationNames(), trains, stationsByTrain);
+    }
+
+    /**
+     * Re-reads one train and its schedule and updates only the postings of the stations it
+     * stopped at before or stops at now. Call after a train or its route has been edited or deleted.
+     *
+     * @param trainId the edited train
+     */
+    public synchronized void refreshTrain(int trainId) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return; // Not loaded yet; the first search will load fresh data
+        }
+
+        Train train = trainDAO.getTrainById(trainId);
+        List<TrainSchedule> stops = train != null ? trainDAO.getTrainSchedule(trainId) : List.of();
+
+        Map<Integer, Train> trains = new HashMap<>(current.trainsById);
+        Map<Integer, int[]> stationsByTrain = new HashMap<>(current.stationsByTrain);
+        Map<Integer, Posting> postings = new HashMap<>(current.postings);
+
+        Set<Integer> affected = new HashSet<>();
+        int[] oldStations = stationsByTrain.get(trainId);
+        if (oldStations != null) {
+            for (int stationId : oldStations) affected.add(stationId);
+        }
+
+        int[] newStations = new int[stops.size()];
+        Map<Integer, LongListBuilder> additions = new HashMap<>();
+        for (int k = 0; k < stops.size(); k++) {
+            TrainSchedule stop = stops.get(k);
+            newStations[k] = stop.getStationId();
+            affected.add(stop.getStationId());
+            additions.computeIfAbsent(stop.getStationId(), s -> new LongListBuilder())
+                    .add(pack(trainId, stop.getSequenceOrder()));
+        }
+
+        for (int stationId : affected) {
+            Posting existing = postings.get(stationId);
+            LongListBuilder builder = new LongListBuilder();
+            if (existing != null) {
+                for (int k = 0; k < existing.trainIds.length; k++) {
+                    if (existing.trainIds[k] != trainId) {
+                        builder.add(pack(existing.trainIds[k], existing.sequences[k]));
+                    }
+                }
+            }
+            LongListBuilder added = additions.get(stationId);
+            if (added != null) {
+                builder.addAll(added);
+            }
+            if (builder.size == 0) {
+                postings.remove(stationId);
+            } else {
+                postings.put(stationId, Posting.fromPacked(builder.toSortedArray()));
+            }
+        }
+
+        if (train == null) {
+            trains.remove(trainId);
+            stationsByTrain.remove(trainId);
+        } else {
+            trains.put(trainId, train);
+            stationsByTrain.put(trainId, newStations);
+        }
+
+        snapshot = new Snapshot(postings, current.stationIdsByName, trains, stationsByTrain);
+    }
+
+    /**
+     * Reloads the station name lookup. Call after stations are added, renamed or deleted.
+     */
+    public synchronized void refreshStations() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return;
+        }
+        snapshot = new Snapshot(current.postings, loadStationNames(), current.trainsById, current.stationsByTrain);
+    }
+
+    private Snapshot ensureLoaded() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                current = snapshot;
+                if (current == null) {
+                    current = build();
+                    if (!current.trainsById.isEmpty()) {
+                        snapshot = current;
+                    }
+                }
+            }
+        }
+        return current;
+    }
+
+    private Map<String, int[]> loadStationNames() {
+        Map<String, int[]> names = new HashMap<>();
+        for (Station station : stationDAO.getAllStations()) {
+            if (station.getName() != null) {
+                names.merge(normalize(station.getName()), new int[]{station.getStationId()}, RouteIndex::union);
+            }
+        }
+        return names;
+    }
+
+    private static int[] union(int[] a, int[] b) {
+        int[] all = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, all, a.length, b.length);
+        Arrays.sort(all);
+        return all;
+    }
+
+    // -------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------
+
+    private static String normalize(String stationName) {
+        return stationName == null ? "" : stationName.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /** Packs (trainId, sequence) so that natural long order sorts by train, then sequence. */
+    private static long pack(int trainId, int sequence) {
+        return ((long) trainId << 32) | (sequence & 0xFFFFFFFFL);
+    }
+
+    private static Train copyOf(Train train) {
+        return new Train(train.getTrainId(), train.getTrainNumber(), train.getName(),
+                train.getSourceStationId(), train.getDestinationStationId(), train.getTotalCoaches());
+    }
+
+    /**
+     * Immutable view of the index.
+     */
+    private static final class Snapshot {
+        private final Map<Integer, Posting> postings;
+        private final Map<String, int[]> stationIdsByName;
+        private final Map<Integer, Train> trainsById;
+        private final Map<Integer, int[]> stationsByTrain;
+
+        private Snapshot(Map<Integer, Posting> postings, Map<String, int[]> stationIdsByName,
+                         Map<Integer, Train> trainsById, Map<Integer, int[]> stationsByTrain) {
+            this.postings = postings;
+            this.stationIdsByName = stationIdsByName;
+            this.trainsById = trainsById;
+            this.stationsByTrain = stationsByTrain;
+        }
+    }
+
+    /**
+     * Trains stopping at one station, sorted by train ID then sequence order.
+     */
+    private static final class Posting {
+        private final int[] trainIds;
+        private final int[] sequences;
+
+        private Posting(int[] trainIds, int[] sequences) {
+            this.trainIds = trainIds;
+            this.sequences = sequences;
+        }
+
+        private static Posting fromPacked(long[] packed) {
+            int[] trainIds = new int[packed.length];
+            int[] sequences = new int[packed.length];
+            for (int k = 0; k < packed.length; k++) {
+                trainIds[k] = (int) (packed[k] >>> 32);
+                sequences[k] = (int) packed[k];
+            }
+            return new Posting(trainIds, sequences);
+        }
+    }
+
+    /**
+     * Minimal growable long array used while building postings.
+     */
+    private static final class LongListBuilder {
+        private long[] values = new long[8];
+        private int size;
+
+        private void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        private void addAll(LongListBuilder other) {
+            for (int k = 0; k < other.size; k++) {
+                add(other.values[k]);
+            }
+        }
+
+        private long[] toSortedArray() {
+            long[] result = Arrays.copyOf(values, size);
+            Arrays.sort(result);
+            return result;
+        }
+    }
+}
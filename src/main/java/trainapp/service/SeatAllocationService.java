@@ -0,0 +1,252 @@
+package trainapp.service;
+
+import trainapp.dao.BookingDAO;
+import trainapp.dao.PassengerDAO;
+import trainapp.dao.PassengerDAO.SeatOccupancy;
+import trainapp.dao.SeatPlanner;
+import trainapp.dao.SeatPlanner.OccupancyLoader;
+import trainapp.dao.SeatPlanner.SeatPlan;
+import trainapp.model.Booking;
+import trainapp.model.Journey;
+import trainapp.model.Passenger;
+import trainapp.service.CoachLayout.BerthType;
+import trainapp.service.SeatInventoryService.JourneyInventory;
+
+import java.sql.SQLException;
+import java.util.*;
+
+/**
+ * Gives every passenger of a booking a concrete coach and berth, and gives them back when the
+ * booking is cancelled before payment.
+ *
+ * <h2>How It Works:</h2>
+ * <ul>
+ *   <li><b>Serialized per journey</b> - Seats are chosen inside the booking transaction while
+ *       the journey row is locked, so parallel bookings of one journey take turns and never
+ *       receive the same berth; bookings of different journeys do not wait for each other</li>
+ *   <li><b>Current occupancy</b> - The journey's seat map, its per-leg inventory as left by the
+ *       previous change, is read under the lock, updated with the berths taken or freed and
+ *       stored again, so a booking costs the same however many passengers the journey has.
+ *       Berths are picked from it by a {@link SeatAllocator}</li>
+ *   <li><b>Rebuilding</b> - A missing or outdated seat map, see
+ *       {@link JourneyInventory#matches}, is rebuilt from the journey's active bookings, see
+ *       {@link SeatInventoryService#build}</li>
+ *   <li><b>Availability</b> - The journey's available seats count the seats of each class that
+ *       no booking touches on any leg. A booking lowers it by the untouched seats it takes;
+ *       a berth already sold for other legs does not count again. The change is applied with a
+ *       conditional update, which never takes a class below zero</li>
+ * </ul>
+ *
+ * <p>Callers invalidate nothing themselves: every committed change drops the journey from the
+ * search inventory cache.
+ */
+public class SeatAllocationService {
+
+    // =========================================================================
+    // CONFIGURATION AND STATE
+    // =========================================================================
+
+    /** Returned by {@link #book} when the class has too few seats free for the trip */
+    public static final long NO_SEATS = -1;
+
+    private static SeatAllocationService instance;
+
+    private final BookingDAO bookingDAO;
+    private final PassengerDAO passengerDAO;
+    private final RouteIndex routeIndex;
+    private final SeatInventoryService seatInventoryService;
+
+    SeatAllocationService(BookingDAO bookingDAO, PassengerDAO passengerDAO, RouteIndex routeIndex,
+                          SeatInventoryService seatInventoryService) {
+        this.bookingDAO = bookingDAO;
+        this.passengerDAO = passengerDAO;
+        this.routeIndex = routeIndex;
+        this.seatInventoryService = seatInventoryService;
+    }
+
+    /**
+     * Returns the shared seat allocation service.
+     */
+    public static synchronized SeatAllocationService getInstance() {
+        if (instance == null) {
+            instance = new SeatAllocationService(new BookingDAO(), new PassengerDAO(), RouteIndex.getInstance(),
+                    SeatInventoryService.getInstance());
+        }
+        return instance;
+    }
+
+    // =========================================================================
+    // ALLOCATION
+    // =========================================================================
+
+    /**
+     * Saves a booking and its passengers with a berth for each passenger.
+     *
+     * @param booking     new booking on an existing journey; receives its generated ID
+     * @param passengers  passengers, all of the same class; receive their seat numbers
+     * @param preferences berth preference of each passenger in the same order, null entries
+     *                    for no preference
+     * @return the booking ID, {@link #NO_SEATS} if the class has too few seats free between the
+     *         booking's stations, or 0 if the booking could not be saved
+     */
+    public long book(Booking booking, List<Passenger> passengers, List<BerthType> preferences) {
+        String seatClass = passengers.get(0).getCoachType();
+        CoachLayout layout = SeatInventoryService.layoutOf(seatClass);
+        if (layout == null) {
+            return NO_SEATS;
+        }
+        boolean[] soldOut = new boolean[1];
+
+        SeatPlanner planner = (journey, seatMap, occupancy) -> {
+            JourneyInventory inventory = inventoryOf(journey, seatMap, occupancy,
+                    booking.getSourceStationId(), booking.getDestStationId());
+            SegmentInventory seats = inventory.forClass(seatClass);
+            if (seats == null) {
+                soldOut[0] = true;
+                return null;
+            }
+            int[] trip = inventory.tripOf(booking.getSourceStationId(), booking.getDestStationId());
+            int untouched = seats.countFree(0, seats.getLegs());
+
+            int[] allocated = new SeatAllocator(layout, seats).allocate(trip[0], trip[1], preferences);
+            if (allocated == null) {
+                soldOut[0] = true;
+                return null;
+            }
+            int change = seats.countFree(0, seats.getLegs()) - untouched;
+            if (-change > journey.getAvailableSeatsMap().getOrDefault(seatClass, 0)) {
+                soldOut[0] = true;
+                return null;
+            }
+            for (int i = 0; i < allocated.length; i++) {
+                passengers.get(i).setSeatNumber(layout.label(allocated[i]));
+            }
+            return new SeatPlan(seatClass, change, inventory.toBytes());
+        };
+
+        long bookingId = bookingDAO.createBookingWithPassengers(booking, passengers, planner);
+        if (bookingId > 0) {
+            seatInventoryService.invalidate(booking.getJourneyId());
+            return bookingId;
+        }
+        return soldOut[0] ? NO_SEATS : 0;
+    }
+
+    /**
+     * Cancels a booking that is still waiting for payment and frees its berths.
+     *
+     * @param bookingId booking to cancel
+     * @param journeyId journey of the booking
+     * @return true if the booking was waiting and is now cancelled
+     */
+    public boolean release(long bookingId, long journeyId) {
+        // A booking's passengers and stations never change, so they can be read before the lock
+        List<SeatOccupancy> own = passengerDAO.getSeatOccupancyOfBooking(bookingId);
+        SeatPlanner planner = (journey, seatMap, occupancy) -> {
+            if (own.isEmpty()) {
+                return new SeatPlan(null, 0, seatMap);
+            }
+            String seatClass = own.get(0).coachType();
+            CoachLayout layout = SeatInventoryService.layoutOf(seatClass);
+            JourneyInventory inventory = inventoryOf(journey, seatMap, occupancy,
+                    own.get(0).sourceStationId(), own.get(0).destStationId());
+            SegmentInventory seats = inventory.forClass(seatClass);
+            if (seats == null) {
+                return new SeatPlan(seatClass, own.size(), null);
+            }
+            int[] trip = inventory.tripOf(own.get(0).sourceStationId(), own.get(0).destStationId());
+            int untouched = seats.countFree(0, seats.getLegs());
+
+            // A berth becomes untouched again unless another booking uses it on other legs.
+            // Passengers booked before berths were allocated blocked some whole berth, which
+            // cannot be told apart; count one back for each and rebuild the seat map next time
+            int unallocated = 0;
+            for (SeatOccupancy seat : own) {
+                int index = layout != null ? layout.parse(seat.seatNumber()) : -1;
+                if (index < 0 || index >= seats.getSeats()) {
+                    unallocated++;
+                } else {
+                    seats.release(index, trip[0], trip[1]);
+                }
+            }
+            int freed = seats.countFree(0, seats.getLegs()) - untouched + unallocated;
+            return new SeatPlan(seatClass, freed, unallocated == 0 ? inventory.toBytes() : null);
+        };
+
+        if (!bookingDAO.releaseSeats(bookingId, journeyId, planner)) {
+            return false;
+        }
+        seatInventoryService.invalidate(journeyId);
+        return true;
+    }
+
+    /**
+     * Takes the berths of a cancelled booking again, e.g. when its payment arrives after the
+     * seat hold expired, and moves it back to waiting.
+     *
+     * @param booking cancelled booking
+     * @return true if all of its berths were still free and are taken again
+     */
+    public boolean retake(Booking booking) {
+        List<Passenger> passengers = passengerDAO.getPassengersByBookingId(booking.getBookingId());
+        if (passengers.isEmpty()) {
+            return false;
+        }
+        String seatClass = passengers.get(0).getCoachType();
+        CoachLayout layout = SeatInventoryService.layoutOf(seatClass);
+        if (layout == null) {
+            return false;
+        }
+
+        SeatPlanner planner = (journey, seatMap, occupancy) -> {
+            JourneyInventory inventory = inventoryOf(journey, seatMap, occupancy,
+                    booking.getSourceStationId(), booking.getDestStationId());
+            SegmentInventory seats = inventory.forClass(seatClass);
+            if (seats == null) {
+                return null;
+            }
+            int[] trip = inventory.tripOf(booking.getSourceStationId(), booking.getDestStationId());
+            int untouched = seats.countFree(0, seats.getLegs());
+
+            for (Passenger passenger : passengers) {
+                int index = layout.parse(passenger.getSeatNumber());
+                boolean taken = index < 0
+                        // Booked before berths were allocated: blocks a whole berth, as in build
+                        ? seats.allocate(0, seats.getLegs()) >= 0
+                        : index < seats.getSeats() && seats.occupy(index, trip[0], trip[1]);
+                if (!taken) {
+                    return null;
+                }
+            }
+            return new SeatPlan(seatClass, seats.countFree(0, seats.getLegs()) - untouched, inventory.toBytes());
+        };
+
+        if (!bookingDAO.retakeSeats(booking.getBookingId(), booking.getJourneyId(), planner)) {
+            return false;
+        }
+        seatInventoryService.invalidate(booking.getJourneyId());
+        return true;
+    }
+
+    // =========================================================================
+    // HELPERS
+    // =========================================================================
+
+    /**
+     * Inventory of a locked journey: its stored seat map if that still matches the journey,
+     * otherwise rebuilt from the active bookings. Without a known route the booking's own
+     * stations are taken as a route of one leg.
+     */
+    private JourneyInventory inventoryOf(Journey journey, byte[] seatMap, OccupancyLoader occupancy,
+                                         int sourceStationId, int destStationId) throws SQLException {
+        int[] stops = routeIndex.getStops(journey.getTrainId());
+        if (stops.length < 2) {
+            stops = new int[]{sourceStationId, destStationId};
+        }
+        JourneyInventory stored = seatMap != null ? JourneyInventory.fromBytes(seatMap) : null;
+        if (stored != null && stored.matches(journey, stops)) {
+            return stored;
+        }
+        return SeatInventoryService.build(journey, stops, occupancy.load());
+    }
+}
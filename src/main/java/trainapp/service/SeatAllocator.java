@@ -0,0 +1,262 @@
+package trainapp.service;
+
+import trainapp.service.CoachLayout.BerthType;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Picks concrete berths for a booking from the per-leg inventory of one class.
+ *
+ * <h2>Placement Rules:</h2>
+ * <ol>
+ *   <li><b>Together</b> - A group that fits into one bay gets one bay; a larger group gets the
+ *       shortest run of neighbouring bays in one coach; only when no coach has room is it
+ *       spread over the train</li>
+ *   <li><b>Preferences</b> - Among bays that fit, the one that satisfies the most berth
+ *       preferences wins; inside the chosen berths each passenger with a preference gets a
+ *       berth of that kind if one is left</li>
+ *   <li><b>Fill</b> - Ties go to the fullest bay, so empty bays stay free for larger groups;
+ *       a single passenger without a preference is placed best-fit by
+ *       {@link SegmentInventory#allocate(int, int)}</li>
+ * </ol>
+ *
+ * <p>Free berths are read as one bitset for the trip, and bays are inspected a few bits at a
+ * time, so a booking costs one pass over the bays of the class however full the train is.
+ * The allocator has no state of its own; callers serialize bookings per journey.
+ */
+public class SeatAllocator {
+
+    private final CoachLayout layout;
+    private final SegmentInventory inventory;
+
+    /**
+     * Creates an allocator over the inventory of one class.
+     *
+     * @param layout    coach layout of the class
+     * @param inventory seats of the class on the journey; berths are taken from it
+     */
+    public SeatAllocator(CoachLayout layout, SegmentInventory inventory) {
+        this.layout = layout;
+        this.inventory = inventory;
+    }
+
+    /**
+     * Takes berths for a group travelling together.
+     *
+     * @param fromLeg     first leg of the trip
+     * @param toLeg       leg after the last one, exclusive
+     * @param preferences berth preference of each passenger, null entries for no preference
+     * @return the seat of each passenger in the order of {@code preferences}, or null if fewer
+     *         seats are free for the trip than there are passengers
+     */
+    public int[] allocate(int fromLeg, int toLeg, List<BerthType> preferences) {
+        int count = preferences.size();
+        if (count == 1 && preferences.get(0) == null) {
+            int seat = inventory.allocate(fromLeg, toLeg);
+            return seat < 0 ? null : new int[]{seat};
+        }
+
+        long[] free = inventory.freeSeats(fromLeg, toLeg);
+        int available = 0;
+        for (long word : free) {
+            available += Long.bitCount(word);
+        }
+        if (available < count) {
+            return null;
+        }
+
+        int[] candidates = count <= layout.getBaySize() ? bestBay(free, preferences) : null;
+        if (candidates == null) {
+            candidates = shortestBayRun(free, count);
+        }
+        if (candidates == null) {
+            candidates = firstFree(free, available);
+        }
+
+        int[] seats = assign(candidates, preferences);
+        for (int seat : seats) {
+            inventory.occupy(seat, fromLeg, toLeg);
+        }
+        return seats;
+    }
+
+    // =========================================================================
+    // CHOOSING BERTHS
+    // =========================================================================
+
+    /**
+     * The bay with room for the whole group that satisfies the most preferences, fullest first.
+     */
+    private int[] bestBay(long[] free, List<BerthType> preferences) {
+        int count = preferences.size();
+        int baySize = layout.getBaySize();
+        int bestBay = -1;
+        int bestScore = -1;
+        int bestFree = Integer.MAX_VALUE;
+
+        for (int bay = 0; bay * baySize < inventory.getSeats(); bay++) {
+            int start = bay * baySize;
+            long bits = bits(free, start, Math.min(baySize, inventory.getSeats() - start));
+            int freeInBay = Long.bitCount(bits);
+            if (freeInBay < count) {
+                continue;
+            }
+            int score = preferenceScore(bits, start, preferences);
+            if (score > bestScore || (score == bestScore && freeInBay < bestFree)) {
+                bestBay = bay;
+                bestScore = score;
+                bestFree = freeInBay;
+                if (freeInBay == count && score == preferences.size()) {
+                    break; // Every preference met and nothing left over; cannot do better
+                }
+            }
+        }
+        if (bestBay < 0) {
+            return null;
+        }
+        int start = bestBay * layout.getBaySize();
+        return seatsOf(bits(free, start, Math.min(baySize, inventory.getSeats() - start)), start);
+    }
+
+    /**
+     * The fewest neighbouring bays of one coach that together have room for the group.
+     */
+    private int[] shortestBayRun(long[] free, int count) {
+        int baySize = layout.getBaySize();
+        int baysPerCoach = layout.getBerthsPerCoach() / baySize;
+        int totalBays = (inventory.getSeats() + baySize - 1) / baySize;
+        int[] freeInBay = new int[totalBays];
+        for (int bay = 0; bay < totalBays; bay++) {
+            int start = bay * baySize;
+            freeInBay[bay] = Long.bitCount(bits(free, start, Math.min(baySize, inventory.getSeats() - start)));
+        }
+
+        int bestStart = -1;
+        int bestLength = Integer.MAX_VALUE;
+        for (int coachStart = 0; coachStart < totalBays; coachStart += baysPerCoach) {
+            int coachEnd = Math.min(coachStart + baysPerCoach, totalBays);
+            int sum = 0;
+            int left = coachStart;
+            for (int right = coachStart; right < coachEnd; right++) {
+                sum += freeInBay[right];
+                while (sum - freeInBay[left] >= count) {
+                    sum -= freeInBay[left++];
+                }
+                if (sum >= count && right - left + 1 < bestLength) {
+                    bestStart = left;
+                    bestLength = right - left + 1;
+                }
+            }
+        }
+        if (bestStart < 0) {
+            return null;
+        }
+        int start = bestStart * baySize;
+        int end = Math.min((bestStart + bestLength) * baySize, inventory.getSeats());
+        int[] seats = new int[end - start];
+        int found = 0;
+        for (int seat = start; seat < end; seat++) {
+            if ((free[seat >>> 6] & (1L << seat)) != 0) {
+                seats[found++] = seat;
+            }
+        }
+        return Arrays.copyOf(seats, found);
+    }
+
+    private static int[] firstFree(long[] free, int available) {
+        int[] seats = new int[available];
+        int found = 0;
+        for (int w = 0; w < free.length; w++) {
+            long word = free[w];
+            while (word != 0) {
+                seats[found++] = (w << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+            }
+        }
+        return seats;
+    }
+
+    /**
+     * Gives each passenger with a preference a matching candidate if one is left, then fills
+     * the rest in berth order.
+     */
+    private int[] assign(int[] candidates, List<BerthType> preferences) {
+        int count = preferences.size();
+        int[] seats = new int[count];
+        Arrays.fill(seats, -1);
+        boolean[] used = new boolean[candidates.length];
+
+        for (int p = 0; p < count; p++) {
+            BerthType wanted = preferences.get(p);
+            if (wanted == null) {
+                continue;
+            }
+            for (int c = 0; c < candidates.length; c++) {
+                if (!used[c] && layout.berthType(candidates[c]) == wanted) {
+                    used[c] = true;
+                    seats[p] = candidates[c];
+                    break;
+                }
+            }
+        }
+        int next = 0;
+        for (int p = 0; p < count; p++) {
+            if (seats[p] < 0) {
+                while (used[next]) next++;
+                used[next] = true;
+                seats[p] = candidates[next];
+            }
+        }
+        return seats;
+    }
+
+    private int preferenceScore(long bayBits, int bayStart, List<BerthType> preferences) {
+        long remaining = bayBits;
+        int score = 0;
+        for (BerthType wanted : preferences) {
+            if (wanted == null) {
+                score++;
+                continue;
+            }
+            long bits = remaining;
+            while (bits != 0) {
+                int offset = Long.numberOfTrailingZeros(bits);
+                if (layout.berthType(bayStart + offset) == wanted) {
+                    remaining &= ~(1L << offset);
+                    score++;
+                    break;
+                }
+                bits &= bits - 1;
+            }
+        }
+        return score;
+    }
+
+    // =========================================================================
+    // BIT HELPERS
+    // =========================================================================
+
+    /**
+     * Extracts {@code length} (at most 64) bits of a bitset starting at {@code start}.
+     */
+    private static long bits(long[] set, int start, int length) {
+        int w = start >>> 6;
+        int shift = start & 63;
+        long value = set[w] >>> shift;
+        if (shift + length > 64 && w + 1 < set.length) {
+            value |= set[w + 1] << (64 - shift);
+        }
+        return length == 64 ? value : value & ((1L << length) - 1);
+    }
+
+    private static int[] seatsOf(long bits, int start) {
+        int[] seats = new int[Long.bitCount(bits)];
+        int found = 0;
+        while (bits != 0) {
+            seats[found++] = start + Long.numberOfTrailingZeros(bits);
+            bits &= bits - 1;
+        }
+        return seats;
+    }
+}
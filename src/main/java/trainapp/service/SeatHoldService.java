@@ -0,0 +1,322 @@
+package trainapp.service;
+
+import trainapp.dao.BookingDAO;
+import trainapp.util.TimingWheel;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * SeatHoldService gives back the berths of a booking that is not paid for in time.
+ *
+ * <h2>Hold Lifecycle:</h2>
+ * <ol>
+ *   <li>{@link SeatAllocationService#book} assigns the berths while the booking is saved</li>
+ *   <li>{@link #activate} starts the expiry timer of the new booking</li>
+ *   <li>{@link #confirm} on successful payment keeps the berths and stops the timer</li>
+ *   <li>{@link #release} on failed or cancelled payment frees the berths immediately and
+ *       cancels the booking</li>
+ *   <li>Otherwise the reaper does the same at expiry, if the booking is still
+ *       {@code waiting}</li>
+ *   <li>Holds do not survive a crash or kill, so on start the reaper also cancels the bookings
+ *       left {@code waiting} for longer than a hold lasts and frees their berths</li>
+ * </ol>
+ *
+ * <h2>Scalability:</h2>
+ * <ul>
+ *   <li>Expiry timers live in a {@link TimingWheel}; scheduling and cancelling are O(1)</li>
+ *   <li>A single reaper thread ticks the wheel, so tens of thousands of holds cost no threads</li>
+ *   <li>Confirm, release and expiry race through one atomic map removal, so exactly one of
+ *       them acts on a hold</li>
+ * </ul>
+ *
+ * <p>Holds are kept in memory. The package-private constructor accepts a {@link Clock} and
+ * does not start the reaper, so a simulation can drive expiry with {@link #reapExpired()}.
+ */
+public class SeatHoldService {
+
+    // =========================================================================
+    // CONFIGURATION
+    // =========================================================================
+
+    /** How long seats stay held while the user completes payment */
+    public static final Duration DEFAULT_HOLD_TTL = Duration.ofMinutes(10);
+
+    /** Timer resolution of the reaper */
+    private static final Duration REAPER_TICK = Duration.ofSeconds(1);
+
+    /** Wheel slots; with one-second ticks one revolution covers about 17 minutes */
+    private static final int WHEEL_SLOTS = 1024;
+
+    private static SeatHoldService instance;
+
+    // =========================================================================
+    // DEPENDENCIES AND STATE
+    // =========================================================================
+
+    private final SeatAllocationService seatAllocationService;
+    private final BookingDAO bookingDAO;
+    private final Clock clock;
+    private final Duration holdTtl;
+
+    /** Expiry timers of active holds */
+    private final TimingWheel<SeatHold> wheel;
+
+    /** Active holds by booking ID */
+    private final Map<Long, SeatHold> activeHolds = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService reaper;
+
+    // Metrics
+    private final LongAdder heldCount = new LongAdder();
+    private final LongAdder confirmedCount = new LongAdder();
+    private final LongAdder releasedCount = new LongAdder();
+    private final LongAdder expiredCount = new LongAdder();
+
+    /**
+     * Creates a hold service without starting the reaper.
+     *
+     * @param seatAllocationService frees the berths of expired and released holds
+     * @param bookingDAO            finds bookings whose holds were lost
+     * @param clock                 time source for hold expiry
+     * @param holdTtl               how long a hold lasts
+     */
+    SeatHoldService(SeatAllocationService seatAllocationService, BookingDAO bookingDAO, Clock clock,
+                    Duration holdTtl) {
+        this.seatAllocationService = seatAllocationService;
+        this.bookingDAO = bookingDAO;
+        this.clock = clock;
+        this.holdTtl = holdTtl;
+        this.wheel = new TimingWheel<>(clock, REAPER_TICK, WHEEL_SLOTS);
+    }
+
+    /**
+     * Returns the shared hold service, starting its reaper on first use. The reaper first
+     * releases the bookings whose holds a previous run lost.
+     */
+    public static synchronized SeatHoldService getInstance() {
+        if (instance == null) {
+            instance = new SeatHoldService(SeatAllocationService.getInstance(), new BookingDAO(),
+                    Clock.systemUTC(), DEFAULT_HOLD_TTL);
+            instance.startReaper();
+        }
+        return instance;
+    }
+
+    // =========================================================================
+    // HOLD OPERATIONS
+    // =========================================================================
+
+    /**
+     * Starts the expiry timer of a booking whose berths were just assigned.
+     *
+     * @param bookingId booking waiting for payment
+     * @param journeyId journey of the booking
+     * @param seatClass seat class
+     * @param seatCount number of berths
+     * @return the hold
+     */
+    public SeatHold activate(long bookingId, long journeyId, String seatClass, int seatCount) {
+        SeatHold hold = new SeatHold(bookingId, journeyId, seatClass, seatCount);
+        hold.expiresAt = clock.instant().plus(holdTtl);
+        activeHolds.put(bookingId, hold);
+        hold.timeout = wheel.schedule(hold, holdTtl);
+        heldCount.increment();
+        return hold;
+    }
+
+    /**
+     * Keeps the held seats after successful payment.
+     *
+     * @param bookingId booking whose payment succeeded
+     * @return true if the hold was still active, false if it had expired or never existed
+     */
+    public boolean confirm(long bookingId) {
+        SeatHold hold = activeHolds.remove(bookingId);
+        if (hold == null) {
+            return false;
+        }
+        if (hold.timeout != null) hold.timeout.cancel();
+        confirmedCount.increment();
+        return true;
+    }
+
+    /**
+     * Frees held berths right away and cancels the booking, e.g. after a failed or cancelled
+     * payment.
+     *
+     * @param bookingId booking whose hold to release
+     * @return true if a hold was released
+     */
+    public boolean release(long bookingId) {
+        SeatHold hold = activeHolds.remove(bookingId);
+        if (hold == null) {
+            return false;
+        }
+        if (hold.timeout != null) hold.timeout.cancel();
+        restoreSeats(hold);
+        releasedCount.increment();
+        return true;
+    }
+
+    /**
+     * Expires every hold whose time is up: the booking is cancelled and its berths freed if it
+     * is still waiting. Called by the reaper once per tick.
+     *
+     * @return number of holds expired
+     */
+    public int reapExpired() {
+        List<SeatHold> due = wheel.advance();
+        int expired = 0;
+        for (SeatHold hold : due) {
+            if (activeHolds.remove(hold.bookingId, hold)) {
+                restoreSeats(hold);
+                expiredCount.increment();
+                expired++;
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * Cancels the bookings left waiting for payment for longer than a hold lasts and frees
+     * their berths. Their holds were lost when the application crashed or was killed, which
+     * {@link #shutdown()} does not cover. Run by the reaper once when it starts.
+     *
+     * @return number of bookings released
+     */
+    int releaseAbandoned() {
+        LocalDateTime bookedBefore = LocalDateTime.ofInstant(clock.instant().minus(holdTtl), ZoneId.systemDefault());
+        int released = 0;
+        for (Map.Entry<Long, Long> booking : bookingDAO.getWaitingBookingsBefore(bookedBefore).entrySet()) {
+            // Bookings this process holds expire through the wheel
+            if (!activeHolds.containsKey(booking.getKey())
+                    && seatAllocationService.release(booking.getKey(), booking.getValue())) {
+                released++;
+            }
+        }
+        releasedCount.add(released);
+        return released;
+    }
+
+    /**
+     * Returns when the hold of a booking expires.
+     *
+     * @param bookingId booking to look up
+     * @return expiry instant, or null if the booking has no active hold
+     */
+    public Instant getHoldExpiry(long bookingId) {
+        SeatHold hold = activeHolds.get(bookingId);
+        return hold != null ? hold.expiresAt : null;
+    }
+
+    private void restoreSeats(SeatHold hold) {
+        if (!seatAllocationService.release(hold.bookingId, hold.journeyId)) {
+            System.err.println("Failed to release " + hold.seatCount + " " + hold.seatClass
+                    + " seat(s) of booking " + hold.bookingId + "; it is no longer waiting");
+        }
+    }
+
+    // =========================================================================
+    // REAPER LIFECYCLE
+    // =========================================================================
+
+    private void startReaper() {
+        reaper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "seat-hold-reaper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reaper.execute(() -> {
+            try {
+                releaseAbandoned();
+            } catch (Exception e) {
+                System.err.println("Error releasing abandoned bookings: " + e.getMessage());
+                e.printStackTrace();
+            }
+        });
+        reaper.scheduleWithFixedDelay(() -> {
+            try {
+                reapExpired();
+            } catch (Exception e) {
+                System.err.println("Seat hold reaper error: " + e.getMessage());
+                e.printStackTrace();
+            }
+        }, REAPER_TICK.toMillis(), REAPER_TICK.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the reaper and releases all outstanding holds, cancelling their bookings,
+     * since no payment can complete once the application has exited.
+     */
+    public static synchronized void shutdown() {
+        if (instance == null) {
+            return;
+        }
+        if (instance.reaper != null) {
+            instance.reaper.shutdownNow();
+        }
+        for (Long bookingId : List.copyOf(instance.activeHolds.keySet())) {
+            instance.release(bookingId);
+        }
+        instance = null;
+    }
+
+    // =========================================================================
+    // METRICS
+    // =========================================================================
+
+    /**
+     * Returns a snapshot of hold metrics.
+     */
+    public HoldStats getStats() {
+        return new HoldStats(activeHolds.size(), heldCount.sum(),
+                confirmedCount.sum(), releasedCount.sum(), expiredCount.sum());
+    }
+
+    /**
+     * Point-in-time hold metrics.
+     */
+    public record HoldStats(int active, long held, long confirmed, long released, long expired) {
+    }
+
+    // =========================================================================
+    // DATA MODEL
+    // =========================================================================
+
+    /**
+     * Berths of one booking waiting for payment.
+     */
+    public static final class SeatHold {
+        private final long bookingId;
+        private final long journeyId;
+        private final String seatClass;
+        private final int seatCount;
+
+        private volatile Instant expiresAt;
+        private volatile TimingWheel.Timeout<SeatHold> timeout;
+
+        private SeatHold(long bookingId, long journeyId, String seatClass, int seatCount) {
+            this.bookingId = bookingId;
+            this.journeyId = journeyId;
+            this.seatClass = seatClass;
+            this.seatCount = seatCount;
+        }
+
+        public long getBookingId() { return bookingId; }
+        public long getJourneyId() { return journeyId; }
+        public String getSeatClass() { return seatClass; }
+        public int getSeatCount() { return seatCount; }
+        public Instant getExpiresAt() { return expiresAt; }
+    }
+}
\ No newline at end of file
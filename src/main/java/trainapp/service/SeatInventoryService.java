@@ -0,0 +1,365 @@
+package trainapp.service;
+
+import trainapp.dao.JourneyDAO;
+import trainapp.dao.PassengerDAO;
+import trainapp.dao.PassengerDAO.SeatOccupancy;
+import trainapp.model.Journey;
+import trainapp.model.Train;
+import trainapp.util.BoundedCache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Per-leg seat availability of journeys, so a seat sold for part of a route can be sold again
+ * for the rest of it.
+ *
+ * <h2>How It Works:</h2>
+ * <ul>
+ *   <li><b>Legs</b> - The stops of a train come from the {@link RouteIndex} in
+ *       {@code sequence_order}; leg {@code k} runs from stop {@code k} to stop {@code k + 1}</li>
+ *   <li><b>Capacity</b> - Seats no booking has touched yet, as kept in the journey's
+ *       availability, plus the seats its active bookings use</li>
+ *   <li><b>Occupancy</b> - Every passenger of an active booking takes its allocated seat on the
+ *       legs between the booking's stations, in a {@link SegmentInventory} per class</li>
+ *   <li><b>Batching</b> - A search page is answered with one journey query and one occupancy
+ *       query for the journeys not cached yet; everything else is bit operations in memory</li>
+ * </ul>
+ *
+ * <p>Inventories are cached for {@link #CACHE_TTL}, so availability shown in search may lag
+ * behind bookings made elsewhere by that long.
+ */
+public class SeatInventoryService {
+
+    // =========================================================================
+    // CONFIGURATION AND STATE
+    // =========================================================================
+
+    private static final int CACHE_CAPACITY = 2_000;
+    private static final Duration CACHE_TTL = Duration.ofSeconds(30);
+
+    private static SeatInventoryService instance;
+
+    private final JourneyDAO journeyDAO;
+    private final PassengerDAO passengerDAO;
+    private final RouteIndex routeIndex;
+
+    /** Inventories by journey ID */
+    private final BoundedCache<Long, JourneyInventory> inventories =
+            new BoundedCache<>("seat-inventories", CACHE_CAPACITY, CACHE_TTL);
+
+    SeatInventoryService(JourneyDAO journeyDAO, PassengerDAO passengerDAO, RouteIndex routeIndex) {
+        this.journeyDAO = journeyDAO;
+        this.passengerDAO = passengerDAO;
+        this.routeIndex = routeIndex;
+    }
+
+    /**
+     * Returns the shared seat inventory service.
+     */
+    public static synchronized SeatInventoryService getInstance() {
+        if (instance == null) {
+            instance = new SeatInventoryService(new JourneyDAO(), new PassengerDAO(), RouteIndex.getInstance());
+        }
+        return instance;
+    }
+
+    // =========================================================================
+    // AVAILABILITY QUERIES
+    // =========================================================================
+
+    /**
+     * Counts the seats of every class that are free for a trip between two stations, for all
+     * trains of a search page.
+     *
+     * @param trains      trains to evaluate
+     * @param journeyDate departure date
+     * @param fromStation boarding station name
+     * @param toStation   destination station name
+     * @return map of train ID to seats by class; trains without a journey or a route through both
+     *         stations are absent
+     */
+    public Map<Integer, Map<String, Integer>> getAvailableSeats(Collection<Train> trains, LocalDate journeyDate,
+                                                                String fromStation, String toStation) {
+        Map<Integer, Map<String, Integer>> result = new HashMap<>();
+        int[] fromIds = routeIndex.getStationIds(fromStation);
+        int[] toIds = routeIndex.getStationIds(toStation);
+        if (fromIds.length == 0 || toIds.length == 0 || trains.isEmpty()) {
+            return result;
+        }
+
+        List<Integer> trainIds = new ArrayList<>(trains.size());
+        for (Train train : trains) {
+            trainIds.add(train.getTrainId());
+        }
+        Map<Integer, Journey> journeys = journeyDAO.getJourneysForTrainsAndDate(trainIds, journeyDate);
+        Map<Long, Journey> journeysById = new HashMap<>();
+        for (Journey journey : journeys.values()) {
+            journeysById.put(journey.getJourneyId(), journey);
+        }
+
+        Map<Long, JourneyInventory> loaded = inventories.getAll(journeysById.keySet(),
+                missing -> build(missing, journeysById));
+
+        for (Journey journey : journeys.values()) {
+            JourneyInventory inventory = loaded.get(journey.getJourneyId());
+            if (inventory == null) {
+                continue;
+            }
+            int[] legs = inventory.legsBetween(fromIds, toIds);
+            if (legs == null) {
+                continue;
+            }
+            Map<String, Integer> seats = new HashMap<>();
+            inventory.byClass.forEach((seatClass, classInventory) ->
+                    seats.put(seatClass, classInventory.countFree(legs[0], legs[1])));
+            result.put(journey.getTrainId(), seats);
+        }
+        return result;
+    }
+
+    /**
+     * Drops the cached inventory of a journey, e.g. after one of its bookings changed.
+     *
+     * @param journeyId the journey
+     */
+    public void invalidate(long journeyId) {
+        inventories.invalidate(journeyId);
+    }
+
+    // =========================================================================
+    // BUILDING
+    // =========================================================================
+
+    private Map<Long, JourneyInventory> build(Set<Long> journeyIds, Map<Long, Journey> journeysById) {
+        Map<Long, List<SeatOccupancy>> occupancy = passengerDAO.getSeatOccupancyByJourneyIds(journeyIds);
+        Map<Long, JourneyInventory> built = new HashMap<>();
+        for (long journeyId : journeyIds) {
+            Journey journey = journeysById.get(journeyId);
+            int[] stops = routeIndex.getStops(journey.getTrainId());
+            if (stops.length < 2) {
+                continue;
+            }
+            built.put(journeyId, build(journey, stops, occupancy.getOrDefault(journeyId, List.of())));
+        }
+        return built;
+    }
+
+    /**
+     * Builds the inventory of one journey.
+     *
+     * <p>A class has as many seats as its journey availability (seats no booking has touched
+     * yet) plus the seats its active bookings use. Passengers with an allocated seat take that
+     * seat on the legs of their trip. Passengers booked before seats were allocated have no
+     * seat to go by; each blocks a seat of its own for the whole route, so no later booking
+     * shares it and the seat count stays the same as when they were admitted.
+     */
+    static JourneyInventory build(Journey journey, int[] stops, List<SeatOccupancy> occupied) {
+        JourneyInventory inventory = new JourneyInventory(stops);
+        int legs = stops.length - 1;
+
+        Map<String, List<SeatOccupancy>> byClass = new HashMap<>();
+        for (SeatOccupancy seat : occupied) {
+            byClass.computeIfAbsent(seat.coachType(), k -> new ArrayList<>()).add(seat);
+        }
+
+        for (Map.Entry<String, Integer> entry : journey.getAvailableSeatsMap().entrySet()) {
+            String seatClass = entry.getKey();
+            CoachLayout layout = layoutOf(seatClass);
+            List<SeatOccupancy> seats = byClass.getOrDefault(seatClass, List.of());
+
+            Set<Integer> allocated = new HashSet<>();
+            int unallocated = 0;
+            for (SeatOccupancy seat : seats) {
+                int index = layout != null ? layout.parse(seat.seatNumber()) : -1;
+                if (index >= 0) {
+                    allocated.add(index);
+                } else {
+                    unallocated++;
+                }
+            }
+            int capacity = Math.max(0, entry.getValue()) + allocated.size() + unallocated;
+            SegmentInventory classInventory = new SegmentInventory(capacity, legs);
+
+            int unplaced = 0;
+            for (SeatOccupancy seat : seats) {
+                int[] trip = inventory.tripOf(seat.sourceStationId(), seat.destStationId());
+                int index = layout != null ? layout.parse(seat.seatNumber()) : -1;
+                if (index < 0 || index >= capacity || !classInventory.occupy(index, trip[0], trip[1])) {
+                    unplaced++;
+                }
+            }
+            for (int i = 0; i < unplaced; i++) {
+                classInventory.allocate(0, legs);
+            }
+            inventory.byClass.put(seatClass, classInventory);
+        }
+        return inventory;
+    }
+
+    /**
+     * Coach layout of a class, or null for classes without one.
+     */
+    static CoachLayout layoutOf(String seatClass) {
+        try {
+            return CoachLayout.forClass(seatClass);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Stops of one journey's route and its inventory per class. Bookings store it with the
+     * journey as its seat map, see {@link #toBytes()}.
+     */
+    static final class JourneyInventory {
+        /** First byte of a seat map, changed whenever its layout changes */
+        private static final int SEAT_MAP_FORMAT = 1;
+
+        private final int[] stops;
+        private final Map<String, SegmentInventory> byClass = new HashMap<>();
+
+        private JourneyInventory(int[] stops) {
+            this.stops = stops;
+        }
+
+        /**
+         * Inventory of one class, or null if the journey does not have the class.
+         */
+        SegmentInventory forClass(String seatClass) {
+            return byClass.get(seatClass);
+        }
+
+        /**
+         * Legs of a booked trip; the whole route if its stations are not on it.
+         */
+        int[] tripOf(int sourceStationId, int destStationId) {
+            int[] trip = legsBetween(sourceStationId, destStationId);
+            return trip != null ? trip : new int[]{0, stops.length - 1};
+        }
+
+        /**
+         * Legs of a trip as {@code {fromLeg, toLeg}}, or null if the route does not run from
+         * the first station to the second. Uses the first stop at the source and the last stop
+         * at the destination, like {@link RouteIndex}.
+         */
+        int[] legsBetween(int fromStationId, int toStationId) {
+            int from = -1;
+            int to = -1;
+            for (int k = 0; k < stops.length; k++) {
+                if (from < 0 && stops[k] == fromStationId) {
+                    from = k;
+                }
+                if (stops[k] == toStationId) {
+                    to = k;
+                }
+            }
+            return from >= 0 && from < to ? new int[]{from, to} : null;
+        }
+
+        /**
+         * Legs of a trip between any of several stations sharing a name, as
+         * {@link #legsBetween(int, int)}: the first stop at any source and the last stop at any
+         * destination.
+         */
+        int[] legsBetween(int[] fromStationIds, int[] toStationIds) {
+            int from = -1;
+            int to = -1;
+            for (int k = 0; k < stops.length; k++) {
+                if (from < 0 && contains(fromStationIds, stops[k])) {
+                    from = k;
+                }
+                if (contains(toStationIds, stops[k])) {
+                    to = k;
+                }
+            }
+            return from >= 0 && from < to ? new int[]{from, to} : null;
+        }
+
+        /**
+         * Whether this inventory still describes a journey: same route, same classes, and in
+         * each class as many seats untouched on every leg as the journey has available. A seat
+         * map fails this after a route change or when availability or bookings were changed
+         * without it, and is then rebuilt from the bookings.
+         */
+        boolean matches(Journey journey, int[] routeStops) {
+            if (!Arrays.equals(stops, routeStops)) {
+                return false;
+            }
+            Map<String, Integer> available = journey.getAvailableSeatsMap();
+            if (!available.keySet().equals(byClass.keySet())) {
+                return false;
+            }
+            for (Map.Entry<String, Integer> entry : available.entrySet()) {
+                SegmentInventory seats = byClass.get(entry.getKey());
+                if (seats.countFree(0, seats.getLegs()) != Math.max(0, entry.getValue())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Encodes the stops and the occupancy of every class as a seat map.
+         */
+        byte[] toBytes() {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (DataOutputStream out = new DataOutputStream(bytes)) {
+                out.writeByte(SEAT_MAP_FORMAT);
+                out.writeInt(stops.length);
+                for (int stop : stops) {
+                    out.writeInt(stop);
+                }
+                out.writeInt(byClass.size());
+                for (Map.Entry<String, SegmentInventory> entry : byClass.entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    entry.getValue().writeTo(out);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e); // Not thrown by in-memory streams
+            }
+            return bytes.toByteArray();
+        }
+
+        /**
+         * Decodes a seat map written by {@link #toBytes()}.
+         *
+         * @return the inventory, or null if the seat map is in another format or damaged
+         */
+        static JourneyInventory fromBytes(byte[] seatMap) {
+            try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(seatMap))) {
+                if (in.readByte() != SEAT_MAP_FORMAT) {
+                    return null;
+                }
+                int[] stops = new int[in.readInt()];
+                for (int k = 0; k < stops.length; k++) {
+                    stops[k] = in.readInt();
+                }
+                JourneyInventory inventory = new JourneyInventory(stops);
+                int classes = in.readInt();
+                for (int i = 0; i < classes; i++) {
+                    inventory.byClass.put(in.readUTF(), SegmentInventory.readFrom(in));
+                }
+                return in.available() == 0 ? inventory : null;
+            } catch (IOException | RuntimeException e) {
+                return null;
+            }
+        }
+
+        private static boolean contains(int[] stationIds, int stationId) {
+            for (int id : stationIds) {
+                if (id == stationId) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
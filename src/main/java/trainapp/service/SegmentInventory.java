@@ -0,0 +1,279 @@
+package trainapp.service;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Seat occupancy of one class on one journey, tracked per leg of the route.
+ *
+ * <h2>Structure:</h2>
+ * A route with {@code n} stops has {@code n - 1} legs; leg {@code k} runs from stop {@code k} to
+ * stop {@code k + 1}. For every leg the inventory keeps a bitset over the seats, one bit per
+ * seat, set when the seat is taken on that leg:
+ * <pre>
+ *   leg 0 (DEL-AGC): 1100 0000 ...
+ *   leg 1 (AGC-BPL): 1000 0001 ...
+ *   leg 2 (BPL-BCT): 0010 0001 ...
+ * </pre>
+ * A trip over legs {@code [from, to)} needs a seat whose bit is clear on each of those legs, so
+ * the free seats are the complement of the OR of the leg bitsets. Queries work 64 seats at a
+ * time and never look at individual seats until one is picked.
+ *
+ * <h2>Best Fit:</h2>
+ * A seat sold for the middle of a longer free stretch leaves two short gaps that may never be
+ * sold again. {@link #allocate(int, int)} therefore prefers seats that are taken on the leg just
+ * before and the leg just after the trip, then seats closed off on one side, and only then
+ * seats that are free around the trip.
+ *
+ * <p>All methods are synchronized, so one inventory can be shared by searches and bookings.
+ */
+public class SegmentInventory {
+
+    private final int seats;
+    private final int legs;
+    private final int words;
+
+    /** Leg-major occupancy: the bitset of leg {@code k} is words {@code [k * words, (k + 1) * words)} */
+    private final long[] occupied;
+
+    /**
+     * Creates an inventory with every seat free on every leg.
+     *
+     * @param seats number of seats in the class
+     * @param legs  number of legs of the route, one less than its stops
+     */
+    public SegmentInventory(int seats, int legs) {
+        if (seats < 0 || legs <= 0) {
+            throw new IllegalArgumentException("Inventory needs at least one leg and no negative seats");
+        }
+        this.seats = seats;
+        this.legs = legs;
+        this.words = (seats + 63) >>> 6;
+        this.occupied = new long[legs * words];
+    }
+
+    public int getSeats() {
+        return seats;
+    }
+
+    public int getLegs() {
+        return legs;
+    }
+
+    // =========================================================================
+    // QUERIES
+    // =========================================================================
+
+    /**
+     * Counts the seats that are free on every leg of a trip.
+     *
+     * @param fromLeg first leg of the trip
+     * @param toLeg   leg after the last one, exclusive
+     * @return number of seats that can be sold for the trip
+     */
+    public synchronized int countFree(int fromLeg, int toLeg) {
+        checkLegs(fromLeg, toLeg);
+        int free = 0;
+        for (int w = 0; w < words; w++) {
+            free += Long.bitCount(freeWord(w, fromLeg, toLeg));
+        }
+        return free;
+    }
+
+    /**
+     * Returns whether at least one seat is free on every leg of a trip.
+     *
+     * @param fromLeg first leg of the trip
+     * @param toLeg   leg after the last one, exclusive
+     */
+    public synchronized boolean hasFree(int fromLeg, int toLeg) {
+        checkLegs(fromLeg, toLeg);
+        for (int w = 0; w < words; w++) {
+            if (freeWord(w, fromLeg, toLeg) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns whether one seat is free on every leg of a trip.
+     *
+     * @param seat    seat index, from 0
+     * @param fromLeg first leg of the trip
+     * @param toLeg   leg after the last one, exclusive
+     */
+    public synchronized boolean isFree(int seat, int fromLeg, int toLeg) {
+        checkSeat(seat);
+        checkLegs(fromLeg, toLeg);
+        int w = seat >>> 6;
+        return (freeWord(w, fromLeg, toLeg) & (1L << seat)) != 0;
+    }
+
+    /**
+     * Returns the seats that are free on every leg of a trip as a bitset, 64 seats per word.
+     *
+     * @param fromLeg first leg of the trip
+     * @param toLeg   leg after the last one, exclusive
+     */
+    synchronized long[] freeSeats(int fromLeg, int toLeg) {
+        checkLegs(fromLeg, toLeg);
+        long[] free = new long[words];
+        for (int w = 0; w < words; w++) {
+            free[w] = freeWord(w, fromLeg, toLeg);
+        }
+        return free;
+    }
+
+    /**
+     * Seats of one word that are free on legs {@code [fromLeg, toLeg)}, with bits beyond the
+     * last seat cleared.
+     */
+    private long freeWord(int w, int fromLeg, int toLeg) {
+        long taken = 0;
+        for (int leg = fromLeg; leg < toLeg; leg++) {
+            taken |= occupied[leg * words + w];
+        }
+        return ~taken & validMask(w);
+    }
+
+    private long validMask(int w) {
+        int tail = seats - (w << 6);
+        return tail >= 64 ? -1L : (1L << tail) - 1;
+    }
+
+    // =========================================================================
+    // ALLOCATION
+    // =========================================================================
+
+    /**
+     * Takes the best fitting free seat for a trip.
+     *
+     * @param fromLeg first leg of the trip
+     * @param toLeg   leg after the last one, exclusive
+     * @return the seat taken, or -1 if no seat is free for the whole trip
+     */
+    public synchronized int allocate(int fromLeg, int toLeg) {
+        checkLegs(fromLeg, toLeg);
+        int fallback = -1;
+        int oneSided = -1;
+        for (int w = 0; w < words; w++) {
+            long free = freeWord(w, fromLeg, toLeg);
+            if (free == 0) {
+                continue;
+            }
+            // The route ends count as taken: nothing can be sold beyond them
+            long closedBefore = fromLeg == 0 ? -1L : occupied[(fromLeg - 1) * words + w];
+            long closedAfter = toLeg == legs ? -1L : occupied[toLeg * words + w];
+
+            long tight = free & closedBefore & closedAfter;
+            if (tight != 0) {
+                return take((w << 6) + Long.numberOfTrailingZeros(tight), fromLeg, toLeg);
+            }
+            long half = free & (closedBefore | closedAfter);
+            if (half != 0 && oneSided < 0) {
+                oneSided = (w << 6) + Long.numberOfTrailingZeros(half);
+            }
+            if (fallback < 0) {
+                fallback = (w << 6) + Long.numberOfTrailingZeros(free);
+            }
+        }
+        int seat = oneSided >= 0 ? oneSided : fallback;
+        return seat < 0 ? -1 : take(seat, fromLeg, toLeg);
+    }
+
+    /**
+     * Takes a specific seat for a trip, e.g. when rebuilding the inventory from bookings.
+     *
+     * @param seat    seat index, from 0
+     * @param fromLeg first leg of the trip
+     * @param toLeg   leg after the last one, exclusive
+     * @return true if the seat was free on every leg and is now taken, false if it was not free
+     */
+    public synchronized boolean occupy(int seat, int fromLeg, int toLeg) {
+        if (!isFree(seat, fromLeg, toLeg)) {
+            return false;
+        }
+        take(seat, fromLeg, toLeg);
+        return true;
+    }
+
+    /**
+     * Frees a seat on the legs of a trip, e.g. when a booking is cancelled.
+     *
+     * @param seat    seat index, from 0
+     * @param fromLeg first leg of the trip
+     * @param toLeg   leg after the last one, exclusive
+     */
+    public synchronized void release(int seat, int fromLeg, int toLeg) {
+        checkSeat(seat);
+        checkLegs(fromLeg, toLeg);
+        long bit = 1L << seat;
+        int w = seat >>> 6;
+        for (int leg = fromLeg; leg < toLeg; leg++) {
+            occupied[leg * words + w] &= ~bit;
+        }
+    }
+
+    private int take(int seat, int fromLeg, int toLeg) {
+        long bit = 1L << seat;
+        int w = seat >>> 6;
+        for (int leg = fromLeg; leg < toLeg; leg++) {
+            occupied[leg * words + w] |= bit;
+        }
+        return seat;
+    }
+
+    // =========================================================================
+    // SERIALIZATION
+    // =========================================================================
+
+    /**
+     * Writes the seat count, leg count and occupancy bits.
+     */
+    synchronized void writeTo(DataOutput out) throws IOException {
+        out.writeInt(seats);
+        out.writeInt(legs);
+        for (long word : occupied) {
+            out.writeLong(word);
+        }
+    }
+
+    /**
+     * Reads an inventory written by {@link #writeTo}.
+     *
+     * @throws IOException              if the input ends early
+     * @throws IllegalArgumentException if the sizes are invalid
+     */
+    static SegmentInventory readFrom(DataInput in) throws IOException {
+        SegmentInventory inventory = new SegmentInventory(in.readInt(), in.readInt());
+        for (int i = 0; i < inventory.occupied.length; i++) {
+            inventory.occupied[i] = in.readLong();
+        }
+        return inventory;
+    }
+
+    // =========================================================================
+    // VALIDATION
+    // =========================================================================
+
+    private void checkLegs(int fromLeg, int toLeg) {
+        if (fromLeg < 0 || toLeg > legs || fromLeg >= toLeg) {
+            throw new IllegalArgumentException("Invalid legs [" + fromLeg + ", " + toLeg + ") of " + legs);
+        }
+    }
+
+    private void checkSeat(int seat) {
+        if (seat < 0 || seat >= seats) {
+            throw new IllegalArgumentException("Invalid seat " + seat + " of " + seats);
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "SegmentInventory{seats=" + seats + ", legs=" + legs
+                + ", occupiedBits=" + Arrays.stream(occupied).map(Long::bitCount).sum() + '}';
+    }
+}
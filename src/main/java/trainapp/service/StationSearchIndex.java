@@ -0,0 +1,367 @@
+package trainapp.service;
+
+import trainapp.dao.StationDAO;
+import trainapp.dao.TrainScheduleDAO;
+import trainapp.model.Station;
+
+import java.util.*;
+
+/**
+ * In-memory station autocomplete shared by every screen that picks a station.
+ *
+ * <h2>Structure:</h2>
+ * Stations are numbered by rank (popularity descending, then name), and the lower-cased name,
+ * code, city and state of each are kept in parallel arrays. Every three-character substring
+ * (trigram) of those fields maps to a posting list of station ranks:
+ * <pre>
+ *   "mum" -> {0, 14, 212}
+ *   "umb" -> {0, 14, 212, 980}
+ * </pre>
+ * A query of three or more characters intersects the posting lists of its trigrams, which
+ * is exact for substring matching once each candidate is verified. Shorter queries scan
+ * the field arrays, which needs no per-keystroke lower-casing.
+ *
+ * <h2>Ranking:</h2>
+ * <ol>
+ *   <li>Exact station code match</li>
+ *   <li>Station code or name starts with the query</li>
+ *   <li>A word of the name, or the city, starts with the query</li>
+ *   <li>Query appears anywhere in name, code, city or state</li>
+ * </ol>
+ * Within a tier, stations served by more trains come first. Because posting lists are in
+ * rank order, the top N of each tier are simply the first N seen, and the scan stops as
+ * soon as the prefix tier is full. Exact code matches come from a separate code lookup.
+ *
+ * <p>Like {@link RouteIndex}, the index is built lazily on first use and readers work on an
+ * immutable snapshot that {@link #refresh()} swaps atomically after station edits.
+ */
+public class StationSearchIndex {
+
+    /** Default number of suggestions returned by {@link #search(String)} */
+    public static final int DEFAULT_LIMIT = 50;
+
+    private static final int TIER_COUNT = 4;
+
+    private static StationSearchIndex instance;
+
+    private final StationDAO stationDAO = new StationDAO();
+    private final TrainScheduleDAO scheduleDAO = new TrainScheduleDAO();
+
+    /** Current immutable snapshot, null until first load */
+    private volatile Snapshot snapshot;
+
+    private StationSearchIndex() {
+    }
+
+    /**
+     * Returns the shared station search index.
+     */
+    public static synchronized StationSearchIndex getInstance() {
+        if (instance == null) {
+            instance = new StationSearchIndex();
+        }
+        return instance;
+    }
+
+    // -------------------------------------------------------------------------
+    // Queries
+    // -------------------------------------------------------------------------
+
+    /**
+     * Returns all stations in the order the station list is displayed (by name).
+     *
+     * @return unmodifiable list of stations, empty if none could be loaded
+     */
+    public List<Station> getAllStations() {
+        return ensureLoaded().stations;
+    }
+
+    /**
+     * Returns the best {@link #DEFAULT_LIMIT} stations for the query.
+     *
+     * @param query text typed by the user
+     * @return ranked matches, empty list if none
+     */
+    public List<Station> search(String query) {
+        return search(query, DEFAULT_LIMIT);
+    }
+
+    /**
+     * Returns the best stations for the query, matching name, code, city and state.
+     *
+     * @param query text typed by the user
+     * @param limit maximum number of results
+     * @return ranked matches, empty list if none
+     */
+    public List<Station> search(String query, int limit) {
+        return ensureLoaded().search(normalize(query), limit);
+    }
+
+    /**
+     * Returns whether the index has been loaded.
+     */
+    public boolean isLoaded() {
+        return snapshot != null;
+    }
+
+    // -------------------------------------------------------------------------
+    // Loading and Refresh
+    // -------------------------------------------------------------------------
+
+    /**
+     * Rebuilds the index from the database. Call after stations are added, renamed or deleted.
+     * An empty result (for example when the database is unreachable) is not installed, so the
+     * next query retries the load.
+     */
+    public synchronized void refresh() {
+        Snapshot built = load();
+        if (built.size() > 0) {
+            snapshot = built;
+        }
+    }
+
+    private Snapshot ensureLoaded() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                current = snapshot;
+                if (current == null) {
+                    current = load();
+                    if (current.size() > 0) {
+                        snapshot = current;
+                    }
+                }
+            }
+        }
+        return current;
+    }
+
+    private Snapshot load() {
+        List<Station> stations = stationDAO.getAllStations();
+        Map<Integer, Integer> stopCounts = stations.isEmpty() ? Map.of() : scheduleDAO.getStopCountsByStation();
+        return build(stations, stopCounts);
+    }
+
+    /**
+     * Builds a snapshot from the given stations without touching the database.
+     *
+     * @param stations   stations in display order
+     * @param stopCounts popularity of each station by ID
+     */
+    static Snapshot build(List<Station> stations, Map<Integer, Integer> stopCounts) {
+        return new Snapshot(stations, stopCounts);
+    }
+
+    // -------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /** Packs three characters into one key. */
+    private static long trigram(String text, int start) {
+        return ((long) text.charAt(start) << 32) | ((long) text.charAt(start + 1) << 16) | text.charAt(start + 2);
+    }
+
+    /**
+     * Immutable view of the index.
+     */
+    static final class Snapshot {
+        private final List<Station> stations;
+        private final Station[] byRank;
+        private final String[] names;
+        private final String[] codes;
+        private final String[] cities;
+        private final String[] states;
+        private final Map<String, Integer> rankByCode;
+        private final Map<Long, int[]> postings;
+
+        private Snapshot(List<Station> source, Map<Integer, Integer> stopCounts) {
+            this.stations = Collections.unmodifiableList(new ArrayList<>(source));
+
+            byRank = source.toArray(new Station[0]);
+            Arrays.sort(byRank, Comparator
+                    .comparingInt((Station s) -> -stopCounts.getOrDefault(s.getStationId(), 0))
+                    .thenComparing(s -> normalize(s.getName())));
+
+            int n = byRank.length;
+            names = new String[n];
+            codes = new String[n];
+            cities = new String[n];
+            states = new String[n];
+            rankByCode = new HashMap<>(n * 2);
+
+            Map<Long, IntListBuilder> builders = new HashMap<>();
+            for (int rank = 0; rank < n; rank++) {
+                Station station = byRank[rank];
+                names[rank] = normalize(station.getName());
+                codes[rank] = normalize(station.getStationCode());
+                cities[rank] = normalize(station.getCity());
+                states[rank] = normalize(station.getState());
+                rankByCode.putIfAbsent(codes[rank], rank);
+
+                Set<Long> grams = new HashSet<>();
+                addTrigrams(names[rank], grams);
+                addTrigrams(codes[rank], grams);
+                addTrigrams(cities[rank], grams);
+                addTrigrams(states[rank], grams);
+                for (Long gram : grams) {
+                    // Ranks are visited in order, so every posting list ends up sorted
+                    builders.computeIfAbsent(gram, g -> new IntListBuilder()).add(rank);
+                }
+            }
+
+            postings = new HashMap<>(builders.size() * 2);
+            builders.forEach((gram, builder) -> postings.put(gram, builder.toArray()));
+        }
+
+        private int size() {
+            return byRank.length;
+        }
+
+        private static void addTrigrams(String field, Set<Long> grams) {
+            for (int i = 0; i + 3 <= field.length(); i++) {
+                grams.add(trigram(field, i));
+            }
+        }
+
+        List<Station> search(String query, int limit) {
+            if (query.isEmpty() || limit <= 0) {
+                return new ArrayList<>();
+            }
+
+            int[][] tiers = new int[TIER_COUNT][limit];
+            int[] counts = new int[TIER_COUNT];
+
+            Integer exact = rankByCode.get(query);
+            int exactRank = exact != null ? exact : -1;
+            if (exactRank >= 0) {
+                tiers[0][counts[0]++] = exactRank;
+            }
+
+            // Once the prefix tier is full no later candidate can make the results
+            int needed = limit - counts[0];
+            if (query.length() < 3) {
+                for (int rank = 0; rank < byRank.length && counts[1] < needed; rank++) {
+                    if (rank != exactRank) collect(rank, query, tiers, counts, limit);
+                }
+            } else {
+                int[][] lists = postingsFor(query);
+                if (lists.length > 0) {
+                    // Walk the shortest list and probe the others with cursors that only move forward
+                    int[] cursors = new int[lists.length];
+                    int[] shortest = lists[0];
+                    for (int k = 0; k < shortest.length && counts[1] < needed; k++) {
+                        int rank = shortest[k];
+                        if (rank != exactRank && containsAll(lists, cursors, rank)) {
+                            collect(rank, query, tiers, counts, limit);
+                        }
+                    }
+                }
+            }
+
+            List<Station> result = new ArrayList<>(Math.min(limit, counts[0] + counts[1] + counts[2] + counts[3]));
+            for (int tier = 0; tier < TIER_COUNT && result.size() < limit; tier++) {
+                for (int k = 0; k < counts[tier] && result.size() < limit; k++) {
+                    result.add(byRank[tiers[tier][k]]);
+                }
+            }
+            return result;
+        }
+
+        private void collect(int rank, String query, int[][] tiers, int[] counts, int limit) {
+            int tier = tierOf(rank, query);
+            if (tier >= 0 && counts[tier] < limit) {
+                tiers[tier][counts[tier]++] = rank;
+            }
+        }
+
+        /**
+         * Posting lists of every trigram of the query, shortest first; empty if any is missing.
+         */
+        private int[][] postingsFor(String query) {
+            int gramCount = query.length() - 2;
+            int[][] lists = new int[gramCount][];
+            for (int i = 0; i < gramCount; i++) {
+                int[] posting = postings.get(trigram(query, i));
+                if (posting == null) {
+                    return new int[0][];
+                }
+                lists[i] = posting;
+            }
+            Arrays.sort(lists, Comparator.comparingInt(list -> list.length));
+            return lists;
+        }
+
+        /**
+         * Checks whether lists 1..n all contain the rank. Ranks are probed in increasing
+         * order, so each cursor gallops forward from where the previous probe stopped.
+         */
+        private static boolean containsAll(int[][] lists, int[] cursors, int rank) {
+            for (int i = 1; i < lists.length; i++) {
+                int[] list = lists[i];
+                int lo = cursors[i];
+                int step = 1;
+                int hi = lo;
+                while (hi < list.length && list[hi] < rank) {
+                    lo = hi + 1;
+                    hi += step;
+                    step <<= 1;
+                }
+                int pos = Arrays.binarySearch(list, lo, Math.min(hi + 1, list.length), rank);
+                if (pos < 0) {
+                    cursors[i] = -pos - 1;
+                    return false;
+                }
+                cursors[i] = pos;
+            }
+            return true;
+        }
+
+        /**
+         * Returns the ranking tier (1-3) of a station that is not an exact code match,
+         * or -1 if it does not match.
+         */
+        private int tierOf(int rank, String query) {
+            String code = codes[rank];
+            String name = names[rank];
+            String city = cities[rank];
+
+            if (code.startsWith(query) || name.startsWith(query)) return 1;
+            if (city.startsWith(query) || startsWord(name, query)) return 2;
+            if (name.contains(query) || code.contains(query) || city.contains(query)
+                    || states[rank].contains(query)) return 3;
+            return -1;
+        }
+
+        private static boolean startsWord(String text, String query) {
+            for (int i = text.indexOf(query); i >= 0; i = text.indexOf(query, i + 1)) {
+                if (i == 0 || text.charAt(i - 1) == ' ') {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Minimal growable int array used while building postings.
+     */
+    private static final class IntListBuilder {
+        private int[] values = new int[4];
+        private int size;
+
+        private void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        private int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
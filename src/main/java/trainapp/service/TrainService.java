@@ -1,6 +1,5 @@
 package trainapp.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import trainapp.dao.JourneyDAO;
 import trainapp.dao.StationDAO;
 import trainapp.dao.TrainDAO;
@@ -18,10 +17,11 @@ import java.util.concurrent.ThreadLocalRandom;
  */
 public class TrainService {
 
-    private final TrainDAO trainDAO = new TrainDAO();
-    private final JourneyDAO journeyDAO = new JourneyDAO();
-    private final StationDAO stationDAO = new StationDAO();
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final TrainDAO trainDAO;
+    private final JourneyDAO journeyDAO;
+    private final StationDAO stationDAO;
+    private final RouteIndex routeIndex = RouteIndex.getInstance();
+    private final SeatInventoryService seatInventoryService = SeatInventoryService.getInstance();
 
     // Performance caches
     private final Map<Integer, String> stationNameCache = new ConcurrentHashMap<>();
@@ -44,6 +44,29 @@ public class TrainService {
     // Pre-calculated default seat availability patterns
     private static final Map<String, Map<String, Integer>> DEFAULT_SEATS_BY_TYPE = createDefaultSeatsMapping();
 
+    public TrainService() {
+        this(new TrainDAO(), new JourneyDAO(), new StationDAO());
+    }
+
+    /**
+     * Creates a service over the given DAOs; used by benchmarks with in-memory stubs.
+     */
+    TrainService(TrainDAO trainDAO, JourneyDAO journeyDAO, StationDAO stationDAO) {
+        this.trainDAO = trainDAO;
+        this.journeyDAO = journeyDAO;
+        this.stationDAO = stationDAO;
+    }
+
+    /**
+     * Clears the per-instance lookup caches.
+     */
+    void clearCaches() {
+        stationNameCache.clear();
+        scheduleCache.clear();
+        distanceCache.clear();
+        trainStationNamesCache.clear();
+    }
+
     // -------------------------------------------------------------------------
     // OPTIMIZED: Enhanced Distance Calculation
     // -------------------------------------------------------------------------
@@ -246,34 +269,18 @@ public class TrainService {
     // OPTIMIZED: Core Service Methods
     // -------------------------------------------------------------------------
 
-    public List<Train> findTrainsBetweenStations(String fromStationName, String toStationName) {
-        List<Train> candidateTrains = trainDAO.findTrainsBetweenStations(fromStationName, toStationName);
-
-        if (candidateTrains.isEmpty()) {
-            return candidateTrains;
-        }
-
-        return candidateTrains.stream()
-                .filter(train -> validateTrainRoute(train, fromStationName, toStationName))
-                .collect(ArrayList::new, ArrayList::add, ArrayList::addAll);
-    }
-
     /**
-     * Optimized route validation
+     * Finds trains from the in-memory {@link RouteIndex}; the index already guarantees that
+     * the source stop precedes the destination stop, so no per-train revalidation is needed.
      */
-    private boolean validateTrainRoute(Train train, String fromStationName, String toStationName) {
-        List<String> stationNames = getTrainStationNamesCached(train.getTrainId());
-
-        int fromIndex = -1, toIndex = -1;
-        for (int i = 0; i < stationNames.size(); i++) {
-            String stationName = stationNames.get(i);
-            if (stationName.equalsIgnoreCase(fromStationName)) fromIndex = i;
-            if (stationName.equalsIgnoreCase(toStationName)) toIndex = i;
-
-            if (fromIndex != -1 && toIndex != -1) break;
+    public List<Train> findTrainsBetweenStations(String fromStationName, String toStationName) {
+        if (fromStationName == null || fromStationName.trim().isEmpty()) {
+            throw new IllegalArgumentException("Source station name cannot be null or empty");
         }
-
-        return fromIndex != -1 && toIndex != -1 && fromIndex < toIndex;
+        if (toStationName == null || toStationName.trim().isEmpty()) {
+            throw new IllegalArgumentException("Destination station name cannot be null or empty");
+        }
+        return routeIndex.findTrainsBetween(fromStationName, toStationName);
     }
 
     /**
@@ -284,56 +291,73 @@ public class TrainService {
                 id -> trainDAO.getTrainScheduleStationNames(id));
     }
 
+    /**
+     * Returns the seats left on a train's journey. Read-only: journeys are created ahead of time
+     * by {@link JourneyProvisioner}; a date without a journey shows the train's standard
+     * capacity until it is provisioned or booked.
+     */
     public Map<String, Integer> getAvailableSeatsForDate(Train train, LocalDate journeyDate) {
         LocalDate date = journeyDate != null ? journeyDate : LocalDate.now();
 
         try {
             Journey journey = journeyDAO.getJourneyForTrainAndDate(train.getTrainId(), date);
-            if (journey == null) {
-                if (ensureJourneyExists(train.getTrainId(), date)) {
-                    journey = journeyDAO.getJourneyForTrainAndDate(train.getTrainId(), date);
-                }
-            }
-
             return journey != null ? new HashMap<>(journey.getAvailableSeatsMap()) :
-                    getDefaultSeatAvailabilityOptimized(train);
+                    getStandardSeatAvailability(train);
         } catch (Exception e) {
-            return getDefaultSeatAvailabilityOptimized(train);
+            return getStandardSeatAvailability(train);
         }
     }
 
-    public boolean bookSeats(int trainId, LocalDate journeyDate, String seatClass, int passengerCount) {
-        try {
-            Journey journey = journeyDAO.getJourneyForTrainAndDate(trainId, journeyDate);
-            if (journey == null) return false;
-
-            Map<String, Integer> currentAvailability = journey.getAvailableSeatsMap();
-            int availableSeats = currentAvailability.getOrDefault(seatClass, 0);
+    /**
+     * Batch variant of {@link #getAvailableSeatsForDate(Train, LocalDate)}: all journeys are
+     * read with one query. Read-only like the single-train variant.
+     */
+    public Map<Integer, Map<String, Integer>> getAvailableSeatsForDate(Collection<Train> trains, LocalDate journeyDate) {
+        LocalDate date = journeyDate != null ? journeyDate : LocalDate.now();
+        Map<Integer, Map<String, Integer>> result = new HashMap<>();
 
-            if (availableSeats < passengerCount) return false;
+        List<Integer> trainIds = new ArrayList<>(trains.size());
+        for (Train train : trains) {
+            trainIds.add(train.getTrainId());
+        }
+        Map<Integer, Journey> journeys = journeyDAO.getJourneysForTrainsAndDate(trainIds, date);
 
-            currentAvailability.put(seatClass, availableSeats - passengerCount);
-            String updatedJson = objectMapper.writeValueAsString(currentAvailability);
+        for (Train train : trains) {
+            Journey journey = journeys.get(train.getTrainId());
+            try {
+                result.put(train.getTrainId(), journey != null ? new HashMap<>(journey.getAvailableSeatsMap()) :
+                        getStandardSeatAvailability(train));
+            } catch (Exception e) {
+                result.put(train.getTrainId(), getStandardSeatAvailability(train));
+            }
+        }
+        return result;
+    }
 
-            return journeyDAO.updateAvailableSeats(journey.getJourneyId(), updatedJson);
-        } catch (Exception e) {
-            return false;
+    /**
+     * Seats left for a trip between two stations, for all trains of a search page. Seats sold
+     * only on other parts of a route count as free; see {@link SeatInventoryService}. Trains
+     * without a journey on that date show their standard capacity.
+     */
+    public Map<Integer, Map<String, Integer>> getAvailableSeatsBetween(Collection<Train> trains, LocalDate journeyDate,
+                                                                       String fromStationName, String toStationName) {
+        LocalDate date = journeyDate != null ? journeyDate : LocalDate.now();
+        Map<Integer, Map<String, Integer>> result = new HashMap<>(
+                seatInventoryService.getAvailableSeats(trains, date, fromStationName, toStationName));
+        for (Train train : trains) {
+            result.computeIfAbsent(train.getTrainId(), id -> getStandardSeatAvailability(train));
         }
+        return result;
     }
 
+    /**
+     * Makes sure a journey exists before seats are booked on it. Only called from the booking
+     * path; journeys inside the booking window already exist, so this only writes for dates
+     * the provisioning job has not reached yet.
+     */
     public boolean ensureJourneyExists(int trainId, LocalDate journeyDate) {
         try {
-            if (journeyDAO.getJourneyForTrainAndDate(trainId, journeyDate) != null) {
-                return true;
-            }
-
-            Train train = trainDAO.getTrainById(trainId);
-            if (train == null) return false;
-
-            Map<String, Integer> defaultSeats = getDefaultSeatAvailabilityOptimized(train);
-            String seatsJson = objectMapper.writeValueAsString(defaultSeats);
-
-            return journeyDAO.createJourney(trainId, journeyDate, seatsJson) > 0;
+            return JourneyProvisioner.getInstance().provision(trainId, journeyDate);
         } catch (Exception e) {
             return false;
         }
@@ -431,9 +455,9 @@ public class TrainService {
     }
 
     /**
-     * Optimized default seat availability
+     * Standard seat capacity of a train's type, shown for dates without a journey.
      */
-    private Map<String, Integer> getDefaultSeatAvailabilityOptimized(Train train) {
+    private static Map<String, Integer> getStandardSeatAvailability(Train train) {
         String trainType = "regular";
 
         if (train != null) {
@@ -445,7 +469,15 @@ public class TrainService {
             }
         }
 
-        Map<String, Integer> baseSeats = new HashMap<>(DEFAULT_SEATS_BY_TYPE.get(trainType));
+        return new HashMap<>(DEFAULT_SEATS_BY_TYPE.get(trainType));
+    }
+
+    /**
+     * Seat availability of a newly created journey: the standard capacity with a small
+     * random variation.
+     */
+    static Map<String, Integer> initialSeatAvailability(Train train) {
+        Map<String, Integer> baseSeats = getStandardSeatAvailability(train);
 
         // Add small random variation
         ThreadLocalRandom random = ThreadLocalRandom.current();
@@ -0,0 +1,204 @@
+package trainapp.util;
+
+import javafx.concurrent.Task;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Shared executor for the JavaFX {@link Task}s started by controllers.
+ *
+ * <h2>Core Responsibilities:</h2>
+ * <ul>
+ *   <li><b>Virtual Threads</b> - Every task runs on its own named virtual thread ({@code app-task-N})</li>
+ *   <li><b>Bounded Concurrency</b> - At most {@link #MAX_CONCURRENT_TASKS} tasks run at once, so rapid
+ *       clicking queues work instead of piling more borrowers onto the connection pool</li>
+ *   <li><b>Scene Scoping</b> - Tasks submitted with {@link #submit(Task)} are cancelled when
+ *       {@link SceneManager#switchScene(String)} replaces the screen that started them</li>
+ *   <li><b>Metrics</b> - Queue wait time (submit to start), running/queued counts and totals</li>
+ * </ul>
+ *
+ * <p>Cancellation never interrupts a task that is already running; it only marks the task
+ * cancelled so its {@code onSucceeded} handler does not touch a screen that is gone, and
+ * tasks still waiting for a slot are skipped. Writes that must finish regardless of
+ * navigation (payments, registration, emails) use {@link #submitDetached(Task)}.
+ */
+public final class BackgroundExecutor {
+
+    // =========================================================================
+    // CONFIGURATION
+    // =========================================================================
+
+    /** Maximum tasks running at once; kept below the connection pool size */
+    private static final int MAX_CONCURRENT_TASKS = 8;
+
+    /** How long {@link #shutdown()} waits for running tasks to finish */
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 5;
+
+    private static final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("app-task-", 0).factory());
+
+    /** One permit per task allowed to run */
+    private static final Semaphore permits = new Semaphore(MAX_CONCURRENT_TASKS, true);
+
+    /** Tasks owned by the current scene, cancelled on scene switch */
+    private static final Set<Task<?>> sceneTasks = ConcurrentHashMap.newKeySet();
+
+    // =========================================================================
+    // METRICS
+    // =========================================================================
+
+    private static final LongAdder submittedCount = new LongAdder();
+    private static final LongAdder completedCount = new LongAdder();
+    private static final LongAdder cancelledCount = new LongAdder();
+    private static final LongAdder queueWaitNanos = new LongAdder();
+    private static final LongAdder startedCount = new LongAdder();
+    private static final AtomicLong maxQueueWaitNanos = new AtomicLong();
+
+    private BackgroundExecutor() {
+    }
+
+    // =========================================================================
+    // SUBMISSION
+    // =========================================================================
+
+    /**
+     * Runs a task owned by the current scene. It is cancelled if the user navigates away
+     * before it finishes.
+     *
+     * @param task task to run
+     * @return the same task, for chaining
+     */
+    public static <T> Task<T> submit(Task<T> task) {
+        sceneTasks.add(task);
+        dispatch(task, true);
+        return task;
+    }
+
+    /**
+     * Runs a task that must complete even if the scene changes.
+     *
+     * @param task task to run
+     * @return the same task, for chaining
+     */
+    public static <T> Task<T> submitDetached(Task<T> task) {
+        dispatch(task, false);
+        return task;
+    }
+
+    private static void dispatch(Task<?> task, boolean sceneScoped) {
+        submittedCount.increment();
+        long queuedAt = System.nanoTime();
+        try {
+            executor.execute(() -> runWithPermit(task, sceneScoped, queuedAt));
+        } catch (RejectedExecutionException e) {
+            // Application is shutting down
+            if (sceneScoped) sceneTasks.remove(task);
+            task.cancel(false);
+            cancelledCount.increment();
+        }
+    }
+
+    private static void runWithPermit(Task<?> task, boolean sceneScoped, long queuedAt) {
+        boolean acquired = false;
+        try {
+            if (!task.isCancelled()) {
+                permits.acquire();
+                acquired = true;
+            }
+
+            if (task.isCancelled()) {
+                cancelledCount.increment();
+                return;
+            }
+
+            recordQueueWait(System.nanoTime() - queuedAt);
+            task.run(); // Exceptions are captured in the task's failed state
+            completedCount.increment();
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            task.cancel(false);
+            cancelledCount.increment();
+        } finally {
+            if (acquired) permits.release();
+            if (sceneScoped) sceneTasks.remove(task);
+        }
+    }
+
+    private static void recordQueueWait(long waitNanos) {
+        startedCount.increment();
+        queueWaitNanos.add(waitNanos);
+        maxQueueWaitNanos.accumulateAndGet(waitNanos, Math::max);
+    }
+
+    // =========================================================================
+    // CANCELLATION AND SHUTDOWN
+    // =========================================================================
+
+    /**
+     * Cancels all scene-scoped tasks. Called by {@link SceneManager} before a new scene is loaded.
+     *
+     * @return number of tasks that were cancelled
+     */
+    public static int cancelSceneTasks() {
+        int cancelled = 0;
+        for (Task<?> task : sceneTasks) {
+            if (task.cancel(false)) {
+                cancelled++;
+            }
+            sceneTasks.remove(task);
+        }
+        return cancelled;
+    }
+
+    /**
+     * Stops accepting tasks and waits briefly for running ones to finish.
+     * Called from {@code MainApp.stop()}.
+     */
+    public static void shutdown() {
+        cancelSceneTasks();
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                System.err.println("Background tasks still running at shutdown");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // =========================================================================
+    // METRICS
+    // =========================================================================
+
+    /**
+     * Returns a snapshot of executor metrics.
+     */
+    public static ExecutorStats getStats() {
+        long started = startedCount.sum();
+        return new ExecutorStats(
+                MAX_CONCURRENT_TASKS - permits.availablePermits(),
+                permits.getQueueLength(),
+                submittedCount.sum(),
+                completedCount.sum(),
+                cancelledCount.sum(),
+                started == 0 ? 0.0 : queueWaitNanos.sum() / (double) started / 1_000_000.0,
+                maxQueueWaitNanos.get() / 1_000_000.0
+        );
+    }
+
+    /**
+     * Point-in-time executor metrics.
+     */
+    public record ExecutorStats(int running, int queued, long submitted, long completed, long cancelled,
+                                double avgQueueWaitMillis, double maxQueueWaitMillis) {
+    }
+}
@@ -0,0 +1,303 @@
+package trainapp.util;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Size- and time-bounded read-through cache with segmented LRU eviction.
+ *
+ * <h2>Eviction Policy:</h2>
+ * <ul>
+ *   <li><b>Probation segment</b> - New entries start here and are the first to be evicted,
+ *       so a burst of one-off lookups cannot flush the working set</li>
+ *   <li><b>Protected segment</b> - Entries read again while on probation move here; it holds
+ *       at most 80% of the capacity, overflow drops back to probation</li>
+ *   <li><b>Time-to-live</b> - Entries older than the TTL are treated as misses and reloaded,
+ *       which bounds staleness from writes made by other processes</li>
+ *   <li><b>Invalidation</b> - Writers drop entries explicitly; a load that overlaps an
+ *       invalidation is returned to its caller but not cached</li>
+ * </ul>
+ *
+ * <p>Null results are never cached. Cached values are shared between callers and must be
+ * treated as read-only. All operations lock the cache briefly; loads run outside the lock.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public class BoundedCache<K, V> {
+
+    // =========================================================================
+    // CONFIGURATION AND STATE
+    // =========================================================================
+
+    /** Share of the capacity reserved for entries that were read more than once */
+    private static final double PROTECTED_SHARE = 0.8;
+
+    private final String name;
+    private final int capacity;
+    private final int protectedCapacity;
+    private final long ttlNanos;
+
+    /** Entries read once, oldest first; guarded by this */
+    private final LinkedHashMap<K, Entry<V>> probation = new LinkedHashMap<>();
+
+    /** Entries read more than once, least recently used first; guarded by this */
+    private final LinkedHashMap<K, Entry<V>> protectedSegment = new LinkedHashMap<>(16, 0.75f, true);
+
+    /** Bumped on every invalidation so a load racing a write does not cache stale data; guarded by this */
+    private long invalidationGeneration;
+
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+    private long expirationCount;
+    private long invalidationCount;
+
+    /**
+     * Creates an empty cache.
+     *
+     * @param name     name shown in statistics
+     * @param capacity maximum number of entries
+     * @param ttl      how long an entry stays valid after it was loaded
+     */
+    public BoundedCache(String name, int capacity, Duration ttl) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Cache capacity must be positive");
+        }
+        this.name = name;
+        this.capacity = capacity;
+        this.protectedCapacity = Math.max(1, (int) (capacity * PROTECTED_SHARE));
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    // =========================================================================
+    // READ-THROUGH ACCESS
+    // =========================================================================
+
+    /**
+     * Returns the cached value for a key, loading and caching it on a miss.
+     *
+     * @param key    key to look up
+     * @param loader loads the value on a miss; may return null, which is not cached
+     * @return the cached or loaded value, or null if the loader returned null
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        long now = System.nanoTime();
+        long generation;
+        synchronized (this) {
+            Entry<V> entry = lookup(key, now);
+            if (entry != null) {
+                hitCount++;
+                return entry.value;
+            }
+            missCount++;
+            generation = invalidationGeneration;
+        }
+
+        V value = loader.apply(key);
+        if (value != null) {
+            synchronized (this) {
+                if (generation == invalidationGeneration) {
+                    insert(key, new Entry<>(value, now));
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Returns the cached values for several keys, loading all misses with one call.
+     *
+     * @param keys   keys to look up
+     * @param loader loads the values of the missing keys; keys it leaves out or maps to null are
+     *               not cached and are absent from the result
+     * @return values by key for the keys that were cached or loaded
+     */
+    public Map<K, V> getAll(Collection<? extends K> keys, Function<? super Set<K>, ? extends Map<K, ? extends V>> loader) {
+        long now = System.nanoTime();
+        Map<K, V> result = new HashMap<>();
+        Set<K> missing = new LinkedHashSet<>();
+        long generation;
+        synchronized (this) {
+            for (K key : keys) {
+                if (result.containsKey(key) || missing.contains(key)) {
+                    continue;
+                }
+                Entry<V> entry = lookup(key, now);
+                if (entry != null) {
+                    hitCount++;
+                    result.put(key, entry.value);
+                } else {
+                    missCount++;
+                    missing.add(key);
+                }
+            }
+            generation = invalidationGeneration;
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        Map<K, ? extends V> loaded = loader.apply(missing);
+        synchronized (this) {
+            for (K key : missing) {
+                V value = loaded.get(key);
+                if (value != null) {
+                    result.put(key, value);
+                    if (generation == invalidationGeneration) {
+                        insert(key, new Entry<>(value, now));
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds a live entry and records the access. Caller holds the lock.
+     */
+    private Entry<V> lookup(K key, long now) {
+        Entry<V> entry = protectedSegment.get(key); // Moves it to the most recently used end
+        if (entry != null) {
+            if (isExpired(entry, now)) {
+                protectedSegment.remove(key);
+                expirationCount++;
+                return null;
+            }
+            return entry;
+        }
+
+        entry = probation.remove(key);
+        if (entry == null) {
+            return null;
+        }
+        if (isExpired(entry, now)) {
+            expirationCount++;
+            return null;
+        }
+        // Second access: promote, demoting the least recently used protected entry if full
+        protectedSegment.put(key, entry);
+        if (protectedSegment.size() > protectedCapacity) {
+            Iterator<Map.Entry<K, Entry<V>>> it = protectedSegment.entrySet().iterator();
+            Map.Entry<K, Entry<V>> demoted = it.next();
+            it.remove();
+            probation.put(demoted.getKey(), demoted.getValue());
+        }
+        return entry;
+    }
+
+    /**
+     * Adds or replaces an entry on probation and evicts down to capacity. Caller holds the lock.
+     */
+    private void insert(K key, Entry<V> entry) {
+        protectedSegment.remove(key);
+        probation.remove(key);
+        probation.put(key, entry);
+
+        while (probation.size() + protectedSegment.size() > capacity) {
+            LinkedHashMap<K, Entry<V>> victims = probation.isEmpty() ? protectedSegment : probation;
+            Iterator<Map.Entry<K, Entry<V>>> it = victims.entrySet().iterator();
+            it.next();
+            it.remove();
+            evictionCount++;
+        }
+    }
+
+    private boolean isExpired(Entry<V> entry, long now) {
+        return now - entry.loadedAt >= ttlNanos;
+    }
+
+    // =========================================================================
+    // INVALIDATION
+    // =========================================================================
+
+    /**
+     * Drops the entry for a key. Called after the underlying data changed.
+     *
+     * @param key key whose data was written
+     */
+    public synchronized void invalidate(K key) {
+        invalidationGeneration++;
+        if (protectedSegment.remove(key) != null | probation.remove(key) != null) {
+            invalidationCount++;
+        }
+    }
+
+    /**
+     * Drops every entry whose value matches a condition, for writes that are not keyed the
+     * way the cache is.
+     *
+     * @param condition selects the values to drop
+     */
+    public synchronized void invalidateIf(Predicate<? super V> condition) {
+        invalidationGeneration++;
+        invalidationCount += removeIf(protectedSegment, condition) + removeIf(probation, condition);
+    }
+
+    private static <K, V> int removeIf(Map<K, Entry<V>> segment, Predicate<? super V> condition) {
+        int removed = 0;
+        Iterator<Entry<V>> it = segment.values().iterator();
+        while (it.hasNext()) {
+            if (condition.test(it.next().value)) {
+                it.remove();
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Drops all entries.
+     */
+    public synchronized void invalidateAll() {
+        invalidationGeneration++;
+        invalidationCount += probation.size() + protectedSegment.size();
+        probation.clear();
+        protectedSegment.clear();
+    }
+
+    // =========================================================================
+    // METRICS ACCESS
+    // =========================================================================
+
+    /**
+     * Returns a point-in-time snapshot of the cache metrics.
+     */
+    public synchronized CacheStats getStats() {
+        return new CacheStats(name, probation.size() + protectedSegment.size(), capacity,
+                hitCount, missCount, evictionCount, expirationCount, invalidationCount);
+    }
+
+    /**
+     * Immutable snapshot of cache metrics. Expired entries count as misses.
+     */
+    public record CacheStats(String name, int size, int capacity, long hits, long misses,
+                             long evictions, long expirations, long invalidations) {
+
+        /**
+         * Share of lookups served from the cache, between 0 and 1.
+         */
+        public double hitRate() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0.0 : hits / (double) lookups;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %d/%d entries, %.1f%% hits (%d/%d), %d evicted, %d expired, %d invalidated",
+                    name, size, capacity, hitRate() * 100, hits, hits + misses,
+                    evictions, expirations, invalidations);
+        }
+    }
+
+    private record Entry<V>(V value, long loadedAt) {
+    }
+}
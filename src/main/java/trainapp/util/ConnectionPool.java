@@ -0,0 +1,464 @@
+package trainapp.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded JDBC connection pool used behind {@link DBConnection#getConnection()}.
+ *
+ * <h2>Core Responsibilities:</h2>
+ * <ul>
+ *   <li><b>Connection Reuse</b> - Keeps authenticated physical connections open between DAO calls</li>
+ *   <li><b>Bounded Size</b> - Never opens more than {@code maxSize} connections; borrowers wait up to a timeout</li>
+ *   <li><b>Validation on Borrow</b> - Connections idle longer than a short bypass window are checked with {@link Connection#isValid(int)}</li>
+ *   <li><b>Idle Eviction</b> - A background housekeeper closes connections idle for longer than {@code idleTimeoutMillis}
+ *       and opens new ones while fewer than {@code minIdle} are idle</li>
+ *   <li><b>Leak Detection</b> - Connections held past {@code leakThresholdMillis} are reported; with
+ *       {@code -D}{@value #LEAK_DEBUG_PROPERTY}{@code =true} the report includes the borrow-site stack</li>
+ *   <li><b>Metrics</b> - Borrow wait time, active/idle counts, creations, evictions and timeouts</li>
+ * </ul>
+ *
+ * <p>Borrowed connections are thin proxies: calling {@code close()} (including through
+ * try-with-resources, which is how every DAO uses them) returns the physical connection
+ * to the pool instead of closing the socket. Any transaction left open is rolled back and
+ * auto-commit is restored before the connection is handed to the next borrower.
+ *
+ * <p>The pool only depends on a JDBC URL, so it can be pointed at an embedded database
+ * for testing.
+ */
+public class ConnectionPool {
+
+    // =========================================================================
+    // CONFIGURATION
+    // =========================================================================
+
+    /** Connections used within this window are handed out again without a validation ping */
+    private static final long VALIDATION_BYPASS_MILLIS = 500;
+
+    /** Timeout passed to {@link Connection#isValid(int)} */
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    /** How often the housekeeper runs idle eviction and leak detection */
+    private static final long HOUSEKEEPING_INTERVAL_MILLIS = 30_000;
+
+    /** System property that makes every borrow capture its stack for leak reports */
+    public static final String LEAK_DEBUG_PROPERTY = "trainapp.db.leakDebug";
+
+    /** Capturing a stack costs microseconds per borrow, so it is off unless debugging a leak */
+    private static final boolean LEAK_DEBUG = Boolean.getBoolean(LEAK_DEBUG_PROPERTY);
+
+    private final String url;
+    private final String username;
+    private final String password;
+    private final int maxSize;
+    private final int minIdle;
+    private final long borrowTimeoutMillis;
+    private final long idleTimeoutMillis;
+    private final long leakThresholdMillis;
+
+    // =========================================================================
+    // POOL STATE
+    // =========================================================================
+
+    /** One permit per connection that may exist; bounds the pool size */
+    private final Semaphore permits;
+
+    /** Idle connections, most recently returned first so hot connections stay warm */
+    private final ConcurrentLinkedDeque<PooledConnection> idle = new ConcurrentLinkedDeque<>();
+
+    /** Connections currently lent out, used for leak detection */
+    private final Map<PooledConnection, Boolean> active = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean shutdown = false;
+
+    // =========================================================================
+    // METRICS
+    // =========================================================================
+
+    private final LongAdder borrowCount = new LongAdder();
+    private final LongAdder borrowWaitNanos = new LongAdder();
+    private final AtomicLong maxBorrowWaitNanos = new AtomicLong();
+    private final LongAdder createdCount = new LongAdder();
+    private final LongAdder destroyedCount = new LongAdder();
+    private final LongAdder evictedCount = new LongAdder();
+    private final LongAdder validationFailureCount = new LongAdder();
+    private final LongAdder timeoutCount = new LongAdder();
+    private final LongAdder leakCount = new LongAdder();
+
+    /**
+     * Creates a pool for the given database.
+     *
+     * @param url                 JDBC URL
+     * @param username            database user
+     * @param password            database password
+     * @param maxSize             maximum number of physical connections
+     * @param minIdle             idle connections the housekeeper keeps open and never evicts
+     * @param borrowTimeoutMillis how long a borrower waits for a free connection
+     * @param idleTimeoutMillis   idle time after which surplus connections are closed
+     * @param leakThresholdMillis hold time after which a borrowed connection is reported as leaked (0 disables)
+     */
+    public ConnectionPool(String url, String username, String password, int maxSize, int minIdle,
+                          long borrowTimeoutMillis, long idleTimeoutMillis, long leakThresholdMillis) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Pool size must be positive");
+        }
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.maxSize = maxSize;
+        this.minIdle = Math.max(0, Math.min(minIdle, maxSize));
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.leakThresholdMillis = leakThresholdMillis;
+        this.permits = new Semaphore(maxSize, true);
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "db-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.housekeeper.scheduleWithFixedDelay(this::housekeep,
+                HOUSEKEEPING_INTERVAL_MILLIS, HOUSEKEEPING_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    // =========================================================================
+    // BORROW AND RETURN
+    // =========================================================================
+
+    /**
+     * Borrows a connection, waiting up to the configured timeout for one to become free.
+     * The returned connection must be closed to give it back to the pool.
+     *
+     * @return a validated connection
+     * @throws SQLException if the pool is shut down, the wait times out, or a new connection cannot be opened
+     */
+    public Connection getConnection() throws SQLException {
+        if (shutdown) {
+            throw new SQLException("Connection pool has been shut down");
+        }
+
+        long waitStart = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                timeoutCount.increment();
+                throw new SQLException("Timed out after " + borrowTimeoutMillis
+                        + " ms waiting for a database connection (active=" + getActiveCount() + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+
+        try {
+            PooledConnection pooled = takeIdleOrCreate();
+            pooled.borrowedAt = System.currentTimeMillis();
+            pooled.borrowSite = LEAK_DEBUG && leakThresholdMillis > 0 ? new Throwable("Connection borrowed here") : null;
+            pooled.leakReported = false;
+            active.put(pooled, Boolean.TRUE);
+            recordBorrowWait(System.nanoTime() - waitStart);
+            return pooled.newHandle();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Pops idle connections until a valid one is found, or opens a new one.
+     */
+    private PooledConnection takeIdleOrCreate() throws SQLException {
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            if (isUsable(pooled)) {
+                return pooled;
+            }
+            validationFailureCount.increment();
+            destroy(pooled);
+        }
+        Connection physical = DriverManager.getConnection(url, username, password);
+        createdCount.increment();
+        return new PooledConnection(physical);
+    }
+
+    private boolean isUsable(PooledConnection pooled) {
+        try {
+            if (pooled.physical.isClosed()) {
+                return false;
+            }
+            if (System.currentTimeMillis() - pooled.lastReturnedAt < VALIDATION_BYPASS_MILLIS) {
+                return true;
+            }
+            return pooled.physical.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Called when a borrower closes its handle. Resets connection state and returns it to the idle deque,
+     * or discards it if it is broken or the pool is shutting down.
+     */
+    private void release(PooledConnection pooled) {
+        active.remove(pooled);
+        pooled.borrowSite = null;
+        try {
+            boolean reusable = !shutdown && resetState(pooled.physical);
+            if (reusable) {
+                pooled.lastReturnedAt = System.currentTimeMillis();
+                idle.offerFirst(pooled);
+            } else {
+                destroy(pooled);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private boolean resetState(Connection physical) {
+        try {
+            if (physical.isClosed()) {
+                return false;
+            }
+            if (!physical.getAutoCommit()) {
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+            if (physical.isReadOnly()) {
+                physical.setReadOnly(false);
+            }
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void destroy(PooledConnection pooled) {
+        destroyedCount.increment();
+        try {
+            pooled.physical.close();
+        } catch (SQLException e) {
+            // Connection is being discarded anyway
+        }
+    }
+
+    private void recordBorrowWait(long nanos) {
+        borrowCount.increment();
+        borrowWaitNanos.add(nanos);
+        maxBorrowWaitNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    // =========================================================================
+    // HOUSEKEEPING
+    // =========================================================================
+
+    /**
+     * Evicts idle connections past the idle timeout (keeping {@code minIdle}), opens connections
+     * until {@code minIdle} are idle, and reports leaks. Runs on the housekeeper thread; tests in
+     * this package call it directly.
+     */
+    void housekeep() {
+        try {
+            long now = System.currentTimeMillis();
+
+            int idleCount = idle.size();
+            Iterator<PooledConnection> it = idle.descendingIterator();
+            while (it.hasNext() && idleCount > minIdle) {
+                PooledConnection pooled = it.next();
+                if (now - pooled.lastReturnedAt > idleTimeoutMillis && idle.remove(pooled)) {
+                    evictedCount.increment();
+                    destroy(pooled);
+                    idleCount--;
+                }
+            }
+
+            // Top up without ever exceeding maxSize connections in total. Every connection that
+            // is not idle holds a permit, including one a borrower is still opening, so holding
+            // a permit itself the housekeeper may open one while idle ones <= permits left
+            while (!shutdown && idle.size() < minIdle && permits.tryAcquire()) {
+                try {
+                    if (idle.size() > permits.availablePermits()) {
+                        break;
+                    }
+                    PooledConnection pooled = new PooledConnection(DriverManager.getConnection(url, username, password));
+                    createdCount.increment();
+                    pooled.lastReturnedAt = System.currentTimeMillis();
+                    idle.offerLast(pooled);
+                    if (shutdown && idle.remove(pooled)) {
+                        destroy(pooled); // shutdown() drained the deque while this one was opening
+                    }
+                } finally {
+                    permits.release();
+                }
+            }
+
+            if (leakThresholdMillis > 0) {
+                for (PooledConnection pooled : active.keySet()) {
+                    if (!pooled.leakReported && now - pooled.borrowedAt > leakThresholdMillis) {
+                        pooled.leakReported = true;
+                        leakCount.increment();
+                        System.err.println("ConnectionPool: possible connection leak, held for "
+                                + (now - pooled.borrowedAt) + " ms");
+                        Throwable site = pooled.borrowSite;
+                        if (site != null) {
+                            site.printStackTrace();
+                        } else {
+                            System.err.println("ConnectionPool: run with -D" + LEAK_DEBUG_PROPERTY
+                                    + "=true to see where it was borrowed");
+                        }
+                    }
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("ConnectionPool: housekeeping failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Closes all idle connections and stops the housekeeper. Connections still lent out
+     * are closed when their borrowers return them.
+     */
+    public void shutdown() {
+        shutdown = true;
+        housekeeper.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            destroy(pooled);
+        }
+    }
+
+    // =========================================================================
+    // METRICS ACCESS
+    // =========================================================================
+
+    public int getActiveCount() {
+        return active.size();
+    }
+
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Returns a point-in-time snapshot of the pool metrics.
+     */
+    public PoolStats getStats() {
+        long borrows = borrowCount.sum();
+        long waitNanos = borrowWaitNanos.sum();
+        return new PoolStats(
+                getActiveCount(),
+                getIdleCount(),
+                maxSize,
+                borrows,
+                borrows == 0 ? 0.0 : waitNanos / (double) borrows / 1_000_000.0,
+                maxBorrowWaitNanos.get() / 1_000_000.0,
+                createdCount.sum(),
+                destroyedCount.sum(),
+                evictedCount.sum(),
+                validationFailureCount.sum(),
+                timeoutCount.sum(),
+                leakCount.sum()
+        );
+    }
+
+    /**
+     * Immutable snapshot of pool metrics. Wait times are in milliseconds.
+     */
+    public record PoolStats(int active, int idle, int maxSize, long borrows,
+                            double avgBorrowWaitMillis, double maxBorrowWaitMillis,
+                            long created, long destroyed, long evicted,
+                            long validationFailures, long timeouts, long leaks) {
+    }
+
+    // =========================================================================
+    // POOLED CONNECTION WRAPPER
+    // =========================================================================
+
+    /**
+     * Physical connection plus the bookkeeping the pool needs for it.
+     */
+    private final class PooledConnection {
+        private final Connection physical;
+        private volatile long borrowedAt;
+        private volatile long lastReturnedAt;
+        private volatile Throwable borrowSite;
+        private volatile boolean leakReported;
+
+        private PooledConnection(Connection physical) {
+            this.physical = physical;
+        }
+
+        /**
+         * Creates a fresh proxy for one borrow. A new handle per borrow means a stale reference
+         * kept by a previous borrower cannot close or use the connection after it was returned.
+         */
+        private Connection newHandle() {
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new Handle(this));
+        }
+    }
+
+    /**
+     * Proxy handler that turns {@code close()} into a return to the pool.
+     */
+    private final class Handle implements InvocationHandler {
+        private final PooledConnection pooled;
+        private final AtomicBoolean closed = new AtomicBoolean(false);
+
+        private Handle(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (closed.compareAndSet(false, true)) {
+                        release(pooled);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed.get() || pooled.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + pooled.physical + "]";
+                default:
+                    break;
+            }
+
+            if (closed.get()) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+            try {
+                return method.invoke(pooled.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -1,25 +1,77 @@
 package trainapp.util;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 
+/**
+ * Entry point for database access. Connections are served from a shared
+ * {@link ConnectionPool}; closing a connection returns it to the pool.
+ */
 public class DBConnection {
 
-    private static String URL = "jdbc:mysql://localhost:3306/Irctc";
-    private static String USERNAME = "project";
-    private static String PASSWORD = "projectS2";
+    /** JDBC URL property; override with -Dtrainapp.db.url, e.g. to run the tests against a scratch database */
+    public static final String URL_PROPERTY = "trainapp.db.url";
+
+    // Batches are sent as multi-row statements; autocommit changes that match the session state are skipped
+    private static String URL = System.getProperty(URL_PROPERTY,
+            "jdbc:mysql://localhost:3306/Irctc?rewriteBatchedStatements=true&useLocalSessionState=true");
+
+    /** Database user; override with -Dtrainapp.db.user and -Dtrainapp.db.password */
+    private static String USERNAME = System.getProperty("trainapp.db.user", "project");
+    private static String PASSWORD = System.getProperty("trainapp.db.password", "projectS2");
+
+    // Pool sizing
+    private static final int POOL_MAX_SIZE = 10;
+    private static final int POOL_MIN_IDLE = 2;
+    private static final long BORROW_TIMEOUT_MILLIS = 10_000;
+    private static final long IDLE_TIMEOUT_MILLIS = 5 * 60_000;
+    private static final long LEAK_THRESHOLD_MILLIS = 60_000;
+
+    private static volatile ConnectionPool pool;
 
     public static Connection getConnection() {
         try {
-            Class.forName("com.mysql.cj.jdbc.Driver");
-            return DriverManager.getConnection(URL, USERNAME, PASSWORD);
-        } catch (ClassNotFoundException e) {
+            return getPool().getConnection();
+        } catch (SQLException e) {
             e.printStackTrace();
             return null;
-        }catch (SQLException e){
+        }
+    }
+
+    /**
+     * Returns the shared pool, creating it on first use.
+     */
+    public static ConnectionPool getPool() {
+        ConnectionPool current = pool;
+        if (current == null) {
+            synchronized (DBConnection.class) {
+                current = pool;
+                if (current == null) {
+                    loadDriver();
+                    current = new ConnectionPool(URL, USERNAME, PASSWORD, POOL_MAX_SIZE, POOL_MIN_IDLE,
+                            BORROW_TIMEOUT_MILLIS, IDLE_TIMEOUT_MILLIS, LEAK_THRESHOLD_MILLIS);
+                    pool = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Closes all pooled connections. Called when the application exits.
+     */
+    public static synchronized void shutdown() {
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
+        }
+    }
+
+    private static void loadDriver() {
+        try {
+            Class.forName("com.mysql.cj.jdbc.Driver");
+        } catch (ClassNotFoundException e) {
             e.printStackTrace();
-            return null;
         }
     }
 }
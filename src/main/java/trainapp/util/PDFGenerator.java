@@ -2,6 +2,7 @@ package trainapp.util;
 
 import trainapp.model.Booking;
 import trainapp.model.Passenger;
+import trainapp.dao.EntityCache;
 import trainapp.dao.PassengerDAO;
 import trainapp.dao.UserDAO;
 import trainapp.dao.TrainDAO;
@@ -16,48 +17,33 @@ import com.itextpdf.text.pdf.PdfWriter;
 import com.itextpdf.text.pdf.draw.LineSeparator;
 
 import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Optimized PDFGenerator for high-performance ticket and invoice generation.
  *
  * Key Performance Features:
+ * - Static layout (brand header, travel instructions, footers) rendered once per document
+ *   type as a {@link PdfLetterhead} and stamped under every page
+ * - Only booking-specific sections are laid out per document
+ * - All data lookups happen before layout starts, through the shared {@link EntityCache}
  * - Pre-defined static fonts and colors for reuse
- * - Comprehensive data caching to minimize DAO calls
- * - Optimized table layouts with minimal nesting
- * - Batch content writing for improved throughput
+ * - Documents can be written straight to an {@link OutputStream} for bulk reissue
  * - Zero console logging for production performance
- * - Memory-efficient ByteArrayOutputStream handling
  */
 public class PDFGenerator {
 
     // -------------------------------------------------------------------------
-    // DAO Dependencies (Consider injecting these for better testability)
+    // DAO Dependencies
     // -------------------------------------------------------------------------
 
-    private final PassengerDAO passengerDAO = new PassengerDAO();
-    private final UserDAO userDAO = new UserDAO();
-    private final TrainDAO trainDAO = new TrainDAO();
-    private final StationDAO stationDAO = new StationDAO();
-
-    // -------------------------------------------------------------------------
-    // Performance Caches (Thread-safe for concurrent PDF generation)
-    // -------------------------------------------------------------------------
-
-    /** Cache for user data to avoid repeated database calls */
-    private final Map<Integer, User> userCache = new ConcurrentHashMap<>();
-
-    /** Cache for train data to avoid repeated database calls */
-    private final Map<Integer, Train> trainCache = new ConcurrentHashMap<>();
-
-    /** Cache for station data to avoid repeated database calls */
-    private final Map<Integer, Station> stationCache = new ConcurrentHashMap<>();
-
-    /** Cache for passenger lists to avoid repeated database calls */
-    private final Map<Integer, List<Passenger>> passengerCache = new ConcurrentHashMap<>();
+    private final PassengerDAO passengerDAO;
+    private final UserDAO userDAO;
+    private final TrainDAO trainDAO;
+    private final StationDAO stationDAO;
 
     // -------------------------------------------------------------------------
     // Pre-defined Static Resources (Reused across all PDF generations)
@@ -72,6 +58,8 @@ public class PDFGenerator {
     private static final BaseColor LIGHT_YELLOW = new BaseColor(252, 248, 227);
     private static final BaseColor YELLOW_BORDER = new BaseColor(251, 188, 52);
     private static final BaseColor LIGHT_GREEN = new BaseColor(232, 245, 233);
+    private static final BaseColor INSTRUCTION_BROWN = new BaseColor(133, 77, 14);
+    private static final BaseColor INSTRUCTION_TEXT_BROWN = new BaseColor(120, 53, 15);
 
     /** Pre-defined fonts for optimal performance (avoid repeated creation) */
     private static final Font BRAND_FONT = new Font(Font.FontFamily.HELVETICA, 24, Font.BOLD, INDIAN_BLUE);
@@ -85,23 +73,44 @@ public class PDFGenerator {
     private static final Font FOOTER_FONT = new Font(Font.FontFamily.HELVETICA, 8, Font.NORMAL, BaseColor.GRAY);
     private static final Font COMPANY_FONT = new Font(Font.FontFamily.HELVETICA, 18, Font.BOLD, INDIAN_BLUE);
     private static final Font INVOICE_FONT = new Font(Font.FontFamily.HELVETICA, 20, Font.BOLD, INDIAN_ORANGE);
+    private static final Font PNR_FONT = new Font(Font.FontFamily.HELVETICA, 16, Font.BOLD, INDIAN_BLUE);
+    private static final Font STATUS_FONT = new Font(Font.FontFamily.HELVETICA, 12, Font.BOLD, DARK_GREEN);
+    private static final Font SECTION_FONT = new Font(Font.FontFamily.HELVETICA, 12, Font.BOLD, BaseColor.BLACK);
+    private static final Font CARD_TITLE_FONT = new Font(Font.FontFamily.HELVETICA, 12, Font.BOLD, INDIAN_BLUE);
+    private static final Font ARROW_FONT = new Font(Font.FontFamily.HELVETICA, 16, Font.BOLD, INDIAN_ORANGE);
+    private static final Font INSTRUCTION_HEADER_FONT = new Font(Font.FontFamily.HELVETICA, 12, Font.BOLD, INSTRUCTION_BROWN);
+    private static final Font INSTRUCTION_FONT = new Font(Font.FontFamily.HELVETICA, 9, Font.NORMAL, INSTRUCTION_TEXT_BROWN);
+    private static final Font TOTAL_FONT = new Font(Font.FontFamily.HELVETICA, 12, Font.BOLD, BaseColor.WHITE);
+    private static final Font CONFIRMED_TEXT_FONT = new Font(Font.FontFamily.HELVETICA, 10, Font.NORMAL, DARK_GREEN);
+    private static final Font AMOUNT_FONT = new Font(Font.FontFamily.HELVETICA, 10, Font.BOLD);
 
     /** Date formatter for consistent date display across PDFs */
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd-MMM-yyyy");
     private static final DateTimeFormatter DATETIME_FORMATTER = DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm");
 
+    /** Initial buffer size for in-memory documents; a typical ticket is a few KB */
+    private static final int INITIAL_BUFFER_SIZE = 8 * 1024;
+
+    public PDFGenerator() {
+        this(new PassengerDAO(), new UserDAO(), new TrainDAO(), new StationDAO());
+    }
+
+    /**
+     * Creates a generator over the given DAOs; used by benchmarks with in-memory stubs.
+     */
+    PDFGenerator(PassengerDAO passengerDAO, UserDAO userDAO, TrainDAO trainDAO, StationDAO stationDAO) {
+        this.passengerDAO = passengerDAO;
+        this.userDAO = userDAO;
+        this.trainDAO = trainDAO;
+        this.stationDAO = stationDAO;
+    }
+
     // -------------------------------------------------------------------------
     // Public API Methods
     // -------------------------------------------------------------------------
 
     /**
-     * Generates an optimized train ticket PDF with enhanced performance.
-     *
-     * Performance optimizations applied:
-     * - Cached data retrieval for users, trains, stations
-     * - Pre-defined fonts and colors
-     * - Optimized table layouts
-     * - Batch content writing
+     * Generates a train ticket PDF in memory.
      *
      * @param booking The booking object containing ticket details
      * @return PDF bytes ready for download/email, null if generation fails
@@ -113,23 +122,9 @@ public class PDFGenerator {
         }
 
         try {
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            Document document = new Document(PageSize.A4, 30, 30, 30, 30);
-            PdfWriter.getInstance(document, baos);
-
-            document.open();
-
-            // Generate ticket content with optimized methods
-            addOptimizedTicketHeader(document);
-            addOptimizedBookingOverview(document, booking);
-            addOptimizedJourneyDetails(document, booking);
-            addOptimizedPassengerDetails(document, booking);
-            addOptimizedTravelInstructions(document);
-            addOptimizedTicketFooter(document);
-
-            document.close();
+            ByteArrayOutputStream baos = new ByteArrayOutputStream(INITIAL_BUFFER_SIZE);
+            writeTicketPDF(booking, baos);
             return baos.toByteArray();
-
         } catch (Exception e) {
             // Silent error handling for production - log to proper logging system
             return null;
@@ -137,7 +132,36 @@ public class PDFGenerator {
     }
 
     /**
-     * Generates an optimized invoice PDF with consistent amount calculations.
+     * Writes a train ticket PDF straight to a stream, e.g. a file or archive entry during
+     * bulk reissue. The stream is flushed but left open.
+     *
+     * @param booking The booking object containing ticket details
+     * @param out     destination of the PDF
+     * @throws DocumentException if the PDF cannot be produced
+     * @throws IllegalArgumentException if booking is null
+     */
+    public void writeTicketPDF(Booking booking, OutputStream out) throws DocumentException {
+        if (booking == null) {
+            throw new IllegalArgumentException("Booking cannot be null");
+        }
+        DocumentData data = resolve(booking, false);
+
+        PdfLetterhead letterhead = Letterheads.TICKET;
+        Document document = letterhead.newDocument();
+        PdfWriter writer = PdfWriter.getInstance(document, out);
+        writer.setCloseStream(false);
+        letterhead.attach(writer, new Phrase("Generated on: " + LocalDateTime.now().format(DATETIME_FORMATTER), FOOTER_FONT));
+
+        document.open();
+        addOptimizedBookingOverview(document, data);
+        addOptimizedJourneyDetails(document, data);
+        addOptimizedPassengerDetails(document, data);
+        letterhead.addClosing(document, writer);
+        document.close();
+    }
+
+    /**
+     * Generates an invoice PDF in memory with consistent amount calculations.
      *
      * Ensures invoice amounts exactly match booking amounts through:
      * - Direct calculation from booking.getTotalFare()
@@ -154,48 +178,93 @@ public class PDFGenerator {
         }
 
         try {
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            Document document = new Document(PageSize.A4, 30, 30, 30, 30);
-            PdfWriter.getInstance(document, baos);
-
-            document.open();
-
-            // Generate invoice content with optimized methods
-            addOptimizedInvoiceHeader(document, booking);
-            addOptimizedPartyDetails(document, booking);
-            addOptimizedBookingSummary(document, booking);
-            addOptimizedPaymentBreakdown(document, booking);
-            addOptimizedPaymentInformation(document, booking);
-            addOptimizedInvoiceFooter(document);
-
-            document.close();
+            ByteArrayOutputStream baos = new ByteArrayOutputStream(INITIAL_BUFFER_SIZE);
+            writeInvoicePDF(booking, baos);
             return baos.toByteArray();
-
         } catch (Exception e) {
             // Silent error handling for production - log to proper logging system
             return null;
         }
     }
 
+    /**
+     * Writes an invoice PDF straight to a stream. The stream is flushed but left open.
+     *
+     * @param booking The booking object containing invoice details
+     * @param out     destination of the PDF
+     * @throws DocumentException if the PDF cannot be produced
+     * @throws IllegalArgumentException if booking is null
+     */
+    public void writeInvoicePDF(Booking booking, OutputStream out) throws DocumentException {
+        if (booking == null) {
+            throw new IllegalArgumentException("Booking cannot be null");
+        }
+        DocumentData data = resolve(booking, true);
+
+        PdfLetterhead letterhead = Letterheads.INVOICE;
+        Document document = letterhead.newDocument();
+        PdfWriter writer = PdfWriter.getInstance(document, out);
+        writer.setCloseStream(false);
+        letterhead.attach(writer, null);
+
+        document.open();
+        addOptimizedInvoiceDetails(document, data);
+        addOptimizedPartyDetails(document, data);
+        addOptimizedBookingSummary(document, data);
+        addOptimizedPaymentBreakdown(document, data);
+        addOptimizedPaymentInformation(document, data);
+        document.close();
+    }
+
     // -------------------------------------------------------------------------
-    // Optimized Ticket Generation Methods
+    // Document Data
     // -------------------------------------------------------------------------
 
     /**
-     * Creates an optimized modern header with pre-defined styling.
+     * Everything a document shows, looked up before layout starts.
      */
-    private void addOptimizedTicketHeader(Document document) throws DocumentException {
-        // Top orange stripe using pre-defined color
-        PdfPTable stripe = createSimpleTable(1, 100, 15);
-        PdfPCell stripeCell = new PdfPCell();
-        stripeCell.setBackgroundColor(INDIAN_ORANGE);
-        stripeCell.setFixedHeight(8);
-        stripeCell.setBorder(Rectangle.NO_BORDER);
-        stripe.addCell(stripeCell);
-        document.add(stripe);
+    private record DocumentData(Booking booking, User user, Train train, Station fromStation,
+                                Station toStation, List<Passenger> passengers) {
+    }
+
+    private DocumentData resolve(Booking booking, boolean includeUser) {
+        return new DocumentData(
+                booking,
+                includeUser ? getCachedUser(booking.getUserId()) : null,
+                getCachedTrain(booking.getTrainId()),
+                getCachedStation(booking.getSourceStationId()),
+                getCachedStation(booking.getDestStationId()),
+                getCachedPassengers(booking.getBookingId()));
+    }
+
+    // -------------------------------------------------------------------------
+    // Letterheads (static layout, rendered once)
+    // -------------------------------------------------------------------------
+
+    /**
+     * Letterheads rendered on first use and shared by all generators.
+     */
+    private static final class Letterheads {
+        private static final PdfLetterhead TICKET = render(true);
+        private static final PdfLetterhead INVOICE = render(false);
 
+        private static PdfLetterhead render(boolean ticket) {
+            try {
+                return ticket
+                        ? PdfLetterhead.render(ticketHeader(), travelInstructions(), ticketFooter())
+                        : PdfLetterhead.render(invoiceHeader(), List.of(), invoiceFooter());
+            } catch (DocumentException e) {
+                throw new IllegalStateException("Could not render PDF letterhead", e);
+            }
+        }
+    }
+
+    /**
+     * Modern ticket header: orange stripe, logo and title.
+     */
+    private static List<Element> ticketHeader() throws DocumentException {
         // Header with logo and title
-        PdfPTable header = createSimpleTable(2, 100, 20);
+        PdfPTable header = createSimpleTable(2, 100, 0);
         header.setWidths(new float[]{1, 3});
 
         // Logo section
@@ -211,29 +280,116 @@ public class PDFGenerator {
         titleCell.addElement(new Paragraph("Electronic Reservation Slip (ERS)", SUBTITLE_FONT));
         header.addCell(titleCell);
 
-        document.add(header);
+        return List.of(createStripe(INDIAN_ORANGE, 15), header);
     }
 
     /**
-     * Creates an optimized booking overview card with cached data.
+     * Travel instructions card shown after the ticket content.
      */
-    private void addOptimizedBookingOverview(Document document, Booking booking) throws DocumentException {
+    private static List<Element> travelInstructions() throws DocumentException {
+        PdfPTable card = createSimpleTable(1, 100, 0);
+        PdfPCell cell = new PdfPCell();
+        cell.setBackgroundColor(LIGHT_YELLOW);
+        cell.setBorderColor(YELLOW_BORDER);
+        cell.setBorderWidth(1);
+        cell.setPadding(15);
+
+        cell.addElement(new Paragraph("⚠️ IMPORTANT TRAVEL INSTRUCTIONS", INSTRUCTION_HEADER_FONT));
+
+        String[] instructions = {
+                "• Carry this e-ticket with valid photo ID proof during journey",
+                "• Report at station 30 minutes before departure time",
+                "• E-ticket is valid only when passenger identity is verified",
+                "• Ticket is non-transferable and valid only for named passengers",
+                "• Keep ticket safe throughout the journey for verification"
+        };
+
+        for (String instruction : instructions) {
+            Paragraph p = new Paragraph(instruction, INSTRUCTION_FONT);
+            p.setSpacingAfter(3);
+            cell.addElement(p);
+        }
+        card.addCell(cell);
+
+        return List.of(card);
+    }
+
+    /**
+     * Ticket footer. The generation time is added per document.
+     */
+    private static List<Element> ticketFooter() throws DocumentException {
+        PdfPTable footer = createSimpleTable(2, 100, 0);
+
+        PdfPCell leftFooter = createBorderlessCell();
+        leftFooter.addElement(new Paragraph("Generated by Tailyatri", FOOTER_FONT));
+        leftFooter.addElement(new Paragraph("Customer Support: support@tailyatri.com", FOOTER_FONT));
+        footer.addCell(leftFooter);
+        footer.addCell(createBorderlessCell()); // Generation time is written here per document
+
+        return List.of(createSeparator(), footer);
+    }
+
+    /**
+     * Invoice header: blue stripe, company details and title.
+     */
+    private static List<Element> invoiceHeader() throws DocumentException {
+        PdfPTable header = createSimpleTable(2, 100, 0);
+        header.setWidths(new float[]{3, 2});
+
+        // Company details
+        PdfPCell companyCell = createBorderlessCell();
+        companyCell.addElement(new Paragraph("🚂 TAILYATRI", COMPANY_FONT));
+        companyCell.addElement(new Paragraph("Digital Train Booking Platform", LABEL_FONT));
+        companyCell.addElement(new Paragraph("Email: support@tailyatri.com", LABEL_FONT));
+        companyCell.addElement(new Paragraph("Phone: +91-9876543210", LABEL_FONT));
+        header.addCell(companyCell);
+
+        PdfPCell titleCell = createBorderlessCell();
+        Paragraph title = new Paragraph("INVOICE", INVOICE_FONT);
+        title.setAlignment(Element.ALIGN_RIGHT);
+        titleCell.addElement(title);
+        header.addCell(titleCell);
+
+        return List.of(createStripe(INDIAN_BLUE, 20), header);
+    }
+
+    /**
+     * Invoice footer with thank-you note and terms.
+     */
+    private static List<Element> invoiceFooter() {
+        Paragraph footer = new Paragraph("Thank you for choosing Tailyatri! | This is a computer-generated invoice.", FOOTER_FONT);
+        footer.setAlignment(Element.ALIGN_CENTER);
+        footer.setSpacingBefore(10);
+
+        Paragraph terms = new Paragraph("Terms & Conditions apply | For queries contact: support@tailyatri.com", FOOTER_FONT);
+        terms.setAlignment(Element.ALIGN_CENTER);
+
+        return List.of(createSeparator(), footer, terms);
+    }
+
+    // -------------------------------------------------------------------------
+    // Ticket Content (laid out per document)
+    // -------------------------------------------------------------------------
+
+    /**
+     * Creates the booking overview card with PNR and status.
+     */
+    private void addOptimizedBookingOverview(Document document, DocumentData data) throws DocumentException {
+        Booking booking = data.booking();
         PdfPTable card = createStyledCard();
         PdfPCell cardCell = createStyledCardCell();
 
         // PNR and Status using pre-defined fonts
         PdfPTable pnrTable = createSimpleTable(2, 100, 0);
-
         PdfPCell pnrCell = createBorderlessCell();
         pnrCell.addElement(new Paragraph("PNR NUMBER", LABEL_FONT));
-        pnrCell.addElement(new Paragraph(booking.getPnr(), new Font(Font.FontFamily.HELVETICA, 16, Font.BOLD, INDIAN_BLUE)));
+        pnrCell.addElement(new Paragraph(booking.getPnr(), PNR_FONT));
         pnrTable.addCell(pnrCell);
 
         PdfPCell statusCell = createBorderlessCell();
         statusCell.setHorizontalAlignment(Element.ALIGN_RIGHT);
         statusCell.addElement(new Paragraph("STATUS", LABEL_FONT));
-        statusCell.addElement(new Paragraph("✓ " + booking.getStatus().toUpperCase(),
-                new Font(Font.FontFamily.HELVETICA, 12, Font.BOLD, DARK_GREEN)));
+        statusCell.addElement(new Paragraph("✓ " + booking.getStatus().toUpperCase(), STATUS_FONT));
         pnrTable.addCell(statusCell);
 
         cardCell.addElement(pnrTable);
@@ -242,13 +398,12 @@ public class PDFGenerator {
     }
 
     /**
-     * Creates optimized journey details with cached train and station data.
+     * Creates journey details with train and station data.
      */
-    private void addOptimizedJourneyDetails(Document document, Booking booking) throws DocumentException {
-        // Use cached data to avoid repeated DAO calls
-        Train train = getCachedTrain(booking.getTrainId());
-        Station fromStation = getCachedStation(booking.getSourceStationId());
-        Station toStation = getCachedStation(booking.getDestStationId());
+    private void addOptimizedJourneyDetails(Document document, DocumentData data) throws DocumentException {
+        Train train = data.train();
+        Station fromStation = data.fromStation();
+        Station toStation = data.toStation();
 
         PdfPTable card = createStyledCard();
         PdfPCell cardCell = createStyledCardCell();
@@ -263,14 +418,14 @@ public class PDFGenerator {
 
         addOptimizedInfoCell(trainTable, "TRAIN", train != null ? train.getTrainNumber() : "N/A");
         addOptimizedInfoCell(trainTable, "NAME", train != null ? train.getName() : "N/A");
-        addOptimizedInfoCell(trainTable, "DATE", booking.getBookingTime().format(DATE_FORMATTER));
+        addOptimizedInfoCell(trainTable, "DATE", data.booking().getBookingTime().format(DATE_FORMATTER));
         addOptimizedInfoCell(trainTable, "QUOTA", "GN");
 
         cardCell.addElement(trainTable);
 
         // Route section with optimized design
         cardCell.addElement(new Paragraph(" "));
-        cardCell.addElement(new Paragraph("JOURNEY ROUTE", new Font(Font.FontFamily.HELVETICA, 12, Font.BOLD, BaseColor.BLACK)));
+        cardCell.addElement(new Paragraph("JOURNEY ROUTE", SECTION_FONT));
 
         // Optimized route visualization
         PdfPTable routeTable = createSimpleTable(3, 100, 0);
@@ -280,13 +435,11 @@ public class PDFGenerator {
         PdfPCell fromCell = createBorderlessCell();
         fromCell.setHorizontalAlignment(Element.ALIGN_CENTER);
         fromCell.addElement(new Paragraph("FROM", LABEL_FONT));
-        fromCell.addElement(new Paragraph(fromStation != null ? fromStation.getName() : "N/A",
-                new Font(Font.FontFamily.HELVETICA, 12, Font.BOLD, INDIAN_BLUE)));
+        fromCell.addElement(new Paragraph(fromStation != null ? fromStation.getName() : "N/A", CARD_TITLE_FONT));
         routeTable.addCell(fromCell);
 
         // Arrow
-        PdfPCell arrowCell = new PdfPCell(new Phrase("→",
-                new Font(Font.FontFamily.HELVETICA, 16, Font.BOLD, INDIAN_ORANGE)));
+        PdfPCell arrowCell = new PdfPCell(new Phrase("→", ARROW_FONT));
         arrowCell.setBorder(Rectangle.NO_BORDER);
         arrowCell.setHorizontalAlignment(Element.ALIGN_CENTER);
         arrowCell.setVerticalAlignment(Element.ALIGN_MIDDLE);
@@ -296,8 +449,7 @@ public class PDFGenerator {
         PdfPCell toCell = createBorderlessCell();
         toCell.setHorizontalAlignment(Element.ALIGN_CENTER);
         toCell.addElement(new Paragraph("TO", LABEL_FONT));
-        toCell.addElement(new Paragraph(toStation != null ? toStation.getName() : "N/A",
-                new Font(Font.FontFamily.HELVETICA, 12, Font.BOLD, INDIAN_BLUE)));
+        toCell.addElement(new Paragraph(toStation != null ? toStation.getName() : "N/A", CARD_TITLE_FONT));
         routeTable.addCell(toCell);
 
         cardCell.addElement(routeTable);
@@ -306,10 +458,10 @@ public class PDFGenerator {
     }
 
     /**
-     * Creates optimized passenger details with cached passenger data.
+     * Creates passenger details from the resolved passenger list.
      */
-    private void addOptimizedPassengerDetails(Document document, Booking booking) throws DocumentException {
-        List<Passenger> passengers = getCachedPassengers((int)booking.getBookingId());
+    private void addOptimizedPassengerDetails(Document document, DocumentData data) throws DocumentException {
+        List<Passenger> passengers = data.passengers();
 
         if (!passengers.isEmpty()) {
             PdfPTable card = createStyledCard();
@@ -350,111 +502,32 @@ public class PDFGenerator {
         }
     }
 
-    /**
-     * Creates optimized travel instructions with pre-defined styling.
-     */
-    private void addOptimizedTravelInstructions(Document document) throws DocumentException {
-        PdfPTable card = createSimpleTable(1, 100, 15);
-        PdfPCell cell = new PdfPCell();
-        cell.setBackgroundColor(LIGHT_YELLOW);
-        cell.setBorderColor(YELLOW_BORDER);
-        cell.setBorderWidth(1);
-        cell.setPadding(15);
-
-        Font instructionHeaderFont = new Font(Font.FontFamily.HELVETICA, 12, Font.BOLD, new BaseColor(133, 77, 14));
-        cell.addElement(new Paragraph("⚠️ IMPORTANT TRAVEL INSTRUCTIONS", instructionHeaderFont));
-
-        Font instructionFont = new Font(Font.FontFamily.HELVETICA, 9, Font.NORMAL, new BaseColor(120, 53, 15));
-        String[] instructions = {
-                "• Carry this e-ticket with valid photo ID proof during journey",
-                "• Report at station 30 minutes before departure time",
-                "• E-ticket is valid only when passenger identity is verified",
-                "• Ticket is non-transferable and valid only for named passengers",
-                "• Keep ticket safe throughout the journey for verification"
-        };
-
-        for (String instruction : instructions) {
-            Paragraph p = new Paragraph(instruction, instructionFont);
-            p.setSpacingAfter(3);
-            cell.addElement(p);
-        }
-
-        card.addCell(cell);
-        document.add(card);
-    }
-
-    /**
-     * Creates optimized ticket footer with pre-defined styling.
-     */
-    private void addOptimizedTicketFooter(Document document) throws DocumentException {
-        document.add(new Paragraph(" "));
-
-        LineSeparator ls = new LineSeparator();
-        ls.setLineColor(BORDER_GRAY);
-        document.add(new Chunk(ls));
-
-        PdfPTable footer = createSimpleTable(2, 100, 10);
-
-        PdfPCell leftFooter = createBorderlessCell();
-        leftFooter.addElement(new Paragraph("Generated by Tailyatri", FOOTER_FONT));
-        leftFooter.addElement(new Paragraph("Customer Support: support@tailyatri.com", FOOTER_FONT));
-        footer.addCell(leftFooter);
-
-        PdfPCell rightFooter = createBorderlessCell();
-        rightFooter.setHorizontalAlignment(Element.ALIGN_RIGHT);
-        rightFooter.addElement(new Paragraph("Generated on:", FOOTER_FONT));
-        rightFooter.addElement(new Paragraph(java.time.LocalDateTime.now().format(DATETIME_FORMATTER), FOOTER_FONT));
-        footer.addCell(rightFooter);
-
-        document.add(footer);
-    }
-
     // -------------------------------------------------------------------------
-    // Optimized Invoice Generation Methods
+    // Invoice Content (laid out per document)
     // -------------------------------------------------------------------------
 
     /**
-     * Creates optimized invoice header with pre-defined styling.
+     * Creates the invoice number and date block under the letterhead title.
      */
-    private void addOptimizedInvoiceHeader(Document document, Booking booking) throws DocumentException {
-        // Blue stripe
-        PdfPTable stripe = createSimpleTable(1, 100, 20);
-        PdfPCell stripeCell = new PdfPCell();
-        stripeCell.setBackgroundColor(INDIAN_BLUE);
-        stripeCell.setFixedHeight(8);
-        stripeCell.setBorder(Rectangle.NO_BORDER);
-        stripe.addCell(stripeCell);
-        document.add(stripe);
+    private void addOptimizedInvoiceDetails(Document document, DocumentData data) throws DocumentException {
+        Booking booking = data.booking();
+        PdfPTable details = createSimpleTable(1, 40, 15);
+        details.setHorizontalAlignment(Element.ALIGN_RIGHT);
 
-        // Header table
-        PdfPTable header = createSimpleTable(2, 100, 25);
-        header.setWidths(new float[]{3, 2});
-
-        // Company details
-        PdfPCell companyCell = createBorderlessCell();
-        companyCell.addElement(new Paragraph("🚂 TAILYATRI", COMPANY_FONT));
-        companyCell.addElement(new Paragraph("Digital Train Booking Platform", LABEL_FONT));
-        companyCell.addElement(new Paragraph("Email: support@tailyatri.com", LABEL_FONT));
-        companyCell.addElement(new Paragraph("Phone: +91-9876543210", LABEL_FONT));
-        header.addCell(companyCell);
-
-        // Invoice details
         PdfPCell invoiceCell = createBorderlessCell();
-        invoiceCell.setHorizontalAlignment(Element.ALIGN_RIGHT);
-        invoiceCell.addElement(new Paragraph("INVOICE", INVOICE_FONT));
-        invoiceCell.addElement(new Paragraph("Invoice #: " + booking.getPnr(), DATA_FONT));
-        invoiceCell.addElement(new Paragraph("Date: " + booking.getBookingTime().format(DATE_FORMATTER), DATA_FONT));
-        invoiceCell.addElement(new Paragraph("Payment: Completed", DATA_FONT));
-        header.addCell(invoiceCell);
+        invoiceCell.addElement(rightAligned("Invoice #: " + booking.getPnr()));
+        invoiceCell.addElement(rightAligned("Date: " + booking.getBookingTime().format(DATE_FORMATTER)));
+        invoiceCell.addElement(rightAligned("Payment: Completed"));
+        details.addCell(invoiceCell);
 
-        document.add(header);
+        document.add(details);
     }
 
     /**
-     * Creates optimized party details with cached user data.
+     * Creates party details with user data.
      */
-    private void addOptimizedPartyDetails(Document document, Booking booking) throws DocumentException {
-        User user = getCachedUser(booking.getUserId());
+    private void addOptimizedPartyDetails(Document document, DocumentData data) throws DocumentException {
+        User user = data.user();
 
         PdfPTable partyTable = createSimpleTable(2, 100, 20);
         partyTable.setWidths(new float[]{1, 1});
@@ -466,7 +539,7 @@ public class PDFGenerator {
         billToCell.setPadding(12);
         billToCell.setBackgroundColor(LIGHT_GRAY);
 
-        billToCell.addElement(new Paragraph("BILL TO", new Font(Font.FontFamily.HELVETICA, 12, Font.BOLD, INDIAN_BLUE)));
+        billToCell.addElement(new Paragraph("BILL TO", CARD_TITLE_FONT));
         if (user != null) {
             billToCell.addElement(new Paragraph(" "));
             billToCell.addElement(new Paragraph(user.getName(), DATA_FONT));
@@ -482,24 +555,23 @@ public class PDFGenerator {
         paymentCell.setPadding(12);
         paymentCell.setBackgroundColor(LIGHT_GRAY);
 
-        paymentCell.addElement(new Paragraph("PAYMENT DETAILS", new Font(Font.FontFamily.HELVETICA, 12, Font.BOLD, INDIAN_BLUE)));
+        paymentCell.addElement(new Paragraph("PAYMENT DETAILS", CARD_TITLE_FONT));
         paymentCell.addElement(new Paragraph(" "));
         paymentCell.addElement(new Paragraph("Payment Method: Online", DATA_FONT));
         paymentCell.addElement(new Paragraph("Status: Completed", DATA_FONT));
-        paymentCell.addElement(new Paragraph("PNR: " + booking.getPnr(), DATA_FONT));
+        paymentCell.addElement(new Paragraph("PNR: " + data.booking().getPnr(), DATA_FONT));
         partyTable.addCell(paymentCell);
 
         document.add(partyTable);
     }
 
     /**
-     * Creates optimized booking summary with cached data.
+     * Creates booking summary with train, route and passenger count.
      */
-    private void addOptimizedBookingSummary(Document document, Booking booking) throws DocumentException {
-        Train train = getCachedTrain(booking.getTrainId());
-        Station fromStation = getCachedStation(booking.getSourceStationId());
-        Station toStation = getCachedStation(booking.getDestStationId());
-        List<Passenger> passengers = getCachedPassengers((int)booking.getBookingId());
+    private void addOptimizedBookingSummary(Document document, DocumentData data) throws DocumentException {
+        Train train = data.train();
+        Station fromStation = data.fromStation();
+        Station toStation = data.toStation();
 
         document.add(new Paragraph("BOOKING SUMMARY", HEADER_FONT));
 
@@ -516,8 +588,8 @@ public class PDFGenerator {
         addOptimizedInfoCell(details, "ROUTE",
                 (fromStation != null ? fromStation.getName() : "N/A") + " → " +
                         (toStation != null ? toStation.getName() : "N/A"));
-        addOptimizedInfoCell(details, "DATE", booking.getBookingTime().format(DATE_FORMATTER));
-        addOptimizedInfoCell(details, "PASSENGERS", String.valueOf(passengers.size()));
+        addOptimizedInfoCell(details, "DATE", data.booking().getBookingTime().format(DATE_FORMATTER));
+        addOptimizedInfoCell(details, "PASSENGERS", String.valueOf(data.passengers().size()));
 
         summaryCell.addElement(details);
         summary.addCell(summaryCell);
@@ -525,10 +597,10 @@ public class PDFGenerator {
     }
 
     /**
-     * Creates optimized payment breakdown with consistent amount calculations.
+     * Creates payment breakdown with consistent amount calculations.
      * Ensures invoice amounts exactly match booking amounts.
      */
-    private void addOptimizedPaymentBreakdown(Document document, Booking booking) throws DocumentException {
+    private void addOptimizedPaymentBreakdown(Document document, DocumentData data) throws DocumentException {
         document.add(new Paragraph("PAYMENT BREAKDOWN", HEADER_FONT));
 
         PdfPTable paymentTable = createSimpleTable(3, 100, 20);
@@ -540,7 +612,7 @@ public class PDFGenerator {
         addPaymentHeaderCell(paymentTable, "AMOUNT");
 
         // Calculate amounts from booking.getTotalFare() for consistency
-        double totalAmount = booking.getTotalFare();
+        double totalAmount = data.booking().getTotalFare();
         double convenienceFee = 20.0;
         double baseFare = Math.max(0, totalAmount - convenienceFee);
         double gst = 0.0;
@@ -556,14 +628,13 @@ public class PDFGenerator {
         addPaymentDataRow(paymentTable, "GST (0%)", "1", "₹" + String.format("%.2f", gst));
 
         // Total row
-        Font totalFont = new Font(Font.FontFamily.HELVETICA, 12, Font.BOLD, BaseColor.WHITE);
-        PdfPCell totalLabelCell = new PdfPCell(new Phrase("TOTAL AMOUNT", totalFont));
+        PdfPCell totalLabelCell = new PdfPCell(new Phrase("TOTAL AMOUNT", TOTAL_FONT));
         totalLabelCell.setBackgroundColor(INDIAN_BLUE);
         totalLabelCell.setPadding(10);
         totalLabelCell.setColspan(2);
         paymentTable.addCell(totalLabelCell);
 
-        PdfPCell totalAmountCell = new PdfPCell(new Phrase("₹" + String.format("%.2f", totalAmount), totalFont));
+        PdfPCell totalAmountCell = new PdfPCell(new Phrase("₹" + String.format("%.2f", totalAmount), TOTAL_FONT));
         totalAmountCell.setBackgroundColor(INDIAN_BLUE);
         totalAmountCell.setPadding(10);
         totalAmountCell.setHorizontalAlignment(Element.ALIGN_RIGHT);
@@ -573,9 +644,9 @@ public class PDFGenerator {
     }
 
     /**
-     * Creates optimized payment information section.
+     * Creates payment information section.
      */
-    private void addOptimizedPaymentInformation(Document document, Booking booking) throws DocumentException {
+    private void addOptimizedPaymentInformation(Document document, DocumentData data) throws DocumentException {
         PdfPTable paymentInfo = createSimpleTable(1, 100, 20);
         PdfPCell cell = new PdfPCell();
         cell.setBackgroundColor(LIGHT_GREEN);
@@ -583,35 +654,15 @@ public class PDFGenerator {
         cell.setBorderWidth(1);
         cell.setPadding(12);
 
-        cell.addElement(new Paragraph("✓ PAYMENT CONFIRMED", new Font(Font.FontFamily.HELVETICA, 12, Font.BOLD, DARK_GREEN)));
-        cell.addElement(new Paragraph("Payment has been successfully processed.", new Font(Font.FontFamily.HELVETICA, 10, Font.NORMAL, DARK_GREEN)));
-        cell.addElement(new Paragraph("Transaction completed on: " + booking.getBookingTime().format(DATETIME_FORMATTER),
-                new Font(Font.FontFamily.HELVETICA, 10, Font.NORMAL, DARK_GREEN)));
+        cell.addElement(new Paragraph("✓ PAYMENT CONFIRMED", STATUS_FONT));
+        cell.addElement(new Paragraph("Payment has been successfully processed.", CONFIRMED_TEXT_FONT));
+        cell.addElement(new Paragraph("Transaction completed on: " + data.booking().getBookingTime().format(DATETIME_FORMATTER),
+                CONFIRMED_TEXT_FONT));
 
         paymentInfo.addCell(cell);
         document.add(paymentInfo);
     }
 
-    /**
-     * Creates optimized invoice footer.
-     */
-    private void addOptimizedInvoiceFooter(Document document) throws DocumentException {
-        document.add(new Paragraph(" "));
-
-        LineSeparator ls = new LineSeparator();
-        ls.setLineColor(BORDER_GRAY);
-        document.add(new Chunk(ls));
-
-        Paragraph footer = new Paragraph("Thank you for choosing Tailyatri! | This is a computer-generated invoice.", FOOTER_FONT);
-        footer.setAlignment(Element.ALIGN_CENTER);
-        footer.setSpacingBefore(10);
-        document.add(footer);
-
-        Paragraph terms = new Paragraph("Terms & Conditions apply | For queries contact: support@tailyatri.com", FOOTER_FONT);
-        terms.setAlignment(Element.ALIGN_CENTER);
-        document.add(terms);
-    }
-
     // -------------------------------------------------------------------------
     // Performance-Optimized Helper Methods
     // -------------------------------------------------------------------------
@@ -619,7 +670,7 @@ public class PDFGenerator {
     /**
      * Creates a simple table with optimized settings.
      */
-    private PdfPTable createSimpleTable(int columns, float widthPercentage, float spacingAfter) throws DocumentException {
+    private static PdfPTable createSimpleTable(int columns, float widthPercentage, float spacingAfter) throws DocumentException {
         PdfPTable table = new PdfPTable(columns);
         table.setWidthPercentage(widthPercentage);
         table.setSpacingAfter(spacingAfter);
@@ -629,14 +680,14 @@ public class PDFGenerator {
     /**
      * Creates a styled card table for content sections.
      */
-    private PdfPTable createStyledCard() throws DocumentException {
+    private static PdfPTable createStyledCard() throws DocumentException {
         return createSimpleTable(1, 100, 15);
     }
 
     /**
      * Creates a styled card cell with consistent formatting.
      */
-    private PdfPCell createStyledCardCell() {
+    private static PdfPCell createStyledCardCell() {
         PdfPCell cell = new PdfPCell();
         cell.setBackgroundColor(BaseColor.WHITE);
         cell.setBorderColor(BORDER_GRAY);
@@ -648,16 +699,47 @@ public class PDFGenerator {
     /**
      * Creates a borderless cell for layout purposes.
      */
-    private PdfPCell createBorderlessCell() {
+    private static PdfPCell createBorderlessCell() {
         PdfPCell cell = new PdfPCell();
         cell.setBorder(Rectangle.NO_BORDER);
         return cell;
     }
 
+    /**
+     * Creates a full-width coloured stripe.
+     */
+    private static PdfPTable createStripe(BaseColor color, float spacingAfter) throws DocumentException {
+        PdfPTable stripe = createSimpleTable(1, 100, spacingAfter);
+        PdfPCell stripeCell = new PdfPCell();
+        stripeCell.setBackgroundColor(color);
+        stripeCell.setFixedHeight(8);
+        stripeCell.setBorder(Rectangle.NO_BORDER);
+        stripe.addCell(stripeCell);
+        return stripe;
+    }
+
+    /**
+     * Creates a thin gray rule.
+     */
+    private static Paragraph createSeparator() {
+        LineSeparator ls = new LineSeparator();
+        ls.setLineColor(BORDER_GRAY);
+        return new Paragraph(new Chunk(ls));
+    }
+
+    /**
+     * Creates a right-aligned data paragraph.
+     */
+    private static Paragraph rightAligned(String text) {
+        Paragraph paragraph = new Paragraph(text, DATA_FONT);
+        paragraph.setAlignment(Element.ALIGN_RIGHT);
+        return paragraph;
+    }
+
     /**
      * Adds an optimized info cell with pre-defined styling.
      */
-    private void addOptimizedInfoCell(PdfPTable table, String label, String value) {
+    private static void addOptimizedInfoCell(PdfPTable table, String label, String value) {
         PdfPCell cell = createBorderlessCell();
         cell.setPadding(5);
         cell.addElement(new Paragraph(label, LABEL_FONT));
@@ -668,7 +750,7 @@ public class PDFGenerator {
     /**
      * Adds an optimized passenger cell with consistent styling.
      */
-    private void addOptimizedPassengerCell(PdfPTable table, String text, BaseColor backgroundColor, int alignment) {
+    private static void addOptimizedPassengerCell(PdfPTable table, String text, BaseColor backgroundColor, int alignment) {
         PdfPCell cell = new PdfPCell(new Phrase(text, DATA_FONT));
         cell.setBackgroundColor(backgroundColor);
         cell.setPadding(8);
@@ -680,7 +762,7 @@ public class PDFGenerator {
     /**
      * Adds a payment header cell with consistent styling.
      */
-    private void addPaymentHeaderCell(PdfPTable table, String text) {
+    private static void addPaymentHeaderCell(PdfPTable table, String text) {
         PdfPCell cell = new PdfPCell(new Phrase(text, TABLE_HEADER_FONT));
         cell.setBackgroundColor(INDIAN_BLUE);
         cell.setPadding(10);
@@ -691,9 +773,7 @@ public class PDFGenerator {
     /**
      * Adds a payment data row with consistent styling.
      */
-    private void addPaymentDataRow(PdfPTable table, String description, String qty, String amount) {
-        Font amountFont = new Font(Font.FontFamily.HELVETICA, 10, Font.BOLD);
-
+    private static void addPaymentDataRow(PdfPTable table, String description, String qty, String amount) {
         PdfPCell descCell = new PdfPCell(new Phrase(description, DATA_FONT));
         descCell.setBackgroundColor(BaseColor.WHITE);
         descCell.setPadding(8);
@@ -707,7 +787,7 @@ public class PDFGenerator {
         qtyCell.setBorderColor(BORDER_GRAY);
         table.addCell(qtyCell);
 
-        PdfPCell amountCell = new PdfPCell(new Phrase(amount, amountFont));
+        PdfPCell amountCell = new PdfPCell(new Phrase(amount, AMOUNT_FONT));
         amountCell.setBackgroundColor(BaseColor.WHITE);
         amountCell.setPadding(8);
         amountCell.setHorizontalAlignment(Element.ALIGN_RIGHT);
@@ -720,11 +800,11 @@ public class PDFGenerator {
     // -------------------------------------------------------------------------
 
     /**
-     * Retrieves user data with caching to avoid repeated database calls.
+     * Retrieves user data through the shared cache.
      * Thread-safe implementation for concurrent PDF generation.
      */
     private User getCachedUser(int userId) {
-        return userCache.computeIfAbsent(userId, id -> {
+        return EntityCache.USERS.get(userId, id -> {
             try {
                 return userDAO.getUserById(id);
             } catch (Exception e) {
@@ -734,11 +814,11 @@ public class PDFGenerator {
     }
 
     /**
-     * Retrieves train data with caching to avoid repeated database calls.
+     * Retrieves train data through the shared cache.
      * Thread-safe implementation for concurrent PDF generation.
      */
     private Train getCachedTrain(int trainId) {
-        return trainCache.computeIfAbsent(trainId, id -> {
+        return EntityCache.TRAINS.get(trainId, id -> {
             try {
                 return trainDAO.getTrainById(id);
             } catch (Exception e) {
@@ -748,11 +828,11 @@ public class PDFGenerator {
     }
 
     /**
-     * Retrieves station data with caching to avoid repeated database calls.
+     * Retrieves station data through the shared cache.
      * Thread-safe implementation for concurrent PDF generation.
      */
     private Station getCachedStation(int stationId) {
-        return stationCache.computeIfAbsent(stationId, id -> {
+        return EntityCache.STATIONS.get(stationId, id -> {
             try {
                 return stationDAO.getStationById(id);
             } catch (Exception e) {
@@ -762,39 +842,36 @@ public class PDFGenerator {
     }
 
     /**
-     * Retrieves passenger list with caching to avoid repeated database calls.
+     * Retrieves the passenger list through the shared cache. Lookup failures are not cached.
      * Thread-safe implementation for concurrent PDF generation.
      */
-    private List<Passenger> getCachedPassengers(int bookingId) {
-        return passengerCache.computeIfAbsent(bookingId, id -> {
+    private List<Passenger> getCachedPassengers(long bookingId) {
+        List<Passenger> passengers = EntityCache.PASSENGERS.get(bookingId, id -> {
             try {
-                return passengerDAO.getPassengersByBookingId(id);
+                return List.copyOf(passengerDAO.getPassengersByBookingId(id));
             } catch (Exception e) {
-                return List.of();
+                return null;
             }
         });
+        return passengers != null ? passengers : List.of();
     }
 
     // -------------------------------------------------------------------------
-    // Cache Management Methods (Optional - for memory management)
+    // Cache Management Methods
     // -------------------------------------------------------------------------
 
     /**
-     * Clears all caches to free memory. Call this periodically in high-volume scenarios.
-     * Thread-safe operation.
+     * Clears the shared entity caches. Entries are also bounded in number and age, and
+     * dropped by the DAO write paths, so this is only needed after changes made outside the app.
      */
     public void clearCaches() {
-        userCache.clear();
-        trainCache.clear();
-        stationCache.clear();
-        passengerCache.clear();
+        EntityCache.invalidateAll();
     }
 
     /**
      * Returns the current cache statistics for monitoring purposes.
      */
     public String getCacheStatistics() {
-        return String.format("Cache Stats - Users: %d, Trains: %d, Stations: %d, Passengers: %d",
-                userCache.size(), trainCache.size(), stationCache.size(), passengerCache.size());
+        return "Cache Stats - " + EntityCache.describe();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,181 @@
+package trainapp.util;
+
+import com.itextpdf.text.Document;
+import com.itextpdf.text.DocumentException;
+import com.itextpdf.text.Element;
+import com.itextpdf.text.Image;
+import com.itextpdf.text.PageSize;
+import com.itextpdf.text.Phrase;
+import com.itextpdf.text.Rectangle;
+import com.itextpdf.text.pdf.ColumnText;
+import com.itextpdf.text.pdf.PdfContentByte;
+import com.itextpdf.text.pdf.PdfImportedPage;
+import com.itextpdf.text.pdf.PdfPageEventHelper;
+import com.itextpdf.text.pdf.PdfReader;
+import com.itextpdf.text.pdf.PdfWriter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Static layout of a PDF document type (brand header, footer, fixed closing block such as
+ * travel instructions), rendered once and reused by every generated document.
+ *
+ * <p>The header blocks are laid out from the top margin down and the footer blocks from the
+ * bottom margin up. Documents created with {@link #newDocument()} get page margins that keep
+ * their own content clear of both, and {@link #attach(PdfWriter, Phrase)} draws the prerendered page
+ * beneath the content as a form XObject, so its tables, borders and text are never laid out
+ * again. The closing block is prerendered the same way and placed in the flow after the
+ * document content by {@link #addClosing(Document, PdfWriter)}. Each generated file contains
+ * the letterhead once, however many pages it has.
+ *
+ * <p>Instances are immutable and safe to share; the parsed template is kept per thread
+ * because {@link PdfReader} is not thread-safe.
+ */
+final class PdfLetterhead {
+
+    /** Outer page margin of all generated documents */
+    static final float PAGE_MARGIN = 30;
+
+    /** Space between the letterhead blocks and the document content */
+    private static final float CONTENT_GAP = 10;
+
+    /** Height of the footer note baseline above the bottom margin */
+    private static final float FOOTER_NOTE_RISE = 12;
+
+    /** Template page holding the header and footer */
+    private static final int LETTERHEAD_PAGE = 1;
+
+    /** Template page holding the closing block, sized to fit it */
+    private static final int CLOSING_PAGE = 2;
+
+    private final byte[] templatePdf;
+    private final float topMargin;
+    private final float bottomMargin;
+    private final boolean hasClosing;
+    private final ThreadLocal<PdfReader> readers;
+
+    private PdfLetterhead(byte[] templatePdf, float topMargin, float bottomMargin, boolean hasClosing) {
+        this.templatePdf = templatePdf;
+        this.topMargin = topMargin;
+        this.bottomMargin = bottomMargin;
+        this.hasClosing = hasClosing;
+        this.readers = ThreadLocal.withInitial(this::parseTemplate);
+    }
+
+    /**
+     * Renders a letterhead on an A4 page.
+     *
+     * @param header  elements placed at the top of every page
+     * @param closing elements placed once after the document content; may be empty
+     * @param footer  elements placed at the bottom of every page
+     * @return the rendered letterhead
+     * @throws DocumentException if the elements cannot be laid out
+     */
+    static PdfLetterhead render(List<Element> header, List<Element> closing, List<Element> footer)
+            throws DocumentException {
+        Rectangle page = PageSize.A4;
+        float left = page.getLeft() + PAGE_MARGIN;
+        float right = page.getRight() - PAGE_MARGIN;
+        float top = page.getTop() - PAGE_MARGIN;
+        float bottom = page.getBottom() + PAGE_MARGIN;
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Document document = new Document(page, PAGE_MARGIN, PAGE_MARGIN, PAGE_MARGIN, PAGE_MARGIN);
+        PdfWriter writer = PdfWriter.getInstance(document, out);
+        document.open();
+        PdfContentByte canvas = writer.getDirectContent();
+
+        float headerBottom = layOut(canvas, header, left, bottom, right, top, false);
+
+        // Measure the footer first so it can be placed flush against the bottom margin
+        float footerHeight = top - layOut(canvas, footer, left, bottom, right, top, true);
+        layOut(canvas, footer, left, bottom, right, bottom + footerHeight + 1, false);
+        writer.setPageEmpty(false);
+
+        if (!closing.isEmpty()) {
+            // Second page exactly as large as the closing block, so it can be placed as one image
+            float width = right - left;
+            float closingHeight = top - layOut(canvas, closing, left, bottom, right, top, true);
+            document.setPageSize(new Rectangle(width, closingHeight + 1));
+            document.setMargins(0, 0, 0, 0);
+            document.newPage();
+            layOut(writer.getDirectContent(), closing, 0, 0, width, closingHeight + 1, false);
+            writer.setPageEmpty(false);
+        }
+        document.close();
+
+        return new PdfLetterhead(out.toByteArray(),
+                page.getTop() - headerBottom + CONTENT_GAP,
+                PAGE_MARGIN + footerHeight + CONTENT_GAP,
+                !closing.isEmpty());
+    }
+
+    private static float layOut(PdfContentByte canvas, List<Element> elements,
+                                float left, float bottom, float right, float top,
+                                boolean simulate) throws DocumentException {
+        ColumnText column = new ColumnText(canvas);
+        column.setSimpleColumn(left, bottom, right, top);
+        for (Element element : elements) {
+            column.addElement(element);
+        }
+        if (ColumnText.hasMoreText(column.go(simulate))) {
+            throw new DocumentException("Letterhead does not fit on one page");
+        }
+        return column.getYLine();
+    }
+
+    /**
+     * Creates an A4 document whose margins keep content clear of the letterhead.
+     */
+    Document newDocument() {
+        return new Document(PageSize.A4, PAGE_MARGIN, PAGE_MARGIN, topMargin, bottomMargin);
+    }
+
+    /**
+     * Stamps the letterhead under every page the writer produces. Call before opening the document.
+     *
+     * @param writer     writer of a document created with {@link #newDocument()}
+     * @param footerNote per-document text written at the bottom right of every page, or null
+     */
+    void attach(PdfWriter writer, Phrase footerNote) {
+        writer.setPageEvent(new PdfPageEventHelper() {
+            private PdfImportedPage page;
+
+            @Override
+            public void onEndPage(PdfWriter pageWriter, Document document) {
+                if (page == null) {
+                    page = pageWriter.getImportedPage(readers.get(), LETTERHEAD_PAGE);
+                }
+                pageWriter.getDirectContentUnder().addTemplate(page, 0, 0);
+                if (footerNote != null) {
+                    ColumnText.showTextAligned(pageWriter.getDirectContent(), Element.ALIGN_RIGHT, footerNote,
+                            document.right(), PAGE_MARGIN + FOOTER_NOTE_RISE, 0);
+                }
+            }
+        });
+    }
+
+    /**
+     * Adds the prerendered closing block at the current position of the document. Does nothing
+     * when the letterhead has no closing block.
+     *
+     * @param document open document created with {@link #newDocument()}
+     * @param writer   writer of that document
+     * @throws DocumentException if the block cannot be added
+     */
+    void addClosing(Document document, PdfWriter writer) throws DocumentException {
+        if (hasClosing) {
+            document.add(Image.getInstance(writer.getImportedPage(readers.get(), CLOSING_PAGE)));
+        }
+    }
+
+    private PdfReader parseTemplate() {
+        try {
+            return new PdfReader(templatePdf);
+        } catch (IOException e) {
+            throw new IllegalStateException("Prerendered letterhead could not be parsed", e);
+        }
+    }
+}
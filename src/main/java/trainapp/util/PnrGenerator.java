@@ -0,0 +1,299 @@
+package trainapp.util;
+
+import trainapp.dao.PnrNodeDAO;
+
+import java.lang.management.ManagementFactory;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free generator of unique, time-ordered PNRs.
+ *
+ * <h2>Layout:</h2>
+ * Each PNR is a 55-bit number, written as 11 Crockford base-32 characters followed by one
+ * check character, 12 characters in total.
+ * <pre>
+ *   | 40 bits: milliseconds since 2025-01-01 | 5 bits: node | 10 bits: sequence |
+ * </pre>
+ * <ul>
+ *   <li><b>Time</b> - Covers about 34 years from the epoch; PNRs sort by issue time</li>
+ *   <li><b>Node</b> - Up to 32 application instances, set with the {@code trainapp.node.id}
+ *       system property or else leased from the database</li>
+ *   <li><b>Sequence</b> - 1024 PNRs per millisecond per node, about a million per second</li>
+ * </ul>
+ *
+ * <h2>Concurrency:</h2>
+ * The time and sequence live together in one {@link AtomicLong} and are advanced with a
+ * compare-and-set loop, so threads never block. When the sequence of a millisecond runs out
+ * it carries into the time field: the generator borrows the next millisecond instead of
+ * waiting for it, and falls back in step once the burst is over. If the wall clock moves
+ * backwards the generator keeps counting from the last time it issued, so PNRs are never
+ * repeated within a process.
+ *
+ * <h2>Node Lease:</h2>
+ * Without a configured node the shared generator claims the lowest free node in
+ * {@link PnrNodeDAO} and renews the lease in the background. If no node is free it fails
+ * instead of guessing one. If renewing fails until the lease runs out, no PNR is issued
+ * until a node is held again, since another instance may have taken it over meanwhile.
+ *
+ * <h2>Check Character:</h2>
+ * The last character is a Luhn mod-32 check over the other 11, which catches every single
+ * mistyped character and most swaps of neighbouring characters before a lookup hits the
+ * database. Input is case-insensitive.
+ */
+public class PnrGenerator {
+
+    // =========================================================================
+    // LAYOUT
+    // =========================================================================
+
+    /** Crockford base-32 alphabet: digits and letters without I, L, O and U */
+    private static final String ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ";
+
+    private static final long EPOCH_MILLIS = Instant.parse("2025-01-01T00:00:00Z").toEpochMilli();
+
+    private static final int NODE_BITS = 5;
+    private static final int SEQUENCE_BITS = 10;
+    private static final int PAYLOAD_CHARS = 11;
+
+    /** Number of application instances that can issue PNRs side by side */
+    public static final int MAX_NODES = 1 << NODE_BITS;
+
+    /**
+     * Length of every PNR issued by this generator; {@code bookings.pnr} is widened to it by
+     * the migration {@code db/migration/V2__widen_bookings_pnr.sql}
+     */
+    public static final int PNR_LENGTH = PAYLOAD_CHARS + 1;
+
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    /** System property with this instance's node number */
+    public static final String NODE_PROPERTY = "trainapp.node.id";
+
+    /** How long a leased node stays claimed without renewal */
+    static final Duration NODE_LEASE = Duration.ofMinutes(2);
+
+    /** Leases are renewed this often, so a few failed renewals in a row are harmless */
+    private static final Duration LEASE_RENEWAL = Duration.ofSeconds(20);
+
+    private static PnrGenerator instance;
+
+    // =========================================================================
+    // STATE
+    // =========================================================================
+
+    private final Clock clock;
+    private volatile long node;
+
+    /** Last issued (milliseconds since epoch &lt;&lt; SEQUENCE_BITS | sequence) */
+    private final AtomicLong lastStamp = new AtomicLong();
+
+    // Node lease; nodeDAO is null when the node was given
+    private PnrNodeDAO nodeDAO;
+    private String leaseHolder;
+    private volatile long leaseValidUntilNanos;
+    private ScheduledExecutorService leaseRenewer;
+
+    /**
+     * Creates a generator for one node.
+     *
+     * @param clock time source
+     * @param node  node number, between 0 and {@link #MAX_NODES} - 1, unique per running instance
+     */
+    public PnrGenerator(Clock clock, int node) {
+        if (node < 0 || node >= MAX_NODES) {
+            throw new IllegalArgumentException("Node must be between 0 and " + (MAX_NODES - 1));
+        }
+        this.clock = clock;
+        this.node = node;
+    }
+
+    /**
+     * Returns the shared generator. Its node comes from the {@value #NODE_PROPERTY} system
+     * property, which instances sharing a database must set to distinct values, or else is
+     * leased from the database.
+     *
+     * @throws IllegalStateException if no node is configured and none could be leased
+     */
+    public static synchronized PnrGenerator getInstance() {
+        if (instance == null) {
+            String configured = System.getProperty(NODE_PROPERTY);
+            instance = configured != null
+                    ? new PnrGenerator(Clock.systemUTC(), Integer.parseInt(configured.trim()))
+                    : leased(new PnrNodeDAO());
+        }
+        return instance;
+    }
+
+    /**
+     * Creates a generator on a node leased from the database and starts renewing the lease.
+     */
+    static PnrGenerator leased(PnrNodeDAO nodeDAO) {
+        String holder = ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID();
+        long claimedAt = System.nanoTime();
+        int node = nodeDAO.claim(holder, MAX_NODES, NODE_LEASE);
+        if (node < 0) {
+            throw new IllegalStateException("No PNR node could be leased: all " + MAX_NODES
+                    + " are in use or the database is unreachable; set " + NODE_PROPERTY + " explicitly");
+        }
+        PnrGenerator generator = new PnrGenerator(Clock.systemUTC(), node);
+        generator.nodeDAO = nodeDAO;
+        generator.leaseHolder = holder;
+        generator.leaseValidUntilNanos = claimedAt + NODE_LEASE.toNanos();
+        generator.leaseRenewer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "pnr-node-lease");
+            thread.setDaemon(true);
+            return thread;
+        });
+        generator.leaseRenewer.scheduleWithFixedDelay(generator::renewLease,
+                LEASE_RENEWAL.toMillis(), LEASE_RENEWAL.toMillis(), TimeUnit.MILLISECONDS);
+        return generator;
+    }
+
+    /**
+     * Extends the node lease. A node lost to another instance after the lease ran out is
+     * replaced by a newly claimed one.
+     */
+    private void renewLease() {
+        try {
+            // Measured before the call, so the local deadline never outlasts the stored one
+            long renewedAt = System.nanoTime();
+            int current = (int) node;
+            if (nodeDAO.renew(current, leaseHolder, NODE_LEASE)) {
+                leaseValidUntilNanos = renewedAt + NODE_LEASE.toNanos();
+                return;
+            }
+            if (System.nanoTime() - leaseValidUntilNanos < 0) {
+                return; // Unreachable database; retried while the lease lasts
+            }
+            int claimed = nodeDAO.claim(leaseHolder, MAX_NODES, NODE_LEASE);
+            if (claimed >= 0) {
+                node = claimed;
+                leaseValidUntilNanos = renewedAt + NODE_LEASE.toNanos();
+                System.err.println("PNR node " + current + " lease ran out; now issuing as node " + claimed);
+            }
+        } catch (Exception e) {
+            System.err.println("Error renewing PNR node lease: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Stops renewing and gives the leased node back. Call on application exit.
+     */
+    public static synchronized void shutdown() {
+        if (instance == null) {
+            return;
+        }
+        if (instance.leaseRenewer != null) {
+            instance.leaseRenewer.shutdownNow();
+            instance.nodeDAO.release((int) instance.node, instance.leaseHolder);
+        }
+        instance = null;
+    }
+
+    // =========================================================================
+    // GENERATION
+    // =========================================================================
+
+    /**
+     * Returns the next PNR.
+     *
+     * @return a 12-character PNR, unique across nodes
+     * @throws IllegalStateException if the node lease ran out
+     */
+    public String nextPnr() {
+        return encode(nextId());
+    }
+
+    /**
+     * Returns the next PNR as a number, before encoding.
+     */
+    public long nextId() {
+        if (nodeDAO != null && System.nanoTime() - leaseValidUntilNanos > 0) {
+            throw new IllegalStateException("PNR node lease ran out; no PNRs are issued until it is renewed");
+        }
+        long stamp = nextStamp();
+        long millis = stamp >>> SEQUENCE_BITS;
+        return (millis << (NODE_BITS + SEQUENCE_BITS)) | (node << SEQUENCE_BITS) | (stamp & SEQUENCE_MASK);
+    }
+
+    private long nextStamp() {
+        while (true) {
+            long last = lastStamp.get();
+            long now = (clock.millis() - EPOCH_MILLIS) << SEQUENCE_BITS;
+            // A new millisecond starts at sequence 0; otherwise count on, carrying into the time
+            long next = now > last ? now : last + 1;
+            if (lastStamp.compareAndSet(last, next)) {
+                return next;
+            }
+        }
+    }
+
+    // =========================================================================
+    // ENCODING AND VALIDATION
+    // =========================================================================
+
+    /**
+     * Writes an id as 11 base-32 characters plus its check character.
+     */
+    static String encode(long id) {
+        char[] chars = new char[PNR_LENGTH];
+        for (int i = PAYLOAD_CHARS - 1; i >= 0; i--) {
+            chars[i] = ALPHABET.charAt((int) (id & 31));
+            id >>>= 5;
+        }
+        chars[PAYLOAD_CHARS] = ALPHABET.charAt(checkValue(chars));
+        return new String(chars);
+    }
+
+    /**
+     * Luhn mod-32 check value of the first {@link #PAYLOAD_CHARS} characters.
+     */
+    private static int checkValue(char[] chars) {
+        int sum = 0;
+        boolean doubled = true;
+        for (int i = PAYLOAD_CHARS - 1; i >= 0; i--) {
+            int value = ALPHABET.indexOf(chars[i]);
+            if (doubled) {
+                value *= 2;
+                value = value / 32 + value % 32;
+            }
+            sum += value;
+            doubled = !doubled;
+        }
+        return (32 - sum % 32) % 32;
+    }
+
+    /**
+     * Checks whether user input looks like a PNR before it is looked up: either a 12-character
+     * PNR with a matching check character, or a PNR issued before this format ("PNR" and digits).
+     *
+     * @param pnr user input, already trimmed
+     * @return true if the input can be a valid PNR
+     */
+    public static boolean isWellFormed(String pnr) {
+        if (pnr == null) {
+            return false;
+        }
+        if (pnr.length() <= 10 && pnr.matches("(?i)PNR\\d{1,7}")) {
+            return true;
+        }
+        if (pnr.length() != PNR_LENGTH) {
+            return false;
+        }
+        char[] chars = pnr.toUpperCase().toCharArray();
+        for (char c : chars) {
+            if (ALPHABET.indexOf(c) < 0) {
+                return false;
+            }
+        }
+        return ALPHABET.indexOf(chars[PAYLOAD_CHARS]) == checkValue(chars);
+    }
+}
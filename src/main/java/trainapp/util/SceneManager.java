@@ -23,7 +23,8 @@ public class SceneManager {
     }
 
     /**
-     * Switch scene and return controller (your existing method enhanced)
+     * Switch scene and return controller (your existing method enhanced).
+     * Scene-scoped background tasks of the previous scene are cancelled first.
      */
     public static <T> T switchScene(String fxmlPath) {
         try {
@@ -36,6 +37,12 @@ public class SceneManager {
                 throw new IllegalStateException("SceneManager not initialized. Call SceneManager.init(stage) first.");
             }
 
+            // Background work started by the outgoing scene must not update it after it is gone
+            int cancelled = BackgroundExecutor.cancelSceneTasks();
+            if (debugMode && cancelled > 0) {
+                System.out.println("⏹️ Cancelled " + cancelled + " background task(s) from previous scene");
+            }
+
             // Check if resource exists
             URL resourceUrl = SceneManager.class.getResource(fxmlPath);
             if (resourceUrl == null) {
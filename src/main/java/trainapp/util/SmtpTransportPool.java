@@ -0,0 +1,352 @@
+package trainapp.util;
+
+import com.sun.mail.smtp.SMTPSendFailedException;
+
+import javax.mail.Address;
+import javax.mail.Message;
+import javax.mail.MessagingException;
+import javax.mail.SendFailedException;
+import javax.mail.Session;
+import javax.mail.Transport;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded pool of connected, authenticated SMTP transports used by the email service.
+ *
+ * <h2>Core Responsibilities:</h2>
+ * <ul>
+ *   <li><b>Connection Reuse</b> - Keeps transports open between emails, so the TCP connect, STARTTLS
+ *       and AUTH handshake is paid once per connection instead of once per email</li>
+ *   <li><b>Bounded Size</b> - Never opens more than {@code maxSize} connections; senders wait up to a timeout</li>
+ *   <li><b>Health Checks</b> - Transports idle longer than a short bypass window are checked with
+ *       {@link Transport#isConnected()}, which sends an SMTP NOOP</li>
+ *   <li><b>Reconnect on Failure</b> - A transport that fails is closed; a send that failed on a reused
+ *       connection is retried once on a fresh one</li>
+ *   <li><b>Recycling</b> - Connections are closed after {@code maxMessagesPerConnection} emails and
+ *       when idle longer than {@code idleTimeoutMillis}, before servers drop them</li>
+ *   <li><b>Metrics</b> - Handshake and send times are tracked separately</li>
+ * </ul>
+ *
+ * <p>Messages on one connection are sent back to back, one SMTP transaction after another.
+ * The pool only depends on a mail {@link Session}, so it can be pointed at a local SMTP
+ * server for testing.
+ */
+public class SmtpTransportPool {
+
+    // =========================================================================
+    // CONFIGURATION
+    // =========================================================================
+
+    /** Transports used within this window are handed out again without a NOOP check */
+    private static final long VALIDATION_BYPASS_MILLIS = 5_000;
+
+    /** How often the housekeeper closes idle transports */
+    private static final long HOUSEKEEPING_INTERVAL_MILLIS = 15_000;
+
+    private final Session session;
+    private final int maxSize;
+    private final long borrowTimeoutMillis;
+    private final long idleTimeoutMillis;
+    private final int maxMessagesPerConnection;
+
+    // =========================================================================
+    // POOL STATE
+    // =========================================================================
+
+    /** One permit per transport that may exist; bounds the pool size */
+    private final Semaphore permits;
+
+    /** Idle transports, most recently used first so warm connections are reused */
+    private final ConcurrentLinkedDeque<PooledTransport> idle = new ConcurrentLinkedDeque<>();
+
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean shutdown = false;
+
+    // =========================================================================
+    // METRICS
+    // =========================================================================
+
+    private final LongAdder connectCount = new LongAdder();
+    private final LongAdder connectNanos = new LongAdder();
+    private final LongAdder connectFailureCount = new LongAdder();
+    private final LongAdder sendCount = new LongAdder();
+    private final LongAdder sendNanos = new LongAdder();
+    private final AtomicLong maxSendNanos = new AtomicLong();
+    private final LongAdder sendFailureCount = new LongAdder();
+    private final LongAdder reconnectCount = new LongAdder();
+    private final LongAdder validationFailureCount = new LongAdder();
+    private final LongAdder closedCount = new LongAdder();
+    private final LongAdder timeoutCount = new LongAdder();
+
+    /**
+     * Creates a pool for the given mail session.
+     *
+     * @param session                  mail session with the SMTP host and authenticator
+     * @param maxSize                  maximum number of open connections
+     * @param borrowTimeoutMillis      how long a sender waits for a free connection
+     * @param idleTimeoutMillis        idle time after which a connection is closed
+     * @param maxMessagesPerConnection emails sent on a connection before it is replaced
+     */
+    public SmtpTransportPool(Session session, int maxSize, long borrowTimeoutMillis,
+                             long idleTimeoutMillis, int maxMessagesPerConnection) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Pool size must be positive");
+        }
+        this.session = session;
+        this.maxSize = maxSize;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.maxMessagesPerConnection = Math.max(1, maxMessagesPerConnection);
+        this.permits = new Semaphore(maxSize, true);
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "smtp-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.housekeeper.scheduleWithFixedDelay(this::housekeep,
+                HOUSEKEEPING_INTERVAL_MILLIS, HOUSEKEEPING_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    // =========================================================================
+    // SENDING
+    // =========================================================================
+
+    /**
+     * Sends a message over a pooled connection. A send that fails on a reused connection
+     * (for example because the server dropped it) is retried once on a new connection;
+     * rejected recipients are not retried.
+     *
+     * @param message message to send; {@link Message#saveChanges()} is called here
+     * @throws MessagingException if the message could not be sent
+     */
+    public void send(Message message) throws MessagingException {
+        if (shutdown) {
+            throw new MessagingException("SMTP transport pool has been shut down");
+        }
+        message.saveChanges();
+        Address[] recipients = message.getAllRecipients();
+
+        acquirePermit();
+        try {
+            PooledTransport pooled = takeIdleOrConnect();
+            try {
+                sendOn(pooled, message, recipients);
+            } catch (MessagingException e) {
+                destroy(pooled);
+                if (isRejection(e) || pooled.fresh) {
+                    throw e; // Refused, or failed on a brand-new connection; a retry would fail the same way
+                }
+                reconnectCount.increment();
+                pooled = connect();
+                try {
+                    sendOn(pooled, message, recipients);
+                } catch (MessagingException retryFailure) {
+                    destroy(pooled);
+                    throw retryFailure;
+                }
+            }
+            release(pooled);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void sendOn(PooledTransport pooled, Message message, Address[] recipients) throws MessagingException {
+        long start = System.nanoTime();
+        try {
+            pooled.transport.sendMessage(message, recipients);
+        } catch (MessagingException e) {
+            sendFailureCount.increment();
+            throw e;
+        }
+        long nanos = System.nanoTime() - start;
+        sendCount.increment();
+        sendNanos.add(nanos);
+        maxSendNanos.accumulateAndGet(nanos, Math::max);
+        pooled.messagesSent++;
+    }
+
+    /**
+     * Whether the server refused the message, as opposed to the connection failing under it.
+     * A connection dropped before MAIL FROM also surfaces as a send failure, but without a
+     * reply code.
+     */
+    private static boolean isRejection(MessagingException e) {
+        if (e instanceof SMTPSendFailedException smtpFailure) {
+            return smtpFailure.getReturnCode() > 0;
+        }
+        return e instanceof SendFailedException;
+    }
+
+    private void acquirePermit() throws MessagingException {
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                timeoutCount.increment();
+                throw new MessagingException("Timed out after " + borrowTimeoutMillis
+                        + " ms waiting for an SMTP connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MessagingException("Interrupted while waiting for an SMTP connection", e);
+        }
+    }
+
+    /**
+     * Pops idle transports until a healthy one is found, or connects a new one.
+     */
+    private PooledTransport takeIdleOrConnect() throws MessagingException {
+        PooledTransport pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            if (isUsable(pooled)) {
+                pooled.fresh = false;
+                return pooled;
+            }
+            validationFailureCount.increment();
+            destroy(pooled);
+        }
+        return connect();
+    }
+
+    private PooledTransport connect() throws MessagingException {
+        long start = System.nanoTime();
+        Transport transport = session.getTransport("smtp");
+        try {
+            transport.connect(); // TCP connect, EHLO, STARTTLS and AUTH
+        } catch (MessagingException e) {
+            connectFailureCount.increment();
+            throw e;
+        }
+        connectCount.increment();
+        connectNanos.add(System.nanoTime() - start);
+        return new PooledTransport(transport);
+    }
+
+    private boolean isUsable(PooledTransport pooled) {
+        if (System.currentTimeMillis() - pooled.lastUsedAt < VALIDATION_BYPASS_MILLIS) {
+            return true;
+        }
+        return pooled.transport.isConnected(); // Sends NOOP on an open connection
+    }
+
+    /**
+     * Returns a transport to the idle deque, or closes it once it has reached its message limit.
+     */
+    private void release(PooledTransport pooled) {
+        if (shutdown || pooled.messagesSent >= maxMessagesPerConnection) {
+            destroy(pooled);
+            return;
+        }
+        pooled.lastUsedAt = System.currentTimeMillis();
+        idle.offerFirst(pooled);
+    }
+
+    private void destroy(PooledTransport pooled) {
+        closedCount.increment();
+        try {
+            pooled.transport.close();
+        } catch (MessagingException e) {
+            // Transport is being discarded anyway
+        }
+    }
+
+    // =========================================================================
+    // HOUSEKEEPING
+    // =========================================================================
+
+    /**
+     * Closes transports idle longer than the idle timeout.
+     */
+    private void housekeep() {
+        try {
+            long now = System.currentTimeMillis();
+            Iterator<PooledTransport> it = idle.descendingIterator();
+            while (it.hasNext()) {
+                PooledTransport pooled = it.next();
+                if (now - pooled.lastUsedAt > idleTimeoutMillis && idle.remove(pooled)) {
+                    destroy(pooled);
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("SmtpTransportPool: housekeeping failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Closes all idle transports and stops the housekeeper. Transports in use are closed
+     * when their sends finish.
+     */
+    public void shutdown() {
+        shutdown = true;
+        housekeeper.shutdownNow();
+        PooledTransport pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            destroy(pooled);
+        }
+    }
+
+    // =========================================================================
+    // METRICS ACCESS
+    // =========================================================================
+
+    /**
+     * Returns a point-in-time snapshot of the pool metrics.
+     */
+    public TransportStats getStats() {
+        long connects = connectCount.sum();
+        long sends = sendCount.sum();
+        return new TransportStats(
+                maxSize - permits.availablePermits(),
+                idle.size(),
+                maxSize,
+                connects,
+                connects == 0 ? 0.0 : connectNanos.sum() / (double) connects / 1_000_000.0,
+                connectFailureCount.sum(),
+                sends,
+                sends == 0 ? 0.0 : sendNanos.sum() / (double) sends / 1_000_000.0,
+                maxSendNanos.get() / 1_000_000.0,
+                sendFailureCount.sum(),
+                reconnectCount.sum(),
+                validationFailureCount.sum(),
+                closedCount.sum(),
+                timeoutCount.sum()
+        );
+    }
+
+    /**
+     * Immutable snapshot of pool metrics. Times are in milliseconds; handshake time covers
+     * connect, STARTTLS and authentication, send time covers one SMTP transaction.
+     */
+    public record TransportStats(int active, int idle, int maxSize,
+                                 long handshakes, double avgHandshakeMillis, long handshakeFailures,
+                                 long sends, double avgSendMillis, double maxSendMillis, long sendFailures,
+                                 long reconnects, long validationFailures, long closed, long timeouts) {
+    }
+
+    // =========================================================================
+    // POOLED TRANSPORT WRAPPER
+    // =========================================================================
+
+    /**
+     * Connected transport plus the bookkeeping the pool needs for it. Only touched by the
+     * sender holding it or, while idle, by the housekeeper.
+     */
+    private static final class PooledTransport {
+        private final Transport transport;
+        private volatile long lastUsedAt = System.currentTimeMillis();
+        private volatile int messagesSent;
+        /** True until the transport has been handed out from the idle deque */
+        private volatile boolean fresh = true;
+
+        private PooledTransport(Transport transport) {
+            this.transport = transport;
+        }
+    }
+}
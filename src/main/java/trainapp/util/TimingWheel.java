@@ -0,0 +1,205 @@
+package trainapp.util;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hashed timing wheel for large numbers of cheap, cancellable timeouts.
+ *
+ * <h2>Structure:</h2>
+ * Time is cut into fixed ticks and the wheel has a power-of-two number of slots. A timeout
+ * due at absolute tick {@code t} is linked into slot {@code t & (slots - 1)}; timeouts more
+ * than one revolution away share a slot with nearer ones and are simply skipped until their
+ * tick comes round.
+ * <pre>
+ *   slot:   0     1     2     3   ...  511
+ *          [a]   [ ]   [b,c] [ ]      [d]
+ * </pre>
+ *
+ * <h2>Costs:</h2>
+ * <ul>
+ *   <li>{@link #schedule(Object, Duration)} and {@link Timeout#cancel()} are O(1)</li>
+ *   <li>{@link #advance()} only visits the slots of the ticks that have elapsed</li>
+ *   <li>No thread per timeout; the owner calls {@link #advance()} from a single reaper</li>
+ * </ul>
+ *
+ * <p>Time comes from the supplied {@link Clock}, so simulations can drive the wheel with a
+ * fixed or stepped clock. Timeouts never fire early; they fire at most one tick late.
+ *
+ * @param <T> payload attached to each timeout
+ */
+public class TimingWheel<T> {
+
+    private final Clock clock;
+    private final long tickMillis;
+    private final long startMillis;
+    private final Entry<T>[] slots;
+    private final int mask;
+
+    /** Last tick whose slot has been processed */
+    private long currentTick = 0;
+
+    /** Number of scheduled, not yet expired or cancelled timeouts */
+    private int pending = 0;
+
+    /**
+     * Creates a timing wheel.
+     *
+     * @param clock     time source
+     * @param tick      tick duration, the timer resolution
+     * @param slotCount number of slots, rounded up to a power of two
+     */
+    @SuppressWarnings("unchecked")
+    public TimingWheel(Clock clock, Duration tick, int slotCount) {
+        if (tick.toMillis() <= 0) {
+            throw new IllegalArgumentException("Tick must be at least one millisecond");
+        }
+        if (slotCount <= 0) {
+            throw new IllegalArgumentException("Slot count must be positive");
+        }
+        int size = Integer.highestOneBit(slotCount);
+        if (size < slotCount) size <<= 1;
+
+        this.clock = clock;
+        this.tickMillis = tick.toMillis();
+        this.startMillis = clock.millis();
+        this.slots = new Entry[size];
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            slots[i] = Entry.sentinel();
+        }
+    }
+
+    /**
+     * Schedules a timeout.
+     *
+     * @param payload value returned by {@link #advance()} when the timeout expires
+     * @param delay   time from now until expiry
+     * @return handle that can cancel the timeout
+     */
+    public synchronized Timeout<T> schedule(T payload, Duration delay) {
+        long deadline = clock.millis() + Math.max(0, delay.toMillis());
+        long deadlineTick = Math.max(currentTick + 1, ceilDiv(deadline - startMillis, tickMillis));
+
+        Entry<T> entry = new Entry<>(this, payload, deadlineTick);
+        Entry<T> head = slots[(int) (deadlineTick & mask)];
+        entry.prev = head.prev;
+        entry.next = head;
+        head.prev.next = entry;
+        head.prev = entry;
+        pending++;
+        return entry;
+    }
+
+    /**
+     * Processes every tick that has elapsed according to the clock.
+     *
+     * @return payloads of the timeouts that expired, in no particular order
+     */
+    public synchronized List<T> advance() {
+        List<T> expired = new ArrayList<>();
+        long targetTick = Math.floorDiv(clock.millis() - startMillis, tickMillis);
+        if (targetTick <= currentTick) {
+            return expired;
+        }
+
+        // After a long pause a single pass over every slot is enough
+        long ticks = Math.min(targetTick - currentTick, slots.length);
+        for (long i = 1; i <= ticks; i++) {
+            Entry<T> head = slots[(int) ((currentTick + i) & mask)];
+            Entry<T> entry = head.next;
+            while (entry != head) {
+                Entry<T> next = entry.next;
+                if (entry.deadlineTick <= targetTick) {
+                    entry.unlink();
+                    pending--;
+                    expired.add(entry.payload);
+                }
+                entry = next;
+            }
+        }
+        currentTick = targetTick;
+        return expired;
+    }
+
+    /**
+     * Returns the number of timeouts that are still scheduled.
+     */
+    public synchronized int size() {
+        return pending;
+    }
+
+    private synchronized boolean cancel(Entry<T> entry) {
+        if (entry.next == null) {
+            return false; // Already expired or cancelled
+        }
+        entry.unlink();
+        pending--;
+        return true;
+    }
+
+    private static long ceilDiv(long x, long y) {
+        return -Math.floorDiv(-x, y);
+    }
+
+    /**
+     * Handle for a scheduled timeout.
+     */
+    public interface Timeout<T> {
+
+        /**
+         * Cancels the timeout.
+         *
+         * @return true if it was still pending, false if it had already expired or been cancelled
+         */
+        boolean cancel();
+
+        /**
+         * Returns the payload given to {@link TimingWheel#schedule(Object, Duration)}.
+         */
+        T payload();
+    }
+
+    /**
+     * Doubly linked slot entry; each slot's list starts at a sentinel.
+     */
+    private static final class Entry<T> implements Timeout<T> {
+        private final TimingWheel<T> wheel;
+        private final T payload;
+        private final long deadlineTick;
+        private Entry<T> prev;
+        private Entry<T> next;
+
+        private Entry(TimingWheel<T> wheel, T payload, long deadlineTick) {
+            this.wheel = wheel;
+            this.payload = payload;
+            this.deadlineTick = deadlineTick;
+        }
+
+        private static <T> Entry<T> sentinel() {
+            Entry<T> head = new Entry<>(null, null, Long.MAX_VALUE);
+            head.prev = head;
+            head.next = head;
+            return head;
+        }
+
+        private void unlink() {
+            prev.next = next;
+            next.prev = prev;
+            prev = null;
+            next = null;
+        }
+
+        @Override
+        public boolean cancel() {
+            return wheel.cancel(this);
+        }
+
+        @Override
+        public T payload() {
+            return payload;
+        }
+    }
+}
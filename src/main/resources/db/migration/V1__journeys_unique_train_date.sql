@@ -0,0 +1,25 @@
+-- V1: at most one journey per train and departure date.
+--
+-- Journey creation relies on this key to stay idempotent (INSERT IGNORE), so concurrent
+-- provisioning runs and bookings never create the same journey twice. Run once, during a
+-- maintenance window, before deploying a build that provisions journeys in bulk.
+
+-- 1. Delete duplicate journeys that have no bookings. Of each train and date, the booked
+--    journey is kept, or else the one with the lowest id.
+DELETE j FROM journeys j
+JOIN journeys keep ON keep.train_id = j.train_id AND keep.departure_date = j.departure_date
+                  AND keep.journey_id <> j.journey_id
+WHERE NOT EXISTS (SELECT 1 FROM bookings b WHERE b.journey_id = j.journey_id)
+  AND (keep.journey_id < j.journey_id
+       OR EXISTS (SELECT 1 FROM bookings b WHERE b.journey_id = keep.journey_id));
+
+-- 2. Journeys that still share a train and date all have bookings and must be merged by hand
+--    (move their bookings to one journey and recount its available seats). Step 3 fails with
+--    a duplicate key error while this returns any rows.
+SELECT train_id, departure_date, GROUP_CONCAT(journey_id ORDER BY journey_id) AS journey_ids
+FROM journeys
+GROUP BY train_id, departure_date
+HAVING COUNT(*) > 1;
+
+-- 3. Add the key.
+ALTER TABLE journeys ADD UNIQUE KEY uq_journeys_train_date (train_id, departure_date);
@@ -0,0 +1,9 @@
+-- V2: room for the 12-character PNRs of PnrGenerator (11 base-32 characters and a check
+-- character). Schemas created for the old PNR1234567 form have a 10-character column, which
+-- rejects or truncates the new PNRs. Run before deploying the build that issues them.
+--
+-- MODIFY replaces the whole column definition. Compare with SHOW CREATE TABLE bookings first
+-- and add any DEFAULT, COMMENT, CHARACTER SET or COLLATE the current pnr column has, and
+-- NULL instead of NOT NULL if it is nullable. Indexes on the column, such as its unique key,
+-- are kept, and so are the existing PNRs.
+ALTER TABLE bookings MODIFY pnr VARCHAR(12) NOT NULL;
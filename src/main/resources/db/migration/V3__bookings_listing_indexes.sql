@@ -0,0 +1,10 @@
+-- V3: indexes the admin reservations listing and the CSV export seek on, newest first:
+-- (booking_time, booking_id) for the unfiltered list and (status, booking_time, booking_id)
+-- when a status filter is set. Without them every page sorts the whole bookings table.
+--
+-- Both indexes are built in one online pass; bookings stay readable and writable meanwhile.
+-- On a large table this still takes a while and adds I/O, so run it off-peak.
+ALTER TABLE bookings
+    ADD INDEX idx_bookings_time (booking_time, booking_id),
+    ADD INDEX idx_bookings_status_time (status, booking_time, booking_id),
+    ALGORITHM = INPLACE, LOCK = NONE;
@@ -0,0 +1,224 @@
+package trainapp;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Minimal SMTP server on localhost for tests: accepts any login, records every message and
+ * can be told to reject recipients, slow down or drop its connections.
+ *
+ * <p>Speaks plain SMTP without STARTTLS, so clients must run with
+ * {@code trainapp.smtp.starttls=false}.
+ */
+public class FakeSmtpServer implements AutoCloseable {
+
+    private final ServerSocket serverSocket;
+    private final Thread acceptor;
+    private final Set<Socket> openSockets = ConcurrentHashMap.newKeySet();
+    private final List<Received> messages = new CopyOnWriteArrayList<>();
+
+    private final AtomicInteger connections = new AtomicInteger();
+    private final AtomicInteger logins = new AtomicInteger();
+    private final AtomicInteger openSessions = new AtomicInteger();
+    private final AtomicInteger maxOpenSessions = new AtomicInteger();
+
+    private volatile boolean rejectRecipients;
+    private volatile long dataDelayMillis;
+
+    /**
+     * Starts listening on a free local port.
+     */
+    public FakeSmtpServer() throws IOException {
+        serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        acceptor = new Thread(this::acceptLoop, "fake-smtp-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /** Messages accepted so far, in arrival order */
+    public List<Received> getMessages() {
+        return List.copyOf(messages);
+    }
+
+    /** TCP connections accepted so far */
+    public int getConnectionCount() {
+        return connections.get();
+    }
+
+    /** Successful AUTH exchanges so far */
+    public int getLoginCount() {
+        return logins.get();
+    }
+
+    /** Most sessions that were open at the same time */
+    public int getMaxOpenSessions() {
+        return maxOpenSessions.get();
+    }
+
+    /** Answers RCPT TO with a permanent failure while set */
+    public void setRejectRecipients(boolean rejectRecipients) {
+        this.rejectRecipients = rejectRecipients;
+    }
+
+    /** Waits this long before accepting each message body */
+    public void setDataDelayMillis(long dataDelayMillis) {
+        this.dataDelayMillis = dataDelayMillis;
+    }
+
+    /**
+     * Closes every open connection without a reply, like a server dropping idle clients.
+     */
+    public void dropConnections() {
+        for (Socket socket : openSockets) {
+            closeQuietly(socket);
+        }
+    }
+
+    @Override
+    public void close() {
+        closeQuietly(serverSocket);
+        dropConnections();
+    }
+
+    // -------------------------------------------------------------------------
+    // Protocol
+    // -------------------------------------------------------------------------
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                connections.incrementAndGet();
+                openSockets.add(socket);
+                Thread session = new Thread(() -> serve(socket), "fake-smtp-session");
+                session.setDaemon(true);
+                session.start();
+            } catch (IOException e) {
+                return; // Closed
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        maxOpenSessions.accumulateAndGet(openSessions.incrementAndGet(), Math::max);
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8)) {
+            reply(out, "220 localhost fake ESMTP");
+            String from = null;
+            List<String> recipients = new ArrayList<>();
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.toUpperCase();
+                if (command.startsWith("EHLO")) {
+                    reply(out, "250-localhost");
+                    reply(out, "250-AUTH PLAIN LOGIN");
+                    reply(out, "250 8BITMIME");
+                } else if (command.startsWith("HELO")) {
+                    reply(out, "250 localhost");
+                } else if (command.startsWith("AUTH PLAIN")) {
+                    if (line.trim().length() == "AUTH PLAIN".length()) {
+                        reply(out, "334 ");
+                        in.readLine();
+                    }
+                    logins.incrementAndGet();
+                    reply(out, "235 2.7.0 Authentication successful");
+                } else if (command.startsWith("AUTH LOGIN")) {
+                    if (line.trim().length() == "AUTH LOGIN".length()) {
+                        reply(out, "334 VXNlcm5hbWU6");
+                        in.readLine();
+                    }
+                    reply(out, "334 UGFzc3dvcmQ6");
+                    in.readLine();
+                    logins.incrementAndGet();
+                    reply(out, "235 2.7.0 Authentication successful");
+                } else if (command.startsWith("MAIL FROM:")) {
+                    from = address(line);
+                    recipients.clear();
+                    reply(out, "250 2.1.0 OK");
+                } else if (command.startsWith("RCPT TO:")) {
+                    if (rejectRecipients) {
+                        reply(out, "550 5.1.1 Mailbox unavailable");
+                    } else {
+                        recipients.add(address(line));
+                        reply(out, "250 2.1.5 OK");
+                    }
+                } else if (command.equals("DATA")) {
+                    reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                    StringBuilder data = new StringBuilder();
+                    while ((line = in.readLine()) != null && !line.equals(".")) {
+                        data.append(line.startsWith("..") ? line.substring(1) : line).append("\r\n");
+                    }
+                    if (dataDelayMillis > 0) {
+                        Thread.sleep(dataDelayMillis);
+                    }
+                    messages.add(new Received(from, List.copyOf(recipients), data.toString()));
+                    reply(out, "250 2.0.0 Queued");
+                } else if (command.equals("RSET")) {
+                    from = null;
+                    recipients.clear();
+                    reply(out, "250 2.0.0 OK");
+                } else if (command.startsWith("NOOP")) {
+                    reply(out, "250 2.0.0 OK");
+                } else if (command.equals("QUIT")) {
+                    reply(out, "221 2.0.0 Bye");
+                    return;
+                } else {
+                    reply(out, "502 5.5.1 Unrecognized command");
+                }
+            }
+        } catch (IOException e) {
+            // Client or test closed the connection
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            openSockets.remove(socket);
+            openSessions.decrementAndGet();
+        }
+    }
+
+    private static void reply(PrintWriter out, String line) {
+        out.print(line + "\r\n");
+        out.flush();
+    }
+
+    private static String address(String line) {
+        int start = line.indexOf('<');
+        int end = line.indexOf('>');
+        return start >= 0 && end > start ? line.substring(start + 1, end) : line.substring(line.indexOf(':') + 1).trim();
+    }
+
+    private static void closeQuietly(AutoCloseable closeable) {
+        try {
+            closeable.close();
+        } catch (Exception e) {
+            // Already closed
+        }
+    }
+
+    /**
+     * One accepted message.
+     *
+     * @param from       envelope sender
+     * @param recipients envelope recipients
+     * @param data       headers and body as sent
+     */
+    public record Received(String from, List<String> recipients, String data) {
+    }
+}
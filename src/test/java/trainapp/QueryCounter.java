@@ -0,0 +1,70 @@
+package trainapp;
+
+import com.mysql.cj.MysqlConnection;
+import com.mysql.cj.Query;
+import com.mysql.cj.interceptors.QueryInterceptor;
+import com.mysql.cj.log.Log;
+import com.mysql.cj.protocol.Resultset;
+import com.mysql.cj.protocol.ServerSession;
+
+import java.util.Properties;
+import java.util.function.Supplier;
+
+/**
+ * Connector/J interceptor that counts the statements each thread sends to the database.
+ * {@link TestDatabase} adds it to the scratch database URL.
+ */
+public class QueryCounter implements QueryInterceptor {
+
+    private static final ThreadLocal<int[]> COUNT = ThreadLocal.withInitial(() -> new int[1]);
+
+    private static volatile boolean installed;
+
+    /**
+     * Whether the driver loaded the interceptor, i.e. counts are real.
+     */
+    public static boolean isInstalled() {
+        return installed;
+    }
+
+    /**
+     * Starts counting the current thread's statements from zero.
+     */
+    public static void reset() {
+        COUNT.get()[0] = 0;
+    }
+
+    /**
+     * Statements the current thread sent since {@link #reset()}.
+     */
+    public static int count() {
+        return COUNT.get()[0];
+    }
+
+    @Override
+    public QueryInterceptor init(MysqlConnection conn, Properties props, Log log) {
+        installed = true;
+        return this;
+    }
+
+    @Override
+    public <T extends Resultset> T preProcess(Supplier<String> sql, Query interceptedQuery) {
+        COUNT.get()[0]++;
+        return null;
+    }
+
+    @Override
+    public boolean executeTopLevelOnly() {
+        return true;
+    }
+
+    @Override
+    public void destroy() {
+    }
+
+    @Override
+    public <T extends Resultset> T postProcess(Supplier<String> sql, Query interceptedQuery, T originalResultSet,
+                                               ServerSession serverSession) {
+        return originalResultSet;
+    }
+}
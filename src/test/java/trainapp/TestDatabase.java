@@ -0,0 +1,203 @@
+package trainapp;
+
+import trainapp.dao.EntityCache;
+import trainapp.service.RouteIndex;
+import trainapp.util.DBConnection;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Scratch database for the tests that need MySQL.
+ *
+ * <p>Those tests are tagged {@value #INTEGRATION}; a plain {@code mvn test} leaves them out.
+ * Run them with the {@code integration} profile against a database that may be wiped, e.g.
+ * <pre>
+ *   mvn test -Pintegration -Dtrainapp.db.url=jdbc:mysql://localhost:3306/irctc_test -Dtrainapp.db.user=... -Dtrainapp.db.password=...
+ * </pre>
+ * Without {@code -Dtrainapp.db.url} they fail rather than touch the default database. The
+ * statements each thread sends are counted by {@link QueryCounter}, which is added to that
+ * URL here, before the first connection is opened.
+ */
+public final class TestDatabase {
+
+    /** Tag of the tests that need this database */
+    public static final String INTEGRATION = "integration";
+
+    /** Number of stations on the seeded train, in route order */
+    public static final int STOPS = 5;
+
+    static {
+        String url = System.getProperty(DBConnection.URL_PROPERTY);
+        if (url != null && !url.contains("queryInterceptors=")) {
+            System.setProperty(DBConnection.URL_PROPERTY, url + (url.contains("?") ? "&" : "?")
+                    + "queryInterceptors=" + QueryCounter.class.getName());
+        }
+    }
+
+    private TestDatabase() {
+    }
+
+    /**
+     * Whether a scratch database was configured.
+     */
+    public static boolean isConfigured() {
+        return System.getProperty(DBConnection.URL_PROPERTY) != null;
+    }
+
+    /**
+     * Fails the calling test class unless a scratch database was configured.
+     *
+     * @throws IllegalStateException if {@code -Dtrainapp.db.url} is not set
+     */
+    public static void require() {
+        if (!isConfigured()) {
+            throw new IllegalStateException("Set -D" + DBConnection.URL_PROPERTY
+                    + " to a scratch database to run the " + INTEGRATION + " tests");
+        }
+    }
+
+    /**
+     * Creates the core tables if missing, deletes every row the earlier tests left, and seeds
+     * one user and one train with a single journey.
+     *
+     * @param seats available seats of the journey by class, e.g. {@code {"SL": 60}}
+     * @return ids of the seeded rows
+     */
+    public static Fixture reset(Map<String, Integer> seats) throws SQLException {
+        try (Connection conn = DBConnection.getConnection();
+             Statement stmt = conn.createStatement()) {
+            for (String ddl : schemaStatements()) {
+                stmt.execute(ddl);
+            }
+            List<String> tables = new ArrayList<>();
+            try (ResultSet rs = stmt.executeQuery("SELECT table_name FROM information_schema.tables "
+                    + "WHERE table_schema = DATABASE() AND table_type = 'BASE TABLE'")) {
+                while (rs.next()) {
+                    tables.add(rs.getString(1));
+                }
+            }
+            // Node leases belong to the running generator, not to a test
+            tables.remove("pnr_nodes");
+            stmt.execute("SET FOREIGN_KEY_CHECKS = 0");
+            try {
+                for (String table : tables) {
+                    stmt.executeUpdate("DELETE FROM `" + table + "`");
+                }
+            } finally {
+                stmt.execute("SET FOREIGN_KEY_CHECKS = 1");
+            }
+        }
+        EntityCache.invalidateAll();
+        Fixture fixture = seed(seats);
+        RouteIndex.getInstance().reload();
+        return fixture;
+    }
+
+    private static Fixture seed(Map<String, Integer> seats) throws SQLException {
+        String suffix = UUID.randomUUID().toString().substring(0, 6);
+        try (Connection conn = DBConnection.getConnection()) {
+            int userId = insert(conn, "INSERT INTO users (name, email, phone, password_hash) VALUES (?, ?, ?, ?)",
+                    "Test User", "test-" + suffix + "@example.com", "9999999999", "x");
+
+            int[] stationIds = new int[STOPS];
+            for (int i = 0; i < STOPS; i++) {
+                stationIds[i] = insert(conn, "INSERT INTO stations (station_code, name, city, state) VALUES (?, ?, ?, ?)",
+                        "S" + i + suffix, "Station " + i, "City " + i, "State");
+            }
+            int trainId = insert(conn, "INSERT INTO trains (train_number, name, source_station_id, "
+                            + "destination_station_id, total_coaches) VALUES (?, ?, ?, ?, ?)",
+                    "T" + suffix, "Test Express", stationIds[0], stationIds[STOPS - 1], 10);
+            for (int i = 0; i < STOPS; i++) {
+                insert(conn, "INSERT INTO train_schedule (train_id, station_id, arrival_time, departure_time, "
+                                + "day_number, sequence_order) VALUES (?, ?, ?, ?, ?, ?)",
+                        trainId, stationIds[i], LocalTime.of(6 + 2 * i, 0), LocalTime.of(6 + 2 * i, 10), 1, i + 1);
+            }
+            String seatJson = seats.entrySet().stream()
+                    .map(e -> "\"" + e.getKey() + "\": " + e.getValue())
+                    .collect(Collectors.joining(", ", "{", "}"));
+            long journeyId = insert(conn, "INSERT INTO journeys (train_id, departure_date, available_seats) VALUES (?, ?, ?)",
+                    trainId, LocalDate.now().plusDays(30), seatJson);
+            return new Fixture(userId, trainId, stationIds, journeyId);
+        }
+    }
+
+    /**
+     * Inserts one row.
+     *
+     * @return the generated key
+     */
+    public static int insert(String sql, Object... params) throws SQLException {
+        try (Connection conn = DBConnection.getConnection()) {
+            return insert(conn, sql, params);
+        }
+    }
+
+    private static int insert(Connection conn, String sql, Object... params) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < params.length; i++) {
+                stmt.setObject(i + 1, params[i]);
+            }
+            stmt.executeUpdate();
+            try (ResultSet keys = stmt.getGeneratedKeys()) {
+                keys.next();
+                return keys.getInt(1);
+            }
+        }
+    }
+
+    /**
+     * Runs a query that returns one number, e.g. a count.
+     */
+    public static long queryLong(String sql, Object... params) throws SQLException {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) {
+                stmt.setObject(i + 1, params[i]);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        }
+    }
+
+    private static List<String> schemaStatements() {
+        try (InputStream in = TestDatabase.class.getResourceAsStream("/schema.sql")) {
+            String script = new String(in.readAllBytes(), StandardCharsets.UTF_8)
+                    .replaceAll("(?m)^--.*$", "");
+            List<String> statements = new ArrayList<>();
+            for (String statement : script.split(";")) {
+                if (!statement.isBlank()) {
+                    statements.add(statement.trim());
+                }
+            }
+            return statements;
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read schema.sql", e);
+        }
+    }
+
+    /**
+     * Ids of the seeded rows.
+     *
+     * @param userId     the booking user
+     * @param trainId    the train, stopping at {@code stationIds} in order
+     * @param stationIds the train's stations in route order
+     * @param journeyId  the train's only journey
+     */
+    public record Fixture(int userId, int trainId, int[] stationIds, long journeyId) {
+    }
+}
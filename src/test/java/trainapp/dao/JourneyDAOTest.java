@@ -0,0 +1,124 @@
+package trainapp.dao;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import trainapp.TestDatabase;
+import trainapp.TestDatabase.Fixture;
+import trainapp.util.DBConnection;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Races the conditional seat count updates of {@link JourneyDAO} from many threads, without
+ * any journey lock, and checks a class never drops below zero nor loses an update. Needs a
+ * scratch database and runs with the integration tests; see {@link TestDatabase}.
+ */
+@Tag(TestDatabase.INTEGRATION)
+class JourneyDAOTest {
+
+    private static final int THREADS = 16;
+
+    private final JourneyDAO journeyDAO = new JourneyDAO();
+
+    @BeforeAll
+    static void requireDatabase() {
+        TestDatabase.require();
+    }
+
+    @Test
+    void concurrentDecrementsNeverOversell() throws Exception {
+        Fixture fixture = TestDatabase.reset(Map.of("SL", 50, "3A", 10));
+        AtomicInteger taken = new AtomicInteger();
+        AtomicInteger refused = new AtomicInteger();
+
+        runConcurrently(conn -> {
+            for (int i = 0; i < 10; i++) {
+                if (journeyDAO.decrementAvailableSeats(conn, fixture.journeyId(), "SL", 1)) {
+                    taken.incrementAndGet();
+                } else {
+                    refused.incrementAndGet();
+                }
+            }
+        });
+
+        assertEquals(50, taken.get());
+        assertEquals(THREADS * 10 - 50, refused.get());
+        Map<String, Integer> seats = journeyDAO.getJourneyById(fixture.journeyId()).getAvailableSeatsMap();
+        assertEquals(0, seats.get("SL"));
+        assertEquals(10, seats.get("3A"), "other classes are left alone");
+    }
+
+    @Test
+    void concurrentIncrementsAndDecrementsAddUp() throws Exception {
+        Fixture fixture = TestDatabase.reset(Map.of("SL", 400));
+
+        runConcurrently(conn -> {
+            for (int i = 0; i < 20; i++) {
+                assertTrue(journeyDAO.decrementAvailableSeats(conn, fixture.journeyId(), "SL", 2));
+                assertTrue(journeyDAO.incrementAvailableSeats(conn, fixture.journeyId(), "SL", 1));
+            }
+        });
+
+        assertEquals(400 - THREADS * 20, journeyDAO.getJourneyById(fixture.journeyId()).getAvailableSeatsMap().get("SL"));
+    }
+
+    @Test
+    void decrementIsRefusedWhenTooFewSeatsAreLeft() throws Exception {
+        Fixture fixture = TestDatabase.reset(Map.of("SL", 3));
+        try (Connection conn = DBConnection.getConnection()) {
+            assertFalse(journeyDAO.decrementAvailableSeats(conn, fixture.journeyId(), "SL", 4));
+            assertFalse(journeyDAO.decrementAvailableSeats(conn, fixture.journeyId(), "2A", 1));
+            assertTrue(journeyDAO.decrementAvailableSeats(conn, fixture.journeyId(), "SL", 3));
+            // A class the journey did not list starts from zero
+            assertTrue(journeyDAO.incrementAvailableSeats(conn, fixture.journeyId(), "2A", 2));
+        }
+
+        Map<String, Integer> seats = journeyDAO.getJourneyById(fixture.journeyId()).getAvailableSeatsMap();
+        assertEquals(0, seats.get("SL"));
+        assertEquals(2, seats.get("2A"));
+    }
+
+    private interface ConnectionTask {
+        void run(Connection conn) throws Exception;
+    }
+
+    /**
+     * Runs the task on every thread at once, each with its own auto-commit connection.
+     */
+    private static void runConcurrently(ConnectionTask task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                results.add(executor.submit(() -> {
+                    try (Connection conn = DBConnection.getConnection()) {
+                        start.await();
+                        task.run(conn);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
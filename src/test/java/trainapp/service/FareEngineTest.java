@@ -0,0 +1,181 @@
+package trainapp.service;
+
+import org.junit.jupiter.api.Test;
+import trainapp.model.TrainClass;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that {@link FareEngine} returns exactly what the fare formula it replaced returned,
+ * for every class, time bucket and whole kilometre, and for fractional distances.
+ *
+ * <p>{@link #referenceFare} is the replaced calculation as it was written, with its map
+ * lookups and time checks, so the two implementations are compared bit for bit.
+ */
+class FareEngineTest {
+
+    private static final Map<TrainClass, Double> BASE_FARE = new EnumMap<>(Map.of(
+            TrainClass.SL, 0.75, TrainClass._3A, 2.25, TrainClass._2A, 3.50, TrainClass._1A, 5.50));
+    private static final Map<TrainClass, Double> RESERVATION_CHARGE = new EnumMap<>(Map.of(
+            TrainClass.SL, 30.0, TrainClass._3A, 50.0, TrainClass._2A, 75.0, TrainClass._1A, 125.0));
+    private static final Map<TrainClass, Double> MINIMUM_FARE = new EnumMap<>(Map.of(
+            TrainClass.SL, 120.0, TrainClass._3A, 220.0, TrainClass._2A, 320.0, TrainClass._1A, 550.0));
+    private static final TreeMap<Integer, Double> DISCOUNT_TIERS = new TreeMap<>(Map.of(
+            100, 1.00, 300, 0.98, 500, 0.95, 800, 0.92, 1000, 0.90, 1500, 0.87, 2000, 0.85));
+
+    /** Monday; a week from here covers every time bucket */
+    private static final LocalDate MONDAY = LocalDate.of(2026, 10, 12);
+
+    private final FareEngine engine = new FareEngine();
+
+    @Test
+    void bucketsMatchTheReplacedTimeRules() {
+        for (int day = 0; day < 7; day++) {
+            for (int hour = 0; hour < 24; hour++) {
+                LocalDateTime time = MONDAY.plusDays(day).atTime(hour, 30);
+                assertEquals(referenceMultiplier(time), multiplierOf(FareEngine.bucketOf(time)), time.toString());
+            }
+        }
+    }
+
+    @Test
+    void everyWholeKilometreMatchesTheReplacedFormula() {
+        for (int day = 0; day < 7; day++) {
+            for (int hour = 0; hour < 24; hour++) {
+                LocalDateTime time = MONDAY.plusDays(day).atTime(hour, 0);
+                int bucket = FareEngine.bucketOf(time);
+                for (TrainClass trainClass : TrainClass.values()) {
+                    for (int km = -100; km <= FareEngine.MAX_KM + 600; km++) {
+                        assertSameFare(referenceFare(trainClass, km, time),
+                                FareEngine.computeFare(trainClass, km, bucket), trainClass, km, time);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void fractionalDistancesMatchTheReplacedFormula() {
+        double[] specials = {Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, -0.0,
+                49.999, 50.0001, 500.5, 1000.0000001, 2499.9, 2500.0001, 1e12};
+        SplittableRandom random = new SplittableRandom(42);
+        for (int day = 0; day < 7; day++) {
+            for (int hour = 0; hour < 24; hour++) {
+                LocalDateTime time = MONDAY.plusDays(day).atTime(hour, 0);
+                int bucket = FareEngine.bucketOf(time);
+                for (TrainClass trainClass : TrainClass.values()) {
+                    for (int i = 0; i < specials.length + 2000; i++) {
+                        double km = i < specials.length ? specials[i] : random.nextDouble(-50, 2600);
+                        assertSameFare(referenceFare(trainClass, km, time),
+                                FareEngine.computeFare(trainClass, km, bucket), trainClass, km, time);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void tableLookupsMatchTheFormulaForTheCurrentTime() {
+        int[] distances = new int[FareEngine.MAX_KM + 700];
+        for (int i = 0; i < distances.length; i++) {
+            distances[i] = i - 100;
+        }
+        // The bucket may change between the calls below if an hour ends; retry once in that case
+        for (int attempt = 0; ; attempt++) {
+            int bucket = FareEngine.bucketOf(LocalDateTime.now());
+            try {
+                double[][] page = engine.fares(distances);
+                for (int i = 0; i < distances.length; i++) {
+                    int km = distances[i];
+                    double[] byClass = engine.fares(km);
+                    for (TrainClass trainClass : TrainClass.values()) {
+                        double expected = FareEngine.computeFare(trainClass, km, bucket);
+                        assertEquals(expected, engine.fare(trainClass, km));
+                        assertEquals(expected, engine.fare(trainClass, (double) km));
+                        assertEquals(expected, byClass[trainClass.ordinal()]);
+                        assertEquals(expected, page[i][trainClass.ordinal()]);
+                        assertEquals(FareEngine.computeFare(trainClass, km + 0.25, bucket),
+                                engine.fare(trainClass, km + 0.25));
+                    }
+                }
+                return;
+            } catch (AssertionError e) {
+                if (attempt > 0 || bucket == FareEngine.bucketOf(LocalDateTime.now())) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private static void assertSameFare(double expected, double actual, TrainClass trainClass, double km,
+                                       LocalDateTime time) {
+        assertEquals(Double.doubleToLongBits(expected), Double.doubleToLongBits(actual),
+                () -> trainClass + " at " + km + " km on " + time + ": " + expected + " vs " + actual);
+    }
+
+    private static double multiplierOf(int bucket) {
+        return switch (bucket) {
+            case FareEngine.WEEKEND -> 1.20;
+            case FareEngine.PEAK_MORNING -> 1.15;
+            case FareEngine.PEAK_EVENING -> 1.10;
+            case FareEngine.OFF_PEAK -> 0.95;
+            default -> 1.00;
+        };
+    }
+
+    // -------------------------------------------------------------------------
+    // Replaced implementation
+    // -------------------------------------------------------------------------
+
+    private static double referenceFare(TrainClass trainClass, double distanceKm, LocalDateTime time) {
+        distanceKm = Math.max(50, Math.min(distanceKm, 2500));
+
+        double baseFarePerKm = BASE_FARE.get(trainClass);
+        if (distanceKm > 1500) {
+            baseFarePerKm *= 0.85;
+        } else if (distanceKm > 1000) {
+            baseFarePerKm *= 0.90;
+        } else if (distanceKm > 500) {
+            baseFarePerKm *= 0.95;
+        }
+        double baseFare = distanceKm * baseFarePerKm;
+
+        Map.Entry<Integer, Double> discountEntry = DISCOUNT_TIERS.floorEntry((int) distanceKm);
+        if (discountEntry != null) {
+            baseFare *= discountEntry.getValue();
+        }
+
+        double totalFare = baseFare + RESERVATION_CHARGE.get(trainClass);
+        totalFare *= referenceMultiplier(time);
+        totalFare = switch (trainClass) {
+            case _1A -> totalFare * 1.08;
+            case _2A -> totalFare * 1.03;
+            case _3A -> totalFare * 1.01;
+            default -> totalFare;
+        };
+        totalFare = Math.max(totalFare, MINIMUM_FARE.get(trainClass));
+
+        return Math.round(totalFare / 5) * 5;
+    }
+
+    private static double referenceMultiplier(LocalDateTime time) {
+        int hour = time.getHour();
+        if (time.getDayOfWeek().getValue() >= 6) {
+            return 1.20;
+        } else if (hour >= 6 && hour <= 10) {
+            return 1.15;
+        } else if (hour >= 17 && hour <= 21) {
+            return 1.10;
+        } else if (hour >= 22 || hour <= 5) {
+            return 0.95;
+        }
+        return 1.0;
+    }
+}
@@ -0,0 +1,100 @@
+package trainapp.service;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import trainapp.QueryCounter;
+import trainapp.TestDatabase;
+import trainapp.TestDatabase.Fixture;
+import trainapp.dao.EntityCache;
+import trainapp.service.MyBookingsService.DetailedBookingInfo;
+import trainapp.service.MyBookingsService.MyBookingsResult;
+import trainapp.util.PnrGenerator;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that loading the My Bookings page costs the same number of statements however many
+ * bookings the user has, and that every booking gets its related rows. Needs a scratch
+ * database and runs with the integration tests; see {@link TestDatabase}.
+ */
+@Tag(TestDatabase.INTEGRATION)
+class MyBookingsServiceTest {
+
+    private final MyBookingsService service = new MyBookingsService();
+
+    @BeforeAll
+    static void requireDatabase() {
+        TestDatabase.require();
+    }
+
+    @Test
+    void pageLoadsInAConstantNumberOfStatements() throws SQLException {
+        Fixture fixture = TestDatabase.reset(Map.of("SL", 500));
+        int fewBookingsUser = fixture.userId();
+        int manyBookingsUser = TestDatabase.insert(
+                "INSERT INTO users (name, email, phone, password_hash) VALUES (?, ?, ?, ?)",
+                "Frequent Traveller", "frequent-" + System.nanoTime() + "@example.com", "8888888888", "x");
+        insertBookings(fixture, fewBookingsUser, 2);
+        insertBookings(fixture, manyBookingsUser, 120);
+
+        // First call creates the DAO tables and indexes; cached rows are dropped before each count
+        service.getAllBookings(fewBookingsUser);
+
+        int fewStatements = countStatements(fewBookingsUser, 2);
+        int manyStatements = countStatements(manyBookingsUser, 120);
+
+        assertTrue(QueryCounter.isInstalled(), "QueryCounter must be loaded before the first connection opens");
+        assertEquals(fewStatements, manyStatements, "statements must not grow with the number of bookings");
+        // Bookings, then one batch each for trains, stations, passengers, payments and journeys
+        assertTrue(manyStatements <= 6, manyStatements + " statements");
+    }
+
+    private int countStatements(int userId, int expectedBookings) {
+        EntityCache.invalidateAll();
+        QueryCounter.reset();
+        MyBookingsResult result = service.getAllBookings(userId);
+        int statements = QueryCounter.count();
+
+        assertTrue(result.isSuccess(), result.getMessage());
+        assertEquals(expectedBookings, result.getBookings().size());
+        for (DetailedBookingInfo info : result.getBookings()) {
+            assertNotNull(info.getTrain());
+            assertNotNull(info.getFromStation());
+            assertNotNull(info.getToStation());
+            assertNotNull(info.getJourney());
+            assertNotNull(info.getPayment());
+            assertEquals(2, info.getPassengers().size());
+        }
+        return statements;
+    }
+
+    /**
+     * Adds bookings with two passengers and a payment each, between varying stations.
+     */
+    private static void insertBookings(Fixture fixture, int userId, int count) throws SQLException {
+        int[] stations = fixture.stationIds();
+        for (int i = 0; i < count; i++) {
+            int from = i % (TestDatabase.STOPS - 1);
+            long bookingId = TestDatabase.insert("""
+                            INSERT INTO bookings (user_id, journey_id, train_id, source_station_id, dest_station_id,
+                                                  booking_time, total_fare, status, pnr)
+                            VALUES (?, ?, ?, ?, ?, ?, ?, 'conformed', ?)
+                            """,
+                    userId, fixture.journeyId(), fixture.trainId(), stations[from], stations[TestDatabase.STOPS - 1],
+                    LocalDateTime.now().minusMinutes(i), 450.0, PnrGenerator.getInstance().nextPnr());
+            for (int p = 0; p < 2; p++) {
+                TestDatabase.insert("INSERT INTO passengers (booking_id, name, age, gender, seat_number, coach_type) "
+                        + "VALUES (?, ?, ?, ?, ?, ?)", bookingId, "Passenger " + p, 30, "Male", null, "SL");
+            }
+            TestDatabase.insert("INSERT INTO payments (booking_id, method, transaction_id, amount, status, provider) "
+                    + "VALUES (?, ?, ?, ?, ?, ?)", bookingId, "UPI", "txn" + bookingId, 450.0, "SUCCESS", "razorpay");
+        }
+    }
+}
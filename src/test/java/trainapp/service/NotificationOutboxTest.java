@@ -0,0 +1,223 @@
+package trainapp.service;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import trainapp.FakeSmtpServer;
+import trainapp.TestDatabase;
+import trainapp.TestDatabase.Fixture;
+import trainapp.dao.BookingDAO;
+import trainapp.dao.NotificationOutboxDAO;
+import trainapp.model.Payment;
+import trainapp.util.DBConnection;
+import trainapp.util.PnrGenerator;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * End-to-end tests of booking confirmations through the notification outbox: the booking
+ * transaction queues the message, the dispatcher and pipeline email it to a
+ * {@link FakeSmtpServer}, and the outbox row records the outcome. Needs a scratch database
+ * and runs with the integration tests; see {@link TestDatabase}.
+ */
+@Tag(TestDatabase.INTEGRATION)
+class NotificationOutboxTest {
+
+    private static final long TIMEOUT_MILLIS = 30_000;
+
+    private static FakeSmtpServer smtpServer;
+
+    private final BookingDAO bookingDAO = new BookingDAO();
+    private Fixture fixture;
+    private String userEmail;
+
+    @BeforeAll
+    static void startServers() throws Exception {
+        TestDatabase.require();
+        smtpServer = new FakeSmtpServer();
+        // Read once when EmailService is loaded, i.e. by the first pipeline
+        System.setProperty("trainapp.smtp.host", "localhost");
+        System.setProperty("trainapp.smtp.port", String.valueOf(smtpServer.getPort()));
+        System.setProperty("trainapp.smtp.starttls", "false");
+    }
+
+    @AfterAll
+    static void stopServers() {
+        NotificationOutboxDispatcher.shutdown();
+        ConfirmationPipeline.shutdown();
+        if (smtpServer != null) {
+            smtpServer.close();
+        }
+    }
+
+    @BeforeEach
+    void seed() throws SQLException {
+        smtpServer.setRejectRecipients(false);
+        fixture = TestDatabase.reset(Map.of("SL", 60));
+        userEmail = queryString("SELECT email FROM users WHERE user_id = ?", fixture.userId());
+    }
+
+    @Test
+    void confirmationIsQueuedWithTheBookingAndMarkedDeliveredOnceSent() throws Exception {
+        String pnr = PnrGenerator.getInstance().nextPnr();
+        long bookingId = insertWaitingBooking(pnr);
+
+        assertTrue(bookingDAO.confirmBooking(bookingId, payment(bookingId), NotificationOutboxDispatcher.BOOKING_CONFIRMATION));
+        assertEquals(1, TestDatabase.queryLong("SELECT COUNT(*) FROM notification_outbox WHERE booking_id = ?", bookingId));
+        // Only a waiting booking is confirmed; a second confirmation queues nothing
+        assertFalse(bookingDAO.confirmBooking(bookingId, payment(bookingId), NotificationOutboxDispatcher.BOOKING_CONFIRMATION));
+        assertEquals(1, TestDatabase.queryLong("SELECT COUNT(*) FROM notification_outbox WHERE booking_id = ?", bookingId));
+
+        NotificationOutboxDispatcher.getInstance().wake();
+        awaitOutboxStatus(bookingId, "delivered");
+
+        assertEquals(1, messagesFor(pnr).size());
+        assertEquals(List.of(userEmail), messagesFor(pnr).get(0).recipients());
+        assertEquals(1, TestDatabase.queryLong(
+                "SELECT COUNT(*) FROM notifications WHERE booking_id = ? AND email_sent = TRUE", bookingId));
+    }
+
+    @Test
+    void failedEmailIsRetriedLaterAndSentOnce() throws Exception {
+        String pnr = PnrGenerator.getInstance().nextPnr();
+        long bookingId = insertWaitingBooking(pnr);
+        smtpServer.setRejectRecipients(true);
+
+        assertTrue(bookingDAO.confirmBooking(bookingId, payment(bookingId), NotificationOutboxDispatcher.BOOKING_CONFIRMATION));
+        NotificationOutboxDispatcher.getInstance().wake();
+        awaitCondition("the failed attempt to be recorded", () -> TestDatabase.queryLong(
+                "SELECT COUNT(*) FROM notification_outbox WHERE booking_id = ? AND attempts = 1", bookingId) == 1);
+
+        assertEquals("pending", queryString("SELECT status FROM notification_outbox WHERE booking_id = ?", bookingId));
+        assertEquals(1, TestDatabase.queryLong("SELECT COUNT(*) FROM notification_outbox "
+                + "WHERE booking_id = ? AND next_attempt_at > NOW() AND last_error IS NOT NULL", bookingId));
+        assertEquals(0, TestDatabase.queryLong("SELECT COUNT(*) FROM notifications WHERE booking_id = ?", bookingId));
+        assertTrue(messagesFor(pnr).isEmpty());
+
+        // The server recovers and the backoff is over
+        smtpServer.setRejectRecipients(false);
+        execute("UPDATE notification_outbox SET next_attempt_at = NOW() WHERE booking_id = ?", bookingId);
+        NotificationOutboxDispatcher.getInstance().wake();
+        awaitOutboxStatus(bookingId, "delivered");
+
+        assertEquals(1, messagesFor(pnr).size());
+        assertEquals(2, TestDatabase.queryLong("SELECT attempts FROM notification_outbox WHERE booking_id = ?", bookingId));
+    }
+
+    @Test
+    void messagesOfACrashedWorkerAreSentOnceTheirLeaseRunsOut() throws Exception {
+        // Both were claimed by a process that stopped before sending; one lease has run out
+        String expiredPnr = PnrGenerator.getInstance().nextPnr();
+        long expiredBooking = insertConfirmedBookingWithClaim(expiredPnr, "NOW() - INTERVAL 1 MINUTE");
+        String leasedPnr = PnrGenerator.getInstance().nextPnr();
+        long leasedBooking = insertConfirmedBookingWithClaim(leasedPnr, "NOW() + INTERVAL 1 HOUR");
+
+        NotificationOutboxDispatcher.getInstance().wake();
+        awaitOutboxStatus(expiredBooking, "delivered");
+
+        assertEquals(1, messagesFor(expiredPnr).size());
+        assertTrue(messagesFor(leasedPnr).isEmpty());
+        assertEquals("pending", queryString("SELECT status FROM notification_outbox WHERE booking_id = ?", leasedBooking));
+    }
+
+    // -------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------
+
+    private long insertWaitingBooking(String pnr) throws SQLException {
+        return insertBooking(pnr, "waiting");
+    }
+
+    private long insertConfirmedBookingWithClaim(String pnr, String claimedUntil) throws SQLException {
+        long bookingId = insertBooking(pnr, "conformed");
+        NotificationOutboxDAO.ensureTable();
+        execute("INSERT INTO notification_outbox (booking_id, message_type, claim_token, claimed_until) "
+                        + "VALUES (?, ?, 'crashed-worker', " + claimedUntil + ")",
+                bookingId, NotificationOutboxDispatcher.BOOKING_CONFIRMATION);
+        return bookingId;
+    }
+
+    private long insertBooking(String pnr, String status) throws SQLException {
+        int[] stations = fixture.stationIds();
+        long bookingId = TestDatabase.insert("""
+                        INSERT INTO bookings (user_id, journey_id, train_id, source_station_id, dest_station_id,
+                                              booking_time, total_fare, status, pnr)
+                        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+                        """,
+                fixture.userId(), fixture.journeyId(), fixture.trainId(), stations[0], stations[TestDatabase.STOPS - 1],
+                LocalDateTime.now(), 780.0, status, pnr);
+        TestDatabase.insert("INSERT INTO passengers (booking_id, name, age, gender, seat_number, coach_type) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", bookingId, "Asha", 34, "Female", "S1-12", "SL");
+        return bookingId;
+    }
+
+    private static Payment payment(long bookingId) {
+        Payment payment = new Payment();
+        payment.setBookingId(bookingId);
+        payment.setMethod("UPI");
+        payment.setTransactionId("pay_" + bookingId);
+        payment.setAmount(780.0);
+        payment.setStatus("SUCCESS");
+        payment.setProvider("razorpay");
+        payment.setPaymentTime(LocalDateTime.now());
+        return payment;
+    }
+
+    private static List<FakeSmtpServer.Received> messagesFor(String pnr) {
+        return smtpServer.getMessages().stream().filter(m -> m.data().contains(pnr)).toList();
+    }
+
+    private static void awaitOutboxStatus(long bookingId, String status) throws Exception {
+        awaitCondition("outbox message of booking " + bookingId + " to be " + status, () -> status.equals(
+                queryString("SELECT status FROM notification_outbox WHERE booking_id = ?", bookingId)));
+    }
+
+    private interface Condition {
+        boolean holds() throws Exception;
+    }
+
+    private static void awaitCondition(String description, Condition condition) throws Exception {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!condition.holds()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Timed out waiting for " + description);
+            }
+            Thread.sleep(100);
+        }
+    }
+
+    private static String queryString(String sql, Object... params) throws SQLException {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) {
+                stmt.setObject(i + 1, params[i]);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        }
+    }
+
+    private static void execute(String sql, Object... params) throws SQLException {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) {
+                stmt.setObject(i + 1, params[i]);
+            }
+            stmt.executeUpdate();
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package trainapp.service;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import trainapp.TestDatabase;
+import trainapp.TestDatabase.Fixture;
+import trainapp.dao.JourneyDAO;
+import trainapp.model.Booking;
+import trainapp.model.Passenger;
+import trainapp.service.CoachLayout.BerthType;
+import trainapp.util.DBConnection;
+import trainapp.util.PnrGenerator;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Hammers one journey with bookings from many threads and checks that no seat is sold twice
+ * and the stored availability matches the passengers actually booked. Needs a scratch
+ * database and runs with the integration tests; see {@link TestDatabase}.
+ */
+@Tag(TestDatabase.INTEGRATION)
+class SeatAllocationConcurrencyTest {
+
+    private static final int THREADS = 16;
+
+    private final SeatAllocationService allocation = SeatAllocationService.getInstance();
+
+    @BeforeAll
+    static void requireDatabase() {
+        TestDatabase.require();
+    }
+
+    @Test
+    void fullRouteBookingsNeverOversell() throws Exception {
+        Fixture fixture = TestDatabase.reset(Map.of("3A", 20));
+        int[] stations = fixture.stationIds();
+        AtomicInteger bookedSeats = new AtomicInteger();
+        AtomicInteger soldOut = new AtomicInteger();
+
+        runConcurrently(THREADS * 4, random -> {
+            int count = random.nextInt(1, 4);
+            long bookingId = allocation.book(newBooking(fixture, stations[0], stations[TestDatabase.STOPS - 1]),
+                    passengers("3A", count), Collections.nCopies(count, (BerthType) null));
+            if (bookingId > 0) {
+                bookedSeats.addAndGet(count);
+            } else {
+                assertEquals(SeatAllocationService.NO_SEATS, bookingId);
+                soldOut.incrementAndGet();
+            }
+        });
+
+        assertTrue(bookedSeats.get() <= 20, "sold " + bookedSeats.get() + " of 20 seats");
+        assertTrue(soldOut.get() > 0, "demand should exceed the seats");
+        assertEquals(bookedSeats.get(), TestDatabase.queryLong(
+                "SELECT COUNT(*) FROM passengers p JOIN bookings b ON b.booking_id = p.booking_id WHERE b.journey_id = ?",
+                fixture.journeyId()));
+        assertEquals(bookedSeats.get(), TestDatabase.queryLong(
+                "SELECT COUNT(DISTINCT p.seat_number) FROM passengers p JOIN bookings b ON b.booking_id = p.booking_id "
+                        + "WHERE b.journey_id = ?", fixture.journeyId()));
+        assertEquals(20 - bookedSeats.get(), availableSeats(fixture).get("3A"));
+    }
+
+    @Test
+    void segmentBookingsAndReleasesNeverShareASeatLeg() throws Exception {
+        Map<String, Integer> capacity = Map.of("SL", 40, "3A", 12);
+        Fixture fixture = TestDatabase.reset(capacity);
+        int[] stations = fixture.stationIds();
+
+        runConcurrently(THREADS * 15, random -> {
+            int from = random.nextInt(0, TestDatabase.STOPS - 1);
+            int to = random.nextInt(from + 1, TestDatabase.STOPS);
+            String seatClass = random.nextBoolean() ? "SL" : "3A";
+            int count = random.nextInt(1, 4);
+            long bookingId = allocation.book(newBooking(fixture, stations[from], stations[to]),
+                    passengers(seatClass, count), Collections.nCopies(count, (BerthType) null));
+            if (bookingId > 0 && random.nextInt(3) == 0) {
+                assertTrue(allocation.release(bookingId, fixture.journeyId()));
+            }
+        });
+
+        // Every berth is held by at most one active passenger on each leg
+        Map<String, Set<String>> berthsInUse = new HashMap<>();
+        Set<String> legsInUse = new HashSet<>();
+        String sql = """
+                SELECT p.coach_type, p.seat_number, b.source_station_id, b.dest_station_id
+                FROM passengers p JOIN bookings b ON b.booking_id = p.booking_id
+                WHERE b.journey_id = ? AND b.status <> 'cancelled'
+                """;
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setLong(1, fixture.journeyId());
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    String berth = rs.getString(1) + "/" + rs.getString(2);
+                    berthsInUse.computeIfAbsent(rs.getString(1), k -> new HashSet<>()).add(berth);
+                    for (int leg = indexOf(stations, rs.getInt(3)); leg < indexOf(stations, rs.getInt(4)); leg++) {
+                        assertTrue(legsInUse.add(berth + "/" + leg), berth + " sold twice on leg " + leg);
+                    }
+                }
+            }
+        }
+
+        // Availability counts the berths that are free on the whole route
+        Map<String, Integer> available = availableSeats(fixture);
+        for (Map.Entry<String, Integer> seatClass : capacity.entrySet()) {
+            int used = berthsInUse.getOrDefault(seatClass.getKey(), Set.of()).size();
+            assertEquals(seatClass.getValue() - used, available.get(seatClass.getKey()), seatClass.getKey());
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------
+
+    private interface Attempt {
+        void run(ThreadLocalRandom random) throws Exception;
+    }
+
+    /**
+     * Runs the attempts on {@link #THREADS} threads that all start together.
+     */
+    private static void runConcurrently(int attempts, Attempt attempt) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int i = 0; i < attempts; i++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    attempt.run(ThreadLocalRandom.current());
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static Booking newBooking(Fixture fixture, int fromStationId, int toStationId) {
+        Booking booking = new Booking();
+        booking.setUserId(fixture.userId());
+        booking.setJourneyId(fixture.journeyId());
+        booking.setTrainId(fixture.trainId());
+        booking.setSourceStationId(fromStationId);
+        booking.setDestStationId(toStationId);
+        booking.setTotalFare(500);
+        booking.setStatus("waiting");
+        booking.setPnr(PnrGenerator.getInstance().nextPnr());
+        booking.setBookingTime(LocalDateTime.now());
+        return booking;
+    }
+
+    private static List<Passenger> passengers(String seatClass, int count) {
+        List<Passenger> passengers = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Passenger passenger = new Passenger();
+            passenger.setName("Passenger " + i);
+            passenger.setAge(30);
+            passenger.setGender("Female");
+            passenger.setCoachType(seatClass);
+            passengers.add(passenger);
+        }
+        return passengers;
+    }
+
+    private static Map<String, Integer> availableSeats(Fixture fixture) {
+        return new JourneyDAO().getJourneyById(fixture.journeyId()).getAvailableSeatsMap();
+    }
+
+    private static int indexOf(int[] stations, int stationId) {
+        for (int i = 0; i < stations.length; i++) {
+            if (stations[i] == stationId) {
+                return i;
+            }
+        }
+        throw new AssertionError("Unknown station " + stationId);
+    }
+}
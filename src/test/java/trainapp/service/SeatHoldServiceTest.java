@@ -0,0 +1,218 @@
+package trainapp.service;
+
+import org.junit.jupiter.api.Test;
+import trainapp.dao.BookingDAO;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link SeatHoldService}, driven by a clock the test moves and {@link
+ * SeatHoldService#reapExpired()} instead of the reaper thread. Seat release and the booking
+ * lookup are replaced by fakes, so no database is needed.
+ */
+class SeatHoldServiceTest {
+
+    private static final Duration TTL = Duration.ofMinutes(10);
+
+    /** Clock the test moves by hand */
+    private static final class ManualClock extends Clock {
+        private volatile Instant now = Instant.parse("2026-10-16T10:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /** Records released bookings by journey instead of writing to the database */
+    private static final class RecordingAllocation extends SeatAllocationService {
+        final Map<Long, Long> released = new ConcurrentHashMap<>();
+        final AtomicInteger releases = new AtomicInteger();
+
+        RecordingAllocation() {
+            super(null, null, null, null);
+        }
+
+        @Override
+        public boolean release(long bookingId, long journeyId) {
+            releases.incrementAndGet();
+            released.put(bookingId, journeyId);
+            return true;
+        }
+    }
+
+    /** Returns a fixed set of waiting bookings and remembers the cutoff it was asked for */
+    private static final class WaitingBookings extends BookingDAO {
+        final Map<Long, Long> waiting;
+        volatile LocalDateTime askedBefore;
+
+        WaitingBookings(Map<Long, Long> waiting) {
+            this.waiting = waiting;
+        }
+
+        @Override
+        public Map<Long, Long> getWaitingBookingsBefore(LocalDateTime bookedBefore) {
+            askedBefore = bookedBefore;
+            return waiting;
+        }
+    }
+
+    private final ManualClock clock = new ManualClock();
+    private final RecordingAllocation allocation = new RecordingAllocation();
+
+    private SeatHoldService newService(BookingDAO bookingDAO) {
+        return new SeatHoldService(allocation, bookingDAO, clock, TTL);
+    }
+
+    // -------------------------------------------------------------------------
+    // Expiry
+    // -------------------------------------------------------------------------
+
+    @Test
+    void holdsExpireOnlyOnceTheirTimeIsUp() {
+        SeatHoldService holds = newService(new WaitingBookings(Map.of()));
+        holds.activate(1, 10, "SL", 2);
+        assertEquals(clock.instant().plus(TTL), holds.getHoldExpiry(1));
+
+        clock.advance(TTL.minusSeconds(1));
+        assertEquals(0, holds.reapExpired());
+        assertTrue(allocation.released.isEmpty());
+
+        clock.advance(Duration.ofSeconds(2));
+        assertEquals(1, holds.reapExpired());
+        assertEquals(Map.of(1L, 10L), allocation.released);
+        assertNull(holds.getHoldExpiry(1));
+
+        clock.advance(TTL);
+        assertEquals(0, holds.reapExpired());
+        assertEquals(1, allocation.releases.get());
+        assertEquals(new SeatHoldService.HoldStats(0, 1, 0, 0, 1), holds.getStats());
+    }
+
+    @Test
+    void confirmedHoldsKeepTheirSeats() {
+        SeatHoldService holds = newService(new WaitingBookings(Map.of()));
+        holds.activate(1, 10, "SL", 2);
+        clock.advance(TTL.dividedBy(2));
+
+        assertTrue(holds.confirm(1));
+        assertFalse(holds.confirm(1));
+
+        clock.advance(TTL);
+        assertEquals(0, holds.reapExpired());
+        assertEquals(0, allocation.releases.get());
+        assertEquals(new SeatHoldService.HoldStats(0, 1, 1, 0, 0), holds.getStats());
+    }
+
+    @Test
+    void releasedHoldsFreeTheirSeatsRightAway() {
+        SeatHoldService holds = newService(new WaitingBookings(Map.of()));
+        holds.activate(1, 10, "SL", 2);
+        holds.activate(2, 10, "3A", 1);
+
+        assertTrue(holds.release(1));
+        assertFalse(holds.release(1));
+        assertEquals(Map.of(1L, 10L), allocation.released);
+        assertFalse(holds.confirm(1));
+
+        clock.advance(TTL.plusSeconds(2));
+        assertEquals(1, holds.reapExpired());
+        assertEquals(2, allocation.releases.get());
+        assertEquals(new SeatHoldService.HoldStats(0, 2, 0, 1, 1), holds.getStats());
+    }
+
+    @Test
+    void confirmAndExpiryNeverBothActOnAHold() throws Exception {
+        SeatHoldService holds = newService(new WaitingBookings(Map.of()));
+        int count = 5_000;
+        for (long id = 0; id < count; id++) {
+            holds.activate(id, 10, "SL", 1);
+        }
+        clock.advance(TTL.plusSeconds(2));
+
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger confirmed = new AtomicInteger();
+        Thread payer = new Thread(() -> {
+            try {
+                start.await();
+            } catch (InterruptedException e) {
+                return;
+            }
+            for (long id = count - 1; id >= 0; id--) {
+                if (holds.confirm(id)) {
+                    confirmed.incrementAndGet();
+                }
+            }
+        });
+        payer.start();
+        start.countDown();
+        int expired = holds.reapExpired();
+        payer.join();
+
+        assertEquals(count, confirmed.get() + expired);
+        assertEquals(expired, allocation.releases.get());
+        for (long id = 0; id < count; id++) {
+            assertNull(holds.getHoldExpiry(id));
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Restart sweep
+    // -------------------------------------------------------------------------
+
+    @Test
+    void bookingsLeftWaitingByAnEarlierRunAreReleased() {
+        WaitingBookings waiting = new WaitingBookings(Map.of(1L, 10L, 2L, 20L, 3L, 30L));
+        SeatHoldService holds = newService(waiting);
+        holds.activate(2, 20, "SL", 1); // Still held here; expires through the wheel
+
+        assertEquals(2, holds.releaseAbandoned());
+        assertEquals(Map.of(1L, 10L, 3L, 30L), allocation.released);
+        assertEquals(LocalDateTime.ofInstant(clock.instant().minus(TTL), ZoneId.systemDefault()),
+                waiting.askedBefore);
+        assertEquals(2, holds.getStats().released());
+        assertEquals(1, holds.getStats().active());
+    }
+
+    @Test
+    void bookingsThatCannotBeReleasedAreNotCounted() {
+        SeatAllocationService failing = new SeatAllocationService(null, null, null, null) {
+            @Override
+            public boolean release(long bookingId, long journeyId) {
+                return false;
+            }
+        };
+        SeatHoldService holds = new SeatHoldService(failing,
+                new WaitingBookings(Map.of(1L, 10L)), clock, TTL);
+        assertEquals(0, holds.releaseAbandoned());
+        assertEquals(0, holds.getStats().released());
+    }
+}
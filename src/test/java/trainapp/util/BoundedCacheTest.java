@@ -0,0 +1,260 @@
+package trainapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link BoundedCache}: segmented LRU eviction, expiry and invalidation, including
+ * loads that race an invalidation.
+ */
+class BoundedCacheTest {
+
+    private static final Duration LONG_TTL = Duration.ofHours(1);
+
+    /** Loader that returns the key's name and counts its calls */
+    private static final class CountingLoader implements Function<Integer, String> {
+        final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public String apply(Integer key) {
+            calls.incrementAndGet();
+            return "v" + key;
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Eviction
+    // -------------------------------------------------------------------------
+
+    @Test
+    void neverHoldsMoreThanItsCapacity() {
+        BoundedCache<Integer, String> cache = new BoundedCache<>("test", 10, LONG_TTL);
+        CountingLoader loader = new CountingLoader();
+        for (int key = 0; key < 100; key++) {
+            cache.get(key, loader);
+            cache.get(key % 7, loader);
+        }
+        BoundedCache.CacheStats stats = cache.getStats();
+        assertEquals(10, stats.size());
+        assertEquals(stats.misses() - 10, stats.evictions());
+    }
+
+    @Test
+    void evictsTheOldestEntryReadOnlyOnce() {
+        BoundedCache<Integer, String> cache = new BoundedCache<>("test", 3, LONG_TTL);
+        CountingLoader loader = new CountingLoader();
+        cache.get(1, loader);
+        cache.get(2, loader);
+        cache.get(3, loader);
+        cache.get(4, loader); // Evicts 1
+
+        assertEquals("v2", cache.get(2, loader));
+        assertEquals(4, loader.calls.get());
+        cache.get(1, loader);
+        assertEquals(5, loader.calls.get());
+    }
+
+    @Test
+    void entriesReadAgainSurviveAScanOfOneOffKeys() {
+        BoundedCache<Integer, String> cache = new BoundedCache<>("test", 10, LONG_TTL);
+        CountingLoader loader = new CountingLoader();
+        for (int key = 0; key < 5; key++) {
+            cache.get(key, loader);
+            cache.get(key, loader); // Promoted to the protected segment
+        }
+        for (int key = 100; key < 200; key++) {
+            cache.get(key, loader);
+        }
+
+        int before = loader.calls.get();
+        for (int key = 0; key < 5; key++) {
+            assertEquals("v" + key, cache.get(key, loader));
+        }
+        assertEquals(before, loader.calls.get());
+    }
+
+    @Test
+    void protectedOverflowDropsBackToProbation() {
+        // Capacity 5 leaves 4 protected slots
+        BoundedCache<Integer, String> cache = new BoundedCache<>("test", 5, LONG_TTL);
+        CountingLoader loader = new CountingLoader();
+        for (int key = 1; key <= 5; key++) {
+            cache.get(key, loader);
+            cache.get(key, loader);
+        }
+        // Key 1 was demoted to probation when key 5 was promoted, so it is evicted first
+        cache.get(6, loader);
+        int before = loader.calls.get();
+        cache.get(1, loader);
+        assertEquals(before + 1, loader.calls.get());
+        for (int key = 3; key <= 5; key++) {
+            cache.get(key, loader);
+        }
+        assertEquals(before + 1, loader.calls.get());
+    }
+
+    @Test
+    void rejectsAnEmptyCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new BoundedCache<>("test", 0, LONG_TTL));
+    }
+
+    // -------------------------------------------------------------------------
+    // Expiry and nulls
+    // -------------------------------------------------------------------------
+
+    @Test
+    void expiredEntriesAreReloaded() {
+        BoundedCache<Integer, String> cache = new BoundedCache<>("test", 10, Duration.ZERO);
+        CountingLoader loader = new CountingLoader();
+        cache.get(1, loader);
+        cache.get(1, loader);
+        cache.get(1, loader);
+
+        assertEquals(3, loader.calls.get());
+        BoundedCache.CacheStats stats = cache.getStats();
+        assertEquals(0, stats.hits());
+        assertEquals(3, stats.misses());
+        assertEquals(2, stats.expirations());
+    }
+
+    @Test
+    void entriesWithinTheirTtlAreHits() throws InterruptedException {
+        BoundedCache<Integer, String> cache = new BoundedCache<>("test", 10, Duration.ofMillis(200));
+        CountingLoader loader = new CountingLoader();
+        cache.get(1, loader);
+        assertEquals("v1", cache.get(1, loader));
+        assertEquals(1, loader.calls.get());
+
+        Thread.sleep(250);
+        cache.get(1, loader);
+        assertEquals(2, loader.calls.get());
+        assertEquals(1, cache.getStats().expirations());
+    }
+
+    @Test
+    void nullResultsAreNotCached() {
+        BoundedCache<Integer, String> cache = new BoundedCache<>("test", 10, LONG_TTL);
+        AtomicInteger calls = new AtomicInteger();
+        assertNull(cache.get(1, key -> {
+            calls.incrementAndGet();
+            return null;
+        }));
+        assertNull(cache.get(1, key -> {
+            calls.incrementAndGet();
+            return null;
+        }));
+        assertEquals(2, calls.get());
+        assertEquals(0, cache.getStats().size());
+    }
+
+    @Test
+    void getAllLoadsOnlyTheMissingKeys() {
+        BoundedCache<Integer, String> cache = new BoundedCache<>("test", 10, LONG_TTL);
+        cache.get(1, key -> "v1");
+
+        List<Integer> requested = new ArrayList<>();
+        Map<Integer, String> values = cache.getAll(List.of(1, 2, 3, 2), missing -> {
+            requested.addAll(missing);
+            Map<Integer, String> loaded = new HashMap<>();
+            loaded.put(2, "v2"); // 3 is left out
+            return loaded;
+        });
+
+        assertEquals(List.of(2, 3), requested);
+        assertEquals(Map.of(1, "v1", 2, "v2"), values);
+        assertEquals(2, cache.getStats().size());
+    }
+
+    // -------------------------------------------------------------------------
+    // Invalidation
+    // -------------------------------------------------------------------------
+
+    @Test
+    void invalidatedEntriesAreReloaded() {
+        BoundedCache<Integer, String> cache = new BoundedCache<>("test", 10, LONG_TTL);
+        CountingLoader loader = new CountingLoader();
+        for (int key = 1; key <= 6; key++) {
+            cache.get(key, loader);
+        }
+        cache.get(2, loader); // Protected
+
+        cache.invalidate(1);
+        cache.invalidate(2);
+        cache.invalidateIf(value -> value.equals("v3"));
+        assertEquals(3, cache.getStats().invalidations());
+        assertEquals(3, cache.getStats().size());
+
+        int before = loader.calls.get();
+        cache.get(1, loader);
+        cache.get(2, loader);
+        cache.get(3, loader);
+        cache.get(4, loader);
+        assertEquals(before + 3, loader.calls.get());
+
+        cache.invalidateAll();
+        assertEquals(0, cache.getStats().size());
+    }
+
+    @Test
+    void aLoadOverlappingAnInvalidationIsReturnedButNotCached() {
+        BoundedCache<Integer, String> cache = new BoundedCache<>("test", 10, LONG_TTL);
+        String value = cache.get(1, key -> {
+            cache.invalidate(key); // A writer changes the row while it is being read
+            return "stale";
+        });
+
+        assertEquals("stale", value);
+        assertEquals("fresh", cache.get(1, key -> "fresh"));
+    }
+
+    @Test
+    void aBatchLoadOverlappingAnInvalidationIsNotCached() {
+        BoundedCache<Integer, String> cache = new BoundedCache<>("test", 10, LONG_TTL);
+        Map<Integer, String> values = cache.getAll(List.of(1, 2), missing -> {
+            cache.invalidateIf(v -> true);
+            return Map.of(1, "stale1", 2, "stale2");
+        });
+
+        assertEquals(Map.of(1, "stale1", 2, "stale2"), values);
+        assertEquals(0, cache.getStats().size());
+    }
+
+    @Test
+    void invalidationFromAnotherThreadDuringALoadWins() throws Exception {
+        BoundedCache<Integer, String> cache = new BoundedCache<>("test", 10, LONG_TTL);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch written = new CountDownLatch(1);
+
+        CompletableFuture<String> reader = CompletableFuture.supplyAsync(() -> cache.get(1, key -> {
+            loading.countDown();
+            try {
+                assertTrue(written.await(5, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "stale";
+        }));
+
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        cache.invalidate(1);
+        written.countDown();
+
+        assertEquals("stale", reader.get(5, TimeUnit.SECONDS));
+        assertEquals("fresh", cache.get(1, key -> "fresh"));
+    }
+}
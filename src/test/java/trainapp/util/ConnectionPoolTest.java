@@ -0,0 +1,356 @@
+package trainapp.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link ConnectionPool} against an in-memory H2 database: the size bound, borrow
+ * timeouts, leak detection, idle eviction and the state reset on return. Connections are
+ * opened through {@link GatedDriver}, which counts them and can hold one back while it opens.
+ */
+class ConnectionPoolTest {
+
+    private static final String URL = "jdbc:gated:mem:pool_test;DB_CLOSE_DELAY=-1";
+
+    private ConnectionPool pool;
+
+    @BeforeAll
+    static void registerDriver() throws SQLException {
+        DriverManager.registerDriver(GatedDriver.INSTANCE);
+        try (Connection conn = DriverManager.getConnection("jdbc:h2:mem:pool_test;DB_CLOSE_DELAY=-1", "sa", "");
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS items (id INT PRIMARY KEY)");
+        }
+    }
+
+    @AfterEach
+    void shutdownPool() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+        GatedDriver.INSTANCE.reset();
+    }
+
+    @Test
+    void neverOpensMoreThanMaxSizeUnderContention() throws Exception {
+        pool = newPool(3, 0, 10_000, 60_000, 0);
+        AtomicInteger held = new AtomicInteger();
+        AtomicInteger maxHeld = new AtomicInteger();
+
+        ExecutorService borrowers = Executors.newFixedThreadPool(12);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int t = 0; t < 12; t++) {
+                results.add(borrowers.submit(() -> {
+                    for (int i = 0; i < 20; i++) {
+                        try (Connection conn = pool.getConnection()) {
+                            maxHeld.accumulateAndGet(held.incrementAndGet(), Math::max);
+                            query(conn, "SELECT 1");
+                            Thread.sleep(1);
+                            held.decrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            borrowers.shutdownNow();
+        }
+
+        assertTrue(maxHeld.get() <= 3, maxHeld.get() + " connections held at once");
+        assertTrue(GatedDriver.INSTANCE.opened() <= 3, GatedDriver.INSTANCE.opened() + " connections opened");
+        ConnectionPool.PoolStats stats = pool.getStats();
+        assertEquals(240, stats.borrows());
+        assertEquals(0, stats.active());
+        assertEquals(0, stats.timeouts());
+    }
+
+    @Test
+    void topUpDoesNotOpenPastMaxSizeWhileABorrowerIsStillConnecting() throws Exception {
+        pool = newPool(1, 1, 10_000, 60_000, 0);
+        CountDownLatch connecting = GatedDriver.INSTANCE.holdNextConnect();
+
+        ExecutorService borrower = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> borrowed = borrower.submit(() -> {
+                try (Connection conn = pool.getConnection()) {
+                    query(conn, "SELECT 1");
+                }
+                return null;
+            });
+            assertTrue(connecting.await(10, TimeUnit.SECONDS));
+
+            // The borrower holds the only permit and has no connection yet
+            pool.housekeep();
+            assertEquals(1, GatedDriver.INSTANCE.opened());
+
+            GatedDriver.INSTANCE.releaseHeldConnect();
+            borrowed.get(10, TimeUnit.SECONDS);
+        } finally {
+            borrower.shutdownNow();
+        }
+
+        pool.housekeep();
+        assertEquals(1, GatedDriver.INSTANCE.opened());
+        assertEquals(1, pool.getIdleCount());
+    }
+
+    @Test
+    void topUpFillsMinIdleWithinMaxSize() throws Exception {
+        pool = newPool(3, 2, 10_000, 60_000, 0);
+        pool.housekeep();
+        assertEquals(2, pool.getIdleCount());
+
+        // With two lent out, only one more fits
+        Connection first = pool.getConnection();
+        Connection second = pool.getConnection();
+        pool.housekeep();
+        assertEquals(3, GatedDriver.INSTANCE.opened());
+        assertEquals(1, pool.getIdleCount());
+        first.close();
+        second.close();
+        assertEquals(3, pool.getIdleCount());
+    }
+
+    @Test
+    void borrowTimesOutWhileEveryConnectionIsLentOut() throws Exception {
+        pool = newPool(1, 0, 100, 60_000, 0);
+        try (Connection held = pool.getConnection()) {
+            long start = System.nanoTime();
+            SQLException e = assertThrows(SQLException.class, pool::getConnection);
+            long waitedMillis = (System.nanoTime() - start) / 1_000_000;
+
+            assertTrue(e.getMessage().startsWith("Timed out"), e.getMessage());
+            assertTrue(waitedMillis >= 90, waitedMillis + " ms");
+            assertFalse(held.isClosed());
+        }
+        assertEquals(1, pool.getStats().timeouts());
+        // The timed out borrower did not keep a permit
+        try (Connection conn = pool.getConnection()) {
+            query(conn, "SELECT 1");
+        }
+    }
+
+    @Test
+    void connectionsHeldPastTheThresholdAreReportedOnce() throws Exception {
+        pool = newPool(2, 0, 1_000, 60_000, 50);
+        try (Connection leaked = pool.getConnection()) {
+            pool.getConnection().close();
+            Thread.sleep(100);
+            pool.housekeep();
+            assertEquals(1, pool.getStats().leaks());
+
+            pool.housekeep();
+            assertEquals(1, pool.getStats().leaks());
+        }
+        pool.housekeep();
+        assertEquals(1, pool.getStats().leaks());
+    }
+
+    @Test
+    void idleConnectionsPastTheTimeoutAreEvictedDownToMinIdle() throws Exception {
+        pool = newPool(4, 1, 1_000, 50, 0);
+        List<Connection> borrowed = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            borrowed.add(pool.getConnection());
+        }
+        for (Connection conn : borrowed) {
+            conn.close();
+        }
+        assertEquals(4, pool.getIdleCount());
+
+        Thread.sleep(100);
+        pool.housekeep();
+
+        assertEquals(1, pool.getIdleCount());
+        assertEquals(3, pool.getStats().evicted());
+        assertEquals(3, GatedDriver.INSTANCE.closed());
+    }
+
+    @Test
+    void returnRollsBackAndRestoresAutoCommit() throws Exception {
+        pool = newPool(1, 0, 1_000, 60_000, 0);
+        try (Connection conn = pool.getConnection()) {
+            conn.setAutoCommit(false);
+            try (Statement stmt = conn.createStatement()) {
+                stmt.executeUpdate("INSERT INTO items (id) VALUES (1)");
+            }
+            conn.setReadOnly(true);
+            // Returned mid-transaction
+        }
+
+        try (Connection conn = pool.getConnection()) {
+            assertEquals(1, GatedDriver.INSTANCE.opened(), "the same physical connection is reused");
+            assertTrue(conn.getAutoCommit());
+            assertFalse(conn.isReadOnly());
+            assertEquals(0, query(conn, "SELECT COUNT(*) FROM items"));
+        }
+    }
+
+    @Test
+    void aReturnedHandleCannotBeUsedAgain() throws Exception {
+        pool = newPool(1, 0, 1_000, 60_000, 0);
+        Connection stale = pool.getConnection();
+        stale.close();
+        stale.close();
+
+        assertTrue(stale.isClosed());
+        assertThrows(SQLException.class, stale::createStatement);
+        try (Connection conn = pool.getConnection()) {
+            assertFalse(conn.isClosed());
+            assertEquals(0, pool.getIdleCount());
+        }
+    }
+
+    private static ConnectionPool newPool(int maxSize, int minIdle, long borrowTimeoutMillis,
+                                          long idleTimeoutMillis, long leakThresholdMillis) {
+        return new ConnectionPool(URL, "sa", "", maxSize, minIdle, borrowTimeoutMillis, idleTimeoutMillis,
+                leakThresholdMillis);
+    }
+
+    private static long query(Connection conn, String sql) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    /**
+     * Opens {@code jdbc:gated:} URLs as H2 {@code jdbc:h2:} connections, counting opened and
+     * closed physical connections. {@link #holdNextConnect()} makes the next connect wait
+     * until {@link #releaseHeldConnect()}, like a slow database handshake.
+     */
+    static final class GatedDriver implements Driver {
+
+        static final GatedDriver INSTANCE = new GatedDriver();
+
+        private static final String PREFIX = "jdbc:gated:";
+
+        private final AtomicInteger opened = new AtomicInteger();
+        private final AtomicInteger closed = new AtomicInteger();
+        private volatile CountDownLatch connecting;
+        private volatile CountDownLatch gate;
+
+        int opened() {
+            return opened.get();
+        }
+
+        int closed() {
+            return closed.get();
+        }
+
+        /**
+         * Holds back the next connect.
+         *
+         * @return counted down once that connect has started
+         */
+        CountDownLatch holdNextConnect() {
+            connecting = new CountDownLatch(1);
+            gate = new CountDownLatch(1);
+            return connecting;
+        }
+
+        void releaseHeldConnect() {
+            gate.countDown();
+        }
+
+        void reset() {
+            opened.set(0);
+            closed.set(0);
+            connecting = null;
+            gate = null;
+        }
+
+        @Override
+        public Connection connect(String url, Properties info) throws SQLException {
+            if (!acceptsURL(url)) {
+                return null;
+            }
+            opened.incrementAndGet();
+            CountDownLatch started = connecting;
+            CountDownLatch wait = gate;
+            if (started != null && started.getCount() > 0) {
+                started.countDown();
+                try {
+                    wait.await(30, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new SQLException("Interrupted while connecting", e);
+                }
+            }
+            Connection physical = DriverManager.getConnection("jdbc:h2:" + url.substring(PREFIX.length()), info);
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                        if (method.getName().equals("close") && !physical.isClosed()) {
+                            closed.incrementAndGet();
+                        }
+                        try {
+                            return method.invoke(physical, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+        }
+
+        @Override
+        public boolean acceptsURL(String url) {
+            return url != null && url.startsWith(PREFIX);
+        }
+
+        @Override
+        public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+            return new DriverPropertyInfo[0];
+        }
+
+        @Override
+        public int getMajorVersion() {
+            return 1;
+        }
+
+        @Override
+        public int getMinorVersion() {
+            return 0;
+        }
+
+        @Override
+        public boolean jdbcCompliant() {
+            return false;
+        }
+
+        @Override
+        public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+            throw new SQLFeatureNotSupportedException();
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package trainapp.util;
+
+import org.junit.jupiter.api.Test;
+import trainapp.dao.PnrNodeDAO;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link PnrGenerator}: uniqueness across threads and nodes, behaviour when the clock
+ * stalls or goes back, node leasing, and the check character.
+ */
+class PnrGeneratorTest {
+
+    private static final String ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ";
+    private static final Instant NOW = Instant.parse("2026-10-16T10:00:00Z");
+
+    /** Clock the test moves by hand */
+    private static final class ManualClock extends Clock {
+        volatile long millis = NOW.toEpochMilli();
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private static int nodeOf(long id) {
+        return (int) (id >>> 10) & (PnrGenerator.MAX_NODES - 1);
+    }
+
+    // -------------------------------------------------------------------------
+    // Uniqueness
+    // -------------------------------------------------------------------------
+
+    @Test
+    void threadsNeverReceiveTheSameId() throws Exception {
+        PnrGenerator generator = new PnrGenerator(Clock.systemUTC(), 0);
+        int threads = 8;
+        int perThread = 50_000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<long[]>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                results.add(pool.submit(() -> {
+                    long[] ids = new long[perThread];
+                    for (int i = 0; i < perThread; i++) {
+                        ids[i] = generator.nextId();
+                    }
+                    return ids;
+                }));
+            }
+            Set<Long> seen = new HashSet<>();
+            for (Future<long[]> result : results) {
+                long[] ids = result.get();
+                for (int i = 0; i < ids.length; i++) {
+                    assertTrue(seen.add(ids[i]), "duplicate id " + ids[i]);
+                    if (i > 0) {
+                        assertTrue(ids[i] > ids[i - 1], "ids of one thread must increase");
+                    }
+                }
+            }
+            assertEquals(threads * perThread, seen.size());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void nodesNeverIssueTheSameIdAtTheSameTime() {
+        Clock fixed = Clock.fixed(NOW, ZoneOffset.UTC);
+        Set<String> seen = new HashSet<>();
+        for (int node = 0; node < PnrGenerator.MAX_NODES; node++) {
+            PnrGenerator generator = new PnrGenerator(fixed, node);
+            // Several milliseconds' worth of sequence, so the sequence carries into the time
+            for (int i = 0; i < 3_000; i++) {
+                long id = generator.nextId();
+                assertEquals(node, nodeOf(id));
+                assertTrue(seen.add(PnrGenerator.encode(id)));
+            }
+        }
+    }
+
+    @Test
+    void aClockGoingBackDoesNotRepeatIds() {
+        ManualClock clock = new ManualClock();
+        PnrGenerator generator = new PnrGenerator(clock, 5);
+        Set<Long> seen = new HashSet<>();
+        long last = -1;
+        for (int step = 0; step < 200; step++) {
+            clock.millis += (step % 3 == 0) ? -7 : 5;
+            for (int i = 0; i < 50; i++) {
+                long id = generator.nextId();
+                assertTrue(seen.add(id));
+                assertTrue(id > last);
+                last = id;
+            }
+        }
+    }
+
+    @Test
+    void rejectsNodesOutsideTheLayout() {
+        assertThrows(IllegalArgumentException.class, () -> new PnrGenerator(Clock.systemUTC(), -1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new PnrGenerator(Clock.systemUTC(), PnrGenerator.MAX_NODES));
+    }
+
+    // -------------------------------------------------------------------------
+    // Node lease
+    // -------------------------------------------------------------------------
+
+    @Test
+    void failsWhenNoNodeCanBeLeased() {
+        PnrNodeDAO noFreeNode = new PnrNodeDAO() {
+            @Override
+            public int claim(String holder, int maxNodes, Duration lease) {
+                return -1;
+            }
+        };
+        assertThrows(IllegalStateException.class, () -> PnrGenerator.leased(noFreeNode));
+    }
+
+    @Test
+    void issuesAsTheLeasedNode() {
+        PnrNodeDAO nodeThree = new PnrNodeDAO() {
+            @Override
+            public int claim(String holder, int maxNodes, Duration lease) {
+                assertEquals(PnrGenerator.MAX_NODES, maxNodes);
+                return 3;
+            }
+        };
+        PnrGenerator generator = PnrGenerator.leased(nodeThree);
+        assertEquals(3, nodeOf(generator.nextId()));
+    }
+
+    // -------------------------------------------------------------------------
+    // Check character
+    // -------------------------------------------------------------------------
+
+    @Test
+    void issuedPnrsAreWellFormed() {
+        PnrGenerator generator = new PnrGenerator(Clock.systemUTC(), 7);
+        for (int i = 0; i < 10_000; i++) {
+            String pnr = generator.nextPnr();
+            assertEquals(PnrGenerator.PNR_LENGTH, pnr.length());
+            assertTrue(PnrGenerator.isWellFormed(pnr), pnr);
+            assertTrue(PnrGenerator.isWellFormed(pnr.toLowerCase()), pnr);
+        }
+    }
+
+    @Test
+    void everySingleMistypedCharacterIsCaught() {
+        PnrGenerator generator = new PnrGenerator(Clock.systemUTC(), 1);
+        for (int n = 0; n < 200; n++) {
+            char[] pnr = generator.nextPnr().toCharArray();
+            for (int i = 0; i < pnr.length; i++) {
+                char original = pnr[i];
+                for (char c : ALPHABET.toCharArray()) {
+                    if (c == original) {
+                        continue;
+                    }
+                    pnr[i] = c;
+                    assertFalse(PnrGenerator.isWellFormed(new String(pnr)), new String(pnr));
+                }
+                pnr[i] = original;
+            }
+        }
+    }
+
+    @Test
+    void checkCharacterFollowsLuhnModThirtyTwo() {
+        // Payload 0000000000 1: the last payload character is doubled, 2 * 1 = 2, check (32 - 2) % 32 = 30
+        assertEquals("00000000001Y", PnrGenerator.encode(1));
+        assertEquals("000000000000", PnrGenerator.encode(0));
+        // Doubling 31 gives 62, folded to 1 + 30 = 31, check 1
+        assertEquals("0000000000Z1", PnrGenerator.encode(31));
+    }
+
+    @Test
+    void rejectsMalformedInput() {
+        assertFalse(PnrGenerator.isWellFormed(null));
+        assertFalse(PnrGenerator.isWellFormed(""));
+        assertFalse(PnrGenerator.isWellFormed("00000000001"));
+        assertFalse(PnrGenerator.isWellFormed("00000000001Y0"));
+        assertFalse(PnrGenerator.isWellFormed("0000000000IY"));
+        assertFalse(PnrGenerator.isWellFormed("00000000001X"));
+        assertTrue(PnrGenerator.isWellFormed("PNR1234567"));
+        assertTrue(PnrGenerator.isWellFormed("pnr42"));
+        assertFalse(PnrGenerator.isWellFormed("PNR12345678"));
+    }
+}
@@ -0,0 +1,185 @@
+package trainapp.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import trainapp.FakeSmtpServer;
+
+import javax.mail.Authenticator;
+import javax.mail.Message;
+import javax.mail.MessagingException;
+import javax.mail.PasswordAuthentication;
+import javax.mail.SendFailedException;
+import javax.mail.Session;
+import javax.mail.internet.InternetAddress;
+import javax.mail.internet.MimeMessage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link SmtpTransportPool} against a {@link FakeSmtpServer}: connection reuse,
+ * the size bound, recycling, reconnects and timeouts.
+ */
+class SmtpTransportPoolTest {
+
+    private FakeSmtpServer server;
+    private Session session;
+    private SmtpTransportPool pool;
+
+    @BeforeEach
+    void startServer() throws Exception {
+        server = new FakeSmtpServer();
+        Properties props = new Properties();
+        props.put("mail.smtp.host", "localhost");
+        props.put("mail.smtp.port", String.valueOf(server.getPort()));
+        props.put("mail.smtp.auth", "true");
+        props.put("mail.smtp.connectiontimeout", "5000");
+        props.put("mail.smtp.timeout", "5000");
+        session = Session.getInstance(props, new Authenticator() {
+            @Override
+            protected PasswordAuthentication getPasswordAuthentication() {
+                return new PasswordAuthentication("sender@example.com", "secret");
+            }
+        });
+    }
+
+    @AfterEach
+    void stopServer() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+        server.close();
+    }
+
+    @Test
+    void sendsManyMessagesOverOneAuthenticatedConnection() throws Exception {
+        pool = new SmtpTransportPool(session, 3, 1_000, 60_000, 100);
+        for (int i = 0; i < 20; i++) {
+            pool.send(message("user" + i + "@example.com"));
+        }
+
+        assertEquals(20, server.getMessages().size());
+        assertEquals(1, server.getConnectionCount());
+        assertEquals(1, server.getLoginCount());
+        SmtpTransportPool.TransportStats stats = pool.getStats();
+        assertEquals(1, stats.handshakes());
+        assertEquals(20, stats.sends());
+        assertEquals(0, stats.active());
+        assertEquals(1, stats.idle());
+    }
+
+    @Test
+    void neverOpensMoreConnectionsThanItsSize() throws Exception {
+        pool = new SmtpTransportPool(session, 2, 10_000, 60_000, 100);
+        server.setDataDelayMillis(20);
+        ExecutorService senders = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int sender = t;
+                results.add(senders.submit(() -> {
+                    for (int i = 0; i < 5; i++) {
+                        pool.send(message("s" + sender + "-" + i + "@example.com"));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            senders.shutdownNow();
+        }
+
+        assertEquals(40, server.getMessages().size());
+        assertTrue(server.getMaxOpenSessions() <= 2, server.getMaxOpenSessions() + " sessions");
+        assertTrue(pool.getStats().handshakes() <= 2);
+    }
+
+    @Test
+    void replacesConnectionsAfterTheirMessageLimit() throws Exception {
+        pool = new SmtpTransportPool(session, 1, 1_000, 60_000, 3);
+        for (int i = 0; i < 7; i++) {
+            pool.send(message("user" + i + "@example.com"));
+        }
+
+        assertEquals(7, server.getMessages().size());
+        assertEquals(3, server.getConnectionCount());
+        assertEquals(2, pool.getStats().closed());
+    }
+
+    @Test
+    void retriesOnANewConnectionWhenTheServerDroppedTheOldOne() throws Exception {
+        pool = new SmtpTransportPool(session, 1, 1_000, 60_000, 100);
+        pool.send(message("first@example.com"));
+        server.dropConnections();
+
+        pool.send(message("second@example.com"));
+
+        assertEquals(2, server.getMessages().size());
+        assertEquals(2, server.getConnectionCount());
+        assertEquals(1, pool.getStats().reconnects());
+    }
+
+    @Test
+    void rejectedRecipientsAreNotRetried() throws Exception {
+        pool = new SmtpTransportPool(session, 1, 1_000, 60_000, 100);
+        pool.send(message("first@example.com"));
+        server.setRejectRecipients(true);
+
+        assertThrows(SendFailedException.class, () -> pool.send(message("unknown@example.com")));
+
+        SmtpTransportPool.TransportStats stats = pool.getStats();
+        assertEquals(0, stats.reconnects());
+        assertEquals(1, stats.sendFailures());
+        assertEquals(1, server.getMessages().size());
+    }
+
+    @Test
+    void sendersTimeOutWhileEveryConnectionIsBusy() throws Exception {
+        pool = new SmtpTransportPool(session, 1, 100, 60_000, 100);
+        server.setDataDelayMillis(1_000);
+        CompletableFuture<Void> slowSend = CompletableFuture.runAsync(() -> {
+            try {
+                pool.send(message("slow@example.com"));
+            } catch (MessagingException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(200);
+
+        assertThrows(MessagingException.class, () -> pool.send(message("waiting@example.com")));
+        slowSend.get(10, TimeUnit.SECONDS);
+        assertEquals(1, pool.getStats().timeouts());
+        assertEquals(1, server.getMessages().size());
+    }
+
+    @Test
+    void refusesToSendAfterShutdown() throws Exception {
+        pool = new SmtpTransportPool(session, 1, 1_000, 60_000, 100);
+        pool.send(message("first@example.com"));
+        pool.shutdown();
+
+        assertEquals(0, pool.getStats().idle());
+        assertThrows(MessagingException.class, () -> pool.send(message("late@example.com")));
+    }
+
+    private Message message(String to) throws MessagingException {
+        Message message = new MimeMessage(session);
+        message.setFrom(new InternetAddress("sender@example.com"));
+        message.setRecipients(Message.RecipientType.TO, InternetAddress.parse(to));
+        message.setSubject("Test");
+        message.setText("Hello " + to);
+        return message;
+    }
+}
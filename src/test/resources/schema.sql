@@ -0,0 +1,104 @@
+-- Core tables the application expects to exist, for running the database tests against a
+-- scratch database, with the changes of the scripts in src/main/resources/db/migration
+-- already applied. Tables the DAOs create themselves on first use (notification_outbox,
+-- journey_seat_maps, pnr_nodes, dashboard_counters) are not listed here.
+
+CREATE TABLE IF NOT EXISTS users (
+    user_id INT AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(100) NOT NULL,
+    email VARCHAR(150) NOT NULL UNIQUE,
+    phone VARCHAR(20),
+    password_hash VARCHAR(255) NOT NULL,
+    created_at DATETIME DEFAULT CURRENT_TIMESTAMP,
+    last_login DATETIME NULL
+);
+
+CREATE TABLE IF NOT EXISTS stations (
+    station_id INT AUTO_INCREMENT PRIMARY KEY,
+    station_code VARCHAR(10) NOT NULL UNIQUE,
+    name VARCHAR(100) NOT NULL,
+    city VARCHAR(100),
+    state VARCHAR(100)
+);
+
+CREATE TABLE IF NOT EXISTS trains (
+    train_id INT AUTO_INCREMENT PRIMARY KEY,
+    train_number VARCHAR(10) NOT NULL UNIQUE,
+    name VARCHAR(100) NOT NULL,
+    source_station_id INT NOT NULL,
+    destination_station_id INT NOT NULL,
+    total_coaches INT NOT NULL,
+    FOREIGN KEY (source_station_id) REFERENCES stations(station_id),
+    FOREIGN KEY (destination_station_id) REFERENCES stations(station_id)
+);
+
+CREATE TABLE IF NOT EXISTS train_schedule (
+    schedule_id INT AUTO_INCREMENT PRIMARY KEY,
+    train_id INT NOT NULL,
+    station_id INT NOT NULL,
+    arrival_time TIME NULL,
+    departure_time TIME NULL,
+    day_number INT NOT NULL DEFAULT 1,
+    sequence_order INT NOT NULL,
+    FOREIGN KEY (train_id) REFERENCES trains(train_id) ON DELETE CASCADE,
+    FOREIGN KEY (station_id) REFERENCES stations(station_id)
+);
+
+CREATE TABLE IF NOT EXISTS journeys (
+    journey_id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    train_id INT NOT NULL,
+    departure_date DATE NOT NULL,
+    available_seats JSON NOT NULL,
+    UNIQUE KEY uq_journeys_train_date (train_id, departure_date),
+    FOREIGN KEY (train_id) REFERENCES trains(train_id) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS bookings (
+    booking_id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id INT NOT NULL,
+    journey_id BIGINT NOT NULL,
+    train_id INT NOT NULL,
+    source_station_id INT NOT NULL,
+    dest_station_id INT NOT NULL,
+    booking_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    total_fare DECIMAL(10, 2) NOT NULL,
+    status ENUM('waiting', 'conformed', 'cancelled') NOT NULL DEFAULT 'waiting',
+    pnr VARCHAR(12) NOT NULL UNIQUE,
+    INDEX idx_bookings_time (booking_time, booking_id),
+    INDEX idx_bookings_status_time (status, booking_time, booking_id),
+    FOREIGN KEY (user_id) REFERENCES users(user_id),
+    FOREIGN KEY (journey_id) REFERENCES journeys(journey_id),
+    FOREIGN KEY (train_id) REFERENCES trains(train_id)
+);
+
+CREATE TABLE IF NOT EXISTS passengers (
+    passenger_id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    booking_id BIGINT NOT NULL,
+    name VARCHAR(100) NOT NULL,
+    age INT NOT NULL,
+    gender VARCHAR(10) NOT NULL,
+    seat_number VARCHAR(10),
+    coach_type VARCHAR(10) NOT NULL,
+    FOREIGN KEY (booking_id) REFERENCES bookings(booking_id) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS payments (
+    payment_id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    booking_id BIGINT NOT NULL,
+    method VARCHAR(20),
+    transaction_id VARCHAR(100),
+    amount DECIMAL(10, 2) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    provider VARCHAR(50),
+    payment_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (booking_id) REFERENCES bookings(booking_id) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS notifications (
+    notification_id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    booking_id BIGINT NOT NULL,
+    email_sent BOOLEAN NOT NULL DEFAULT FALSE,
+    sms_sent BOOLEAN NOT NULL DEFAULT FALSE,
+    sent_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (booking_id) REFERENCES bookings(booking_id) ON DELETE CASCADE
+);